@@ -0,0 +1,51 @@
+package de.morrigan.dev.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet die Benchmarks dieses Moduls und schreibt die Ergebnisse im JSON Format in eine Datei, so dass die Ergebnisse
+ * verschiedener Releases miteinander verglichen werden können. Der {@link GCProfiler} ist immer aktiv, damit die
+ * Ergebnisse auch die Allokationen je Aufruf ({@code gc.alloc.rate.norm}) enthalten.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                                   = alle Benchmarks, Ergebnis in jmh-result.json
+ * java -jar target/benchmarks.jar result.json                       = alle Benchmarks, Ergebnis in result.json
+ * java -jar target/benchmarks.jar result.json BitUtil FontManager   = nur die passenden Benchmarks
+ * </pre>
+ *
+ * @author morrigan
+ */
+public class BenchmarkRunner {
+
+  /** Datei, in die die Ergebnisse geschrieben werden, falls keine angegeben wird */
+  public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  /**
+   * @param args optional die Ergebnisdatei gefolgt von regulären Ausdrücken für die auszuführenden Benchmarks
+   * @throws RunnerException falls die Benchmarks nicht ausgeführt werden können
+   */
+  public static void main(String[] args) throws RunnerException {
+    String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile)
+        .addProfiler(GCProfiler.class);
+    if (args.length > 1) {
+      for (int i = 1; i < args.length; i++) {
+        options.include(args[i]);
+      }
+    } else {
+      options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+    }
+    new Runner(options.build()).run();
+  }
+
+  private BenchmarkRunner() {
+    super();
+  }
+}
@@ -0,0 +1,99 @@
+package de.morrigan.dev.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.MessageFormatter;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.BinaryLogger;
+import de.morrigan.dev.utils.logging.LogLevel;
+import de.morrigan.dev.utils.logging.LogSink;
+import de.morrigan.dev.utils.logging.StructuredLogger;
+
+/**
+ * Vergleicht das Loggen derselben Meldung als Binärformat über den {@link BinaryLogger}, als JSON über den
+ * {@link StructuredLogger} und als mit SLF4J formatierten Text. Die Zeilen werden vom {@link LogSink} verworfen, damit
+ * nur die Kosten im aufrufenden Thread gemessen werden.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryLoggerBenchmark {
+
+  private static final class DiscardingSink implements LogSink {
+
+    @Override
+    public void write(ByteBuffer batch) {
+      batch.position(batch.limit());
+    }
+
+    @Override
+    public void flush() {
+      // nichts zu tun
+    }
+
+    @Override
+    public void close() {
+      // nichts zu tun
+    }
+  }
+
+  private static final String TEMPLATE = "Image {} scaled to {}x{} in {} ms";
+
+  private AsyncAppender binaryAppender;
+  private AsyncAppender textAppender;
+  private BinaryLogger binaryLogger;
+  private StructuredLogger structuredLogger;
+  private long next;
+
+  @Setup
+  public void setup() {
+    this.binaryAppender = new AsyncAppender.Builder(new DiscardingSink()).build();
+    this.textAppender = new AsyncAppender.Builder(new DiscardingSink()).build();
+    this.binaryLogger = new BinaryLogger(this.binaryAppender, LogLevel.INFO);
+    this.structuredLogger = new StructuredLogger("benchmark", LogLevel.INFO, this.textAppender);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.binaryAppender.close();
+    this.textAppender.close();
+  }
+
+  @Benchmark
+  public boolean binaryEvent() {
+    long value = this.next++;
+    return this.binaryLogger.info(TEMPLATE).arg("background").arg(640).arg(480).arg(value).log();
+  }
+
+  @Benchmark
+  public boolean structuredEvent() {
+    long value = this.next++;
+    return this.structuredLogger.info("image scaled").kv("image", "background").kv("width", 640).kv("height", 480)
+        .kv("millis", value).log();
+  }
+
+  @Benchmark
+  public boolean formattedText() {
+    long value = this.next++;
+    return this.textAppender.append(
+        MessageFormatter.arrayFormat(TEMPLATE, new Object[] { "background", 640, 480, value }).getMessage() + "\n");
+  }
+}
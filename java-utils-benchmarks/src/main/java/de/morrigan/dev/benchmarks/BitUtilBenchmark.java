@@ -0,0 +1,54 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.BitUtil;
+
+/**
+ * Benchmarks für die Bitoperationen aus {@link BitUtil}.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitUtilBenchmark {
+
+  // Nicht final, damit der JIT die Werte nicht als Konstanten einsetzen kann
+  private long value = 0x5555_5555_5555_5555L;
+  private long mask = 0x0F0F_0F0F_0F0F_0F0FL;
+  private int position = 42;
+
+  @Benchmark
+  public long setLongBit() {
+    return BitUtil.setLongBit(this.position);
+  }
+
+  @Benchmark
+  public long removeLongBit() {
+    return BitUtil.removeLongBit(this.value, this.position);
+  }
+
+  @Benchmark
+  public long removeLongBitsByMask() {
+    return BitUtil.removeLongBitsByMask(this.value, this.mask);
+  }
+
+  @Benchmark
+  public long setAllBits() {
+    return BitUtil.setAllBits();
+  }
+}
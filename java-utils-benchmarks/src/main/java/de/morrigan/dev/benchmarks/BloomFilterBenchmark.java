@@ -0,0 +1,61 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.BloomFilter;
+
+/**
+ * Benchmarks für {@link BloomFilter}. Über den GC Profiler des {@link BenchmarkRunner} ist zu sehen, dass das Hinzufügen
+ * und Prüfen ohne Allokationen auskommt.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomFilterBenchmark {
+
+  private static final int EXPECTED_INSERTIONS = 1_000_000;
+
+  private final BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, 0.01);
+  private final StringBuilder key = new StringBuilder("key-");
+  private long next;
+
+  @Setup
+  public void setup() {
+    for (long i = 0; i < EXPECTED_INSERTIONS; i += 2) {
+      this.filter.put(i);
+    }
+  }
+
+  @Benchmark
+  public boolean putLong() {
+    return this.filter.put(this.next++ % EXPECTED_INSERTIONS);
+  }
+
+  @Benchmark
+  public boolean mightContainLong() {
+    return this.filter.mightContain(this.next++ % EXPECTED_INSERTIONS);
+  }
+
+  @Benchmark
+  public boolean mightContainCharSequence() {
+    this.key.setLength(4);
+    this.key.append(this.next++ % EXPECTED_INSERTIONS);
+    return this.filter.mightContain(this.key);
+  }
+}
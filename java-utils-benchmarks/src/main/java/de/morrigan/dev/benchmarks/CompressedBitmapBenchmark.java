@@ -0,0 +1,159 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.CompressedBitmap;
+
+/**
+ * Vergleicht {@link CompressedBitmap} mit {@link BitSet} für dünn besetzte ({@code sparse}) und für geclusterte
+ * ({@code clustered}) Werte. Geclusterte Werte werden als Bereiche über {@link CompressedBitmap#add(int, int)} bzw.
+ * {@link BitSet#set(int, int)} eingefügt, wobei sich viele Bereiche einen Block teilen.
+ * <p>
+ * Der Speicherbedarf beider Verteilungen im Vergleich zum {@link BitSet} wird im {@code CompressedBitmapTest} geprüft.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressedBitmapBenchmark {
+
+  /** Größter möglicher Wert der Testdaten */
+  private static final int MAX_VALUE = 200_000_000;
+  /** Länge eines Bereichs bei geclusterten Werten */
+  private static final int RANGE_LENGTH = 32;
+  /** Jeder wievielte Wert ist bei geclusterten Werten ungefähr gesetzt */
+  private static final int CLUSTER_SPREAD = 8;
+
+  /** Anzahl der Testwerte */
+  @Param({ "10000", "100000" })
+  public int count;
+
+  /** Verteilung der Testwerte */
+  @Param({ "sparse", "clustered" })
+  public String distribution;
+
+  private boolean clustered;
+  private int[] values;
+  private int[] otherValues;
+  private int[] probes;
+  private CompressedBitmap bitmap;
+  private CompressedBitmap otherBitmap;
+  private BitSet bitSet;
+  private BitSet otherBitSet;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    this.clustered = "clustered".equals(this.distribution);
+    this.values = createValues(random);
+    this.otherValues = createValues(random);
+    this.probes = random.ints(1024, 0, this.clustered ? this.count * CLUSTER_SPREAD : MAX_VALUE).toArray();
+    this.bitmap = build(new CompressedBitmap(), this.values);
+    this.bitSet = build(new BitSet(), this.values);
+    this.otherBitmap = build(new CompressedBitmap(), this.otherValues);
+    this.otherBitSet = build(new BitSet(), this.otherValues);
+  }
+
+  @Benchmark
+  public CompressedBitmap buildCompressedBitmap() {
+    return build(new CompressedBitmap(), this.values);
+  }
+
+  @Benchmark
+  public BitSet buildBitSet() {
+    return build(new BitSet(), this.values);
+  }
+
+  @Benchmark
+  public int containsCompressedBitmap() {
+    int result = 0;
+    for (int probe : this.probes) {
+      result += this.bitmap.contains(probe) ? 1 : 0;
+    }
+    return result;
+  }
+
+  @Benchmark
+  public int containsBitSet() {
+    int result = 0;
+    for (int probe : this.probes) {
+      result += this.bitSet.get(probe) ? 1 : 0;
+    }
+    return result;
+  }
+
+  @Benchmark
+  public CompressedBitmap orCompressedBitmap() {
+    return CompressedBitmap.or(this.bitmap, this.otherBitmap);
+  }
+
+  @Benchmark
+  public BitSet orBitSet() {
+    BitSet result = (BitSet) this.bitSet.clone();
+    result.or(this.otherBitSet);
+    return result;
+  }
+
+  @Benchmark
+  public CompressedBitmap andCompressedBitmap() {
+    return CompressedBitmap.and(this.bitmap, this.otherBitmap);
+  }
+
+  @Benchmark
+  public BitSet andBitSet() {
+    BitSet result = (BitSet) this.bitSet.clone();
+    result.and(this.otherBitSet);
+    return result;
+  }
+
+  /**
+   * @return sortierte Einzelwerte bzw. Startwerte der Bereiche
+   */
+  private int[] createValues(Random random) {
+    if (this.clustered) {
+      int bound = this.count * CLUSTER_SPREAD - RANGE_LENGTH;
+      return random.ints(this.count / RANGE_LENGTH, 0, bound).sorted().toArray();
+    }
+    return random.ints(this.count, 0, MAX_VALUE).sorted().toArray();
+  }
+
+  private CompressedBitmap build(CompressedBitmap result, int[] source) {
+    for (int value : source) {
+      if (this.clustered) {
+        result.add(value, value + RANGE_LENGTH);
+      } else {
+        result.add(value);
+      }
+    }
+    return result;
+  }
+
+  private BitSet build(BitSet result, int[] source) {
+    for (int value : source) {
+      if (this.clustered) {
+        result.set(value, value + RANGE_LENGTH);
+      } else {
+        result.set(value);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,58 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.ConcurrentBitSet;
+
+/**
+ * Vergleicht {@link ConcurrentBitSet} mit einem synchronisierten {@link BitSet}, wenn mehrere Threads gleichzeitig Bits
+ * beanspruchen.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentBitSetBenchmark {
+
+  private static final int NUM_BITS = 1 << 20;
+
+  private final ConcurrentBitSet concurrentBitSet = new ConcurrentBitSet(NUM_BITS);
+  private final BitSet bitSet = new BitSet(NUM_BITS);
+
+  @Benchmark
+  public boolean testAndSetConcurrentBitSet() {
+    int index = ThreadLocalRandom.current().nextInt(NUM_BITS);
+    return this.concurrentBitSet.testAndClear(index) || this.concurrentBitSet.testAndSet(index);
+  }
+
+  @Benchmark
+  public boolean testAndSetSynchronizedBitSet() {
+    int index = ThreadLocalRandom.current().nextInt(NUM_BITS);
+    synchronized (this.bitSet) {
+      if (this.bitSet.get(index)) {
+        this.bitSet.clear(index);
+        return true;
+      }
+      this.bitSet.set(index);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package de.morrigan.dev.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.resources.ConfigManager;
+
+/**
+ * Benchmarks für den Zugriff auf Konfigurationen über den {@link ConfigManager}.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigManagerBenchmark {
+
+  private final ConfigManager configManager = ConfigManager.getInstance();
+
+  private String configKey = "serverMode";
+  private String configKeyWithParam = "command";
+  private String parameter = "/tmp";
+
+  @Setup
+  public void setup() throws IOException {
+    this.configManager.loadAllConfigsFromResources("config.properties");
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.configManager.clear();
+  }
+
+  @Benchmark
+  public String getConfig() {
+    return this.configManager.getConfig(this.configKey);
+  }
+
+  @Benchmark
+  public String getConfigWithParameter() {
+    return this.configManager.getConfig(this.configKeyWithParam, this.parameter);
+  }
+}
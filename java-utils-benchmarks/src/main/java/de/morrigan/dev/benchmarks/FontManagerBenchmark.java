@@ -0,0 +1,72 @@
+package de.morrigan.dev.benchmarks;
+
+import java.awt.Font;
+import java.awt.geom.AffineTransform;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.resources.FontManager;
+
+/**
+ * Benchmarks für den Abruf von Schriften über den {@link FontManager}, sowohl unverändert als auch mit abgeleiteter
+ * Größe, Stil und Transformation.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FontManagerBenchmark {
+
+  private final FontManager fontManager = FontManager.getInstance();
+
+  private String fontName = "menomonia";
+  private float size = 14f;
+  private int style = Font.BOLD;
+  private AffineTransform transform = AffineTransform.getRotateInstance(Math.PI / 4);
+
+  @Setup
+  public void setup() {
+    this.fontManager.loadAllFontsFromResources("font");
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.fontManager.clear();
+  }
+
+  @Benchmark
+  public Optional<Font> getFont() {
+    return this.fontManager.getFont(this.fontName);
+  }
+
+  @Benchmark
+  public Optional<Font> getFontWithSize() {
+    return this.fontManager.getFont(this.fontName, this.size);
+  }
+
+  @Benchmark
+  public Optional<Font> getFontWithSizeAndStyle() {
+    return this.fontManager.getFont(this.fontName, this.size, this.style);
+  }
+
+  @Benchmark
+  public Optional<Font> getFontWithSizeStyleAndTransform() {
+    return this.fontManager.getFont(this.fontName, this.size, this.style, this.transform);
+  }
+}
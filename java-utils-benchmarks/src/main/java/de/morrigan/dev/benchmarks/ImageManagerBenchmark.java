@@ -0,0 +1,59 @@
+package de.morrigan.dev.benchmarks;
+
+import java.awt.Image;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.resources.ImageManager;
+
+/**
+ * Benchmarks für den Abruf von Bildern über den {@link ImageManager}, sowohl in Originalgröße als auch skaliert.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageManagerBenchmark {
+
+  private final ImageManager imageManager = ImageManager.getInstance();
+
+  private String imageName = "97461-png";
+  private int width = 64;
+  private int height = 64;
+
+  @Setup
+  public void setup() {
+    this.imageManager.loadAllImagesFromResources("images");
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.imageManager.clear();
+  }
+
+  @Benchmark
+  public Optional<Image> getImage() {
+    return this.imageManager.getImage(this.imageName);
+  }
+
+  @Benchmark
+  public Optional<Image> getScaledImage() {
+    return this.imageManager.getImage(this.imageName, this.width, this.height);
+  }
+}
@@ -0,0 +1,66 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.resources.LanguageManager;
+import de.morrigan.dev.utils.resources.LanguageManager.LookupMode;
+
+/**
+ * Benchmarks für den Abruf von Nachrichten über den {@link LanguageManager} in allen {@link LookupMode}s.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageManagerBenchmark {
+
+  private final LanguageManager languageManager = LanguageManager.getInstance();
+
+  @Param({ "RESOURCE_BUNDLE", "STRING_TABLE" })
+  public LookupMode lookupMode;
+
+  private Locale locale = Locale.GERMANY;
+  private String messageKey = "helloMsg";
+  private String messageKeyWithParam = "helloMsgWithParam";
+  private String parameter = "Tom";
+
+  @Setup
+  public void setup() {
+    this.languageManager.setLookupMode(this.lookupMode);
+    this.languageManager.loadMessagesFromResources("language/messages", this.locale);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.languageManager.clear();
+    this.languageManager.setLookupMode(LookupMode.RESOURCE_BUNDLE);
+  }
+
+  @Benchmark
+  public String getMessage() {
+    return this.languageManager.getMessage(this.messageKey, this.locale);
+  }
+
+  @Benchmark
+  public String getMessageWithParameter() {
+    return this.languageManager.getMessage(this.messageKeyWithParam, this.locale, this.parameter);
+  }
+}
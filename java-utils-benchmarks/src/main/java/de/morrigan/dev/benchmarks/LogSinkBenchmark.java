@@ -0,0 +1,91 @@
+package de.morrigan.dev.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.logging.FileChannelSink;
+import de.morrigan.dev.utils.logging.MappedRollingFileSink;
+
+/**
+ * Vergleicht {@link MappedRollingFileSink} mit {@link FileChannelSink} beim Schreiben eines Batches aus Zeilen mit je
+ * 100 Bytes, wie ihn der Schreib-Thread eines {@code AsyncAppender} übergibt. Das Ergebnis ist die Zeit je Zeile.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogSinkBenchmark {
+
+  private static final int LINE_BYTES = 100;
+  private static final int LINES_PER_BATCH = 640;
+
+  private Path directory;
+  private ByteBuffer batch;
+  private FileChannelSink channelSink;
+  private MappedRollingFileSink mappedSink;
+
+  @Setup
+  public void setup() throws IOException {
+    this.directory = Files.createTempDirectory("log-sink-benchmark");
+    this.batch = ByteBuffer.allocateDirect(LINE_BYTES * LINES_PER_BATCH);
+    byte[] line = new byte[LINE_BYTES];
+    for (int i = 0; i < LINE_BYTES - 1; i++) {
+      line[i] = (byte) ('a' + i % 26);
+    }
+    line[LINE_BYTES - 1] = '\n';
+    for (int i = 0; i < LINES_PER_BATCH; i++) {
+      this.batch.put(line);
+    }
+    this.batch.flip();
+    this.channelSink = new FileChannelSink(this.directory.resolve("channel.log"));
+    // Die Aufbewahrung hält die Dateien klein genug für den Benchmark
+    this.mappedSink = new MappedRollingFileSink.Builder(this.directory, "mapped").maxTotalBytes(256L * 1024 * 1024)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.channelSink.close();
+    this.mappedSink.close();
+    try (Stream<Path> files = Files.walk(this.directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LINES_PER_BATCH)
+  public void fileChannelSink() throws IOException {
+    this.batch.rewind();
+    this.channelSink.write(this.batch);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LINES_PER_BATCH)
+  public void mappedRollingFileSink() throws IOException {
+    this.batch.rewind();
+    this.mappedSink.write(this.batch);
+  }
+}
@@ -0,0 +1,56 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+
+/**
+ * Misst die Kosten des Erfassens einer Metrik, wenn mehrere Threads dieselbe Metrik verwenden. Der {@link Counter}
+ * verteilt die Zugriffe auf mehrere Zellen, der Vorteil gegenüber einem einzelnen {@link AtomicLong} zeigt sich daher
+ * erst bei mehreren Kernen. Laut GC-Profiler legt keine der Varianten Objekte an.
+ *
+ * @author morrigan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsBenchmark {
+
+  private final MetricsRegistry registry = new MetricsRegistry();
+  private final Counter counter = this.registry.counter("benchmark.counter");
+  private final Histogram histogram = this.registry.histogram("benchmark.nanos");
+  private final AtomicLong atomic = new AtomicLong();
+
+  @Benchmark
+  public void counterIncrement() {
+    this.counter.increment();
+  }
+
+  @Benchmark
+  public long atomicIncrement() {
+    return this.atomic.incrementAndGet();
+  }
+
+  @Benchmark
+  public void histogramRecord() {
+    this.histogram.recordNanosSince(System.nanoTime() - 1_500);
+  }
+}
@@ -0,0 +1,84 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.PackedIntArray;
+
+/**
+ * Vergleicht das sequentielle Lesen aus einem {@link PackedIntArray} einzeln und blockweise mit einem {@code int[]}.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedIntArrayBenchmark {
+
+  private static final int SIZE = 1 << 20;
+
+  /** Anzahl der Bits je Wert */
+  @Param({ "3", "12", "20" })
+  public int bitsPerValue;
+
+  private int[] values;
+  private PackedIntArray packed;
+  private final int[] buffer = new int[256];
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    this.packed = new PackedIntArray(SIZE, this.bitsPerValue);
+    this.values = new int[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      this.values[i] = random.nextInt(this.packed.getMaxValue() + 1);
+      this.packed.set(i, this.values[i]);
+    }
+  }
+
+  @Benchmark
+  public long sumIntArray() {
+    long sum = 0;
+    for (int value : this.values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long sumPackedSingle() {
+    long sum = 0;
+    for (int i = 0; i < SIZE; i++) {
+      sum += this.packed.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long sumPackedBulk() {
+    long sum = 0;
+    for (int index = 0; index < SIZE;) {
+      int read = this.packed.get(index, this.buffer, 0, this.buffer.length);
+      for (int i = 0; i < read; i++) {
+        sum += this.buffer[i];
+      }
+      index += read;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,90 @@
+package de.morrigan.dev.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.BitUtil;
+import de.morrigan.dev.utils.LongBitSet;
+import de.morrigan.dev.utils.RankSelectBitVector;
+
+/**
+ * Vergleicht {@link RankSelectBitVector} mit dem naiven Zählen über {@link Long#bitCount(long)} auf einem
+ * {@link LongBitSet}.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankSelectBitVectorBenchmark {
+
+  private static final int NUM_BITS = 1 << 24;
+
+  private LongBitSet bits;
+  private RankSelectBitVector vector;
+  private int[] positions;
+  private int[] ranks;
+  private int next;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    this.bits = new LongBitSet(NUM_BITS);
+    for (int i = 0; i < NUM_BITS; i++) {
+      if (random.nextInt(4) == 0) {
+        this.bits.set(i);
+      }
+    }
+    this.vector = RankSelectBitVector.build(this.bits);
+    this.positions = random.ints(1024, 0, NUM_BITS).toArray();
+    this.ranks = random.ints(1024, 0, this.vector.cardinality()).toArray();
+  }
+
+  @Benchmark
+  public int rankVector() {
+    return this.vector.rank(this.positions[this.next++ & 1023]);
+  }
+
+  @Benchmark
+  public int rankNaive() {
+    int index = this.positions[this.next++ & 1023];
+    long[] words = this.bits.getWords();
+    int result = 0;
+    for (int i = 0; i < index >>> 6; i++) {
+      result += Long.bitCount(words[i]);
+    }
+    return result + Long.bitCount(words[index >>> 6] & ((1L << index) - 1));
+  }
+
+  @Benchmark
+  public int selectVector() {
+    return this.vector.select(this.ranks[this.next++ & 1023]);
+  }
+
+  @Benchmark
+  public int selectNaive() {
+    int remaining = this.ranks[this.next++ & 1023];
+    long[] words = this.bits.getWords();
+    for (int i = 0;; i++) {
+      int bitCount = Long.bitCount(words[i]);
+      if (remaining < bitCount) {
+        return (i << 6) + BitUtil.selectBit(words[i], remaining);
+      }
+      remaining -= bitCount;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package de.morrigan.dev.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.LogLevel;
+import de.morrigan.dev.utils.logging.LogSink;
+import de.morrigan.dev.utils.logging.StructuredLogger;
+
+/**
+ * Benchmarks für {@link StructuredLogger}. Über den GC Profiler des {@link BenchmarkRunner} ist zu sehen, dass ein
+ * Ereignis nach der Aufwärmphase ohne Allokationen kodiert und übergeben wird, während eine über String-Verkettung
+ * gebaute Zeile bei jedem Aufruf Objekte anlegt.
+ *
+ * @author morrigan
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuredLoggerBenchmark {
+
+  /** Verwirft alle Zeilen, damit nur die Kosten des Loggens gemessen werden */
+  private static final class DiscardingSink implements LogSink {
+
+    @Override
+    public void write(ByteBuffer batch) {
+      batch.position(batch.limit());
+    }
+
+    @Override
+    public void flush() {
+      // nichts zu tun
+    }
+
+    @Override
+    public void close() {
+      // nichts zu tun
+    }
+  }
+
+  private AsyncAppender appender;
+  private StructuredLogger logger;
+  private long next;
+
+  @Setup
+  public void setup() {
+    this.appender = new AsyncAppender.Builder(new DiscardingSink()).build();
+    this.logger = new StructuredLogger("benchmark", LogLevel.INFO, this.appender);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.appender.close();
+  }
+
+  @Benchmark
+  public boolean structuredEvent() {
+    long value = this.next++;
+    return this.logger.info("request served").kv("path", "/index.html").kv("status", 200).kv("latency", value)
+        .kv("ratio", 0.75).kv("cached", (value & 1) == 0).log();
+  }
+
+  @Benchmark
+  public boolean structuredEventDisabled() {
+    long value = this.next++;
+    return this.logger.debug("request served").kv("path", "/index.html").kv("status", 200).kv("latency", value)
+        .kv("ratio", 0.75).kv("cached", (value & 1) == 0).log();
+  }
+
+  @Benchmark
+  public boolean concatenatedLine() {
+    long value = this.next++;
+    return this.appender.append("request served path=/index.html status=" + 200 + " latency=" + value + " ratio="
+        + 0.75 + " cached=" + ((value & 1) == 0) + "\n");
+  }
+}
@@ -0,0 +1,448 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Nimmt fertig formatierte Log-Zeilen von beliebig vielen Threads entgegen und schreibt sie asynchron über einen
+ * einzelnen Schreib-Thread in einen {@link LogSink}. Die aufrufenden Threads kopieren die Zeile nur in einen
+ * vorab angelegten Ringpuffer und warten nie auf das Schreiben auf den Datenträger.
+ * <p>
+ * Der Schreib-Thread sammelt so viele Zeilen wie möglich in einem Batch und übergibt diesen mit einem Aufruf an den
+ * {@link LogSink}. Läuft der Ringpuffer voll, entscheidet die {@link BackPressure}, ob Zeilen verworfen werden oder der
+ * Aufrufer wartet. Über {@link #getDroppedCount()}, {@link #getQueuedCount()} und {@link #getWrittenCount()} kann der
+ * Zustand überwacht werden. Die {@code append}-Methoden legen keine Objekte an.
+ *
+ * <pre>
+ * AsyncAppender appender = new AsyncAppender.Builder(new FileChannelSink(Paths.get("logs/app.log")))
+ *     .capacity(16384)
+ *     .backPressure(BackPressure.DROP)
+ *     .build();
+ * appender.append("Hallo Welt\n");
+ * appender.close();
+ * </pre>
+ *
+ * @author morrigan
+ */
+public class AsyncAppender implements Closeable {
+
+  /**
+   * Erzeugt einen {@link AsyncAppender}.
+   *
+   * @author morrigan
+   */
+  public static final class Builder {
+
+    private final LogSink sink;
+    private int capacity = DEFAULT_CAPACITY;
+    private int batchBytes = DEFAULT_BATCH_BYTES;
+    private BackPressure backPressure = BackPressure.DROP;
+    private int sampleRate = DEFAULT_SAMPLE_RATE;
+    private String threadName = "AsyncAppender-Writer";
+
+    /**
+     * @param sink Ziel der Log-Zeilen (not null). Wird beim Schließen des Appenders ebenfalls geschlossen.
+     */
+    public Builder(LogSink sink) {
+      super();
+
+      Validate.notNull(sink, "Folgende Parameter dürfen nicht null sein! sink: {}", sink);
+      this.sink = sink;
+    }
+
+    /**
+     * @param capacity Anzahl der Plätze im Ringpuffer, wird auf eine Zweierpotenz aufgerundet <i>([2;2<sup>30</sup>])</i>
+     * @return dieser Builder
+     */
+    public Builder capacity(int capacity) {
+      Validate.isTrue(capacity >= 2 && capacity <= 1 << 30, "Die Kapazität ist ungültig! capacity: %d", capacity);
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * @param batchBytes Größe des Puffers, in dem der Schreib-Thread Zeilen sammelt <i>(>= 1024)</i>
+     * @return dieser Builder
+     */
+    public Builder batchBytes(int batchBytes) {
+      Validate.isTrue(batchBytes >= 1024, "Die Batch-Größe ist ungültig! batchBytes: %d", batchBytes);
+      this.batchBytes = batchBytes;
+      return this;
+    }
+
+    /**
+     * @param backPressure Verhalten bei vollem Ringpuffer (not null)
+     * @return dieser Builder
+     */
+    public Builder backPressure(BackPressure backPressure) {
+      Validate.notNull(backPressure, "Folgende Parameter dürfen nicht null sein! backPressure: {}", backPressure);
+      this.backPressure = backPressure;
+      return this;
+    }
+
+    /**
+     * @param sampleRate bei {@link BackPressure#SAMPLE} wird unter Last im Mittel jede n-te Zeile übernommen
+     *        <i>(>= 1)</i>
+     * @return dieser Builder
+     */
+    public Builder sampleRate(int sampleRate) {
+      Validate.isTrue(sampleRate >= 1, "Die Rate ist ungültig! sampleRate: %d", sampleRate);
+      this.sampleRate = sampleRate;
+      return this;
+    }
+
+    /**
+     * @param threadName Name des Schreib-Threads (not null)
+     * @return dieser Builder
+     */
+    public Builder threadName(String threadName) {
+      Validate.notNull(threadName, "Folgende Parameter dürfen nicht null sein! threadName: {}", threadName);
+      this.threadName = threadName;
+      return this;
+    }
+
+    /**
+     * @return neuer Appender, dessen Schreib-Thread bereits läuft
+     */
+    public AsyncAppender build() {
+      return new AsyncAppender(this);
+    }
+  }
+
+  /** Platz im Ringpuffer für eine Zeile */
+  private static final class Slot {
+
+    private byte[] bytes = new byte[INITIAL_EVENT_BYTES];
+    /** Anzahl der Bytes oder {@link AsyncAppender#ABANDONED}, falls der Platz keine Zeile enthält */
+    private int length;
+    /** Sequenz der enthaltenen Zeile, wird als Letztes geschrieben und veröffentlicht damit die Zeile */
+    private volatile long sequence = -1;
+  }
+
+  /** Standard-Kapazität des Ringpuffers */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  /** Standard-Größe eines Batches in Bytes */
+  public static final int DEFAULT_BATCH_BYTES = 64 * 1024;
+
+  /** Standard-Rate für {@link BackPressure#SAMPLE} */
+  public static final int DEFAULT_SAMPLE_RATE = 10;
+
+  private static final int INITIAL_EVENT_BYTES = 256;
+  /** Länge eines Platzes, der nach dem Schließen reserviert und ohne Zeile veröffentlicht wurde */
+  private static final int ABANDONED = -1;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+  private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final LogSink sink;
+  private final BackPressure backPressure;
+  private final int sampleRate;
+  private final Slot[] slots;
+  private final int mask;
+  private final ByteBuffer batch;
+  private final Thread writer;
+
+  /** Nächste freie Sequenz für einen Aufrufer */
+  private final AtomicLong claimed = new AtomicLong();
+  /** Alle Sequenzen davor hat der Schreib-Thread aus dem Ringpuffer übernommen */
+  private volatile long consumed;
+  /** Alle Sequenzen davor wurden an den {@link LogSink} übergeben */
+  private volatile long written;
+  /** Anzahl der Plätze ohne Zeile bis {@link #written}, wird nur vom Schreib-Thread verändert */
+  private volatile long abandoned;
+
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+  private volatile IOException lastError;
+  private volatile boolean closed;
+
+  private AsyncAppender(Builder builder) {
+    super();
+
+    this.sink = builder.sink;
+    this.backPressure = builder.backPressure;
+    this.sampleRate = builder.sampleRate;
+    int capacity = Integer.highestOneBit(builder.capacity - 1) << 1;
+    this.slots = new Slot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      this.slots[i] = new Slot();
+    }
+    this.mask = capacity - 1;
+    this.batch = ByteBuffer.allocateDirect(builder.batchBytes);
+    this.writer = new Thread(this::writeLoop, builder.threadName);
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Übernimmt die Zeile als UTF-8. Ein Zeilenumbruch wird nicht ergänzt.
+   *
+   * @param line vollständige Log-Zeile (not null)
+   * @return {@code true}, falls die Zeile übernommen wurde, {@code false}, falls sie verworfen wurde
+   */
+  public boolean append(CharSequence line) {
+    Objects.requireNonNull(line, "line");
+    long sequence = claim();
+    if (sequence < 0) {
+      return false;
+    }
+    Slot slot = this.slots[(int) (sequence & this.mask)];
+    int maxBytes = Utf8.maxBytes(line.length());
+    if (slot.bytes.length < maxBytes) {
+      slot.bytes = new byte[maxBytes];
+    }
+    slot.length = Utf8.encode(line, 0, line.length(), slot.bytes, 0);
+    slot.sequence = sequence;
+    return true;
+  }
+
+  /**
+   * Übernimmt die Bytes unverändert.
+   *
+   * @param bytes kodierte Log-Zeile (not null)
+   * @param offset erstes Byte
+   * @param length Anzahl der Bytes
+   * @return {@code true}, falls die Zeile übernommen wurde, {@code false}, falls sie verworfen wurde
+   */
+  public boolean append(byte[] bytes, int offset, int length) {
+    // Keine Validate-Aufrufe, deren varargs würden bei jeder Zeile ein Array anlegen
+    Objects.requireNonNull(bytes, "bytes");
+    if (offset < 0 || length < 0 || offset + length > bytes.length) {
+      throw new IllegalArgumentException("Der Bereich ist ungültig! offset: " + offset + ", length: " + length);
+    }
+    long sequence = claim();
+    if (sequence < 0) {
+      return false;
+    }
+    Slot slot = this.slots[(int) (sequence & this.mask)];
+    if (slot.bytes.length < length) {
+      slot.bytes = new byte[length];
+    }
+    System.arraycopy(bytes, offset, slot.bytes, 0, length);
+    slot.length = length;
+    slot.sequence = sequence;
+    return true;
+  }
+
+  /**
+   * Wartet, bis alle bis jetzt übernommenen Zeilen geschrieben sind, und ruft danach {@link LogSink#flush()} auf.
+   *
+   * @throws IOException falls der {@link LogSink} nicht schreiben kann
+   */
+  public void flush() throws IOException {
+    long target = this.claimed.get();
+    while (this.written < target && this.writer.isAlive()) {
+      LockSupport.unpark(this.writer);
+      LockSupport.parkNanos(BLOCK_PARK_NANOS);
+    }
+    synchronized (this.sink) {
+      this.sink.flush();
+    }
+  }
+
+  /**
+   * Nimmt keine weiteren Zeilen mehr an, schreibt alle übernommenen Zeilen und schließt den {@link LogSink}.
+   *
+   * @throws IOException falls der {@link LogSink} nicht geschrieben oder geschlossen werden kann
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    LockSupport.unpark(this.writer);
+    try {
+      this.writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this.sink) {
+      try {
+        this.sink.flush();
+      } finally {
+        this.sink.close();
+      }
+    }
+  }
+
+  /**
+   * @return Anzahl der Plätze im Ringpuffer
+   */
+  public int getCapacity() {
+    return this.slots.length;
+  }
+
+  /**
+   * @return Anzahl der Zeilen, die übernommen, aber noch nicht an den {@link LogSink} übergeben wurden
+   */
+  public long getQueuedCount() {
+    return Math.max(0, this.claimed.get() - this.written);
+  }
+
+  /**
+   * @return Anzahl der Zeilen, die wegen eines vollen Ringpuffers oder nach dem Schließen verworfen wurden
+   */
+  public long getDroppedCount() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * @return Anzahl der Zeilen, die an den {@link LogSink} übergeben wurden
+   */
+  public long getWrittenCount() {
+    return this.written - this.abandoned;
+  }
+
+  /**
+   * @return Anzahl der Batches, die an den {@link LogSink} übergeben wurden
+   */
+  public long getBatchCount() {
+    return this.batches.get();
+  }
+
+  /**
+   * @return Anzahl der Fehler beim Schreiben. Die Zeilen des betroffenen Batches gehen verloren.
+   */
+  public long getErrorCount() {
+    return this.errors.get();
+  }
+
+  /**
+   * @return letzter Fehler beim Schreiben oder {@code null}
+   */
+  public IOException getLastError() {
+    return this.lastError;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[sink=" + this.sink + ", capacity=" + this.slots.length + ", backPressure="
+        + this.backPressure + "]";
+  }
+
+  /**
+   * @return reservierte Sequenz oder -1, falls die Zeile verworfen werden muss
+   */
+  private long claim() {
+    while (!this.closed) {
+      long current = this.claimed.get();
+      long free = this.slots.length - (current - this.consumed);
+      if (free <= 0) {
+        if (this.backPressure != BackPressure.BLOCK) {
+          break;
+        }
+        LockSupport.unpark(this.writer);
+        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        continue;
+      }
+      if (this.backPressure == BackPressure.SAMPLE && free <= this.slots.length >>> 2
+          && ThreadLocalRandom.current().nextInt(this.sampleRate) != 0) {
+        break;
+      }
+      if (this.claimed.compareAndSet(current, current + 1)) {
+        if (!this.closed) {
+          return current;
+        }
+        // close() kam der Reservierung zuvor. Der Platz wird ohne Zeile veröffentlicht, damit ein noch laufender
+        // Schreib-Thread nicht darauf wartet, und die Zeile als verworfen gezählt.
+        Slot slot = this.slots[(int) (current & this.mask)];
+        slot.length = ABANDONED;
+        slot.sequence = current;
+        break;
+      }
+    }
+    this.dropped.increment();
+    return -1;
+  }
+
+  private void writeLoop() {
+    long next = 0;
+    while (true) {
+      long drained = drain(next);
+      if (drained == next) {
+        if (this.closed && this.claimed.get() == next) {
+          return;
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+      next = drained;
+    }
+  }
+
+  /**
+   * Übernimmt alle veröffentlichten Zeilen ab der Sequenz und schreibt sie in Batches.
+   *
+   * @return nächste noch nicht veröffentlichte Sequenz
+   */
+  private long drain(long first) {
+    long next = first;
+    Slot slot = this.slots[(int) (next & this.mask)];
+    while (slot.sequence == next) {
+      if (slot.length == ABANDONED) {
+        this.abandoned++;
+        this.consumed = ++next;
+        slot = this.slots[(int) (next & this.mask)];
+        continue;
+      }
+      if (slot.length > this.batch.remaining()) {
+        writeBatch(next);
+        if (slot.length > this.batch.capacity()) {
+          writeLarge(slot, next + 1);
+          this.consumed = ++next;
+          slot = this.slots[(int) (next & this.mask)];
+          continue;
+        }
+      }
+      this.batch.put(slot.bytes, 0, slot.length);
+      // Der Platz ist frei, sobald die Bytes im Batch liegen
+      this.consumed = ++next;
+      slot = this.slots[(int) (next & this.mask)];
+    }
+    writeBatch(next);
+    return next;
+  }
+
+  private void writeBatch(long writtenUntil) {
+    if (this.batch.position() > 0) {
+      this.batch.flip();
+      synchronized (this.sink) {
+        try {
+          this.sink.write(this.batch);
+          this.batches.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+          handleError(e);
+        }
+      }
+      this.batch.clear();
+    }
+    this.written = writtenUntil;
+  }
+
+  private void writeLarge(Slot slot, long writtenUntil) {
+    synchronized (this.sink) {
+      try {
+        this.sink.write(ByteBuffer.wrap(slot.bytes, 0, slot.length));
+        this.batches.incrementAndGet();
+      } catch (IOException | RuntimeException e) {
+        handleError(e);
+      }
+    }
+    this.written = writtenUntil;
+  }
+
+  private void handleError(Exception e) {
+    this.errors.incrementAndGet();
+    this.lastError = e instanceof IOException ? (IOException) e : new IOException(e);
+  }
+}
@@ -0,0 +1,71 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.IOException;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link Handler} für {@code java.util.logging}, der die formatierten Einträge an einen {@link AsyncAppender} übergibt.
+ * Der aufrufende Thread formatiert nur und wartet nie auf das Schreiben.
+ *
+ * @author morrigan
+ */
+public class AsyncLogHandler extends Handler {
+
+  private final AsyncAppender appender;
+
+  /**
+   * @param appender Appender, der die Einträge schreibt (not null). Wird mit dem Handler geschlossen.
+   */
+  public AsyncLogHandler(AsyncAppender appender) {
+    super();
+
+    Validate.notNull(appender, "Folgende Parameter dürfen nicht null sein! appender: {}", appender);
+    this.appender = appender;
+    setFormatter(new SimpleFormatter());
+  }
+
+  /**
+   * @return Appender, der die Einträge schreibt
+   */
+  public AsyncAppender getAppender() {
+    return this.appender;
+  }
+
+  @Override
+  public void publish(LogRecord logRecord) {
+    if (!isLoggable(logRecord)) {
+      return;
+    }
+    String line;
+    try {
+      line = getFormatter().format(logRecord);
+    } catch (RuntimeException e) {
+      reportError(null, e, ErrorManager.FORMAT_FAILURE);
+      return;
+    }
+    this.appender.append(line);
+  }
+
+  @Override
+  public void flush() {
+    try {
+      this.appender.flush();
+    } catch (IOException e) {
+      reportError(null, e, ErrorManager.FLUSH_FAILURE);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.appender.close();
+    } catch (IOException e) {
+      reportError(null, e, ErrorManager.CLOSE_FAILURE);
+    }
+  }
+}
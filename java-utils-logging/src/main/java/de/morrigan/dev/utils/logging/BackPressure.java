@@ -0,0 +1,25 @@
+package de.morrigan.dev.utils.logging;
+
+/**
+ * Legt fest, wie ein {@link AsyncAppender} reagiert, wenn der Schreib-Thread nicht hinterher kommt und der Ringpuffer
+ * voll läuft.
+ *
+ * @author morrigan
+ */
+public enum BackPressure {
+
+  /** Neue Ereignisse werden verworfen, solange der Puffer voll ist. Der Aufrufer wartet nie. */
+  DROP,
+
+  /**
+   * Der Aufrufer wartet, bis wieder Platz im Puffer ist. Es geht kein Ereignis verloren, dafür wird der Aufrufer so
+   * langsam wie das Schreiben.
+   */
+  BLOCK,
+
+  /**
+   * Ist der Puffer zu mehr als drei Vierteln gefüllt, wird nur noch jedes n-te Ereignis (zufällig) übernommen, der Rest
+   * wird verworfen. Ist der Puffer voll, wird wie bei {@link #DROP} verworfen. Der Aufrufer wartet nie.
+   */
+  SAMPLE
+}
@@ -0,0 +1,203 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.SequenceInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Wandelt die Ausgabe eines {@link BinaryLogger} wieder in lesbare Zeilen der Form
+ * {@code 2024-01-31 12:00:00.123 INFO  Image logo loaded in 12 ms} um. Mehrere Dateien, z.B. die Segmente eines
+ * {@link MappedRollingFileSink}, werden in der angegebenen Reihenfolge als ein zusammenhängender Datenstrom gelesen.
+ * <p>
+ * Aufruf über die Kommandozeile:
+ *
+ * <pre>
+ * java -cp java-utils-logging.jar de.morrigan.dev.utils.logging.BinaryLogDecoder app-000001.log app-000002.log
+ * </pre>
+ *
+ * @author morrigan
+ */
+public final class BinaryLogDecoder {
+
+  private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+  private static final LogLevel[] LEVELS = LogLevel.values();
+  /** Schutz vor riesigen Allokationen bei beschädigten Daten */
+  private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+  /**
+   * Dekodiert die angegebenen Dateien in der angegebenen Reihenfolge nach {@code System.out}.
+   *
+   * @param args Dateien
+   * @throws IOException falls eine Datei nicht gelesen werden kann oder kein gültiges Binär-Log ist
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("Usage: BinaryLogDecoder <log file> [<log file>...]");
+    }
+    List<Path> files = new ArrayList<>();
+    for (String arg : args) {
+      files.add(Paths.get(arg));
+    }
+    Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    decode(files, out, ZoneId.systemDefault());
+    out.flush();
+  }
+
+  /**
+   * @param files Dateien in der Reihenfolge, in der sie geschrieben wurden (not null)
+   * @param out Ziel der lesbaren Zeilen (not null)
+   * @param zone Zeitzone der Zeitstempel (not null)
+   * @return Anzahl der dekodierten Ereignisse
+   * @throws IOException falls eine Datei nicht gelesen werden kann oder kein gültiges Binär-Log ist
+   */
+  public static long decode(List<Path> files, Appendable out, ZoneId zone) throws IOException {
+    Validate.notNull(files, "Folgende Parameter dürfen nicht null sein! files: {}", files);
+    List<InputStream> streams = new ArrayList<>();
+    try {
+      for (Path file : files) {
+        streams.add(Files.newInputStream(file));
+      }
+      return decode(new SequenceInputStream(Collections.enumeration(streams)), out, zone);
+    } finally {
+      for (InputStream stream : streams) {
+        stream.close();
+      }
+    }
+  }
+
+  /**
+   * @param in Binär-Log (not null), wird nicht geschlossen
+   * @param out Ziel der lesbaren Zeilen (not null)
+   * @param zone Zeitzone der Zeitstempel (not null)
+   * @return Anzahl der dekodierten Ereignisse
+   * @throws IOException falls nicht gelesen werden kann oder kein gültiges Binär-Log vorliegt
+   */
+  public static long decode(InputStream in, Appendable out, ZoneId zone) throws IOException {
+    Validate.notNull(in, "Folgende Parameter dürfen nicht null sein! in: {}", in);
+    Validate.notNull(out, "Folgende Parameter dürfen nicht null sein! out: {}", out);
+    Validate.notNull(zone, "Folgende Parameter dürfen nicht null sein! zone: {}", zone);
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    DateTimeFormatter formatter = TIMESTAMP.withZone(zone);
+    Map<Integer, String> templates = new HashMap<>();
+    long events = 0;
+    int type;
+    while ((type = data.read()) >= 0) {
+      if (type == 0) {
+        // Füllbytes am Ende eines Segments
+        continue;
+      }
+      if (type != BinaryLogFormat.SESSION && type != BinaryLogFormat.TEMPLATE && type != BinaryLogFormat.EVENT) {
+        throw new IOException("Unknown record type " + type);
+      }
+      int length;
+      byte[] payload;
+      try {
+        length = data.readInt();
+        if (length < 0 || length > MAX_RECORD_BYTES) {
+          throw new IOException("Invalid record length " + length);
+        }
+        payload = new byte[length];
+        data.readFully(payload);
+      } catch (EOFException e) {
+        // Der letzte Datensatz wurde nicht mehr vollständig geschrieben
+        break;
+      }
+      DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+      switch (type) {
+        case BinaryLogFormat.SESSION:
+          if (record.readInt() != BinaryLogFormat.MAGIC) {
+            throw new IOException("The data is not a binary log");
+          }
+          templates.clear();
+        break;
+        case BinaryLogFormat.TEMPLATE:
+          int id = record.readInt();
+          templates.put(id, new String(payload, 4, length - 4, StandardCharsets.UTF_8));
+        break;
+        case BinaryLogFormat.EVENT:
+          appendEvent(record, templates, formatter, out);
+          events++;
+        break;
+        default:
+          throw new IllegalStateException("Missing mapping for the record type " + type);
+      }
+    }
+    return events;
+  }
+
+  private static void appendEvent(DataInputStream record, Map<Integer, String> templates, DateTimeFormatter formatter,
+      Appendable out) throws IOException {
+    long epochMillis = record.readLong();
+    int level = record.readUnsignedByte();
+    int templateId = record.readInt();
+    int argCount = record.readUnsignedByte();
+    Object[] args = new Object[argCount];
+    for (int i = 0; i < argCount; i++) {
+      args[i] = readArg(record);
+    }
+    String template = templates.get(templateId);
+    String message;
+    if (template == null) {
+      StringBuilder unknown = new StringBuilder("<unknown template #").append(templateId).append('>');
+      for (Object arg : args) {
+        unknown.append(' ').append(arg);
+      }
+      message = unknown.toString();
+    } else {
+      message = MessageFormatter.arrayFormat(template, args).getMessage();
+    }
+    String levelName = level < LEVELS.length ? LEVELS[level].name() : "L" + level;
+    out.append(formatter.format(Instant.ofEpochMilli(epochMillis))).append(' ');
+    out.append(levelName);
+    for (int i = levelName.length(); i < 6; i++) {
+      out.append(' ');
+    }
+    out.append(message).append('\n');
+  }
+
+  private static Object readArg(DataInputStream record) throws IOException {
+    int argType = record.readUnsignedByte();
+    switch (argType) {
+      case BinaryLogFormat.ARG_NULL:
+        return null;
+      case BinaryLogFormat.ARG_LONG:
+        return record.readLong();
+      case BinaryLogFormat.ARG_DOUBLE:
+        return Double.longBitsToDouble(record.readLong());
+      case BinaryLogFormat.ARG_BOOLEAN:
+        return record.readBoolean();
+      case BinaryLogFormat.ARG_STRING:
+        byte[] bytes = new byte[record.readInt()];
+        record.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      default:
+        throw new IOException("Unknown argument type " + argType);
+    }
+  }
+
+  private BinaryLogDecoder() {
+    super();
+  }
+}
@@ -0,0 +1,214 @@
+package de.morrigan.dev.utils.logging;
+
+import java.util.Arrays;
+
+/**
+ * Ein Ereignis eines {@link BinaryLogger}, dessen Argumente beim Hinzufügen direkt als rohe Bytes in einen
+ * wiederverwendeten Puffer geschrieben werden. Jeder Thread besitzt genau ein Ereignis. Die Argumente werden in der
+ * Reihenfolge der Platzhalter des Templates angegeben.
+ *
+ * @author morrigan
+ */
+public final class BinaryLogEvent {
+
+  /** Ereignis für abgeschaltete Stufen, ignoriert alle Argumente */
+  static final BinaryLogEvent DISABLED = new BinaryLogEvent();
+
+  private static final ThreadLocal<BinaryLogEvent> CURRENT = ThreadLocal.withInitial(BinaryLogEvent::new);
+
+  private static final int INITIAL_BYTES = 256;
+
+  /**
+   * @return Ereignis des aktuellen Threads
+   */
+  static BinaryLogEvent current() {
+    return CURRENT.get();
+  }
+
+  static void putInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+  static int getInt(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8
+        | bytes[offset + 3] & 0xFF;
+  }
+
+  static void putLong(byte[] bytes, int offset, long value) {
+    putInt(bytes, offset, (int) (value >>> 32));
+    putInt(bytes, offset + 4, (int) value);
+  }
+
+  private byte[] buffer = new byte[INITIAL_BYTES];
+  private int position;
+  private BinaryLogger logger;
+  private BinaryLogger.Template template;
+  /** Beginn des Ereignis-Datensatzes, davor steht ggf. die Definition des Templates */
+  private int eventStart;
+  private int argCount;
+
+  private BinaryLogEvent() {
+    super();
+  }
+
+  /**
+   * Verwirft den bisherigen Inhalt und schreibt ggf. die Definition des Templates und den Kopf des Ereignisses.
+   */
+  BinaryLogEvent begin(BinaryLogger eventLogger, LogLevel level, BinaryLogger.Template eventTemplate) {
+    this.logger = eventLogger;
+    this.template = eventTemplate;
+    this.position = 0;
+    this.argCount = 0;
+    if (!eventTemplate.isWritten()) {
+      byte[] bytes = eventTemplate.getBytes();
+      ensureCapacity(BinaryLogFormat.RECORD_HEADER_BYTES + 4 + bytes.length);
+      writeByte(BinaryLogFormat.TEMPLATE);
+      writeInt(4 + bytes.length);
+      writeInt(eventTemplate.getId());
+      System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+      this.position += bytes.length;
+    }
+    this.eventStart = this.position;
+    ensureCapacity(BinaryLogFormat.RECORD_HEADER_BYTES + 14);
+    writeByte(BinaryLogFormat.EVENT);
+    // Länge und Anzahl der Argumente werden in log() eingetragen
+    writeInt(0);
+    writeLong(System.currentTimeMillis());
+    writeByte((byte) level.ordinal());
+    writeInt(eventTemplate.getId());
+    writeByte((byte) 0);
+    return this;
+  }
+
+  /**
+   * @param value Argument
+   * @return dieses Ereignis
+   */
+  public BinaryLogEvent arg(long value) {
+    if (nextArg()) {
+      ensureCapacity(9);
+      writeByte(BinaryLogFormat.ARG_LONG);
+      writeLong(value);
+    }
+    return this;
+  }
+
+  /**
+   * @param value Argument
+   * @return dieses Ereignis
+   */
+  public BinaryLogEvent arg(int value) {
+    return arg((long) value);
+  }
+
+  /**
+   * @param value Argument
+   * @return dieses Ereignis
+   */
+  public BinaryLogEvent arg(double value) {
+    if (nextArg()) {
+      ensureCapacity(9);
+      writeByte(BinaryLogFormat.ARG_DOUBLE);
+      writeLong(Double.doubleToRawLongBits(value));
+    }
+    return this;
+  }
+
+  /**
+   * @param value Argument
+   * @return dieses Ereignis
+   */
+  public BinaryLogEvent arg(boolean value) {
+    if (nextArg()) {
+      ensureCapacity(2);
+      writeByte(BinaryLogFormat.ARG_BOOLEAN);
+      writeByte((byte) (value ? 1 : 0));
+    }
+    return this;
+  }
+
+  /**
+   * @param value Argument, wird als UTF-8 geschrieben
+   * @return dieses Ereignis
+   */
+  public BinaryLogEvent arg(CharSequence value) {
+    if (nextArg()) {
+      if (value == null) {
+        ensureCapacity(1);
+        writeByte(BinaryLogFormat.ARG_NULL);
+      } else {
+        ensureCapacity(5 + Utf8.maxBytes(value.length()));
+        writeByte(BinaryLogFormat.ARG_STRING);
+        int lengthPosition = this.position;
+        this.position += 4;
+        int end = Utf8.encode(value, 0, value.length(), this.buffer, this.position);
+        putInt(this.buffer, lengthPosition, end - this.position);
+        this.position = end;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Schließt das Ereignis ab und übergibt es an den {@link AsyncAppender} des Loggers.
+   *
+   * @return {@code true}, falls das Ereignis übernommen wurde, {@code false}, falls die Stufe abgeschaltet ist oder der
+   *         Appender es verworfen hat
+   */
+  public boolean log() {
+    BinaryLogger eventLogger = this.logger;
+    if (eventLogger == null) {
+      return false;
+    }
+    this.logger = null;
+    putInt(this.buffer, this.eventStart + 1, this.position - this.eventStart - BinaryLogFormat.RECORD_HEADER_BYTES);
+    this.buffer[this.eventStart + BinaryLogFormat.RECORD_HEADER_BYTES + 13] = (byte) this.argCount;
+    boolean accepted = eventLogger.getAppender().append(this.buffer, 0, this.position);
+    if (accepted && this.eventStart > 0) {
+      this.template.setWritten();
+    }
+    return accepted;
+  }
+
+  /**
+   * @return {@code true}, falls das Ereignis geschrieben wird
+   */
+  public boolean isEnabled() {
+    return this.logger != null;
+  }
+
+  private boolean nextArg() {
+    if (this.logger == null) {
+      return false;
+    }
+    if (this.argCount == BinaryLogFormat.MAX_ARGS) {
+      throw new IllegalStateException("An event supports at most " + BinaryLogFormat.MAX_ARGS + " arguments");
+    }
+    this.argCount++;
+    return true;
+  }
+
+  private void writeByte(byte value) {
+    this.buffer[this.position++] = value;
+  }
+
+  private void writeInt(int value) {
+    putInt(this.buffer, this.position, value);
+    this.position += 4;
+  }
+
+  private void writeLong(long value) {
+    putLong(this.buffer, this.position, value);
+    this.position += 8;
+  }
+
+  private void ensureCapacity(int additional) {
+    int required = this.position + additional;
+    if (required > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length * 2));
+    }
+  }
+}
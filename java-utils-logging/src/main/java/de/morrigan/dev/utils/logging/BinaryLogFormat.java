@@ -0,0 +1,47 @@
+package de.morrigan.dev.utils.logging;
+
+/**
+ * Aufbau des Binärformats von {@link BinaryLogger} und {@link BinaryLogDecoder}. Alle Zahlen werden wie bei
+ * {@link java.io.DataOutput} im Big-Endian-Format geschrieben.
+ * <p>
+ * Die Datei ist eine Folge von Datensätzen {@code [byte type][int length][length Bytes]}:
+ * <ul>
+ * <li>{@link #SESSION}: {@code int magic, long epochMillis}. Beginnt ein neues Wörterbuch, z.B. nach einem Neustart.</li>
+ * <li>{@link #TEMPLATE}: {@code int id, UTF-8 Template}. Wird vor der ersten Verwendung eines Templates geschrieben.</li>
+ * <li>{@link #EVENT}: {@code long epochMillis, byte level, int templateId, byte argCount} und die Argumente, jeweils
+ * ein Typ-Byte gefolgt von den rohen Bytes des Werts.</li>
+ * </ul>
+ * Mit {@link SegmentFormat#binaryLog()} beginnt jedes Segment eines {@link MappedRollingFileSink} mit einer Kopie der
+ * letzten Sitzung und aller danach definierten Templates.
+ * <p>
+ * Nullbytes an Stelle eines Typs sind Füllbytes, wie sie z.B. nach einem Absturz am Ende eines Segments des
+ * {@link MappedRollingFileSink} stehen, und werden übersprungen.
+ *
+ * @author morrigan
+ */
+final class BinaryLogFormat {
+
+  /** "BLG1" */
+  static final int MAGIC = 0x424C4731;
+
+  static final byte SESSION = 'S';
+  static final byte TEMPLATE = 'T';
+  static final byte EVENT = 'E';
+
+  /** Typ-Byte, Länge */
+  static final int RECORD_HEADER_BYTES = 5;
+
+  static final byte ARG_NULL = 'N';
+  static final byte ARG_LONG = 'J';
+  static final byte ARG_DOUBLE = 'D';
+  static final byte ARG_BOOLEAN = 'Z';
+  /** gefolgt von {@code int length} und den UTF-8 Bytes */
+  static final byte ARG_STRING = 'S';
+
+  /** Maximale Anzahl an Argumenten eines Ereignisses */
+  static final int MAX_ARGS = 255;
+
+  private BinaryLogFormat() {
+    super();
+  }
+}
@@ -0,0 +1,200 @@
+package de.morrigan.dev.utils.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Logger, der Ereignisse nicht als Text, sondern im kompakten {@link BinaryLogFormat Binärformat} an einen
+ * {@link AsyncAppender} übergibt: Statt der formatierten Nachricht werden nur die Nummer des Templates und die rohen
+ * Bytes der Argumente geschrieben. Jedes Template wird einmalig in ein Wörterbuch aufgenommen und vor seiner ersten
+ * Verwendung in die Ausgabe geschrieben. Der lesbare Text entsteht erst nachträglich mit dem {@link BinaryLogDecoder}.
+ *
+ * <pre>
+ * private static final BinaryLogger LOG = new BinaryLogger(appender, LogLevel.INFO);
+ *
+ * LOG.info("Image {} loaded in {} ms").arg(imageName).arg(millis).log();
+ * </pre>
+ *
+ * Wie beim {@link StructuredLogger} verwendet jeder Thread immer dasselbe Ereignis, sodass nach der Aufwärmphase keine
+ * Objekte mehr angelegt werden. Da das Wörterbuch zum Logger gehört, darf ein {@link AsyncAppender} nur von einem
+ * {@link BinaryLogger} verwendet werden.
+ * <p>
+ * Schreibt der Appender in einen {@link MappedRollingFileSink}, muss dieser mit {@link SegmentFormat#binaryLog()}
+ * erzeugt werden. Dann werden Datensätze nur an ihren Grenzen auf Segmente verteilt, und jedes Segment beginnt mit der
+ * Sitzung und allen bis dahin geschriebenen Templates, sodass es auch nach dem Löschen älterer Segmente lesbar bleibt.
+ *
+ * @author morrigan
+ */
+public final class BinaryLogger {
+
+  /** Eintrag des Wörterbuchs */
+  static final class Template {
+
+    private final int id;
+    private final byte[] bytes;
+    /** Wird erst gesetzt, wenn die Definition sicher vom Appender übernommen wurde */
+    private volatile boolean written;
+
+    Template(int id, String template) {
+      super();
+
+      this.id = id;
+      this.bytes = template.getBytes(StandardCharsets.UTF_8);
+    }
+
+    int getId() {
+      return this.id;
+    }
+
+    byte[] getBytes() {
+      return this.bytes;
+    }
+
+    boolean isWritten() {
+      return this.written;
+    }
+
+    void setWritten() {
+      this.written = true;
+    }
+  }
+
+  private final AsyncAppender appender;
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger();
+  private volatile LogLevel level;
+
+  /**
+   * Schreibt sofort den Beginn einer neuen Sitzung, ab dem der Decoder ein neues Wörterbuch verwendet.
+   *
+   * @param appender Ziel der Ereignisse (not null), darf von keinem anderen {@link BinaryLogger} verwendet werden
+   * @param level niedrigste Stufe, die geschrieben wird (not null)
+   */
+  public BinaryLogger(AsyncAppender appender, LogLevel level) {
+    super();
+
+    Validate.notNull(appender, "Folgende Parameter dürfen nicht null sein! appender: {}", appender);
+    Validate.notNull(level, "Folgende Parameter dürfen nicht null sein! level: {}", level);
+    this.appender = appender;
+    this.level = level;
+    byte[] session = new byte[BinaryLogFormat.RECORD_HEADER_BYTES + 12];
+    session[0] = BinaryLogFormat.SESSION;
+    BinaryLogEvent.putInt(session, 1, 12);
+    BinaryLogEvent.putInt(session, 5, BinaryLogFormat.MAGIC);
+    BinaryLogEvent.putLong(session, 9, System.currentTimeMillis());
+    appender.append(session, 0, session.length);
+  }
+
+  /**
+   * @return niedrigste Stufe, die geschrieben wird
+   */
+  public LogLevel getLevel() {
+    return this.level;
+  }
+
+  /**
+   * @param level niedrigste Stufe, die geschrieben wird (not null)
+   */
+  public void setLevel(LogLevel level) {
+    Validate.notNull(level, "Folgende Parameter dürfen nicht null sein! level: {}", level);
+    this.level = level;
+  }
+
+  /**
+   * @return Ziel der Ereignisse
+   */
+  public AsyncAppender getAppender() {
+    return this.appender;
+  }
+
+  /**
+   * @return Anzahl der Templates im Wörterbuch
+   */
+  public int getTemplateCount() {
+    return this.templates.size();
+  }
+
+  /**
+   * @param eventLevel Stufe eines Ereignisses
+   * @return {@code true}, falls Ereignisse dieser Stufe geschrieben werden
+   */
+  public boolean isEnabled(LogLevel eventLevel) {
+    return eventLevel.isEnabledAt(this.level);
+  }
+
+  /**
+   * Beginnt ein Ereignis.
+   *
+   * @param eventLevel Stufe des Ereignisses (not null, nicht {@link LogLevel#OFF})
+   * @param template Template mit {@code {}} als Platzhalter für die Argumente (not null), sollte eine Konstante sein
+   * @return Ereignis des aktuellen Threads oder ein leeres Ereignis, falls die Stufe abgeschaltet ist
+   */
+  public BinaryLogEvent at(LogLevel eventLevel, String template) {
+    if (!isEnabled(eventLevel)) {
+      return BinaryLogEvent.DISABLED;
+    }
+    return BinaryLogEvent.current().begin(this, eventLevel, intern(template));
+  }
+
+  /**
+   * @param template Template (not null)
+   * @return Ereignis der Stufe {@link LogLevel#TRACE}
+   */
+  public BinaryLogEvent trace(String template) {
+    return at(LogLevel.TRACE, template);
+  }
+
+  /**
+   * @param template Template (not null)
+   * @return Ereignis der Stufe {@link LogLevel#DEBUG}
+   */
+  public BinaryLogEvent debug(String template) {
+    return at(LogLevel.DEBUG, template);
+  }
+
+  /**
+   * @param template Template (not null)
+   * @return Ereignis der Stufe {@link LogLevel#INFO}
+   */
+  public BinaryLogEvent info(String template) {
+    return at(LogLevel.INFO, template);
+  }
+
+  /**
+   * @param template Template (not null)
+   * @return Ereignis der Stufe {@link LogLevel#WARN}
+   */
+  public BinaryLogEvent warn(String template) {
+    return at(LogLevel.WARN, template);
+  }
+
+  /**
+   * @param template Template (not null)
+   * @return Ereignis der Stufe {@link LogLevel#ERROR}
+   */
+  public BinaryLogEvent error(String template) {
+    return at(LogLevel.ERROR, template);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.level + ", templates=" + this.templates.size() + "]";
+  }
+
+  private Template intern(String template) {
+    Template result = this.templates.get(template);
+    if (result == null) {
+      // Bei gleichzeitigem Anlegen bleibt eine Nummer ungenutzt, was den Decoder nicht stört
+      Template created = new Template(this.nextId.getAndIncrement(), template);
+      result = this.templates.putIfAbsent(template, created);
+      if (result == null) {
+        result = created;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,136 @@
+package de.morrigan.dev.utils.logging;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link SegmentFormat} für das {@link BinaryLogFormat}. Die Grenzen der Datensätze ergeben sich aus ihren Längen, ein
+ * Datensatz wird daher nie an einem Byte getrennt, das zufällig wie ein Zeilenumbruch aussieht.
+ * <p>
+ * Aus den geschriebenen Bytes werden die letzte Sitzung und alle danach definierten Templates gesammelt. Sie bilden
+ * den Kopf jedes neuen Segments, sodass der {@link BinaryLogDecoder} ein Segment auch dann lesen kann, wenn die
+ * vorherigen bereits gelöscht wurden.
+ *
+ * @author morrigan
+ */
+final class BinarySegmentFormat implements SegmentFormat {
+
+  private static final int INITIAL_HEADER_BYTES = 1024;
+
+  /** Sitzung und Definitionen in der Reihenfolge, in der sie geschrieben wurden */
+  private byte[] header = new byte[INITIAL_HEADER_BYTES];
+  private int headerLength;
+  /** Nummern der Templates im Kopf, damit gleichzeitig geschriebene Definitionen nur einmal übernommen werden */
+  private final Set<Integer> templateIds = new HashSet<>();
+
+  /** Kopf des Datensatzes, der gerade gelesen wird */
+  private final byte[] recordHeader = new byte[BinaryLogFormat.RECORD_HEADER_BYTES];
+  private int recordHeaderLength;
+  /** Noch ausstehende Bytes des Datensatzes, der gerade gelesen wird */
+  private int remaining;
+  /** Beginn des gerade gelesenen Datensatzes im Kopf oder -1, falls er nicht in den Kopf gehört */
+  private int recordStart = -1;
+
+  BinarySegmentFormat() {
+    super();
+  }
+
+  @Override
+  public int lastRecordEnd(ByteBuffer records, int maxBytes) {
+    long end = records.position() + (long) Math.min(maxBytes, records.remaining());
+    int position = records.position();
+    int result = -1;
+    while (position + BinaryLogFormat.RECORD_HEADER_BYTES <= end) {
+      int length = records.getInt(position + 1);
+      long next = (long) position + BinaryLogFormat.RECORD_HEADER_BYTES + length;
+      if (length < 0 || next > end) {
+        break;
+      }
+      position = (int) next;
+      result = position;
+    }
+    return result;
+  }
+
+  @Override
+  public void written(ByteBuffer bytes, int from, int to) {
+    int position = from;
+    while (position < to) {
+      if (this.remaining > 0) {
+        int length = Math.min(this.remaining, to - position);
+        if (this.recordStart >= 0) {
+          ensureCapacity(length);
+          for (int i = 0; i < length; i++) {
+            this.header[this.headerLength++] = bytes.get(position + i);
+          }
+        }
+        position += length;
+        this.remaining -= length;
+        if (this.remaining == 0) {
+          endRecord();
+        }
+        continue;
+      }
+      byte value = bytes.get(position++);
+      if (this.recordHeaderLength == 0 && value == 0) {
+        // Füllbytes
+        continue;
+      }
+      this.recordHeader[this.recordHeaderLength++] = value;
+      if (this.recordHeaderLength == BinaryLogFormat.RECORD_HEADER_BYTES) {
+        this.recordHeaderLength = 0;
+        beginRecord();
+      }
+    }
+  }
+
+  @Override
+  public ByteBuffer header() {
+    return ByteBuffer.wrap(this.header, 0, this.headerLength);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[templates=" + this.templateIds.size() + ", headerBytes=" + this.headerLength
+        + "]";
+  }
+
+  private void beginRecord() {
+    byte type = this.recordHeader[0];
+    this.remaining = Math.max(0, BinaryLogEvent.getInt(this.recordHeader, 1));
+    this.recordStart = -1;
+    if (type == BinaryLogFormat.SESSION) {
+      // Eine neue Sitzung beginnt ein neues Wörterbuch
+      this.headerLength = 0;
+      this.templateIds.clear();
+    }
+    if (type == BinaryLogFormat.SESSION || type == BinaryLogFormat.TEMPLATE) {
+      this.recordStart = this.headerLength;
+      ensureCapacity(BinaryLogFormat.RECORD_HEADER_BYTES);
+      System.arraycopy(this.recordHeader, 0, this.header, this.headerLength, BinaryLogFormat.RECORD_HEADER_BYTES);
+      this.headerLength += BinaryLogFormat.RECORD_HEADER_BYTES;
+    }
+    if (this.remaining == 0) {
+      endRecord();
+    }
+  }
+
+  private void endRecord() {
+    if (this.recordStart >= 0 && this.header[this.recordStart] == BinaryLogFormat.TEMPLATE) {
+      int idOffset = this.recordStart + BinaryLogFormat.RECORD_HEADER_BYTES;
+      if (this.headerLength < idOffset + 4 || !this.templateIds.add(BinaryLogEvent.getInt(this.header, idOffset))) {
+        this.headerLength = this.recordStart;
+      }
+    }
+    this.recordStart = -1;
+  }
+
+  private void ensureCapacity(int additional) {
+    int required = this.headerLength + additional;
+    if (required > this.header.length) {
+      this.header = Arrays.copyOf(this.header, Math.max(required, this.header.length * 2));
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package de.morrigan.dev.utils.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zähler einer {@link MetricsRegistry}. Der Wert wird in einem {@link LongAdder} geführt, der bei gleichzeitigem
+ * Zählen aus vielen Threads auf mehrere Zellen verteilt wird, sodass die Threads nicht um dieselbe Cache-Line
+ * konkurrieren.
+ *
+ * @author morrigan
+ */
+public final class Counter {
+
+  private final String name;
+  private final LongAdder count = new LongAdder();
+
+  Counter(String name) {
+    super();
+
+    this.name = name;
+  }
+
+  /**
+   * @return Name des Zählers
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Erhöht den Zähler um eins.
+   */
+  public void increment() {
+    this.count.increment();
+  }
+
+  /**
+   * @param delta Wert, um den der Zähler erhöht wird
+   */
+  public void add(long delta) {
+    this.count.add(delta);
+  }
+
+  /**
+   * @return aktueller Wert, bei gleichzeitigem Zählen eine Momentaufnahme
+   */
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.name + "=" + getCount() + "]";
+  }
+}
@@ -0,0 +1,71 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Schreibt die Log-Zeilen über einen {@link FileChannel} an das Ende einer Datei. Je Batch eines
+ * {@link AsyncAppender} ist damit nur ein Systemaufruf nötig. {@link #flush()} erzwingt das Schreiben auf den
+ * Datenträger.
+ *
+ * @author morrigan
+ */
+public class FileChannelSink implements LogSink {
+
+  private final Path file;
+  private final FileChannel channel;
+
+  /**
+   * Öffnet die Datei zum Anhängen. Fehlende Verzeichnisse und die Datei selbst werden angelegt.
+   *
+   * @param file Log-Datei (not null)
+   * @throws IOException falls die Datei nicht geöffnet werden kann
+   */
+  public FileChannelSink(Path file) throws IOException {
+    super();
+
+    Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  /**
+   * @return Log-Datei
+   */
+  public Path getFile() {
+    return this.file;
+  }
+
+  @Override
+  public void write(ByteBuffer batch) throws IOException {
+    while (batch.hasRemaining()) {
+      this.channel.write(batch);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.channel.force(false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.file + "]";
+  }
+}
@@ -0,0 +1,40 @@
+package de.morrigan.dev.utils.logging;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Messwert einer {@link MetricsRegistry}, der erst beim Abfragen ermittelt wird, z.B. die Größe eines Caches.
+ *
+ * @author morrigan
+ */
+public final class Gauge {
+
+  private final String name;
+  private final LongSupplier supplier;
+
+  Gauge(String name, LongSupplier supplier) {
+    super();
+
+    this.name = name;
+    this.supplier = supplier;
+  }
+
+  /**
+   * @return Name des Messwerts
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return aktueller Wert
+   */
+  public long getValue() {
+    return this.supplier.getAsLong();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.name + "]";
+  }
+}
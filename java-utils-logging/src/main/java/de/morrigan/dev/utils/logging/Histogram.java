@@ -0,0 +1,174 @@
+package de.morrigan.dev.utils.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Histogramm einer {@link MetricsRegistry} für Werte über den gesamten Bereich von {@code long}, typischerweise
+ * Laufzeiten in Nanosekunden. Wie bei einem HDR-Histogramm sind die Buckets log-linear aufgeteilt: Werte unter 128
+ * werden exakt gezählt, darüber wird jede Zweierpotenz in 64 gleich breite Buckets geteilt. Der relative Fehler der
+ * Perzentile beträgt damit höchstens 1/64 (ca. 1,6 %), bei einer festen Größe von 3712 Buckets.
+ * <p>
+ * Das Erfassen ist lock-frei und legt keine Objekte an: Der Bucket wird über einige Bit-Operationen bestimmt und
+ * atomar erhöht. Minimum und Maximum werden nur geändert, falls sich der Wert tatsächlich verschiebt.
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * Image image = ImageIO.read(source);
+ * LOAD_NANOS.recordNanosSince(start);
+ * </pre>
+ *
+ * @author morrigan
+ */
+public final class Histogram {
+
+  /** Anzahl der Bits, die eine Zweierpotenz innerhalb eines Buckets auflösen */
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_BUCKETS = SUB_BUCKETS >>> 1;
+  /** Werte bis {@link Long#MAX_VALUE} verschieben um höchstens {@code 63 - SUB_BUCKET_BITS} Bits */
+  private static final int BUCKET_COUNT = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * HALF_BUCKETS;
+
+  /**
+   * @param value Wert <i>([0;∞])</i>
+   * @return Index des Buckets, in den der Wert fällt
+   */
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int mantissa = (int) (value >>> shift);
+    return SUB_BUCKETS + (shift - 1) * HALF_BUCKETS + (mantissa - HALF_BUCKETS);
+  }
+
+  /**
+   * @param index Index eines Buckets
+   * @return größter Wert, der in den Bucket fällt
+   */
+  static long highestValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int offset = index - SUB_BUCKETS;
+    int shift = offset / HALF_BUCKETS + 1;
+    long mantissa = offset % HALF_BUCKETS + HALF_BUCKETS;
+    return (mantissa << shift) + (1L << shift) - 1;
+  }
+
+  private final String name;
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+  Histogram(String name) {
+    super();
+
+    this.name = name;
+  }
+
+  /**
+   * @return Name des Histogramms
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Erfasst einen Wert. Negative Werte, z.B. durch Sprünge einer ungenauen Uhr, werden als 0 erfasst.
+   *
+   * @param value Wert
+   */
+  public void record(long value) {
+    long recorded = Math.max(value, 0);
+    this.buckets.incrementAndGet(bucketIndex(recorded));
+    this.count.increment();
+    this.sum.add(recorded);
+    long current;
+    while (recorded < (current = this.min.get()) && !this.min.compareAndSet(current, recorded)) {
+      // erneut versuchen
+    }
+    while (recorded > (current = this.max.get()) && !this.max.compareAndSet(current, recorded)) {
+      // erneut versuchen
+    }
+  }
+
+  /**
+   * Erfasst die seit einem Startzeitpunkt vergangene Zeit.
+   *
+   * @param startNanos Startzeitpunkt aus {@link System#nanoTime()}
+   */
+  public void recordNanosSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * @return Anzahl der erfassten Werte
+   */
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  /**
+   * @return kleinster erfasster Wert oder 0, falls noch keiner erfasst wurde
+   */
+  public long getMin() {
+    long value = this.min.get();
+    return value == Long.MAX_VALUE && getCount() == 0 ? 0 : value;
+  }
+
+  /**
+   * @return größter erfasster Wert oder 0, falls noch keiner erfasst wurde
+   */
+  public long getMax() {
+    return Math.max(this.max.get(), 0);
+  }
+
+  /**
+   * @return Mittelwert der erfassten Werte oder 0, falls noch keiner erfasst wurde
+   */
+  public double getMean() {
+    long values = getCount();
+    return values == 0 ? 0 : (double) this.sum.sum() / values;
+  }
+
+  /**
+   * Liefert den Wert, unter dem der angegebene Anteil der erfassten Werte liegt. Da nur Buckets gezählt werden, ist
+   * das Ergebnis der größte Wert des betreffenden Buckets, höchstens aber das {@link #getMax() Maximum}.
+   *
+   * @param percentile Perzentil <i>([0;100])</i>
+   * @return Wert des Perzentils oder 0, falls noch kein Wert erfasst wurde
+   * @throws IllegalArgumentException falls das Perzentil außerhalb des Bereichs liegt
+   */
+  public long getValueAtPercentile(double percentile) {
+    Validate.isTrue(percentile >= 0 && percentile <= 100, "Das Perzentil ist ungültig! percentile: %s", percentile);
+    long[] snapshot = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = this.buckets.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(highestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.name + ", count=" + getCount() + "]";
+  }
+}
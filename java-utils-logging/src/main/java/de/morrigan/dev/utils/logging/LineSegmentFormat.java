@@ -0,0 +1,43 @@
+package de.morrigan.dev.utils.logging;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link SegmentFormat} für Textzeilen, die mit {@code '\n'} enden.
+ *
+ * @author morrigan
+ */
+final class LineSegmentFormat implements SegmentFormat {
+
+  static final LineSegmentFormat INSTANCE = new LineSegmentFormat();
+
+  private LineSegmentFormat() {
+    super();
+  }
+
+  @Override
+  public int lastRecordEnd(ByteBuffer records, int maxBytes) {
+    int end = records.position() + Math.min(maxBytes, records.remaining());
+    for (int i = end - 1; i >= records.position(); i--) {
+      if (records.get(i) == '\n') {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void written(ByteBuffer bytes, int from, int to) {
+    // Zeilen benötigen keinen Kopf
+  }
+
+  @Override
+  public ByteBuffer header() {
+    return ByteBuffer.allocate(0);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,316 @@
+package de.morrigan.dev.utils.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Ein strukturiertes Ereignis eines {@link StructuredLogger}, das beim Hinzufügen der Werte direkt als JSON in einen
+ * Byte-Puffer kodiert wird. Jeder Thread besitzt genau ein Ereignis, das für alle Logger wiederverwendet wird. Nach
+ * der Aufwärmphase, in der der Puffer auf die benötigte Größe wächst, entstehen keine Objekte mehr.
+ * <p>
+ * Schlüssel werden nicht auf Eindeutigkeit geprüft. Zahlen mit Nachkommastellen werden mit höchstens sechs
+ * Nachkommastellen geschrieben; nur Beträge ab 10<sup>12</sup> oder unter 10<sup>-6</sup> gehen über
+ * {@link Double#toString(double)} und legen dabei Objekte an.
+ *
+ * @author morrigan
+ */
+public final class LogEvent {
+
+  /** Ereignis für abgeschaltete Stufen, ignoriert alle Werte */
+  static final LogEvent DISABLED = new LogEvent();
+
+  private static final ThreadLocal<LogEvent> CURRENT = ThreadLocal.withInitial(LogEvent::new);
+
+  private static final byte[] HEX = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+  private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+  private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+  private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+  private static final double MAX_FIXED_DOUBLE = 1e12;
+  private static final double MIN_FIXED_DOUBLE = 1e-6;
+  private static final int FRACTION_DIGITS = 6;
+  private static final long FRACTION_SCALE = 1_000_000L;
+  private static final int INITIAL_BYTES = 512;
+
+  /**
+   * @return Ereignis des aktuellen Threads
+   */
+  static LogEvent current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Name des Threads, dem das Ereignis gehört. {@link Thread#getName()} legt unter Java 8 bei jedem Aufruf einen neuen
+   * String an, daher wird der Name beim Anlegen des Ereignisses übernommen. Eine spätere Umbenennung des Threads wird
+   * nicht berücksichtigt.
+   */
+  private final String threadName;
+  private byte[] buffer = new byte[INITIAL_BYTES];
+  private int position;
+  private StructuredLogger logger;
+
+  private LogEvent() {
+    super();
+
+    this.threadName = Thread.currentThread().getName();
+  }
+
+  /**
+   * Verwirft den bisherigen Inhalt und schreibt die festen Felder des Ereignisses.
+   */
+  LogEvent begin(StructuredLogger eventLogger, LogLevel level, String message) {
+    this.logger = eventLogger;
+    this.position = 0;
+    writeRaw('{');
+    writeKey("ts");
+    writeLong(System.currentTimeMillis());
+    writeSeparator();
+    writeKey("level");
+    writeString(level.name());
+    writeSeparator();
+    writeKey("logger");
+    writeString(eventLogger.getName());
+    writeSeparator();
+    writeKey("thread");
+    writeString(this.threadName);
+    writeSeparator();
+    writeKey("msg");
+    writeString(message);
+    return this;
+  }
+
+  /**
+   * @param key Schlüssel (not null)
+   * @param value Wert
+   * @return dieses Ereignis
+   */
+  public LogEvent kv(String key, long value) {
+    if (this.logger != null) {
+      writeSeparator();
+      writeKey(key);
+      writeLong(value);
+    }
+    return this;
+  }
+
+  /**
+   * @param key Schlüssel (not null)
+   * @param value Wert
+   * @return dieses Ereignis
+   */
+  public LogEvent kv(String key, int value) {
+    return kv(key, (long) value);
+  }
+
+  /**
+   * @param key Schlüssel (not null)
+   * @param value Wert, {@code NaN} und unendliche Werte werden als {@code null} geschrieben
+   * @return dieses Ereignis
+   */
+  public LogEvent kv(String key, double value) {
+    if (this.logger != null) {
+      writeSeparator();
+      writeKey(key);
+      writeDouble(value);
+    }
+    return this;
+  }
+
+  /**
+   * @param key Schlüssel (not null)
+   * @param value Wert
+   * @return dieses Ereignis
+   */
+  public LogEvent kv(String key, boolean value) {
+    if (this.logger != null) {
+      writeSeparator();
+      writeKey(key);
+      writeRaw(value ? TRUE : FALSE);
+    }
+    return this;
+  }
+
+  /**
+   * @param key Schlüssel (not null)
+   * @param value Wert, {@code null} wird als {@code null} geschrieben
+   * @return dieses Ereignis
+   */
+  public LogEvent kv(String key, CharSequence value) {
+    if (this.logger != null) {
+      writeSeparator();
+      writeKey(key);
+      if (value == null) {
+        writeRaw(NULL);
+      } else {
+        writeString(value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Schreibt Klasse und Nachricht der Ausnahme in die Felder {@code "error"} und {@code "errorMsg"}.
+   *
+   * @param error Ausnahme, bei {@code null} passiert nichts
+   * @return dieses Ereignis
+   */
+  public LogEvent error(Throwable error) {
+    if (this.logger != null && error != null) {
+      kv("error", error.getClass().getName());
+      kv("errorMsg", error.getMessage());
+    }
+    return this;
+  }
+
+  /**
+   * Schließt das Ereignis ab und übergibt es an den {@link AsyncAppender} des Loggers.
+   *
+   * @return {@code true}, falls das Ereignis übernommen wurde, {@code false}, falls die Stufe abgeschaltet ist oder der
+   *         Appender es verworfen hat
+   */
+  public boolean log() {
+    StructuredLogger eventLogger = this.logger;
+    if (eventLogger == null) {
+      return false;
+    }
+    this.logger = null;
+    writeRaw('}');
+    writeRaw('\n');
+    return eventLogger.getAppender().append(this.buffer, 0, this.position);
+  }
+
+  /**
+   * @return {@code true}, falls das Ereignis geschrieben wird
+   */
+  public boolean isEnabled() {
+    return this.logger != null;
+  }
+
+  private void writeSeparator() {
+    writeRaw(',');
+  }
+
+  private void writeKey(String key) {
+    writeString(key);
+    writeRaw(':');
+  }
+
+  private void writeString(CharSequence value) {
+    int length = value.length();
+    // Schlimmster Fall: jedes Zeichen als \\u00XX, dazu die Anführungszeichen
+    ensureCapacity(6 * length + 2);
+    byte[] bytes = this.buffer;
+    int pos = this.position;
+    bytes[pos++] = '"';
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x20 && c < 0x80) {
+        if (c == '"' || c == '\\') {
+          bytes[pos++] = '\\';
+        }
+        bytes[pos++] = (byte) c;
+      } else if (c < 0x20) {
+        bytes[pos++] = '\\';
+        switch (c) {
+          case '\n':
+            bytes[pos++] = 'n';
+          break;
+          case '\r':
+            bytes[pos++] = 'r';
+          break;
+          case '\t':
+            bytes[pos++] = 't';
+          break;
+          default:
+            bytes[pos++] = 'u';
+            bytes[pos++] = '0';
+            bytes[pos++] = '0';
+            bytes[pos++] = HEX[c >>> 4];
+            bytes[pos++] = HEX[c & 0xF];
+          break;
+        }
+      } else {
+        int end = Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))
+            ? i + 2
+            : i + 1;
+        pos = Utf8.encode(value, i, end, bytes, pos);
+        i = end - 1;
+      }
+    }
+    bytes[pos++] = '"';
+    this.position = pos;
+  }
+
+  private void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      writeRaw(MIN_LONG);
+      return;
+    }
+    ensureCapacity(20);
+    long remaining = value;
+    if (remaining < 0) {
+      this.buffer[this.position++] = '-';
+      remaining = -remaining;
+    }
+    int digits = 1;
+    for (long limit = 10; digits < 19 && remaining >= limit; limit *= 10) {
+      digits++;
+    }
+    int end = this.position + digits;
+    for (int pos = end - 1; pos >= this.position; pos--) {
+      this.buffer[pos] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    this.position = end;
+  }
+
+  private void writeDouble(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      writeRaw(NULL);
+      return;
+    }
+    double abs = Math.abs(value);
+    if (abs >= MAX_FIXED_DOUBLE || (abs < MIN_FIXED_DOUBLE && abs != 0)) {
+      String text = Double.toString(value);
+      ensureCapacity(text.length());
+      this.position = Utf8.encode(text, 0, text.length(), this.buffer, this.position);
+      return;
+    }
+    long scaled = Math.round(abs * FRACTION_SCALE);
+    if (value < 0 && scaled != 0) {
+      writeRaw('-');
+    }
+    writeLong(scaled / FRACTION_SCALE);
+    long fraction = scaled % FRACTION_SCALE;
+    int digits = FRACTION_DIGITS;
+    while (digits > 1 && fraction % 10 == 0) {
+      fraction /= 10;
+      digits--;
+    }
+    ensureCapacity(digits + 1);
+    this.buffer[this.position++] = '.';
+    for (int pos = this.position + digits - 1; pos >= this.position; pos--) {
+      this.buffer[pos] = (byte) ('0' + fraction % 10);
+      fraction /= 10;
+    }
+    this.position += digits;
+  }
+
+  private void writeRaw(char c) {
+    ensureCapacity(1);
+    this.buffer[this.position++] = (byte) c;
+  }
+
+  private void writeRaw(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+    this.position += bytes.length;
+  }
+
+  private void ensureCapacity(int additional) {
+    int required = this.position + additional;
+    if (required > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length * 2));
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package de.morrigan.dev.utils.logging;
+
+/**
+ * Stufen eines {@link StructuredLogger}, aufsteigend nach Wichtigkeit sortiert.
+ *
+ * @author morrigan
+ */
+public enum LogLevel {
+
+  TRACE,
+  DEBUG,
+  INFO,
+  WARN,
+  ERROR,
+
+  /** Schaltet einen {@link StructuredLogger} vollständig ab, darf nicht für Ereignisse verwendet werden */
+  OFF;
+
+  /**
+   * @param threshold eingestellte Stufe eines Loggers
+   * @return {@code true}, falls Ereignisse dieser Stufe bei der angegebenen Schwelle geschrieben werden
+   */
+  public boolean isEnabledAt(LogLevel threshold) {
+    return this != OFF && ordinal() >= threshold.ordinal();
+  }
+}
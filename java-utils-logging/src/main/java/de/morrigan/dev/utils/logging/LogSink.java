@@ -0,0 +1,31 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Ziel, in das der Schreib-Thread eines {@link AsyncAppender} die fertig kodierten Log-Zeilen schreibt. Die Methoden
+ * werden nie gleichzeitig aufgerufen, Implementierungen müssen daher nicht threadsicher sein.
+ *
+ * @author morrigan
+ */
+public interface LogSink extends Closeable, Flushable {
+
+  /**
+   * Schreibt alle verbleibenden Bytes des Puffers. Danach darf der Puffer vom Aufrufer wiederverwendet werden.
+   *
+   * @param batch eine oder mehrere vollständige Log-Zeilen
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  void write(ByteBuffer batch) throws IOException;
+
+  /**
+   * Stellt sicher, dass alle geschriebenen Bytes dauerhaft gespeichert sind.
+   *
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  @Override
+  void flush() throws IOException;
+}
@@ -0,0 +1,401 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Schreibt die Log-Zeilen in eine Folge von Segment-Dateien, die jeweils vollständig in den Speicher eingeblendet
+ * werden. Ein Batch wird dadurch mit einem einfachen Kopieren in den {@link MappedByteBuffer} geschrieben, ohne
+ * Systemaufruf je Batch. Ist ein Segment voll, wird es auf seine tatsächliche Länge gekürzt und das nächste angelegt.
+ * Das {@link SegmentFormat} bestimmt die Grenzen der Datensätze, standardmäßig Zeilen. Ein Datensatz wird nie auf zwei
+ * Segmente verteilt, solange er in ein Segment passt, und jedes neue Segment beginnt mit dem Kopf des Formats. Nur der
+ * Rest eines Datensatzes, der größer als ein Segment ist, steht ohne Kopf am Anfang des nächsten Segments.
+ * <p>
+ * Die Segmente heißen {@code <prefix>-000001.log}, {@code <prefix>-000002.log} usw. Beim Öffnen wird immer ein neues
+ * Segment nach dem höchsten vorhandenen begonnen. Nach jedem Wechsel werden die ältesten Segmente gelöscht, bis die
+ * Gesamtgröße unter {@link Builder#maxTotalBytes(long)} liegt, und alle, die älter als {@link Builder#maxAge(Duration)}
+ * sind.
+ * <p>
+ * Solange ein Segment geschrieben wird, hat die Datei bereits ihre volle Größe und ist hinter der letzten Zeile mit
+ * Nullbytes gefüllt. Erst {@link #close()} oder der Wechsel auf das nächste Segment kürzt sie. Nach einem Absturz
+ * bleiben die Nullbytes am Ende stehen.
+ *
+ * @author morrigan
+ */
+public class MappedRollingFileSink implements LogSink {
+
+  /**
+   * Erzeugt einen {@link MappedRollingFileSink}.
+   *
+   * @author morrigan
+   */
+  public static final class Builder {
+
+    private final Path directory;
+    private final String prefix;
+    private int segmentBytes = DEFAULT_SEGMENT_BYTES;
+    private long maxTotalBytes;
+    private Duration maxAge;
+    private SegmentFormat format = SegmentFormat.lines();
+
+    /**
+     * @param directory Verzeichnis der Segmente (not null), wird bei Bedarf angelegt
+     * @param prefix Anfang der Dateinamen (not empty)
+     */
+    public Builder(Path directory, String prefix) {
+      super();
+
+      Validate.notNull(directory, "Folgende Parameter dürfen nicht null sein! directory: {}", directory);
+      Validate.notEmpty(prefix, "Der Präfix darf nicht leer sein! prefix: %s", prefix);
+      this.directory = directory;
+      this.prefix = prefix;
+    }
+
+    /**
+     * @param segmentBytes Größe eines Segments in Bytes <i>(>= 4096)</i>
+     * @return dieser Builder
+     */
+    public Builder segmentBytes(int segmentBytes) {
+      Validate.isTrue(segmentBytes >= MIN_SEGMENT_BYTES, "Die Segmentgröße ist ungültig! segmentBytes: %d",
+          segmentBytes);
+      this.segmentBytes = segmentBytes;
+      return this;
+    }
+
+    /**
+     * @param maxTotalBytes maximale Größe aller abgeschlossenen Segmente zusammen, 0 für unbegrenzt <i>(>= 0)</i>
+     * @return dieser Builder
+     */
+    public Builder maxTotalBytes(long maxTotalBytes) {
+      Validate.isTrue(maxTotalBytes >= 0, "Die Gesamtgröße ist ungültig! maxTotalBytes: %d", maxTotalBytes);
+      this.maxTotalBytes = maxTotalBytes;
+      return this;
+    }
+
+    /**
+     * @param maxAge maximales Alter eines abgeschlossenen Segments seit der letzten Änderung, {@code null} für
+     *        unbegrenzt
+     * @return dieser Builder
+     */
+    public Builder maxAge(Duration maxAge) {
+      Validate.isTrue(maxAge == null || !maxAge.isNegative(), "Das Alter ist ungültig! maxAge: %s", maxAge);
+      this.maxAge = maxAge;
+      return this;
+    }
+
+    /**
+     * @param format Grenzen der Datensätze und Kopf neuer Segmente (not null), z.B. {@link SegmentFormat#binaryLog()}
+     *        für einen {@link BinaryLogger}
+     * @return dieser Builder
+     */
+    public Builder format(SegmentFormat format) {
+      Validate.notNull(format, "Folgende Parameter dürfen nicht null sein! format: {}", format);
+      this.format = format;
+      return this;
+    }
+
+    /**
+     * @return Sink mit einem neu angelegten Segment
+     * @throws IOException falls das Verzeichnis oder das Segment nicht angelegt werden kann
+     */
+    public MappedRollingFileSink build() throws IOException {
+      return new MappedRollingFileSink(this);
+    }
+  }
+
+  /** Standard-Größe eines Segments */
+  public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+  private static final int MIN_SEGMENT_BYTES = 4096;
+  private static final String SUFFIX = ".log";
+  private static final int INDEX_DIGITS = 6;
+
+  private final Path directory;
+  private final String prefix;
+  private final int segmentBytes;
+  private final long maxTotalBytes;
+  private final Duration maxAge;
+  private final SegmentFormat format;
+
+  private int index;
+  private Path file;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  /** Position hinter dem Kopf des aktuellen Segments */
+  private int headerEnd;
+  private long rolledCount;
+  private boolean closed;
+
+  private MappedRollingFileSink(Builder builder) throws IOException {
+    super();
+
+    this.directory = builder.directory;
+    this.prefix = builder.prefix;
+    this.segmentBytes = builder.segmentBytes;
+    this.maxTotalBytes = builder.maxTotalBytes;
+    this.maxAge = builder.maxAge;
+    this.format = builder.format;
+    Files.createDirectories(this.directory);
+    List<Path> segments = listSegments();
+    this.index = segments.isEmpty() ? 0 : indexOf(segments.get(segments.size() - 1));
+    openSegment(this.index + 1, true);
+    applyRetention();
+  }
+
+  /**
+   * @return Segment, in das gerade geschrieben wird
+   */
+  public Path getCurrentFile() {
+    return this.file;
+  }
+
+  /**
+   * @return Anzahl der Wechsel auf ein neues Segment seit dem Öffnen
+   */
+  public long getRolledCount() {
+    return this.rolledCount;
+  }
+
+  /**
+   * @return alle Segmente dieses Präfixes, aufsteigend nach ihrer Nummer sortiert
+   * @throws IOException falls das Verzeichnis nicht gelesen werden kann
+   */
+  public List<Path> listSegments() throws IOException {
+    List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, this.prefix + "-*" + SUFFIX)) {
+      for (Path segment : stream) {
+        if (indexOf(segment) > 0) {
+          segments.add(segment);
+        }
+      }
+    }
+    Collections.sort(segments, (a, b) -> Integer.compare(indexOf(a), indexOf(b)));
+    return segments;
+  }
+
+  @Override
+  public void write(ByteBuffer batch) throws IOException {
+    checkOpen();
+    while (batch.hasRemaining()) {
+      int free = this.buffer.remaining();
+      if (batch.remaining() <= free) {
+        put(batch, batch.limit());
+        return;
+      }
+      int end = this.format.lastRecordEnd(batch, free);
+      boolean split = end < 0 && this.buffer.position() == this.headerEnd;
+      if (split) {
+        // Der Datensatz ist größer als ein ganzes Segment und muss aufgeteilt werden
+        end = batch.position() + free;
+      }
+      if (end > batch.position()) {
+        put(batch, end);
+      }
+      // Der Rest eines aufgeteilten Datensatzes muss direkt folgen, ein Kopf davor würde ihn unlesbar machen
+      roll(!split);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    checkOpen();
+    this.buffer.force();
+  }
+
+  /**
+   * Kürzt das aktuelle Segment auf seine tatsächliche Länge und schließt es.
+   *
+   * @throws IOException falls das Segment nicht gekürzt werden kann
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    closeSegment(this.channel, this.buffer);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.file + "]";
+  }
+
+  /**
+   * Schreibt die Bytes des Batches bis {@code end} in das aktuelle Segment.
+   */
+  private void put(ByteBuffer batch, int end) {
+    int start = batch.position();
+    int limit = batch.limit();
+    batch.limit(end);
+    this.buffer.put(batch);
+    batch.limit(limit);
+    this.format.written(batch, start, end);
+  }
+
+  /**
+   * Wechselt auf das nächste Segment. Das bisherige Segment wird erst freigegeben, wenn das nächste angelegt ist. Kann
+   * das nächste Segment nicht angelegt werden, bleibt das bisherige aktiv und der nächste Batch versucht es erneut.
+   */
+  private void roll(boolean withHeader) throws IOException {
+    FileChannel previousChannel = this.channel;
+    MappedByteBuffer previousBuffer = this.buffer;
+    openSegment(this.index + 1, withHeader);
+    this.rolledCount++;
+    closeSegment(previousChannel, previousBuffer);
+    applyRetention();
+  }
+
+  /**
+   * Legt das Segment an, macht es zum aktuellen Segment und schreibt ggf. den Kopf. Schlägt das Anlegen fehl, bleibt
+   * der bisherige Zustand erhalten.
+   */
+  private void openSegment(int segmentIndex, boolean withHeader) throws IOException {
+    Path segmentFile = this.directory.resolve(fileName(segmentIndex));
+    FileChannel segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    MappedByteBuffer segmentBuffer;
+    try {
+      segmentBuffer = segmentChannel.map(MapMode.READ_WRITE, 0, this.segmentBytes);
+    } catch (IOException | RuntimeException e) {
+      segmentChannel.close();
+      // Die leere Datei würde sonst das erneute Anlegen unter demselben Namen verhindern
+      Files.deleteIfExists(segmentFile);
+      throw e;
+    }
+    this.index = segmentIndex;
+    this.file = segmentFile;
+    this.channel = segmentChannel;
+    this.buffer = segmentBuffer;
+    this.headerEnd = 0;
+    if (withHeader) {
+      writeHeader();
+    }
+  }
+
+  /**
+   * Schreibt den Kopf des Formats an den Anfang des aktuellen Segments. Er belegt höchstens die Hälfte des Segments,
+   * weitere Datensätze des Kopfes werden weggelassen, damit noch Platz für neue Datensätze bleibt.
+   */
+  private void writeHeader() {
+    ByteBuffer header = this.format.header();
+    int maxBytes = this.segmentBytes / 2;
+    if (header.remaining() > maxBytes) {
+      header.limit(Math.max(header.position(), this.format.lastRecordEnd(header, maxBytes)));
+    }
+    this.buffer.put(header);
+    this.headerEnd = this.buffer.position();
+  }
+
+  private static void closeSegment(FileChannel segmentChannel, MappedByteBuffer segmentBuffer) throws IOException {
+    try {
+      segmentBuffer.force();
+      int length = segmentBuffer.position();
+      unmap(segmentBuffer);
+      segmentChannel.truncate(length);
+    } finally {
+      segmentChannel.close();
+    }
+  }
+
+  private void applyRetention() throws IOException {
+    if (this.maxTotalBytes == 0 && this.maxAge == null) {
+      return;
+    }
+    List<Path> segments = listSegments();
+    segments.remove(this.file);
+    long total = 0;
+    for (Path segment : segments) {
+      total += Files.size(segment);
+    }
+    long oldest = this.maxAge == null ? Long.MIN_VALUE : System.currentTimeMillis() - this.maxAge.toMillis();
+    for (Path segment : segments) {
+      boolean tooLarge = this.maxTotalBytes > 0 && total > this.maxTotalBytes;
+      boolean tooOld = Files.getLastModifiedTime(segment).toMillis() < oldest;
+      if (tooLarge || tooOld) {
+        long size = Files.size(segment);
+        Files.deleteIfExists(segment);
+        total -= size;
+      }
+    }
+  }
+
+  private String fileName(int segmentIndex) {
+    StringBuilder name = new StringBuilder(this.prefix).append('-');
+    String digits = Integer.toString(segmentIndex);
+    for (int i = digits.length(); i < INDEX_DIGITS; i++) {
+      name.append('0');
+    }
+    return name.append(digits).append(SUFFIX).toString();
+  }
+
+  /**
+   * @return Nummer des Segments oder 0, falls der Dateiname nicht zu diesem Präfix passt
+   */
+  private int indexOf(Path segment) {
+    String name = segment.getFileName().toString();
+    int start = this.prefix.length() + 1;
+    int end = name.length() - SUFFIX.length();
+    if (end <= start || !name.startsWith(this.prefix + "-") || !name.endsWith(SUFFIX)) {
+      return 0;
+    }
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      char c = name.charAt(i);
+      if (c < '0' || c > '9' || result > (Integer.MAX_VALUE - 9) / 10) {
+        return 0;
+      }
+      result = 10 * result + (c - '0');
+    }
+    return result;
+  }
+
+  private void checkOpen() {
+    if (this.closed) {
+      throw new IllegalStateException("The sink has already been closed");
+    }
+  }
+
+  /**
+   * Gibt die Einblendung sofort frei, damit die Datei auch unter Windows gekürzt werden kann. Ohne Zugriff auf die
+   * internen Klassen der JVM bleibt die Einblendung bis zur Garbage Collection bestehen, was auf anderen Systemen das
+   * Kürzen nicht verhindert.
+   */
+  private static void unmap(MappedByteBuffer segment) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      try {
+        // Ab Java 9
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), segment);
+      } catch (NoSuchMethodException e) {
+        // Java 8
+        Method cleanerMethod = segment.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(segment);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Die Einblendung wird dann erst von der Garbage Collection freigegeben
+    }
+  }
+}
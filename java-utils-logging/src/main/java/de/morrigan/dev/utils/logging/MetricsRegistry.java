@@ -0,0 +1,156 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Sammelt die Kennzahlen einer Anwendung: {@link Counter Zähler}, {@link Gauge Messwerte} und {@link Histogram
+ * Histogramme}. Jede Metrik wird über ihren Namen angelegt bzw. abgerufen, sodass verschiedene Klassen dieselbe Metrik
+ * verwenden können. Die Metriken sollten einmalig, z.B. in einer Konstanten, abgerufen werden, damit beim Erfassen nur
+ * noch der Zähler bzw. das Histogramm selbst angesprochen wird.
+ *
+ * <pre>
+ * private static final Counter MISSES = MetricsRegistry.getDefault().counter("image.misses");
+ *
+ * MISSES.increment();
+ * </pre>
+ *
+ * Die Werte können über {@link #report(Appendable)} oder periodisch über einen {@link MetricsReporter} ausgegeben
+ * werden.
+ *
+ * @author morrigan
+ */
+public final class MetricsRegistry {
+
+  private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+  /**
+   * @return gemeinsame Registry der Anwendung
+   */
+  public static MetricsRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+  /**
+   * Erzeugt eine eigenständige, leere Registry. Üblicherweise wird die gemeinsame Registry aus {@link #getDefault()}
+   * verwendet.
+   */
+  public MetricsRegistry() {
+    super();
+  }
+
+  /**
+   * @param name Name des Zählers (not null)
+   * @return vorhandener oder neuer Zähler
+   * @throws IllegalArgumentException falls unter dem Namen bereits eine andere Art von Metrik registriert ist
+   */
+  public Counter counter(String name) {
+    return register(name, Counter.class, Counter::new);
+  }
+
+  /**
+   * @param name Name des Histogramms (not null)
+   * @return vorhandenes oder neues Histogramm
+   * @throws IllegalArgumentException falls unter dem Namen bereits eine andere Art von Metrik registriert ist
+   */
+  public Histogram histogram(String name) {
+    return register(name, Histogram.class, Histogram::new);
+  }
+
+  /**
+   * Registriert einen Messwert. Ein bereits registrierter Messwert gleichen Namens wird ersetzt.
+   *
+   * @param name Name des Messwerts (not null)
+   * @param supplier ermittelt den aktuellen Wert (not null), wird beim Ausgeben aus einem beliebigen Thread aufgerufen
+   * @return neuer Messwert
+   * @throws IllegalArgumentException falls unter dem Namen bereits eine andere Art von Metrik registriert ist
+   */
+  public Gauge gauge(String name, LongSupplier supplier) {
+    Validate.notNull(name, "Folgende Parameter dürfen nicht null sein! name: {}", name);
+    Validate.notNull(supplier, "Folgende Parameter dürfen nicht null sein! supplier: {}", supplier);
+    Gauge gauge = new Gauge(name, supplier);
+    Object previous = this.metrics.merge(name, gauge, (existing, created) -> existing instanceof Gauge ? created
+        : existing);
+    Validate.isTrue(previous == gauge, "Die Metrik %s ist bereits als %s registriert!", name,
+        previous.getClass().getSimpleName());
+    return gauge;
+  }
+
+  /**
+   * @param name Name einer Metrik
+   * @return {@code true}, falls die Metrik entfernt wurde
+   */
+  public boolean remove(String name) {
+    return name != null && this.metrics.remove(name) != null;
+  }
+
+  /**
+   * @return sortierte Namen aller Metriken
+   */
+  public Set<String> getNames() {
+    return new TreeSet<>(this.metrics.keySet());
+  }
+
+  /**
+   * Schreibt alle Metriken sortiert nach ihrem Namen, eine je Zeile:
+   *
+   * <pre>
+   * counter   image.misses 3
+   * gauge     image.cache.bytes 1048576
+   * histogram image.load.nanos count=12 min=81920 mean=153600 p50=139263 p90=245759 p99=311295 max=312001
+   * </pre>
+   *
+   * @param out Ziel (not null)
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  public void report(Appendable out) throws IOException {
+    Validate.notNull(out, "Folgende Parameter dürfen nicht null sein! out: {}", out);
+    for (Map.Entry<String, Object> entry : new TreeMap<>(this.metrics).entrySet()) {
+      String name = entry.getKey();
+      Object metric = entry.getValue();
+      if (metric instanceof Counter) {
+        out.append("counter   ").append(name).append(' ').append(Long.toString(((Counter) metric).getCount()));
+      } else if (metric instanceof Gauge) {
+        out.append("gauge     ").append(name).append(' ').append(Long.toString(((Gauge) metric).getValue()));
+      } else {
+        Histogram histogram = (Histogram) metric;
+        out.append("histogram ").append(name);
+        out.append(" count=").append(Long.toString(histogram.getCount()));
+        out.append(" min=").append(Long.toString(histogram.getMin()));
+        out.append(" mean=").append(Long.toString(Math.round(histogram.getMean())));
+        out.append(" p50=").append(Long.toString(histogram.getValueAtPercentile(50)));
+        out.append(" p90=").append(Long.toString(histogram.getValueAtPercentile(90)));
+        out.append(" p99=").append(Long.toString(histogram.getValueAtPercentile(99)));
+        out.append(" max=").append(Long.toString(histogram.getMax()));
+      }
+      out.append('\n');
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[metrics=" + this.metrics.size() + "]";
+  }
+
+  private <T> T register(String name, Class<T> type, Function<String, T> factory) {
+    Validate.notNull(name, "Folgende Parameter dürfen nicht null sein! name: {}", name);
+    Object metric = this.metrics.get(name);
+    if (metric == null) {
+      metric = this.metrics.computeIfAbsent(name, factory);
+    }
+    Validate.isTrue(type.isInstance(metric), "Die Metrik %s ist bereits als %s registriert!", name,
+        metric.getClass().getSimpleName());
+    return type.cast(metric);
+  }
+}
@@ -0,0 +1,170 @@
+package de.morrigan.dev.utils.logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+
+/**
+ * Gibt die Metriken einer {@link MetricsRegistry} periodisch über einen SLF4J {@link Logger} oder in eine lokale Datei
+ * aus. Das Ausgeben erfolgt auf einem eigenen Daemon-Thread, sodass die erfassenden Threads davon nicht betroffen sind.
+ *
+ * <pre>
+ * MetricsReporter reporter = MetricsReporter.toLog(MetricsRegistry.getDefault(), LOG);
+ * reporter.start(Duration.ofMinutes(1));
+ * </pre>
+ *
+ * Beim {@link #close() Schließen} werden die Metriken ein letztes Mal ausgegeben.
+ *
+ * @author morrigan
+ */
+public final class MetricsReporter implements Closeable {
+
+  /** Ziel eines Berichts */
+  @FunctionalInterface
+  private interface Target {
+
+    void write(MetricsRegistry registry) throws IOException;
+  }
+
+  /**
+   * Gibt jede Metrik als eigene Meldung der Stufe INFO aus.
+   *
+   * @param registry Quelle der Metriken (not null)
+   * @param logger Ziel der Meldungen (not null)
+   * @return neuer, noch nicht gestarteter Reporter
+   */
+  public static MetricsReporter toLog(MetricsRegistry registry, Logger logger) {
+    Validate.notNull(logger, "Folgende Parameter dürfen nicht null sein! logger: {}", logger);
+    return new MetricsReporter(registry, metrics -> {
+      StringBuilder report = new StringBuilder();
+      metrics.report(report);
+      for (String line : report.toString().split("\n")) {
+        if (!line.isEmpty()) {
+          logger.info("{}", line);
+        }
+      }
+    });
+  }
+
+  /**
+   * Hängt jeden Bericht mit einer Kopfzeile der Form {@code # 2024-01-31T12:00:00Z} an eine Datei an.
+   *
+   * @param registry Quelle der Metriken (not null)
+   * @param file Datei, wird bei Bedarf angelegt (not null)
+   * @return neuer, noch nicht gestarteter Reporter
+   */
+  public static MetricsReporter toFile(MetricsRegistry registry, Path file) {
+    Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+    return new MetricsReporter(registry, metrics -> {
+      StringBuilder report = new StringBuilder("# ").append(Instant.now()).append('\n');
+      metrics.report(report);
+      Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    });
+  }
+
+  private final MetricsRegistry registry;
+  private final Target target;
+  private ScheduledExecutorService scheduler;
+  private volatile long reportCount;
+  private volatile long errorCount;
+  private volatile Throwable lastError;
+
+  private MetricsReporter(MetricsRegistry registry, Target target) {
+    super();
+
+    Validate.notNull(registry, "Folgende Parameter dürfen nicht null sein! registry: {}", registry);
+    this.registry = registry;
+    this.target = target;
+  }
+
+  /**
+   * Startet das periodische Ausgeben. Der erste Bericht erfolgt nach Ablauf des ersten Intervalls.
+   *
+   * @param interval Abstand zwischen zwei Berichten (not null, positiv)
+   * @throws IllegalStateException falls der Reporter bereits gestartet wurde
+   */
+  public synchronized void start(Duration interval) {
+    Validate.notNull(interval, "Folgende Parameter dürfen nicht null sein! interval: {}", interval);
+    Validate.isTrue(!interval.isNegative() && !interval.isZero(), "Der Zeitraum ist ungültig! interval: %s", interval);
+    Validate.validState(this.scheduler == null, "The reporter was already started");
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "metrics-reporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long nanos = interval.toNanos();
+    this.scheduler.scheduleAtFixedRate(this::report, nanos, nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gibt die Metriken sofort aus. Fehler beim Schreiben werden nicht geworfen, sondern über {@link #getErrorCount()}
+   * und {@link #getLastError()} bereitgestellt, damit ein fehlerhaftes Ziel das periodische Ausgeben nicht beendet.
+   *
+   * @return {@code true}, falls der Bericht geschrieben wurde
+   */
+  public synchronized boolean report() {
+    try {
+      this.target.write(this.registry);
+      this.reportCount++;
+      return true;
+    } catch (IOException | RuntimeException e) {
+      this.errorCount++;
+      this.lastError = e;
+      return false;
+    }
+  }
+
+  /**
+   * @return Anzahl der geschriebenen Berichte
+   */
+  public long getReportCount() {
+    return this.reportCount;
+  }
+
+  /**
+   * @return Anzahl der fehlgeschlagenen Berichte
+   */
+  public long getErrorCount() {
+    return this.errorCount;
+  }
+
+  /**
+   * @return zuletzt aufgetretener Fehler oder {@code null}
+   */
+  public Throwable getLastError() {
+    return this.lastError;
+  }
+
+  /**
+   * Beendet das periodische Ausgeben und gibt die Metriken, falls der Reporter gestartet wurde, ein letztes Mal aus.
+   */
+  @Override
+  public void close() {
+    ScheduledExecutorService stopped;
+    synchronized (this) {
+      stopped = this.scheduler;
+      this.scheduler = null;
+    }
+    if (stopped != null) {
+      stopped.shutdown();
+      try {
+        stopped.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      report();
+    }
+  }
+}
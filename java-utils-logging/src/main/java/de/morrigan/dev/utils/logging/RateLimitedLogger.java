@@ -0,0 +1,312 @@
+package de.morrigan.dev.utils.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+
+/**
+ * Begrenzt, wie oft dieselbe Meldung über einen SLF4J {@link Logger} ausgegeben wird, z.B. Warnungen zu fehlenden
+ * Einträgen, die in einer Render-Schleife sonst bei jedem Bild das Log fluten. Jedes Template (der Text mit den
+ * {@code {}}-Platzhaltern) erhält einen eigenen Token-Bucket: Bis zu {@link Builder#permits(int, Duration) burst}
+ * Meldungen werden sofort ausgegeben, danach nur noch so viele, wie im Zeitraum nachgefüllt werden. Unterdrückte
+ * Meldungen werden nicht formatiert, sondern nur gezählt und als eine Zusammenfassung ausgegeben, sobald das Template
+ * nach {@link Builder#summaryInterval(Duration)} wieder verwendet oder {@link #reportSuppressed()} aufgerufen wird.
+ * Wer den Logger hält, sollte daher {@link #reportSuppressed()} beim Leeren oder Schließen aufrufen, damit keine
+ * Zusammenfassung verloren geht.
+ *
+ * <pre>
+ * private static final RateLimitedLogger MISS_LOG = new RateLimitedLogger.Builder(LOG).build();
+ *
+ * MISS_LOG.warn("Image with name {} is not available!", imageName);
+ * </pre>
+ *
+ * Templates sollten Konstanten sein, da für jedes verschiedene Template ein Bucket angelegt und behalten wird.
+ *
+ * @author morrigan
+ */
+public class RateLimitedLogger {
+
+  /**
+   * Erzeugt einen {@link RateLimitedLogger}.
+   *
+   * @author morrigan
+   */
+  public static final class Builder {
+
+    private final Logger logger;
+    private int burst = DEFAULT_BURST;
+    private long refillNanos = DEFAULT_INTERVAL.toNanos();
+    private long summaryNanos = DEFAULT_INTERVAL.toNanos();
+    private LongSupplier ticker = System::nanoTime;
+
+    /**
+     * @param logger Logger, über den die Meldungen ausgegeben werden (not null)
+     */
+    public Builder(Logger logger) {
+      super();
+
+      Validate.notNull(logger, "Folgende Parameter dürfen nicht null sein! logger: {}", logger);
+      this.logger = logger;
+    }
+
+    /**
+     * @param burst Anzahl der Meldungen je Template, die ohne Pause ausgegeben werden <i>(>= 1)</i>
+     * @param interval Zeitraum, in dem der Bucket wieder vollständig aufgefüllt wird (not null, positiv)
+     * @return dieser Builder
+     */
+    public Builder permits(int burst, Duration interval) {
+      Validate.isTrue(burst >= 1, "Die Anzahl ist ungültig! burst: %d", burst);
+      Validate.notNull(interval, "Folgende Parameter dürfen nicht null sein! interval: {}", interval);
+      Validate.isTrue(!interval.isNegative() && !interval.isZero() && interval.toNanos() <= Long.MAX_VALUE / burst,
+          "Der Zeitraum ist ungültig! interval: %s", interval);
+      this.burst = burst;
+      this.refillNanos = interval.toNanos();
+      return this;
+    }
+
+    /**
+     * @param interval Mindestabstand zwischen zwei Zusammenfassungen desselben Templates (not null, nicht negativ)
+     * @return dieser Builder
+     */
+    public Builder summaryInterval(Duration interval) {
+      Validate.notNull(interval, "Folgende Parameter dürfen nicht null sein! interval: {}", interval);
+      Validate.isTrue(!interval.isNegative(), "Der Zeitraum ist ungültig! interval: %s", interval);
+      this.summaryNanos = interval.toNanos();
+      return this;
+    }
+
+    /**
+     * @param ticker Quelle der Zeit in Nanosekunden wie {@link System#nanoTime()}, z.B. für Tests (not null)
+     * @return dieser Builder
+     */
+    public Builder ticker(LongSupplier ticker) {
+      Validate.notNull(ticker, "Folgende Parameter dürfen nicht null sein! ticker: {}", ticker);
+      this.ticker = ticker;
+      return this;
+    }
+
+    /**
+     * @return neuer Logger
+     */
+    public RateLimitedLogger build() {
+      return new RateLimitedLogger(this);
+    }
+  }
+
+  /** Zustand eines Templates, wird unter seinem eigenen Monitor geändert */
+  private static final class Bucket {
+
+    /** Verfügbare Meldungen, in Einheiten von 1/{@code refillNanos} */
+    private long tokens;
+    private long lastRefill;
+    private long suppressed;
+    private long suppressedSince;
+    private LogLevel level;
+  }
+
+  /** Standard-Anzahl der Meldungen je Template ohne Pause */
+  public static final int DEFAULT_BURST = 10;
+
+  /** Standard-Zeitraum für das Auffüllen und die Zusammenfassungen */
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+  private static final String SUMMARY = "The following message was suppressed {} times in the last {} seconds: {}";
+
+  private final Logger logger;
+  private final int burst;
+  private final long refillNanos;
+  private final long summaryNanos;
+  private final LongSupplier ticker;
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+  private RateLimitedLogger(Builder builder) {
+    super();
+
+    this.logger = builder.logger;
+    this.burst = builder.burst;
+    this.refillNanos = builder.refillNanos;
+    this.summaryNanos = builder.summaryNanos;
+    this.ticker = builder.ticker;
+  }
+
+  /**
+   * @return Logger, über den die Meldungen ausgegeben werden
+   */
+  public Logger getLogger() {
+    return this.logger;
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param arg Argument für den Platzhalter
+   */
+  public void warn(String template, Object arg) {
+    if (this.logger.isWarnEnabled() && acquire(template, LogLevel.WARN)) {
+      this.logger.warn(template, arg);
+    }
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param arg1 Argument für den ersten Platzhalter
+   * @param arg2 Argument für den zweiten Platzhalter
+   */
+  public void warn(String template, Object arg1, Object arg2) {
+    if (this.logger.isWarnEnabled() && acquire(template, LogLevel.WARN)) {
+      this.logger.warn(template, arg1, arg2);
+    }
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param args Argumente für die Platzhalter
+   */
+  public void warn(String template, Object... args) {
+    if (this.logger.isWarnEnabled() && acquire(template, LogLevel.WARN)) {
+      this.logger.warn(template, args);
+    }
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param arg Argument für den Platzhalter
+   */
+  public void error(String template, Object arg) {
+    if (this.logger.isErrorEnabled() && acquire(template, LogLevel.ERROR)) {
+      this.logger.error(template, arg);
+    }
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param arg1 Argument für den ersten Platzhalter
+   * @param arg2 Argument für den zweiten Platzhalter
+   */
+  public void error(String template, Object arg1, Object arg2) {
+    if (this.logger.isErrorEnabled() && acquire(template, LogLevel.ERROR)) {
+      this.logger.error(template, arg1, arg2);
+    }
+  }
+
+  /**
+   * @param template Template der Meldung (not null)
+   * @param args Argumente für die Platzhalter
+   */
+  public void error(String template, Object... args) {
+    if (this.logger.isErrorEnabled() && acquire(template, LogLevel.ERROR)) {
+      this.logger.error(template, args);
+    }
+  }
+
+  /**
+   * Gibt für alle Templates, deren Meldungen seit der letzten Zusammenfassung unterdrückt wurden, sofort eine
+   * Zusammenfassung aus. Kann z.B. regelmäßig oder beim Beenden der Anwendung aufgerufen werden.
+   */
+  public void reportSuppressed() {
+    long now = this.ticker.getAsLong();
+    for (Map.Entry<String, Bucket> entry : this.buckets.entrySet()) {
+      Bucket bucket = entry.getValue();
+      long count;
+      long since;
+      LogLevel level;
+      synchronized (bucket) {
+        count = bucket.suppressed;
+        since = bucket.suppressedSince;
+        level = bucket.level;
+        bucket.suppressed = 0;
+      }
+      if (count > 0) {
+        summarize(entry.getKey(), count, now - since, level);
+      }
+    }
+  }
+
+  /**
+   * @param template Template der Meldung
+   * @return Anzahl der unterdrückten Meldungen seit der letzten Zusammenfassung
+   */
+  public long getSuppressedCount(String template) {
+    Bucket bucket = this.buckets.get(template);
+    if (bucket == null) {
+      return 0;
+    }
+    synchronized (bucket) {
+      return bucket.suppressed;
+    }
+  }
+
+  /**
+   * Entnimmt ein Token und gibt bei Bedarf die Zusammenfassung der bisher unterdrückten Meldungen aus.
+   *
+   * @return {@code true}, falls die Meldung ausgegeben werden darf
+   */
+  private boolean acquire(String template, LogLevel level) {
+    // Keine Validate-Aufrufe und kein Lambda je Aufruf, damit unterdrückte Meldungen nichts anlegen
+    Objects.requireNonNull(template, "template");
+    long now = this.ticker.getAsLong();
+    Bucket bucket = this.buckets.get(template);
+    if (bucket == null) {
+      Bucket created = newBucket(now);
+      bucket = this.buckets.putIfAbsent(template, created);
+      if (bucket == null) {
+        bucket = created;
+      }
+    }
+    boolean permitted;
+    long summaryCount = 0;
+    long summaryElapsed = 0;
+    synchronized (bucket) {
+      long capacity = this.burst * this.refillNanos;
+      // Je vergangener Nanosekunde kommen burst Einheiten dazu, ein Token entspricht refillNanos Einheiten
+      long elapsed = Math.max(0, now - bucket.lastRefill);
+      long refill = elapsed >= this.refillNanos ? capacity : elapsed * this.burst;
+      bucket.tokens = Math.min(capacity, bucket.tokens + refill);
+      bucket.lastRefill = now;
+      permitted = bucket.tokens >= this.refillNanos;
+      if (permitted) {
+        bucket.tokens -= this.refillNanos;
+      } else {
+        if (bucket.suppressed == 0) {
+          bucket.suppressedSince = now;
+        }
+        bucket.suppressed++;
+        bucket.level = level;
+      }
+      if (bucket.suppressed > 0 && now - bucket.suppressedSince >= this.summaryNanos) {
+        summaryCount = bucket.suppressed;
+        summaryElapsed = now - bucket.suppressedSince;
+        bucket.suppressed = 0;
+      }
+    }
+    if (summaryCount > 0) {
+      summarize(template, summaryCount, summaryElapsed, level);
+    }
+    return permitted;
+  }
+
+  private Bucket newBucket(long now) {
+    Bucket bucket = new Bucket();
+    bucket.tokens = this.burst * this.refillNanos;
+    bucket.lastRefill = now;
+    return bucket;
+  }
+
+  private void summarize(String template, long count, long elapsedNanos, LogLevel level) {
+    long seconds = Math.max(1, Math.round(elapsedNanos / 1e9));
+    switch (level) {
+      case ERROR:
+        this.logger.error(SUMMARY, count, seconds, template);
+      break;
+      case WARN:
+        this.logger.warn(SUMMARY, count, seconds, template);
+      break;
+      default:
+        throw new IllegalStateException("Missing mapping for the log level " + level);
+    }
+  }
+}
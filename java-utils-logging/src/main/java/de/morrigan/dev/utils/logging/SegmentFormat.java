@@ -0,0 +1,56 @@
+package de.morrigan.dev.utils.logging;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Legt fest, wie ein {@link MappedRollingFileSink} die geschriebenen Bytes in Datensätze zerlegt und womit ein neues
+ * Segment beginnt. Der Sink wechselt nur an den Grenzen der Datensätze auf das nächste Segment und schreibt an den
+ * Anfang jedes Segments den {@link #header() Kopf} des Formats, damit es auch ohne die vorherigen Segmente gelesen
+ * werden kann.
+ * <p>
+ * Die Methoden werden nur unter dem Monitor des Sinks aufgerufen. Ein Format mit Zustand darf daher nur von einem Sink
+ * verwendet werden.
+ *
+ * @author morrigan
+ */
+public interface SegmentFormat {
+
+  /**
+   * @return Format für Textzeilen, die am Zeilenumbruch getrennt werden. Die Segmente haben keinen Kopf.
+   */
+  static SegmentFormat lines() {
+    return LineSegmentFormat.INSTANCE;
+  }
+
+  /**
+   * @return neues Format für die Ausgabe eines {@link BinaryLogger}. Es merkt sich die Sitzung und alle geschriebenen
+   *         Templates und wiederholt sie am Anfang jedes Segments.
+   */
+  static SegmentFormat binaryLog() {
+    return new BinarySegmentFormat();
+  }
+
+  /**
+   * @param records ein oder mehrere vollständige Datensätze ab der Position des Puffers, die Position wird nicht
+   *        verändert
+   * @param maxBytes Anzahl der Bytes, die höchstens übernommen werden können
+   * @return Position direkt nach dem letzten Datensatz, der vollständig in die nächsten {@code maxBytes} Bytes passt,
+   *         oder -1
+   */
+  int lastRecordEnd(ByteBuffer records, int maxBytes);
+
+  /**
+   * Wird in der Reihenfolge des Schreibens mit allen Bytes aufgerufen, die der Sink außer dem Kopf in ein Segment
+   * schreibt. Nur ein Datensatz, der größer als ein Segment ist, kann dabei auf mehrere Aufrufe verteilt sein.
+   *
+   * @param bytes geschriebene Bytes, Position und Grenze werden nicht verändert
+   * @param from erstes geschriebenes Byte (inklusive)
+   * @param to letztes geschriebenes Byte (exklusive)
+   */
+  void written(ByteBuffer bytes, int from, int to);
+
+  /**
+   * @return vollständige Datensätze, mit denen ein neues Segment beginnt, ggf. leer
+   */
+  ByteBuffer header();
+}
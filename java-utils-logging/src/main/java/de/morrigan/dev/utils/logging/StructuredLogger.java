@@ -0,0 +1,144 @@
+package de.morrigan.dev.utils.logging;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Logger für strukturierte Ereignisse, die als JSON-Zeilen an einen {@link AsyncAppender} übergeben werden. Anders als
+ * bei SLF4J-Templates werden Zahlen nicht geboxt und es entstehen keine Argument-Arrays: Jeder Thread verwendet immer
+ * dasselbe {@link LogEvent}, das direkt in einen wiederverwendeten Byte-Puffer kodiert. Ist die Stufe abgeschaltet,
+ * wird ein leeres Ereignis geliefert, das alle Werte ignoriert.
+ *
+ * <pre>
+ * private static final StructuredLogger LOG = new StructuredLogger("http", LogLevel.INFO, appender);
+ *
+ * LOG.info("request served").kv("path", path).kv("status", 200).kv("latency", nanos).log();
+ * </pre>
+ *
+ * ergibt
+ *
+ * <pre>
+ * {"ts":1700000000000,"level":"INFO","logger":"http","thread":"main","msg":"request served","path":"/","status":200,"latency":12345}
+ * </pre>
+ *
+ * Ein Ereignis muss mit {@link LogEvent#log()} abgeschlossen werden, bevor derselbe Thread das nächste beginnt.
+ *
+ * @author morrigan
+ */
+public final class StructuredLogger {
+
+  private final String name;
+  private final AsyncAppender appender;
+  private volatile LogLevel level;
+
+  /**
+   * @param name Name des Loggers, erscheint in jedem Ereignis (not null)
+   * @param level niedrigste Stufe, die geschrieben wird (not null)
+   * @param appender Ziel der Ereignisse (not null)
+   */
+  public StructuredLogger(String name, LogLevel level, AsyncAppender appender) {
+    super();
+
+    Validate.notNull(name, "Folgende Parameter dürfen nicht null sein! name: {}", name);
+    Validate.notNull(level, "Folgende Parameter dürfen nicht null sein! level: {}", level);
+    Validate.notNull(appender, "Folgende Parameter dürfen nicht null sein! appender: {}", appender);
+    this.name = name;
+    this.level = level;
+    this.appender = appender;
+  }
+
+  /**
+   * @return Name des Loggers
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * @return niedrigste Stufe, die geschrieben wird
+   */
+  public LogLevel getLevel() {
+    return this.level;
+  }
+
+  /**
+   * @param level niedrigste Stufe, die geschrieben wird (not null)
+   */
+  public void setLevel(LogLevel level) {
+    Validate.notNull(level, "Folgende Parameter dürfen nicht null sein! level: {}", level);
+    this.level = level;
+  }
+
+  /**
+   * @return Ziel der Ereignisse
+   */
+  public AsyncAppender getAppender() {
+    return this.appender;
+  }
+
+  /**
+   * @param eventLevel Stufe eines Ereignisses
+   * @return {@code true}, falls Ereignisse dieser Stufe geschrieben werden
+   */
+  public boolean isEnabled(LogLevel eventLevel) {
+    return eventLevel.isEnabledAt(this.level);
+  }
+
+  /**
+   * Beginnt ein Ereignis.
+   *
+   * @param eventLevel Stufe des Ereignisses (not null, nicht {@link LogLevel#OFF})
+   * @param message Nachricht (not null)
+   * @return Ereignis des aktuellen Threads oder ein leeres Ereignis, falls die Stufe abgeschaltet ist
+   */
+  public LogEvent at(LogLevel eventLevel, String message) {
+    if (!isEnabled(eventLevel)) {
+      return LogEvent.DISABLED;
+    }
+    return LogEvent.current().begin(this, eventLevel, message);
+  }
+
+  /**
+   * @param message Nachricht (not null)
+   * @return Ereignis der Stufe {@link LogLevel#TRACE}
+   */
+  public LogEvent trace(String message) {
+    return at(LogLevel.TRACE, message);
+  }
+
+  /**
+   * @param message Nachricht (not null)
+   * @return Ereignis der Stufe {@link LogLevel#DEBUG}
+   */
+  public LogEvent debug(String message) {
+    return at(LogLevel.DEBUG, message);
+  }
+
+  /**
+   * @param message Nachricht (not null)
+   * @return Ereignis der Stufe {@link LogLevel#INFO}
+   */
+  public LogEvent info(String message) {
+    return at(LogLevel.INFO, message);
+  }
+
+  /**
+   * @param message Nachricht (not null)
+   * @return Ereignis der Stufe {@link LogLevel#WARN}
+   */
+  public LogEvent warn(String message) {
+    return at(LogLevel.WARN, message);
+  }
+
+  /**
+   * @param message Nachricht (not null)
+   * @return Ereignis der Stufe {@link LogLevel#ERROR}
+   */
+  public LogEvent error(String message) {
+    return at(LogLevel.ERROR, message);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[" + this.name + ", " + this.level + "]";
+  }
+}
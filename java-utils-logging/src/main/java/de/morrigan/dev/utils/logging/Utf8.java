@@ -0,0 +1,58 @@
+package de.morrigan.dev.utils.logging;
+
+/**
+ * Kodiert Zeichen ohne Allokationen als UTF-8 in ein vorhandenes {@code byte[]}. Ungültige Surrogate werden als
+ * {@code '?'} kodiert.
+ *
+ * @author morrigan
+ */
+final class Utf8 {
+
+  /**
+   * @param chars Anzahl an Zeichen
+   * @return maximale Anzahl an Bytes, die die Zeichen als UTF-8 benötigen
+   */
+  static int maxBytes(int chars) {
+    return 3 * chars;
+  }
+
+  /**
+   * @param chars Zeichen (not null)
+   * @param from erstes Zeichen (inklusive)
+   * @param to letztes Zeichen (exklusive)
+   * @param dest Ziel mit mindestens {@link #maxBytes(int)} freien Bytes ab {@code offset}
+   * @param offset erstes Byte im Ziel
+   * @return Position im Ziel nach dem letzten geschriebenen Byte
+   */
+  static int encode(CharSequence chars, int from, int to, byte[] dest, int offset) {
+    int position = offset;
+    for (int i = from; i < to; i++) {
+      char c = chars.charAt(i);
+      if (c < 0x80) {
+        dest[position++] = (byte) c;
+      } else if (c < 0x800) {
+        dest[position++] = (byte) (0xC0 | (c >>> 6));
+        dest[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+          dest[position++] = (byte) (0xF0 | (codePoint >>> 18));
+          dest[position++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+          dest[position++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+          dest[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+          dest[position++] = '?';
+        }
+      } else {
+        dest[position++] = (byte) (0xE0 | (c >>> 12));
+        dest[position++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+        dest[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return position;
+  }
+
+  private Utf8() {
+    super();
+  }
+}
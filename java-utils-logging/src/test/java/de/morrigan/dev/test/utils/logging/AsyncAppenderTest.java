@@ -0,0 +1,297 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.AsyncLogHandler;
+import de.morrigan.dev.utils.logging.BackPressure;
+import de.morrigan.dev.utils.logging.FileChannelSink;
+import de.morrigan.dev.utils.logging.LogSink;
+
+public class AsyncAppenderTest {
+
+  private static class MemorySink implements LogSink {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CountDownLatch release;
+    private int flushes;
+    private boolean closed;
+
+    MemorySink(CountDownLatch release) {
+      super();
+      this.release = release;
+    }
+
+    @Override
+    public void write(ByteBuffer batch) throws IOException {
+      try {
+        this.release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      while (batch.hasRemaining()) {
+        this.bytes.write(batch.get());
+      }
+    }
+
+    @Override
+    public void flush() {
+      this.flushes++;
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+    }
+
+    String text() {
+      return new String(this.bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static class FailingSink implements LogSink {
+
+    @Override
+    public void write(ByteBuffer batch) throws IOException {
+      throw new IOException("Datenträger voll");
+    }
+
+    @Override
+    public void flush() {
+      // nichts zu tun
+    }
+
+    @Override
+    public void close() {
+      // nichts zu tun
+    }
+  }
+
+  private static String line(int length) {
+    StringBuilder line = new StringBuilder(length);
+    for (int i = 1; i < length; i++) {
+      line.append('x');
+    }
+    return line.append('\n').toString();
+  }
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void test_if_lines_are_written_in_order() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    StringBuilder expected = new StringBuilder();
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(16).backPressure(BackPressure.BLOCK)
+        .build()) {
+      for (int i = 0; i < 1000; i++) {
+        String line = "Zeile " + i + " äöü €\n";
+        assertTrue(appender.append(line));
+        expected.append(line);
+      }
+      appender.flush();
+      assertEquals(1000, appender.getWrittenCount());
+      assertEquals(0, appender.getQueuedCount());
+      assertEquals(0, appender.getDroppedCount());
+      assertTrue(sink.flushes > 0);
+    }
+    assertTrue(sink.closed);
+    assertEquals(expected.toString(), sink.text());
+  }
+
+  @Test
+  public void test_if_byte_lines_and_large_lines_are_written() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    String large = line(3000);
+    byte[] bytes = "-abc\n-".getBytes(StandardCharsets.UTF_8);
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).batchBytes(1024).build()) {
+      assertTrue(appender.append(bytes, 1, 4));
+      assertTrue(appender.append(large));
+      assertTrue(appender.append("ende\n"));
+    }
+    assertEquals("abc\n" + large + "ende\n", sink.text());
+  }
+
+  @Test
+  public void test_if_drop_discards_lines_when_buffer_is_full() throws IOException {
+    CountDownLatch release = new CountDownLatch(1);
+    MemorySink sink = new MemorySink(release);
+    AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(4).batchBytes(1024)
+        .backPressure(BackPressure.DROP).build();
+    String line = line(512);
+    int accepted = 0;
+    for (int i = 0; i < 100; i++) {
+      if (appender.append(line)) {
+        accepted++;
+      }
+    }
+    // Der Schreib-Thread hängt im ersten Batch mit zwei Zeilen, danach passt nur noch der Ringpuffer
+    assertTrue(accepted >= 4 && accepted <= 6);
+    assertEquals(100 - accepted, appender.getDroppedCount());
+    release.countDown();
+    appender.close();
+    assertEquals(accepted, appender.getWrittenCount());
+    assertEquals(accepted * 512, sink.text().length());
+  }
+
+  @Test
+  public void test_if_sample_keeps_accepting_some_lines_under_load() throws IOException {
+    CountDownLatch release = new CountDownLatch(1);
+    MemorySink sink = new MemorySink(release);
+    AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(64).batchBytes(1024)
+        .backPressure(BackPressure.SAMPLE).sampleRate(1_000_000).build();
+    String line = line(512);
+    int accepted = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (appender.append(line)) {
+        accepted++;
+      }
+    }
+    // Bis drei Viertel gefüllt wird alles übernommen, danach (fast) nichts mehr
+    assertTrue(accepted >= 48 && accepted <= 66);
+    release.countDown();
+    appender.close();
+    assertEquals(1000 - accepted, appender.getDroppedCount());
+  }
+
+  @Test
+  public void test_if_concurrent_producers_lose_no_lines_with_block() throws Exception {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    int threads = 4;
+    int linesPerThread = 5000;
+    AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(32).backPressure(BackPressure.BLOCK).build();
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      String prefix = "t" + t + " ";
+      Thread producer = new Thread(() -> {
+        for (int i = 0; i < linesPerThread; i++) {
+          appender.append(prefix + i + "\n");
+        }
+      });
+      producers.add(producer);
+      producer.start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    appender.close();
+
+    assertEquals(threads * linesPerThread, appender.getWrittenCount());
+    assertEquals(0, appender.getDroppedCount());
+    int[] nextPerThread = new int[threads];
+    for (String line : sink.text().split("\n")) {
+      String[] parts = line.split(" ");
+      int thread = Integer.parseInt(parts[0].substring(1));
+      assertEquals(nextPerThread[thread]++, Integer.parseInt(parts[1]));
+    }
+    for (int next : nextPerThread) {
+      assertEquals(linesPerThread, next);
+    }
+  }
+
+  @Test
+  public void test_if_every_accepted_line_is_written_when_closing_concurrently() throws Exception {
+    for (int round = 0; round < 50; round++) {
+      MemorySink sink = new MemorySink(new CountDownLatch(0));
+      AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(64).build();
+      AtomicLong accepted = new AtomicLong();
+      AtomicLong attempts = new AtomicLong();
+      List<Thread> producers = new ArrayList<>();
+      for (int t = 0; t < 3; t++) {
+        Thread producer = new Thread(() -> {
+          for (int i = 0; i < 2000; i++) {
+            attempts.incrementAndGet();
+            if (appender.append("x\n")) {
+              accepted.incrementAndGet();
+            }
+          }
+        });
+        producers.add(producer);
+        producer.start();
+      }
+      Thread.yield();
+      appender.close();
+      for (Thread producer : producers) {
+        producer.join();
+      }
+
+      assertEquals(attempts.get(), accepted.get() + appender.getDroppedCount());
+      assertEquals(accepted.get(), appender.getWrittenCount());
+      assertEquals(accepted.get(), sink.text().length() / 2);
+    }
+  }
+
+  @Test
+  public void test_if_lines_are_dropped_after_close() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    AsyncAppender appender = new AsyncAppender.Builder(sink).build();
+    appender.close();
+    assertFalse(appender.append("zu spät\n"));
+    assertEquals(1, appender.getDroppedCount());
+    appender.close();
+    assertEquals("", sink.text());
+  }
+
+  @Test
+  public void test_if_write_errors_are_counted() throws IOException {
+    AsyncAppender appender = new AsyncAppender.Builder(new FailingSink()).build();
+    appender.append("a\n");
+    appender.flush();
+    appender.close();
+    assertTrue(appender.getErrorCount() >= 1);
+    assertEquals("Datenträger voll", appender.getLastError().getMessage());
+  }
+
+  @Test
+  public void test_if_file_channel_sink_appends_to_file() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("logs/app.log");
+    try (AsyncAppender appender = new AsyncAppender.Builder(new FileChannelSink(file)).build()) {
+      appender.append("eins\n");
+    }
+    try (AsyncAppender appender = new AsyncAppender.Builder(new FileChannelSink(file)).build()) {
+      appender.append("zwei\n");
+    }
+    assertEquals("eins\nzwei\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void test_if_handler_formats_and_writes_records() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    AsyncLogHandler handler = new AsyncLogHandler(new AsyncAppender.Builder(sink).build());
+    handler.setLevel(Level.INFO);
+    handler.publish(new LogRecord(Level.FINE, "nicht sichtbar"));
+    handler.publish(new LogRecord(Level.WARNING, "Achtung"));
+    handler.close();
+    assertTrue(sink.text().contains("Achtung"));
+    assertFalse(sink.text().contains("nicht sichtbar"));
+  }
+
+  @Test
+  public void test_if_invalid_arguments_are_rejected() {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    assertThrows(NullPointerException.class, () -> new AsyncAppender.Builder(null));
+    assertThrows(IllegalArgumentException.class, () -> new AsyncAppender.Builder(sink).capacity(1));
+    assertThrows(IllegalArgumentException.class, () -> new AsyncAppender.Builder(sink).batchBytes(10));
+    assertThrows(IllegalArgumentException.class, () -> new AsyncAppender.Builder(sink).sampleRate(0));
+  }
+}
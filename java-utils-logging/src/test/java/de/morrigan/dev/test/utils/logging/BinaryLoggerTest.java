@@ -0,0 +1,247 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.BackPressure;
+import de.morrigan.dev.utils.logging.BinaryLogDecoder;
+import de.morrigan.dev.utils.logging.BinaryLogEvent;
+import de.morrigan.dev.utils.logging.BinaryLogger;
+import de.morrigan.dev.utils.logging.LogLevel;
+import de.morrigan.dev.utils.logging.LogSink;
+import de.morrigan.dev.utils.logging.MappedRollingFileSink;
+import de.morrigan.dev.utils.logging.SegmentFormat;
+
+public class BinaryLoggerTest {
+
+  private static class MemorySink implements LogSink {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CountDownLatch release;
+
+    MemorySink(CountDownLatch release) {
+      super();
+      this.release = release;
+    }
+
+    @Override
+    public void write(ByteBuffer batch) {
+      try {
+        this.release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      while (batch.hasRemaining()) {
+        this.bytes.write(batch.get());
+      }
+    }
+
+    @Override
+    public void flush() {
+      // nichts zu tun
+    }
+
+    @Override
+    public void close() {
+      // nichts zu tun
+    }
+  }
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static String[] decode(byte[] bytes) throws IOException {
+    StringBuilder text = new StringBuilder();
+    BinaryLogDecoder.decode(new ByteArrayInputStream(bytes), text, ZoneOffset.UTC);
+    return text.length() == 0 ? new String[0] : text.toString().split("\n");
+  }
+
+  /** Entfernt den Zeitstempel */
+  private static String withoutTimestamp(String line) {
+    return line.substring("yyyy-MM-dd HH:mm:ss.SSS ".length());
+  }
+
+  @Test
+  public void test_if_events_are_decoded_to_text() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).build()) {
+      BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+      assertTrue(logger.info("Image {} loaded in {} ms").arg("logo").arg(12L).log());
+      assertTrue(logger.warn("Ratio {} enabled {} value {} int {}").arg(0.5).arg(true).arg((CharSequence) null).arg(7)
+          .log());
+      assertTrue(logger.info("Image {} loaded in {} ms").arg("äöü €").arg(-3L).log());
+      assertTrue(logger.error("No arguments").log());
+      assertFalse(logger.debug("Invisible {}").arg(1L).log());
+      assertEquals(3, logger.getTemplateCount());
+    }
+
+    String[] lines = decode(sink.bytes.toByteArray());
+    assertEquals(4, lines.length);
+    assertEquals("INFO  Image logo loaded in 12 ms", withoutTimestamp(lines[0]));
+    assertEquals("WARN  Ratio 0.5 enabled true value null int 7", withoutTimestamp(lines[1]));
+    assertEquals("INFO  Image äöü € loaded in -3 ms", withoutTimestamp(lines[2]));
+    assertEquals("ERROR No arguments", withoutTimestamp(lines[3]));
+    assertTrue(lines[0].matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3} .*"));
+  }
+
+  @Test
+  public void test_if_template_is_written_only_once() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    String template = "A rather long template that should only be stored once in the output {}";
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).build()) {
+      BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+      for (int i = 0; i < 100; i++) {
+        logger.info(template).arg(i).log();
+      }
+    }
+    byte[] bytes = sink.bytes.toByteArray();
+    // Sitzung, eine Definition und 100 Ereignisse mit je 5 + 14 + 9 Bytes
+    assertEquals(17 + (5 + 4 + template.length()) + 100 * 28, bytes.length);
+    String[] lines = decode(bytes);
+    assertEquals(100, lines.length);
+    assertTrue(lines[99].endsWith("stored once in the output 99"));
+  }
+
+  @Test
+  public void test_if_dropped_definition_is_written_again() throws IOException {
+    CountDownLatch release = new CountDownLatch(1);
+    MemorySink sink = new MemorySink(release);
+    AsyncAppender appender = new AsyncAppender.Builder(sink).capacity(2).batchBytes(1024)
+        .backPressure(BackPressure.DROP).build();
+    BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+    // Die Sitzung blockiert den Schreib-Thread, danach passen höchstens zwei Ereignisse in den Ringpuffer
+    int accepted = 0;
+    for (int i = 0; i < 10; i++) {
+      if (logger.info("Fill {}").arg(i).log()) {
+        accepted++;
+      }
+    }
+    assertTrue(accepted < 10);
+    assertFalse(logger.info("Dropped {}").arg(1).log());
+    release.countDown();
+    appender.flush();
+    assertTrue(logger.info("Dropped {}").arg(2).log());
+    appender.close();
+
+    String[] lines = decode(sink.bytes.toByteArray());
+    assertEquals(accepted + 1, lines.length);
+    assertEquals("INFO  Dropped 2", withoutTimestamp(lines[accepted]));
+  }
+
+  @Test
+  public void test_if_new_session_starts_new_dictionary() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).build()) {
+      new BinaryLogger(appender, LogLevel.INFO).info("First {}").arg(1).log();
+      appender.flush();
+      // Gleiche Nummer, anderes Template, wie nach einem Neustart
+      new BinaryLogger(appender, LogLevel.INFO).info("Second {}").arg(2).log();
+    }
+    String[] lines = decode(sink.bytes.toByteArray());
+    assertEquals("INFO  First 1", withoutTimestamp(lines[0]));
+    assertEquals("INFO  Second 2", withoutTimestamp(lines[1]));
+  }
+
+  @Test
+  public void test_if_segments_are_decoded_as_one_stream() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "bin").segmentBytes(4096)
+        .format(SegmentFormat.binaryLog()).build();
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).backPressure(BackPressure.BLOCK).build()) {
+      BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+      for (int i = 0; i < 1000; i++) {
+        logger.info("Event {} of {}").arg(i).arg("segments").log();
+      }
+    }
+    // Nach einem Absturz stehen Nullbytes am Ende
+    Files.write(sink.getCurrentFile(), new byte[100], java.nio.file.StandardOpenOption.APPEND);
+    assertTrue(sink.listSegments().size() > 5);
+
+    StringBuilder text = new StringBuilder();
+    assertEquals(1000, BinaryLogDecoder.decode(sink.listSegments(), text, ZoneOffset.UTC));
+    String[] lines = text.toString().split("\n");
+    assertEquals("INFO  Event 999 of segments", withoutTimestamp(lines[999]));
+  }
+
+  @Test
+  public void test_if_each_segment_can_be_decoded_on_its_own() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "bin").segmentBytes(4096)
+        .maxTotalBytes(3 * 4096).format(SegmentFormat.binaryLog()).build();
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).backPressure(BackPressure.BLOCK).build()) {
+      BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+      // Die Zahlen enthalten Bytes mit dem Wert '\n', an denen ein Datensatz nicht getrennt werden darf
+      for (int i = 0; i < 2000; i++) {
+        logger.info(i % 2 == 0 ? "Even {} of {}" : "Odd {} of {}").arg(i).arg("segments").log();
+      }
+    }
+    // Die Definitionen der Templates standen nur im ersten Segment
+    assertFalse(Files.exists(directory.resolve("bin-000001.log")));
+    List<Path> segments = sink.listSegments();
+    assertTrue(segments.size() >= 3);
+
+    long events = 0;
+    String last = null;
+    for (Path segment : segments) {
+      StringBuilder text = new StringBuilder();
+      events += BinaryLogDecoder.decode(Collections.singletonList(segment), text, ZoneOffset.UTC);
+      assertFalse(text.toString(), text.toString().contains("<unknown template"));
+      if (text.length() > 0) {
+        String[] lines = text.toString().split("\n");
+        last = lines[lines.length - 1];
+      }
+    }
+    assertEquals(events, BinaryLogDecoder.decode(segments, new StringBuilder(), ZoneOffset.UTC));
+    assertEquals("INFO  Odd 1999 of segments", withoutTimestamp(last));
+  }
+
+  @Test
+  public void test_if_truncated_record_is_ignored_and_garbage_is_rejected() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).build()) {
+      BinaryLogger logger = new BinaryLogger(appender, LogLevel.INFO);
+      logger.info("One {}").arg(1).log();
+      logger.info("Two {}").arg(2).log();
+    }
+    byte[] bytes = sink.bytes.toByteArray();
+    assertEquals(1, decode(Arrays.copyOf(bytes, bytes.length - 3)).length);
+
+    assertThrows(IOException.class, () -> decode("Hello World\n".getBytes()));
+  }
+
+  @Test
+  public void test_if_too_many_arguments_are_rejected() throws IOException {
+    MemorySink sink = new MemorySink(new CountDownLatch(0));
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).build()) {
+      BinaryLogEvent event = new BinaryLogger(appender, LogLevel.INFO).info("Many");
+      for (int i = 0; i < 255; i++) {
+        event.arg(i);
+      }
+      assertThrows(IllegalStateException.class, () -> event.arg(255));
+    }
+  }
+
+  @Test
+  public void test_if_cli_requires_files() {
+    assertThrows(IllegalArgumentException.class, () -> BinaryLogDecoder.main(new String[0]));
+  }
+}
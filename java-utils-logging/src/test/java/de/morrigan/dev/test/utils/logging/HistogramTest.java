@@ -0,0 +1,97 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+
+public class HistogramTest {
+
+  private final Histogram histogram = new MetricsRegistry().histogram("test");
+
+  @Test
+  public void test_if_small_values_are_exact() {
+    for (int i = 1; i <= 100; i++) {
+      this.histogram.record(i);
+    }
+    assertEquals(100, this.histogram.getCount());
+    assertEquals(1, this.histogram.getMin());
+    assertEquals(100, this.histogram.getMax());
+    assertEquals(50.5, this.histogram.getMean(), 0.0);
+    assertEquals(1, this.histogram.getValueAtPercentile(0));
+    assertEquals(50, this.histogram.getValueAtPercentile(50));
+    assertEquals(99, this.histogram.getValueAtPercentile(99));
+    assertEquals(100, this.histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void test_if_large_values_have_bounded_relative_error() {
+    Random random = new Random(42);
+    long[] values = new long[10_000];
+    for (int i = 0; i < values.length; i++) {
+      // zwischen 1 µs und etwa 1 s
+      values[i] = 1_000 + (long) (Math.pow(10, random.nextDouble() * 6) * 1_000);
+      this.histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percentile : new double[] { 10, 50, 90, 99, 99.9 }) {
+      long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+      long estimated = this.histogram.getValueAtPercentile(percentile);
+      assertTrue(percentile + ": " + estimated + " < " + exact, estimated >= exact);
+      assertTrue(percentile + ": " + estimated + " > " + exact, estimated - exact <= exact / 64);
+    }
+    assertEquals(values[values.length - 1], this.histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void test_if_extreme_values_are_recorded() {
+    this.histogram.record(Long.MAX_VALUE);
+    this.histogram.record(-5);
+    assertEquals(0, this.histogram.getMin());
+    assertEquals(Long.MAX_VALUE, this.histogram.getMax());
+    assertEquals(0, this.histogram.getValueAtPercentile(50));
+    assertEquals(Long.MAX_VALUE, this.histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void test_if_empty_histogram_reports_zero() {
+    assertEquals(0, this.histogram.getCount());
+    assertEquals(0, this.histogram.getMin());
+    assertEquals(0, this.histogram.getMax());
+    assertEquals(0.0, this.histogram.getMean(), 0.0);
+    assertEquals(0, this.histogram.getValueAtPercentile(99));
+    assertThrows(IllegalArgumentException.class, () -> this.histogram.getValueAtPercentile(100.5));
+  }
+
+  @Test
+  public void test_if_concurrent_records_are_counted() throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      long offset = t * 1_000_000L;
+      threads.add(new Thread(() -> {
+        for (int i = 1; i <= 50_000; i++) {
+          this.histogram.record(offset + i);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(200_000, this.histogram.getCount());
+    assertEquals(1, this.histogram.getMin());
+    assertEquals(3_050_000, this.histogram.getMax());
+    assertEquals(3_050_000, this.histogram.getValueAtPercentile(100));
+  }
+}
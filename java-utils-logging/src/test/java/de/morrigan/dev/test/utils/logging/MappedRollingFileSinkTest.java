@@ -0,0 +1,215 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.BackPressure;
+import de.morrigan.dev.utils.logging.MappedRollingFileSink;
+
+public class MappedRollingFileSinkTest {
+
+  private static final int SEGMENT_BYTES = 4096;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static ByteBuffer buffer(String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+
+  private static String line(int number, int length) {
+    StringBuilder line = new StringBuilder().append(number).append(' ');
+    while (line.length() < length - 1) {
+      line.append('x');
+    }
+    return line.append('\n').toString();
+  }
+
+  @Test
+  public void test_if_segment_is_truncated_on_close() throws IOException {
+    Path directory = this.folder.getRoot().toPath().resolve("logs");
+    MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app").segmentBytes(SEGMENT_BYTES)
+        .build();
+    Path file = sink.getCurrentFile();
+    assertEquals(directory.resolve("app-000001.log"), file);
+    assertEquals(SEGMENT_BYTES, Files.size(file));
+
+    sink.write(buffer("eins\n"));
+    sink.write(buffer("zwei\n"));
+    sink.flush();
+    sink.close();
+    sink.close();
+    assertEquals("eins\nzwei\n", read(file));
+    assertThrows(IllegalStateException.class, () -> sink.write(buffer("drei\n")));
+  }
+
+  @Test
+  public void test_if_segments_roll_without_splitting_lines() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    StringBuilder expected = new StringBuilder();
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).build()) {
+      StringBuilder batch = new StringBuilder();
+      for (int i = 0; i < 200; i++) {
+        String line = line(i, 100);
+        batch.append(line);
+        expected.append(line);
+        if (i % 7 == 6) {
+          sink.write(buffer(batch.toString()));
+          batch.setLength(0);
+        }
+      }
+      sink.write(buffer(batch.toString()));
+      assertEquals(4, sink.getRolledCount());
+    }
+
+    MappedRollingFileSink reader = new MappedRollingFileSink.Builder(directory, "app").segmentBytes(SEGMENT_BYTES)
+        .build();
+    List<Path> segments = reader.listSegments();
+    reader.close();
+    // Das beim Lesen neu angelegte, leere Segment gehört dazu
+    assertEquals(6, segments.size());
+    StringBuilder actual = new StringBuilder();
+    for (Path segment : segments) {
+      String content = read(segment);
+      assertTrue(content.isEmpty() || content.endsWith("\n"));
+      assertTrue(content.length() <= SEGMENT_BYTES);
+      actual.append(content);
+    }
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  @Test
+  public void test_if_lines_larger_than_a_segment_are_split() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    String large = line(1, SEGMENT_BYTES + 100);
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).build()) {
+      sink.write(buffer("klein\n"));
+      sink.write(buffer(large));
+      assertEquals(2, sink.getRolledCount());
+    }
+    assertEquals("klein\n", read(directory.resolve("app-000001.log")));
+    assertEquals(SEGMENT_BYTES, Files.size(directory.resolve("app-000002.log")));
+    assertEquals(large, read(directory.resolve("app-000002.log")) + read(directory.resolve("app-000003.log")));
+  }
+
+  @Test
+  public void test_if_failed_roll_keeps_the_current_segment() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    String line = line(1, 1000);
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).build()) {
+      // Ein Verzeichnis mit dem Namen des nächsten Segments verhindert dessen Anlegen
+      Path blocker = Files.createDirectory(directory.resolve("app-000002.log"));
+      for (int i = 0; i < 4; i++) {
+        sink.write(buffer(line));
+      }
+      assertThrows(IOException.class, () -> sink.write(buffer(line)));
+      assertEquals(directory.resolve("app-000001.log"), sink.getCurrentFile());
+      sink.flush();
+
+      Files.delete(blocker);
+      sink.write(buffer(line));
+      assertEquals(1, sink.getRolledCount());
+      assertEquals(directory.resolve("app-000002.log"), sink.getCurrentFile());
+    }
+    assertEquals(line + line + line + line, read(directory.resolve("app-000001.log")));
+    assertEquals(line, read(directory.resolve("app-000002.log")));
+  }
+
+  @Test
+  public void test_if_reopening_starts_a_new_segment() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    Files.createFile(directory.resolve("app-000007.log"));
+    Files.createFile(directory.resolve("app-kaputt.log"));
+    Files.createFile(directory.resolve("other-000009.log"));
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).build()) {
+      assertEquals(directory.resolve("app-000008.log"), sink.getCurrentFile());
+      assertEquals(2, sink.listSegments().size());
+    }
+  }
+
+  @Test
+  public void test_if_retention_by_size_deletes_oldest_segments() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).maxTotalBytes(2 * SEGMENT_BYTES).build()) {
+      for (int i = 0; i < 10; i++) {
+        sink.write(buffer(line(i, SEGMENT_BYTES)));
+      }
+      List<Path> segments = sink.listSegments();
+      assertEquals(3, segments.size());
+      assertEquals(directory.resolve("app-000008.log"), segments.get(0));
+      assertEquals(sink.getCurrentFile(), segments.get(2));
+    }
+  }
+
+  @Test
+  public void test_if_retention_by_age_deletes_old_segments() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    Path old = Files.createFile(directory.resolve("app-000001.log"));
+    Files.setLastModifiedTime(old, FileTime.fromMillis(System.currentTimeMillis() - Duration.ofDays(8).toMillis()));
+    Path recent = Files.createFile(directory.resolve("app-000002.log"));
+    try (MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app")
+        .segmentBytes(SEGMENT_BYTES).maxAge(Duration.ofDays(7)).build()) {
+      assertFalse(Files.exists(old));
+      assertTrue(Files.exists(recent));
+      assertEquals(directory.resolve("app-000003.log"), sink.getCurrentFile());
+    }
+  }
+
+  @Test
+  public void test_if_sink_works_with_async_appender() throws IOException {
+    Path directory = this.folder.getRoot().toPath();
+    StringBuilder expected = new StringBuilder();
+    MappedRollingFileSink sink = new MappedRollingFileSink.Builder(directory, "app").segmentBytes(SEGMENT_BYTES)
+        .build();
+    try (AsyncAppender appender = new AsyncAppender.Builder(sink).backPressure(BackPressure.BLOCK).build()) {
+      for (int i = 0; i < 1000; i++) {
+        String line = "Zeile " + i + "\n";
+        appender.append(line);
+        expected.append(line);
+      }
+    }
+    StringBuilder actual = new StringBuilder();
+    for (Path segment : sink.listSegments()) {
+      actual.append(read(segment));
+    }
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  @Test
+  public void test_if_invalid_arguments_are_rejected() {
+    Path directory = this.folder.getRoot().toPath();
+    assertThrows(NullPointerException.class, () -> new MappedRollingFileSink.Builder(null, "app"));
+    assertThrows(IllegalArgumentException.class, () -> new MappedRollingFileSink.Builder(directory, ""));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MappedRollingFileSink.Builder(directory, "app").segmentBytes(100));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MappedRollingFileSink.Builder(directory, "app").maxTotalBytes(-1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MappedRollingFileSink.Builder(directory, "app").maxAge(Duration.ofSeconds(-1)));
+  }
+}
@@ -0,0 +1,84 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Gauge;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+
+public class MetricsRegistryTest {
+
+  private final MetricsRegistry registry = new MetricsRegistry();
+
+  @Test
+  public void test_if_metrics_are_shared_by_name() {
+    Counter counter = this.registry.counter("image.misses");
+    assertSame(counter, this.registry.counter("image.misses"));
+    assertSame(this.registry.histogram("image.load.nanos"), this.registry.histogram("image.load.nanos"));
+    counter.increment();
+    counter.add(4);
+    assertEquals(5, this.registry.counter("image.misses").getCount());
+    assertSame(MetricsRegistry.getDefault(), MetricsRegistry.getDefault());
+  }
+
+  @Test
+  public void test_if_gauge_is_evaluated_on_read_and_replaced() {
+    AtomicLong size = new AtomicLong(3);
+    Gauge gauge = this.registry.gauge("cache.size", size::get);
+    assertEquals(3, gauge.getValue());
+    size.set(7);
+    assertEquals(7, gauge.getValue());
+
+    Gauge replaced = this.registry.gauge("cache.size", () -> 42);
+    assertEquals(42, replaced.getValue());
+    assertEquals(Arrays.asList("cache.size"), Arrays.asList(this.registry.getNames().toArray()));
+  }
+
+  @Test
+  public void test_if_type_conflict_is_rejected() {
+    this.registry.counter("metric");
+    assertThrows(IllegalArgumentException.class, () -> this.registry.histogram("metric"));
+    assertThrows(IllegalArgumentException.class, () -> this.registry.gauge("metric", () -> 1));
+    this.registry.gauge("gauge", () -> 1);
+    assertThrows(IllegalArgumentException.class, () -> this.registry.counter("gauge"));
+    assertThrows(NullPointerException.class, () -> this.registry.counter(null));
+  }
+
+  @Test
+  public void test_if_metrics_can_be_removed() {
+    this.registry.counter("a").increment();
+    assertTrue(this.registry.remove("a"));
+    assertFalse(this.registry.remove("a"));
+    assertFalse(this.registry.remove(null));
+    assertEquals(0, this.registry.counter("a").getCount());
+  }
+
+  @Test
+  public void test_if_report_is_sorted_by_name() throws IOException {
+    this.registry.counter("b.counter").add(3);
+    this.registry.gauge("a.gauge", () -> 1024);
+    Histogram histogram = this.registry.histogram("c.histogram");
+    histogram.record(10);
+    histogram.record(20);
+    histogram.record(30);
+    this.registry.histogram("d.empty");
+
+    StringBuilder report = new StringBuilder();
+    this.registry.report(report);
+    assertEquals("gauge     a.gauge 1024\n"
+        + "counter   b.counter 3\n"
+        + "histogram c.histogram count=3 min=10 mean=20 p50=20 p90=30 p99=30 max=30\n"
+        + "histogram d.empty count=0 min=0 mean=0 p50=0 p90=0 p99=0 max=0\n", report.toString());
+  }
+}
@@ -0,0 +1,99 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.logging.MetricsReporter;
+
+public class MetricsReporterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final MetricsRegistry registry = new MetricsRegistry();
+  private final List<String> messages = new CopyOnWriteArrayList<>();
+
+  private Logger createLogger() {
+    return (Logger) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Logger.class },
+        (proxy, method, args) -> {
+          if ("info".equals(method.getName()) && args.length == 2) {
+            this.messages.add(MessageFormatter.format((String) args[0], args[1]).getMessage());
+            return null;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  @Test
+  public void test_if_each_metric_is_logged() {
+    this.registry.counter("image.misses").add(2);
+    this.registry.gauge("image.cache.bytes", () -> 4096);
+    MetricsReporter reporter = MetricsReporter.toLog(this.registry, createLogger());
+    assertTrue(reporter.report());
+    assertEquals(Arrays.asList("gauge     image.cache.bytes 4096", "counter   image.misses 2"), this.messages);
+    assertEquals(1, reporter.getReportCount());
+  }
+
+  @Test
+  public void test_if_reports_are_appended_to_file() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("metrics.txt");
+    this.registry.counter("config.reloads").increment();
+    MetricsReporter reporter = MetricsReporter.toFile(this.registry, file);
+    assertTrue(reporter.report());
+    this.registry.counter("config.reloads").increment();
+    assertTrue(reporter.report());
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    assertEquals(4, lines.size());
+    assertTrue(lines.get(0).startsWith("# "));
+    assertEquals("counter   config.reloads 1", lines.get(1));
+    assertEquals("counter   config.reloads 2", lines.get(3));
+  }
+
+  @Test
+  public void test_if_periodic_reports_are_written_and_close_reports_last_time() throws InterruptedException {
+    this.registry.counter("ticks");
+    MetricsReporter reporter = MetricsReporter.toLog(this.registry, createLogger());
+    reporter.start(Duration.ofMillis(10));
+    assertThrows(IllegalStateException.class, () -> reporter.start(Duration.ofMillis(10)));
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (reporter.getReportCount() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(reporter.getReportCount() >= 2);
+    reporter.close();
+    long reports = reporter.getReportCount();
+    assertEquals(reports, this.messages.size());
+    reporter.close();
+    assertEquals(reports, reporter.getReportCount());
+  }
+
+  @Test
+  public void test_if_write_errors_are_recorded() throws IOException {
+    Path directory = this.folder.newFolder().toPath();
+    this.registry.counter("errors");
+    MetricsReporter reporter = MetricsReporter.toFile(this.registry, directory);
+    assertFalse(reporter.report());
+    assertEquals(1, reporter.getErrorCount());
+    assertTrue(reporter.getLastError() instanceof IOException);
+  }
+}
@@ -0,0 +1,175 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import de.morrigan.dev.utils.logging.RateLimitedLogger;
+
+public class RateLimitedLoggerTest {
+
+  private static final String MISS = "Image with name {} is not available!";
+  private static final String OTHER = "Font with name {} is not available!";
+
+  private final List<String> messages = new ArrayList<>();
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private boolean warnEnabled = true;
+  private Logger logger;
+
+  @Before
+  public void setUp() {
+    this.logger = (Logger) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Logger.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "isWarnEnabled":
+              return this.warnEnabled;
+            case "isErrorEnabled":
+              return true;
+            case "warn":
+            case "error":
+              Object[] arguments = args.length == 2 && args[1] instanceof Object[] ? (Object[]) args[1]
+                  : Arrays.copyOfRange(args, 1, args.length);
+              this.messages.add(method.getName().toUpperCase() + " "
+                  + MessageFormatter.arrayFormat((String) args[0], arguments).getMessage());
+              return null;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private RateLimitedLogger create(int burst, Duration interval, Duration summaryInterval) {
+    return new RateLimitedLogger.Builder(this.logger).permits(burst, interval).summaryInterval(summaryInterval)
+        .ticker(this.now::get).build();
+  }
+
+  private void advance(long millis) {
+    this.now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Test
+  public void test_if_burst_is_logged_and_rest_is_suppressed() {
+    RateLimitedLogger log = create(3, Duration.ofSeconds(3), Duration.ofMinutes(1));
+    for (int i = 0; i < 10; i++) {
+      log.warn(MISS, "image" + i);
+    }
+    assertEquals(Arrays.asList("WARN Image with name image0 is not available!",
+        "WARN Image with name image1 is not available!", "WARN Image with name image2 is not available!"),
+        this.messages);
+    assertEquals(7, log.getSuppressedCount(MISS));
+  }
+
+  @Test
+  public void test_if_tokens_are_refilled_over_time() {
+    RateLimitedLogger log = create(3, Duration.ofSeconds(3), Duration.ofMinutes(1));
+    for (int i = 0; i < 5; i++) {
+      log.warn(MISS, "a");
+    }
+    assertEquals(3, this.messages.size());
+
+    // Eine Sekunde entspricht einem Token
+    advance(1000);
+    log.warn(MISS, "b");
+    log.warn(MISS, "c");
+    assertEquals(4, this.messages.size());
+
+    // Nach einer langen Pause ist der Bucket wieder voll, aber nicht voller. Dazu kommt die Zusammenfassung.
+    advance(60_000);
+    for (int i = 0; i < 5; i++) {
+      log.warn(MISS, "d");
+    }
+    assertEquals(8, this.messages.size());
+    assertEquals("WARN The following message was suppressed 3 times in the last 61 seconds: " + MISS,
+        this.messages.get(4));
+  }
+
+  @Test
+  public void test_if_templates_have_separate_buckets() {
+    RateLimitedLogger log = create(1, Duration.ofSeconds(10), Duration.ofMinutes(1));
+    log.warn(MISS, "a");
+    log.warn(MISS, "b");
+    log.warn(OTHER, "c");
+    log.error(OTHER, "d", "e");
+    assertEquals(Arrays.asList("WARN Image with name a is not available!",
+        "WARN Font with name c is not available!"), this.messages);
+    assertEquals(1, log.getSuppressedCount(MISS));
+    assertEquals(1, log.getSuppressedCount(OTHER));
+    assertEquals(0, log.getSuppressedCount("unbekannt"));
+  }
+
+  @Test
+  public void test_if_summary_is_logged_after_interval() {
+    RateLimitedLogger log = create(1, Duration.ofMinutes(10), Duration.ofSeconds(30));
+    log.warn(MISS, "a");
+    for (int i = 0; i < 4; i++) {
+      log.warn(MISS, "b");
+    }
+    advance(29_000);
+    log.warn(MISS, "c");
+    assertEquals(1, this.messages.size());
+
+    advance(1_000);
+    log.warn(MISS, "d");
+    assertEquals(Arrays.asList("WARN Image with name a is not available!",
+        "WARN The following message was suppressed 6 times in the last 30 seconds: " + MISS), this.messages);
+    assertEquals(0, log.getSuppressedCount(MISS));
+  }
+
+  @Test
+  public void test_if_report_suppressed_logs_all_pending_summaries() {
+    RateLimitedLogger log = create(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+    log.warn(MISS, "a");
+    log.warn(MISS, "b");
+    log.error(OTHER, "c", "d", "e");
+    log.error(OTHER, "f", "g", "h");
+    log.error(OTHER, "i", "j", "k");
+    advance(5_000);
+    this.messages.clear();
+
+    log.reportSuppressed();
+    assertEquals(2, this.messages.size());
+    assertEquals(true, this.messages
+        .contains("WARN The following message was suppressed 1 times in the last 5 seconds: " + MISS));
+    assertEquals(true, this.messages
+        .contains("ERROR The following message was suppressed 2 times in the last 5 seconds: " + OTHER));
+
+    this.messages.clear();
+    log.reportSuppressed();
+    assertEquals(0, this.messages.size());
+  }
+
+  @Test
+  public void test_if_disabled_level_neither_logs_nor_consumes_tokens() {
+    RateLimitedLogger log = create(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+    this.warnEnabled = false;
+    log.warn(MISS, "a");
+    log.warn(MISS, "b");
+    this.warnEnabled = true;
+    log.warn(MISS, "c");
+    assertEquals(Arrays.asList("WARN Image with name c is not available!"), this.messages);
+    assertEquals(0, log.getSuppressedCount(MISS));
+  }
+
+  @Test
+  public void test_if_invalid_arguments_are_rejected() {
+    assertThrows(NullPointerException.class, () -> new RateLimitedLogger.Builder(null));
+    RateLimitedLogger.Builder builder = new RateLimitedLogger.Builder(this.logger);
+    assertThrows(IllegalArgumentException.class, () -> builder.permits(0, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class, () -> builder.permits(1, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> builder.permits(Integer.MAX_VALUE, Duration.ofDays(365)));
+    assertThrows(IllegalArgumentException.class, () -> builder.summaryInterval(Duration.ofSeconds(-1)));
+    assertThrows(NullPointerException.class, () -> builder.build().warn(null, "a"));
+  }
+}
@@ -0,0 +1,173 @@
+package de.morrigan.dev.test.utils.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.morrigan.dev.utils.logging.AsyncAppender;
+import de.morrigan.dev.utils.logging.LogEvent;
+import de.morrigan.dev.utils.logging.LogLevel;
+import de.morrigan.dev.utils.logging.LogSink;
+import de.morrigan.dev.utils.logging.StructuredLogger;
+
+public class StructuredLoggerTest {
+
+  private static class MemorySink implements LogSink {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    @Override
+    public void write(ByteBuffer batch) {
+      while (batch.hasRemaining()) {
+        this.bytes.write(batch.get());
+      }
+    }
+
+    @Override
+    public void flush() {
+      // nichts zu tun
+    }
+
+    @Override
+    public void close() {
+      // nichts zu tun
+    }
+  }
+
+  private MemorySink sink;
+  private AsyncAppender appender;
+  private StructuredLogger logger;
+
+  @Before
+  public void setUp() {
+    this.sink = new MemorySink();
+    this.appender = new AsyncAppender.Builder(this.sink).build();
+    this.logger = new StructuredLogger("test", LogLevel.INFO, this.appender);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.appender.close();
+  }
+
+  private String[] lines() throws IOException {
+    this.appender.flush();
+    return new String(this.sink.bytes.toByteArray(), StandardCharsets.UTF_8).split("\n");
+  }
+
+  /** Entfernt den Zeitstempel und den Thread, die sich von Lauf zu Lauf unterscheiden */
+  private static String withoutHeader(String line) {
+    return "{" + line.substring(line.indexOf("\"level\""));
+  }
+
+  @Test
+  public void test_if_event_is_written_as_json_line() throws IOException {
+    assertTrue(this.logger.info("request served").kv("path", "/index").kv("status", 200).kv("latency", 12345L)
+        .kv("cached", false).kv("ratio", 0.25).log());
+
+    String[] lines = lines();
+    assertEquals(1, lines.length);
+    assertTrue(lines[0].startsWith("{\"ts\":"));
+    assertTrue(lines[0].contains(",\"thread\":\"" + Thread.currentThread().getName() + "\","));
+    assertEquals("{\"level\":\"INFO\",\"logger\":\"test\",\"thread\":\"" + Thread.currentThread().getName()
+        + "\",\"msg\":\"request served\",\"path\":\"/index\",\"status\":200,\"latency\":12345,\"cached\":false,"
+        + "\"ratio\":0.25}", withoutHeader(lines[0]));
+  }
+
+  @Test
+  public void test_if_each_thread_writes_its_own_name() throws Exception {
+    assertTrue(this.logger.info("main").log());
+    Thread other = new Thread(() -> this.logger.info("other").log(), "other-thread");
+    other.start();
+    other.join();
+
+    String[] lines = lines();
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].contains(",\"thread\":\"" + Thread.currentThread().getName() + "\","));
+    assertTrue(lines[1].contains(",\"thread\":\"other-thread\","));
+  }
+
+  @Test
+  public void test_if_disabled_levels_are_ignored() throws IOException {
+    LogEvent event = this.logger.debug("unsichtbar");
+    assertFalse(event.isEnabled());
+    assertFalse(event.kv("x", 1L).kv("y", "z").log());
+    assertFalse(this.logger.isEnabled(LogLevel.DEBUG));
+    assertTrue(this.logger.isEnabled(LogLevel.WARN));
+
+    this.logger.setLevel(LogLevel.OFF);
+    assertFalse(this.logger.error("unsichtbar").log());
+    this.logger.setLevel(LogLevel.TRACE);
+    assertTrue(this.logger.trace("sichtbar").log());
+
+    String[] lines = lines();
+    assertEquals(1, lines.length);
+    assertTrue(lines[0].contains("\"level\":\"TRACE\""));
+  }
+
+  @Test
+  public void test_if_strings_are_escaped() throws IOException {
+    this.logger.warn("zitat \"a\\b\"\n").kv("text", "tab\tende\u0001").kv("utf8", "äö€\uD83D\uDE00")
+        .kv("kaputt", "\uD83Dx").kv("leer", (CharSequence) null).log();
+
+    String line = lines()[0];
+    assertTrue(line, line.contains("\"msg\":\"zitat \\\"a\\\\b\\\"\\n\""));
+    assertTrue(line, line.contains("\"text\":\"tab\\tende\\u0001\""));
+    assertTrue(line, line.contains("\"utf8\":\"äö€\uD83D\uDE00\""));
+    assertTrue(line, line.contains("\"kaputt\":\"?x\""));
+    assertTrue(line, line.contains("\"leer\":null"));
+  }
+
+  @Test
+  public void test_if_numbers_are_formatted() throws IOException {
+    this.logger.info("zahlen").kv("min", Long.MIN_VALUE).kv("max", Long.MAX_VALUE).kv("neg", -42).kv("zero", 0)
+        .kv("d1", 1.5).kv("d2", -0.000001).kv("d3", 3.0).kv("d4", 1e15).kv("d5", 1e-9).kv("nan", Double.NaN)
+        .kv("inf", Double.POSITIVE_INFINITY).kv("round", 2.0000004).kv("negzero", -0.0).log();
+
+    String line = lines()[0];
+    assertTrue(line, line.endsWith("\"min\":-9223372036854775808,\"max\":9223372036854775807,\"neg\":-42,\"zero\":0,"
+        + "\"d1\":1.5,\"d2\":-0.000001,\"d3\":3.0,\"d4\":1.0E15,\"d5\":1.0E-9,\"nan\":null,\"inf\":null,"
+        + "\"round\":2.0,\"negzero\":0.0}"));
+  }
+
+  @Test
+  public void test_if_exceptions_are_written() throws IOException {
+    this.logger.error("fehler").error(new IllegalStateException("kaputt")).error(null).log();
+
+    String line = lines()[0];
+    assertTrue(line, line.endsWith("\"error\":\"java.lang.IllegalStateException\",\"errorMsg\":\"kaputt\"}"));
+  }
+
+  @Test
+  public void test_if_event_buffer_is_reused_and_grows() throws IOException {
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      large.append('x');
+    }
+    this.logger.info("gross").kv("text", large).log();
+    this.logger.info("klein").log();
+
+    String[] lines = lines();
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].contains(large));
+    assertTrue(lines[1].endsWith("\"msg\":\"klein\"}"));
+  }
+
+  @Test
+  public void test_if_invalid_arguments_are_rejected() {
+    assertThrows(NullPointerException.class, () -> new StructuredLogger(null, LogLevel.INFO, this.appender));
+    assertThrows(NullPointerException.class, () -> new StructuredLogger("test", null, this.appender));
+    assertThrows(NullPointerException.class, () -> new StructuredLogger("test", LogLevel.INFO, null));
+    assertThrows(NullPointerException.class, () -> this.logger.setLevel(null));
+  }
+}
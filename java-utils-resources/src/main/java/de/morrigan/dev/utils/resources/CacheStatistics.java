@@ -0,0 +1,84 @@
+package de.morrigan.dev.utils.resources;
+
+/**
+ * Momentaufnahme der Kennzahlen eines Caches, der von einem der Manager verwaltet wird.
+ *
+ * @author morrigan
+ */
+public final class CacheStatistics {
+
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+  private final long size;
+  private final long weight;
+  private final long maxWeight;
+
+  CacheStatistics(long hitCount, long missCount, long evictionCount, long size, long weight, long maxWeight) {
+    super();
+
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.size = size;
+    this.weight = weight;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @return Anzahl der Zugriffe, bei denen ein Eintrag im Cache gefunden wurde
+   */
+  public long getHitCount() {
+    return this.hitCount;
+  }
+
+  /**
+   * @return Anzahl der Zugriffe, bei denen kein Eintrag im Cache gefunden wurde
+   */
+  public long getMissCount() {
+    return this.missCount;
+  }
+
+  /**
+   * @return Anteil der Treffer an allen Zugriffen <i>([0;1])</i> oder 0, falls es noch keine Zugriffe gab
+   */
+  public double getHitRate() {
+    long requestCount = this.hitCount + this.missCount;
+    return requestCount == 0 ? 0.0 : (double) this.hitCount / requestCount;
+  }
+
+  /**
+   * @return Anzahl der Einträge, die aufgrund der Größenbeschränkung aus dem Cache verdrängt wurden
+   */
+  public long getEvictionCount() {
+    return this.evictionCount;
+  }
+
+  /**
+   * @return Anzahl der Einträge im Cache
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * @return aktuelles Gesamtgewicht aller Einträge (z.B. Anzahl Bytes)
+   */
+  public long getWeight() {
+    return this.weight;
+  }
+
+  /**
+   * @return maximal erlaubtes Gesamtgewicht aller Einträge
+   */
+  public long getMaxWeight() {
+    return this.maxWeight;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStatistics [hitCount=" + this.hitCount + ", missCount=" + this.missCount + ", evictionCount="
+        + this.evictionCount + ", size=" + this.size + ", weight=" + this.weight + ", maxWeight=" + this.maxWeight
+        + "]";
+  }
+}
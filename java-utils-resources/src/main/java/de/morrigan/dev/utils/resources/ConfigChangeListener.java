@@ -0,0 +1,20 @@
+package de.morrigan.dev.utils.resources;
+
+import java.util.Set;
+
+/**
+ * Wird vom {@link ConfigManager} informiert, sobald sich Konfigurationen geändert haben.
+ *
+ * @author morrigan
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+  /**
+   * Wird aufgerufen, nachdem ein neuer Stand der Konfigurationen veröffentlicht wurde. Zu diesem Zeitpunkt liefert der
+   * {@link ConfigManager} bereits die neuen Werte.
+   *
+   * @param changedKeys Schlüssel aller Konfigurationen, die hinzugekommen, entfernt oder geändert wurden (nie leer)
+   */
+  void configsChanged(Set<String> changedKeys);
+}
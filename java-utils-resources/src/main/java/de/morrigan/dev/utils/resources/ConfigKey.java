@@ -0,0 +1,302 @@
+package de.morrigan.dev.utils.resources;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Beschreibt eine typisierte Konfiguration, die über den {@link ConfigManager} abgerufen werden kann. Ein Schlüssel
+ * kennt neben dem Namen der Konfiguration auch die Vorschrift, mit der der Wert aus der Konfigurationsdatei in den
+ * gewünschten Typ umgewandelt wird.
+ * <p>
+ * Schlüssel werden über ihre Identität verglichen und sollten daher als Konstanten abgelegt werden:
+ *
+ * <pre>
+ * public static final ConfigKey&lt;Duration&gt; TIMEOUT = ConfigKey.ofDuration("timeout");
+ * public static final ConfigKey&lt;Long&gt; MAX_UPLOAD = ConfigKey.ofSize("maxUpload");
+ * </pre>
+ *
+ * Folgende Formate werden von den vordefinierten Schlüsseln verstanden:
+ * <ul>
+ * <li>{@link #ofBoolean(String)}: {@code true/false}, {@code yes/no}, {@code on/off} (Groß-/Kleinschreibung egal)</li>
+ * <li>{@link #ofDuration(String)}: ISO-8601 ({@code PT30S}) oder eine Zahl mit Einheit {@code ms}, {@code s},
+ * {@code m}, {@code h}, {@code d} ({@code 500ms}, {@code 30s}). Eine Zahl ohne Einheit wird als Millisekunden
+ * interpretiert.</li>
+ * <li>{@link #ofSize(String)}: eine Zahl mit Einheit {@code B}, {@code K/KB/KiB}, {@code M/MB/MiB}, {@code G/GB/GiB},
+ * {@code T/TB/TiB} ({@code 512KB}, {@code 16 MiB}). Die Einheiten werden zur Basis 1024 gerechnet, das Ergebnis ist
+ * die Anzahl Bytes.</li>
+ * <li>{@link #ofList(String)}: durch Komma getrennte Werte, Leerzeichen am Rand und leere Werte werden entfernt</li>
+ * </ul>
+ *
+ * @param <T> Typ des Konfigurationswertes
+ * @author morrigan
+ */
+public final class ConfigKey<T> {
+
+  private static final String LIST_SEPARATOR = ",";
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine ganze Zahl
+   */
+  public static ConfigKey<Integer> ofInt(String name) {
+    return new ConfigKey<>(name, "int", value -> Integer.valueOf(value.trim()));
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine ganze Zahl
+   */
+  public static ConfigKey<Long> ofLong(String name) {
+    return new ConfigKey<>(name, "long", value -> Long.valueOf(value.trim()));
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine Fließkommazahl
+   */
+  public static ConfigKey<Double> ofDouble(String name) {
+    return new ConfigKey<>(name, "double", value -> Double.valueOf(value.trim()));
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für einen Wahrheitswert
+   */
+  public static ConfigKey<Boolean> ofBoolean(String name) {
+    return new ConfigKey<>(name, "boolean", ConfigKey::parseBoolean);
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine Zeitspanne
+   */
+  public static ConfigKey<Duration> ofDuration(String name) {
+    return new ConfigKey<>(name, "duration", ConfigKey::parseDuration);
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine Größenangabe, deren Wert in Bytes geliefert wird
+   */
+  public static ConfigKey<Long> ofSize(String name) {
+    return new ConfigKey<>(name, "size", ConfigKey::parseSize);
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @param enumType Typ der Aufzählung (not null)
+   * @param <E> Typ der Aufzählung
+   * @return Schlüssel für einen Wert einer Aufzählung. Groß-/Kleinschreibung wird dabei nicht beachtet.
+   */
+  public static <E extends Enum<E>> ConfigKey<E> ofEnum(String name, Class<E> enumType) {
+    Validate.notNull(enumType, "Folgende Parameter dürfen nicht null sein! enumType: {}", enumType);
+    return new ConfigKey<>(name, enumType.getSimpleName(), value -> parseEnum(value, enumType));
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @return Schlüssel für eine unveränderliche Liste von Texten
+   */
+  public static ConfigKey<List<String>> ofList(String name) {
+    return ofList(name, Function.identity());
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @param elementParser Vorschrift, mit der jedes Element der Liste umgewandelt wird (not null)
+   * @param <E> Typ der Elemente
+   * @return Schlüssel für eine unveränderliche Liste
+   */
+  public static <E> ConfigKey<List<E>> ofList(String name, Function<String, E> elementParser) {
+    Validate.notNull(elementParser, "Folgende Parameter dürfen nicht null sein! elementParser: {}", elementParser);
+    return new ConfigKey<>(name, "list", value -> parseList(value, elementParser));
+  }
+
+  /**
+   * @param name Name der Konfiguration (not blank)
+   * @param parser Vorschrift, mit der der Wert umgewandelt wird. Bei ungültigen Werten muss eine
+   *        {@link IllegalArgumentException} geworfen werden. (not null)
+   * @param <T> Typ des Konfigurationswertes
+   * @return Schlüssel mit einer eigenen Umwandlung
+   */
+  public static <T> ConfigKey<T> of(String name, Function<String, T> parser) {
+    return new ConfigKey<>(name, "custom", parser);
+  }
+
+  private final String name;
+  private final String typeName;
+  private final Function<String, T> parser;
+
+  private ConfigKey(String name, String typeName, Function<String, T> parser) {
+    super();
+
+    Validate.notBlank(name, "Folgende Parameter dürfen nicht leer sein! name: {}", name);
+    Validate.notNull(parser, "Folgende Parameter dürfen nicht null sein! parser: {}", parser);
+    this.name = name;
+    this.typeName = typeName;
+    this.parser = parser;
+  }
+
+  /**
+   * @return Name der Konfiguration
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String toString() {
+    return this.name + " (" + this.typeName + ")";
+  }
+
+  /**
+   * Wandelt den Wert aus der Konfigurationsdatei in den Typ dieses Schlüssels um.
+   *
+   * @param value Wert aus der Konfigurationsdatei (not null)
+   * @return umgewandelter Wert (not null)
+   * @throws IllegalArgumentException falls der Wert nicht umgewandelt werden kann
+   */
+  T parse(String value) {
+    T result = this.parser.apply(value);
+    if (result == null) {
+      throw new IllegalArgumentException("The parser of the key " + this + " returned null for the value '" + value
+          + "'");
+    }
+    return result;
+  }
+
+  private static Boolean parseBoolean(String value) {
+    switch (value.trim().toLowerCase(Locale.ROOT)) {
+      case "true":
+      case "yes":
+      case "on":
+        return Boolean.TRUE;
+      case "false":
+      case "no":
+      case "off":
+        return Boolean.FALSE;
+
+      default:
+        throw new IllegalArgumentException("'" + value + "' is not a boolean value");
+    }
+  }
+
+  private static Duration parseDuration(String value) {
+    String trimmed = value.trim();
+    if (StringUtils.startsWithIgnoreCase(trimmed, "P") || StringUtils.startsWithIgnoreCase(trimmed, "-P")) {
+      try {
+        return Duration.parse(trimmed);
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("'" + value + "' is not a duration", e);
+      }
+    }
+    int unitIndex = indexOfUnit(trimmed);
+    long amount = parseAmount(trimmed.substring(0, unitIndex), value);
+    try {
+      switch (trimmed.substring(unitIndex).trim().toLowerCase(Locale.ROOT)) {
+        case "":
+        case "ms":
+          return Duration.ofMillis(amount);
+        case "s":
+          return Duration.ofSeconds(amount);
+        case "m":
+          return Duration.ofMinutes(amount);
+        case "h":
+          return Duration.ofHours(amount);
+        case "d":
+          return Duration.ofDays(amount);
+
+        default:
+          throw new IllegalArgumentException("'" + value + "' has an unknown duration unit");
+      }
+    } catch (ArithmeticException e) {
+      // Die Anzahl der Sekunden passt nicht mehr in einen long
+      throw new IllegalArgumentException("'" + value + "' is not a valid duration", e);
+    }
+  }
+
+  private static Long parseSize(String value) {
+    String trimmed = value.trim();
+    int unitIndex = indexOfUnit(trimmed);
+    long amount = parseAmount(trimmed.substring(0, unitIndex), value);
+    int shift;
+    switch (trimmed.substring(unitIndex).trim().toUpperCase(Locale.ROOT)) {
+      case "":
+      case "B":
+        shift = 0;
+      break;
+      case "K":
+      case "KB":
+      case "KIB":
+        shift = 10;
+      break;
+      case "M":
+      case "MB":
+      case "MIB":
+        shift = 20;
+      break;
+      case "G":
+      case "GB":
+      case "GIB":
+        shift = 30;
+      break;
+      case "T":
+      case "TB":
+      case "TIB":
+        shift = 40;
+      break;
+
+      default:
+        throw new IllegalArgumentException("'" + value + "' has an unknown size unit");
+    }
+    if (amount < 0 || Long.numberOfLeadingZeros(amount) <= shift) {
+      throw new IllegalArgumentException("'" + value + "' is not a valid size");
+    }
+    return amount << shift;
+  }
+
+  private static <E extends Enum<E>> E parseEnum(String value, Class<E> enumType) {
+    String trimmed = value.trim();
+    for (E constant : enumType.getEnumConstants()) {
+      if (constant.name().equalsIgnoreCase(trimmed)) {
+        return constant;
+      }
+    }
+    throw new IllegalArgumentException("'" + value + "' is not a constant of " + enumType.getName());
+  }
+
+  private static <E> List<E> parseList(String value, Function<String, E> elementParser) {
+    List<E> result = new ArrayList<>();
+    for (String element : value.split(LIST_SEPARATOR)) {
+      String trimmed = element.trim();
+      if (!trimmed.isEmpty()) {
+        result.add(elementParser.apply(trimmed));
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private static int indexOfUnit(String value) {
+    int index = value.startsWith("-") ? 1 : 0;
+    while (index < value.length() && Character.isDigit(value.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static long parseAmount(String amount, String value) {
+    try {
+      return Long.parseLong(amount);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("'" + value + "' does not start with a number", e);
+    }
+  }
+}
@@ -1,20 +1,139 @@
 package de.morrigan.dev.utils.resources;
 
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+
 /**
  * Hier werden alle Konfigurationen verwaltet, die für eine Anwendung benötigt werden.
+ * <p>
+ * Die Konfigurationen werden als unveränderlicher Schnappschuss gehalten, der bei jedem Laden oder Leeren als Ganzes
+ * ausgetauscht wird. Lesende Zugriffe kommen dadurch ohne Sperre aus und sehen immer einen vollständigen Stand.
+ * <p>
+ * Neben den Texten können Konfigurationen über einen {@link ConfigKey} auch typisiert abgerufen werden. Schlüssel,
+ * die über {@link #declare(ConfigKey...)} bekannt gemacht wurden, werden bereits beim Laden umgewandelt und im
+ * Schnappschuss zwischengespeichert. Ein ungültiger Wert führt dann dazu, dass das Laden fehlschlägt und der bisherige
+ * Stand erhalten bleibt. Die Werte nicht deklarierter Schlüssel werden bei jedem Abruf neu umgewandelt.
+ * <p>
+ * Konfigurationsdateien aus dem Dateisystem können über {@link #watch(Path)} überwacht werden. Bei jeder Änderung wird
+ * die Datei im Hintergrund neu eingelesen und der neue Stand mit einem einzigen Austausch veröffentlicht. Über einen
+ * {@link ConfigChangeListener} kann darauf reagiert werden, welche Schlüssel sich dabei geändert haben.
+ * <p>
+ * Jede Datei bzw. jede {@link ConfigSource} bildet eine eigene Schicht. Die Schichten werden in der Reihenfolge ihres
+ * ersten Ladens übereinander gelegt, wobei spätere Schichten Vorrang haben. Über {@link #loadSources(ConfigSource...)}
+ * kann die Reihenfolge explizit festgelegt werden, z.B. Basisdatei, Überschreibungen, Umgebungsvariablen und System
+ * Properties. Die zusammengeführte Sicht aller Schichten wird bei jeder Änderung einer Schicht einmalig berechnet, so
+ * dass ein Zugriff unabhängig von der Anzahl der Schichten nur eine Suche in einer Hashtabelle benötigt.
+ * <p>
+ * Die Ladezeiten der Quellen, die Treffer und Fehlzugriffe, die Anzahl der Neuladevorgänge sowie der Umfang des
+ * aktuellen Standes werden über die {@link MetricsRegistry#getDefault() gemeinsame MetricsRegistry} unter dem Präfix
+ * {@code config.} veröffentlicht.
  *
  * @author morrigan
  */
 public class ConfigManager {
 
+   /** Eine geladene Schicht bestehend aus der Quelle und deren Konfigurationen */
+   private static final class Layer {
+
+      private final ConfigSource source;
+      private final Map<String, String> configs;
+
+      private Layer(ConfigSource source, Map<String, String> configs) {
+         super();
+
+         this.source = source;
+         this.configs = configs;
+      }
+   }
+
+   /** Unveränderlicher Stand aller Konfigurationen samt der Quellen, aus denen sie geladen wurden */
+   private static final class ConfigSnapshot {
+
+      private static final ConfigSnapshot EMPTY = new ConfigSnapshot(Collections.emptyMap(), null);
+
+      /** Schichten in aufsteigender Priorität */
+      private final Map<String, Layer> layers;
+      /** Zusammengeführte Konfigurationen aller Schichten. Bei gleichen Schlüsseln gewinnt die spätere Schicht. */
+      private final Map<String, String> configs;
+      /** Namen der Quellen für Fehlermeldungen */
+      private final String configFilename;
+      /** Umgewandelte Werte der deklarierten Schlüssel zu diesem Stand. Wird nur ergänzt, aber nie verändert. */
+      private final Map<ConfigKey<?>, Object> parsedConfigs;
+      /** Größe aller Schlüssel und Werte der zusammengeführten Konfigurationen in Bytes (UTF-16) */
+      private final long textBytes;
+
+      private ConfigSnapshot(Map<String, Layer> layers, String previousConfigFilename) {
+         super();
+
+         Map<String, String> mergedConfigs = new HashMap<>();
+         for (Layer layer : layers.values()) {
+            mergedConfigs.putAll(layer.configs);
+         }
+         long chars = 0;
+         for (Map.Entry<String, String> entry : mergedConfigs.entrySet()) {
+            chars += entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length());
+         }
+         this.textBytes = 2 * chars;
+         this.layers = layers;
+         this.configs = Collections.unmodifiableMap(mergedConfigs);
+         this.configFilename = layers.isEmpty() ? previousConfigFilename : String.join(", ", layers.keySet());
+         this.parsedConfigs = new ConcurrentHashMap<>();
+      }
+   }
+
+   /** Logger für Debug/Fehlerausgaben */
+   private static final Logger LOG = LoggerFactory.getLogger(ConfigManager.class);
+
+   /** Wartezeit, in der weitere Änderungen an einer Datei gesammelt werden, bevor sie neu eingelesen wird */
+   private static final long WATCH_SETTLE_MILLIS = 50;
+
+   /** Dauer des Einlesens einer Quelle in Nanosekunden */
+   private static final Histogram LOAD_NANOS = MetricsRegistry.getDefault().histogram("config.load.nanos");
+
+   /** Anzahl der Anfragen nach einer vorhandenen Konfiguration */
+   private static final Counter HITS = MetricsRegistry.getDefault().counter("config.hits");
+
+   /** Anzahl der Anfragen nach einer nicht vorhandenen Konfiguration */
+   private static final Counter MISSES = MetricsRegistry.getDefault().counter("config.misses");
+
+   /** Anzahl der erfolgreich neu eingelesenen, überwachten Dateien */
+   private static final Counter RELOADS = MetricsRegistry.getDefault().counter("config.reloads");
+
+   /** Anzahl der überwachten Dateien, die nicht neu eingelesen werden konnten */
+   private static final Counter RELOAD_FAILURES = MetricsRegistry.getDefault().counter("config.reload.failures");
+
    /**
     * @return einzige Instanz dieses Managers.
     */
@@ -24,13 +143,27 @@ public class ConfigManager {
 
    private static final ConfigManager INSTANCE = new ConfigManager();
 
-   private Properties configs;
-   private String configFilename;
+   private final Set<ConfigKey<?>> declaredKeys;
+   private final Set<Path> watchedFiles;
+   private final Map<WatchKey, Path> watchedDirectories;
+   private final CopyOnWriteArrayList<ConfigChangeListener> changeListeners;
+
+   private volatile ConfigSnapshot snapshot;
+   private WatchService watchService;
 
    private ConfigManager() {
       super();
 
-      this.configs = new Properties();
+      this.declaredKeys = Collections.newSetFromMap(new IdentityHashMap<>());
+      this.watchedFiles = ConcurrentHashMap.newKeySet();
+      this.watchedDirectories = new ConcurrentHashMap<>();
+      this.changeListeners = new CopyOnWriteArrayList<>();
+      this.snapshot = ConfigSnapshot.EMPTY;
+
+      MetricsRegistry metrics = MetricsRegistry.getDefault();
+      metrics.gauge("config.sources", () -> this.snapshot.layers.size());
+      metrics.gauge("config.keys", () -> this.snapshot.configs.size());
+      metrics.gauge("config.bytes", () -> this.snapshot.textBytes);
    }
 
    public Optional<String> getOptConfig(String configKey) {
@@ -45,17 +178,217 @@ public class ConfigManager {
       return replacePlaceholder(getConfigInternal(configKey), parameters);
    }
 
+   /**
+    * Liefert den umgewandelten Wert zu einer typisierten Konfiguration.
+    *
+    * @param configKey typisierter Schlüssel (not null)
+    * @param <T> Typ des Konfigurationswertes
+    * @return der umgewandelte Wert
+    * @throws IllegalArgumentException falls es die Konfiguration nicht gibt oder deren Wert ungültig ist
+    */
+   public <T> T getConfig(ConfigKey<T> configKey) {
+      ConfigSnapshot currentSnapshot = this.snapshot;
+      Optional<T> value = getOptConfigInternal(currentSnapshot, configKey);
+      if (value.isPresent()) {
+         return value.get();
+      } else {
+         throw new IllegalArgumentException(MessageFormatter.arrayFormat("Requested configuration with the key {} is not present in the configuration file {}",
+                  new Object[] { configKey.getName(), currentSnapshot.configFilename }).getMessage());
+      }
+   }
+
+   /**
+    * Liefert den umgewandelten Wert zu einer typisierten Konfiguration.
+    *
+    * @param configKey typisierter Schlüssel (not null)
+    * @param <T> Typ des Konfigurationswertes
+    * @return der umgewandelte Wert oder {@link Optional#empty()}, falls es die Konfiguration nicht gibt
+    * @throws IllegalArgumentException falls der Wert der Konfiguration ungültig ist
+    */
+   public <T> Optional<T> getOptConfig(ConfigKey<T> configKey) {
+      return getOptConfigInternal(this.snapshot, configKey);
+   }
+
+   /**
+    * Macht typisierte Schlüssel bekannt, deren Werte ab sofort bei jedem Laden umgewandelt und geprüft werden. Die
+    * Werte des aktuellen Standes werden direkt umgewandelt.
+    *
+    * @param configKeys typisierte Schlüssel (not null)
+    * @throws IllegalArgumentException falls ein Wert des aktuellen Standes ungültig ist. Die Schlüssel werden dann nicht
+    *         übernommen.
+    */
+   public synchronized void declare(ConfigKey<?>... configKeys) {
+      Validate.noNullElements(configKeys, "Folgende Parameter dürfen nicht null sein! configKeys: {}", (Object) configKeys);
+      ConfigSnapshot currentSnapshot = this.snapshot;
+      for (ConfigKey<?> configKey : configKeys) {
+         parseDeclaredKey(currentSnapshot, configKey);
+      }
+      Collections.addAll(this.declaredKeys, configKeys);
+   }
+
    public void loadAllConfigsFromResources(String filename) throws IOException {
-      this.configFilename = filename;
-      this.configs.load(getClass().getResourceAsStream(StringUtils.join("/", filename)));
+      loadSource(ConfigSource.resource(filename));
+   }
+
+   /**
+    * Lädt alle Konfigurationen aus der angegebenen Datei im Dateisystem. Wurde die Datei bereits zuvor geladen, werden
+    * deren bisherige Konfigurationen vollständig durch den neuen Inhalt ersetzt und die Datei behält ihre Priorität.
+    *
+    * @param file Pfad zu einer Properties-Datei (not null)
+    * @throws IOException falls die Datei nicht gelesen werden kann
+    * @throws IllegalArgumentException falls ein deklarierter Schlüssel einen ungültigen Wert besitzt
+    */
+   public void loadAllConfigsFromFile(Path file) throws IOException {
+      loadSource(ConfigSource.file(file));
+   }
+
+   /**
+    * Lädt die angegebene Quelle als Schicht. Gibt es bereits eine Quelle mit gleichem Namen, wird diese ersetzt und die
+    * Schicht behält ihre Priorität. Andernfalls wird die Quelle als Schicht mit der höchsten Priorität hinzugefügt.
+    *
+    * @param source Quelle (not null)
+    * @throws IOException falls die Quelle nicht gelesen werden kann
+    * @throws IllegalArgumentException falls ein deklarierter Schlüssel einen ungültigen Wert besitzt
+    */
+   public void loadSource(ConfigSource source) throws IOException {
+      Validate.notNull(source, "Folgende Parameter dürfen nicht null sein! source: {}", source);
+      Layer layer = loadLayer(source);
+      publish(layers -> layers.put(source.getName(), layer));
+   }
+
+   /**
+    * Ersetzt alle bisherigen Schichten durch die angegebenen Quellen. Die Quellen werden in aufsteigender Priorität
+    * angegeben, d.h. die Werte der letzten Quelle haben Vorrang vor allen anderen.
+    *
+    * <pre>
+    * configManager.loadSources(ConfigSource.resource("base.properties"), ConfigSource.file(overrideFile),
+    *     ConfigSource.environment(), ConfigSource.systemProperties());
+    * </pre>
+    *
+    * @param sources Quellen in aufsteigender Priorität (not null)
+    * @throws IOException falls eine Quelle nicht gelesen werden kann. Der bisherige Stand bleibt dann erhalten.
+    * @throws IllegalArgumentException falls ein deklarierter Schlüssel einen ungültigen Wert besitzt
+    */
+   public void loadSources(ConfigSource... sources) throws IOException {
+      Validate.noNullElements(sources, "Folgende Parameter dürfen nicht null sein! sources: {}", (Object) sources);
+      Map<String, Layer> newLayers = new LinkedHashMap<>();
+      for (ConfigSource source : sources) {
+         newLayers.remove(source.getName());
+         newLayers.put(source.getName(), loadLayer(source));
+      }
+      publish(layers -> {
+         layers.clear();
+         layers.putAll(newLayers);
+      });
+   }
+
+   /**
+    * Liest alle Quellen erneut ein und veröffentlicht den neuen Stand, z.B. nachdem sich Umgebungsvariablen oder System
+    * Properties geändert haben.
+    *
+    * @throws IOException falls eine Quelle nicht gelesen werden kann. Der bisherige Stand bleibt dann erhalten.
+    * @throws IllegalArgumentException falls ein deklarierter Schlüssel einen ungültigen Wert besitzt
+    */
+   public void reloadSources() throws IOException {
+      Collection<Layer> layers = this.snapshot.layers.values();
+      List<ConfigSource> sources = new ArrayList<>(layers.size());
+      for (Layer layer : layers) {
+         sources.add(layer.source);
+      }
+      loadSources(sources.toArray(new ConfigSource[sources.size()]));
+   }
+
+   /**
+    * @return Namen aller geladenen Quellen in aufsteigender Priorität
+    */
+   public List<String> getSourceNames() {
+      return Collections.unmodifiableList(new ArrayList<>(this.snapshot.layers.keySet()));
+   }
+
+   /**
+    * Lädt alle Konfigurationen aus der angegebenen Datei im Dateisystem und überwacht diese anschließend. Sobald die Datei
+    * geändert wird, wird sie auf einem Hintergrund-Thread neu eingelesen. Kann der neue Inhalt nicht gelesen werden oder
+    * ist er ungültig, bleibt der bisherige Stand erhalten.
+    *
+    * @param file Pfad zu einer Properties-Datei (not null)
+    * @throws IOException falls die Datei nicht gelesen oder überwacht werden kann
+    * @throws IllegalArgumentException falls ein deklarierter Schlüssel einen ungültigen Wert besitzt
+    */
+   public void watch(Path file) throws IOException {
+      Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+      Path normalizedFile = file.toAbsolutePath().normalize();
+      loadAllConfigsFromFile(normalizedFile);
+      synchronized (this) {
+         if (this.watchService == null) {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(new Watcher(this.watchService), "ConfigManager-Watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+         }
+         Path directory = normalizedFile.getParent();
+         WatchKey watchKey = directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                  StandardWatchEventKinds.ENTRY_MODIFY);
+         this.watchedDirectories.put(watchKey, directory);
+         this.watchedFiles.add(normalizedFile);
+      }
+   }
+
+   /**
+    * Beendet die Überwachung aller Dateien. Die zuletzt geladenen Konfigurationen bleiben erhalten.
+    */
+   public synchronized void stopWatching() {
+      if (this.watchService != null) {
+         try {
+            this.watchService.close();
+         } catch (IOException e) {
+            LOG.warn("The configuration file watcher could not be closed properly. Details: {}", e.getMessage());
+         }
+         this.watchService = null;
+      }
+      this.watchedDirectories.clear();
+      this.watchedFiles.clear();
+   }
+
+   /**
+    * @param listener wird bei jeder Änderung der Konfigurationen informiert (not null)
+    */
+   public void addChangeListener(ConfigChangeListener listener) {
+      Validate.notNull(listener, "Folgende Parameter dürfen nicht null sein! listener: {}", listener);
+      this.changeListeners.addIfAbsent(listener);
+   }
+
+   /**
+    * @param listener ein zuvor hinzugefügter Listener
+    */
+   public void removeChangeListener(ConfigChangeListener listener) {
+      this.changeListeners.remove(listener);
    }
 
    public Set<String> getConfigKeys() {
-      return this.configs.stringPropertyNames();
+      return this.snapshot.configs.keySet();
    }
 
+   /**
+    * Löscht alle Konfigurationen, beendet die Überwachung aller Dateien und vergisst alle über
+    * {@link #declare(ConfigKey...)} bekannt gemachten Schlüssel.
+    */
    public void clear() {
-      this.configs.clear();
+      Set<String> changedKeys;
+      synchronized (this) {
+         stopWatching();
+         this.declaredKeys.clear();
+         ConfigSnapshot oldSnapshot = this.snapshot;
+         this.snapshot = new ConfigSnapshot(Collections.emptyMap(), oldSnapshot.configFilename);
+         changedKeys = oldSnapshot.configs.keySet();
+      }
+      fireConfigsChanged(changedKeys);
+   }
+
+   private static Layer loadLayer(ConfigSource source) throws IOException {
+      long start = System.nanoTime();
+      Layer layer = new Layer(source, Collections.unmodifiableMap(new HashMap<>(source.load())));
+      LOAD_NANOS.recordNanosSince(start);
+      return layer;
    }
 
    private String replacePlaceholder(String value, Object... parameters) {
@@ -63,17 +396,176 @@ public class ConfigManager {
    }
 
    private String getConfigInternal(String configKey) {
-      Optional<String> optConfigValue = getOptConfigInternal(configKey);
-      if (optConfigValue.isPresent()) {
-         return optConfigValue.get();
+      ConfigSnapshot currentSnapshot = this.snapshot;
+      String value = configKey == null ? null : currentSnapshot.configs.get(configKey);
+      if (value != null) {
+         HITS.increment();
+         return value;
       } else {
+         MISSES.increment();
          throw new IllegalArgumentException(MessageFormatter.arrayFormat("Requested configuration with the key {} is not present in the configuration file {}",
-                  new Object[] { configKey, this.configFilename }).getMessage());
+                  new Object[] { configKey, currentSnapshot.configFilename }).getMessage());
       }
    }
 
    private Optional<String> getOptConfigInternal(String configKey) {
-      String value = this.configs.getProperty(configKey);
-      return value == null ? Optional.empty() : Optional.of(value);
+      String value = configKey == null ? null : this.snapshot.configs.get(configKey);
+      if (value == null) {
+         MISSES.increment();
+         return Optional.empty();
+      }
+      HITS.increment();
+      return Optional.of(value);
+   }
+
+   @SuppressWarnings("unchecked")
+   private <T> Optional<T> getOptConfigInternal(ConfigSnapshot currentSnapshot, ConfigKey<T> configKey) {
+      Validate.notNull(configKey, "Folgende Parameter dürfen nicht null sein! configKey: {}", configKey);
+      Object parsedValue = currentSnapshot.parsedConfigs.get(configKey);
+      if (parsedValue == null) {
+         String value = currentSnapshot.configs.get(configKey.getName());
+         if (value == null) {
+            MISSES.increment();
+            return Optional.empty();
+         }
+         // Nicht deklarierte Schlüssel werden nicht abgelegt, da sie auch bei jedem Aufruf neu erzeugt werden können
+         parsedValue = parse(currentSnapshot, configKey, value);
+      }
+      HITS.increment();
+      return Optional.of((T) parsedValue);
+   }
+
+   private void parseDeclaredKey(ConfigSnapshot currentSnapshot, ConfigKey<?> configKey) {
+      String value = currentSnapshot.configs.get(configKey.getName());
+      if (value != null) {
+         currentSnapshot.parsedConfigs.put(configKey, parse(currentSnapshot, configKey, value));
+      }
+   }
+
+   private Object parse(ConfigSnapshot currentSnapshot, ConfigKey<?> configKey, String value) {
+      try {
+         return configKey.parse(value);
+      } catch (IllegalArgumentException e) {
+         throw new IllegalArgumentException(MessageFormatter.arrayFormat("The configuration with the key {} has the invalid value '{}' in the configuration file {}. Details: {}",
+                  new Object[] { configKey, value, currentSnapshot.configFilename, e.getMessage() }).getMessage(), e);
+      }
+   }
+
+   /**
+    * Verändert eine Kopie der aktuellen Schichten und veröffentlicht den daraus berechneten Stand mit einem einzigen
+    * Austausch.
+    */
+   private void publish(Consumer<Map<String, Layer>> layerUpdate) {
+      Set<String> changedKeys;
+      synchronized (this) {
+         ConfigSnapshot oldSnapshot = this.snapshot;
+         Map<String, Layer> layers = new LinkedHashMap<>(oldSnapshot.layers);
+         layerUpdate.accept(layers);
+         ConfigSnapshot newSnapshot = new ConfigSnapshot(Collections.unmodifiableMap(layers), oldSnapshot.configFilename);
+         for (ConfigKey<?> configKey : this.declaredKeys) {
+            parseDeclaredKey(newSnapshot, configKey);
+         }
+         this.snapshot = newSnapshot;
+         changedKeys = diff(oldSnapshot.configs, newSnapshot.configs);
+      }
+      fireConfigsChanged(changedKeys);
+   }
+
+   private void fireConfigsChanged(Set<String> changedKeys) {
+      if (changedKeys.isEmpty()) {
+         return;
+      }
+      Set<String> unmodifiableChangedKeys = Collections.unmodifiableSet(changedKeys);
+      for (ConfigChangeListener listener : this.changeListeners) {
+         try {
+            listener.configsChanged(unmodifiableChangedKeys);
+         } catch (RuntimeException e) {
+            LOG.error("A configuration change listener failed. Details: {}", e.getMessage(), e);
+         }
+      }
+   }
+
+   private static Set<String> diff(Map<String, String> oldConfigs, Map<String, String> newConfigs) {
+      Set<String> changedKeys = new LinkedHashSet<>();
+      for (Map.Entry<String, String> entry : newConfigs.entrySet()) {
+         if (!Objects.equals(entry.getValue(), oldConfigs.get(entry.getKey()))) {
+            changedKeys.add(entry.getKey());
+         }
+      }
+      for (String configKey : oldConfigs.keySet()) {
+         if (!newConfigs.containsKey(configKey)) {
+            changedKeys.add(configKey);
+         }
+      }
+      return changedKeys;
+   }
+
+   private void reload(Path file) {
+      if (!this.watchedFiles.contains(file)) {
+         return;
+      }
+      try {
+         loadAllConfigsFromFile(file);
+         RELOADS.increment();
+         LOG.info("Configuration file {} reloaded", file);
+      } catch (IOException | IllegalArgumentException e) {
+         RELOAD_FAILURES.increment();
+         LOG.error("The configuration file {} could not be reloaded. The previous configuration is kept. Details: {}", file, e.getMessage());
+      }
+   }
+
+   /** Wartet auf Änderungen an den überwachten Dateien und liest diese neu ein */
+   private final class Watcher implements Runnable {
+
+      private final WatchService service;
+
+      private Watcher(WatchService service) {
+         super();
+
+         this.service = service;
+      }
+
+      @Override
+      public void run() {
+         try {
+            while (true) {
+               Set<Path> changedFiles = new HashSet<>();
+               WatchKey watchKey = this.service.take();
+               do {
+                  collectChangedFiles(watchKey, changedFiles);
+                  watchKey = this.service.poll(WATCH_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+               } while (watchKey != null);
+               for (Path file : changedFiles) {
+                  reloadSafely(file);
+               }
+            }
+         } catch (ClosedWatchServiceException e) {
+            LOG.debug("Configuration file watcher stopped");
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      /**
+       * Unerwartete Fehler beim Neueinlesen, z.B. aus einem fehlerhaften Parser, dürfen die Überwachung nicht beenden.
+       */
+      private void reloadSafely(Path file) {
+         try {
+            reload(file);
+         } catch (RuntimeException e) {
+            RELOAD_FAILURES.increment();
+            LOG.error("The configuration file {} could not be reloaded. The previous configuration is kept. Details: {}", file, e.getMessage(), e);
+         }
+      }
+
+      private void collectChangedFiles(WatchKey watchKey, Set<Path> changedFiles) {
+         Path directory = ConfigManager.this.watchedDirectories.get(watchKey);
+         for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (directory != null && event.context() instanceof Path) {
+               changedFiles.add(directory.resolve((Path) event.context()));
+            }
+         }
+         watchKey.reset();
+      }
    }
 }
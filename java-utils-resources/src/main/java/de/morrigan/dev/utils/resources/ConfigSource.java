@@ -0,0 +1,90 @@
+package de.morrigan.dev.utils.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Eine Quelle, aus der der {@link ConfigManager} Konfigurationen lädt. Mehrere Quellen werden als geordnete Schichten
+ * übereinander gelegt, wobei spätere Quellen Vorrang vor früheren haben (siehe
+ * {@link ConfigManager#loadSources(ConfigSource...)}).
+ *
+ * @author morrigan
+ */
+public interface ConfigSource {
+
+  /**
+   * @return Quelle mit allen System Properties der JVM ({@link System#getProperties()})
+   */
+  static ConfigSource systemProperties() {
+    return new DefaultConfigSource("systemProperties", () -> DefaultConfigSource.toMap(System.getProperties()));
+  }
+
+  /**
+   * @return Quelle mit allen Umgebungsvariablen ({@link System#getenv()}). Die Namen der Variablen werden unverändert
+   *         als Schlüssel verwendet.
+   */
+  static ConfigSource environment() {
+    return new DefaultConfigSource("environment", System::getenv);
+  }
+
+  /**
+   * @param filename Name/Pfad zu einer Properties-Datei auf dem Classpath (not blank)
+   * @return Quelle mit den Konfigurationen der Datei
+   */
+  static ConfigSource resource(String filename) {
+    Validate.notBlank(filename, "Folgende Parameter dürfen nicht leer sein! filename: {}", filename);
+    return new DefaultConfigSource(filename, () -> {
+      Properties properties = new Properties();
+      try (InputStream inputStream = ConfigSource.class.getResourceAsStream(StringUtils.join("/", filename))) {
+        properties.load(inputStream);
+      }
+      return DefaultConfigSource.toMap(properties);
+    });
+  }
+
+  /**
+   * @param file Pfad zu einer Properties-Datei im Dateisystem (not null)
+   * @return Quelle mit den Konfigurationen der Datei
+   */
+  static ConfigSource file(Path file) {
+    Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+    return new DefaultConfigSource(file.toString(), () -> {
+      Properties properties = new Properties();
+      try (InputStream inputStream = Files.newInputStream(file)) {
+        properties.load(inputStream);
+      }
+      return DefaultConfigSource.toMap(properties);
+    });
+  }
+
+  /**
+   * @param name eindeutiger Name der Quelle (not blank)
+   * @param configs feste Konfigurationen, z.B. Standardwerte (not null)
+   * @return Quelle mit einer Kopie der angegebenen Konfigurationen
+   */
+  static ConfigSource of(String name, Map<String, String> configs) {
+    Validate.notNull(configs, "Folgende Parameter dürfen nicht null sein! configs: {}", configs);
+    Map<String, String> copy = Collections.unmodifiableMap(new HashMap<>(configs));
+    return new DefaultConfigSource(name, () -> copy);
+  }
+
+  /**
+   * @return eindeutiger Name der Quelle. Eine Quelle mit gleichem Namen ersetzt beim Laden die bisherige Quelle.
+   */
+  String getName();
+
+  /**
+   * @return alle Konfigurationen dieser Quelle
+   * @throws IOException falls die Quelle nicht gelesen werden kann
+   */
+  Map<String, String> load() throws IOException;
+}
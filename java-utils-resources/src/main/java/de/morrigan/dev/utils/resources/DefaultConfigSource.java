@@ -0,0 +1,62 @@
+package de.morrigan.dev.utils.resources;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Standardimplementierung einer {@link ConfigSource}, die das Lesen der Konfigurationen an einen {@link Loader}
+ * delegiert.
+ *
+ * @author morrigan
+ */
+final class DefaultConfigSource implements ConfigSource {
+
+  /** Liest die Konfigurationen einer Quelle */
+  @FunctionalInterface
+  interface Loader {
+
+    Map<String, String> load() throws IOException;
+  }
+
+  private final String name;
+  private final Loader loader;
+
+  DefaultConfigSource(String name, Loader loader) {
+    super();
+
+    Validate.notBlank(name, "Folgende Parameter dürfen nicht leer sein! name: {}", name);
+    this.name = name;
+    this.loader = loader;
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public Map<String, String> load() throws IOException {
+    return this.loader.load();
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+
+  /**
+   * @param properties beliebige Properties (not null)
+   * @return alle Properties, deren Schlüssel und Werte Texte sind
+   */
+  static Map<String, String> toMap(Properties properties) {
+    Map<String, String> configs = new HashMap<>();
+    for (String configKey : properties.stringPropertyNames()) {
+      configs.put(configKey, properties.getProperty(configKey));
+    }
+    return configs;
+  }
+}
@@ -4,31 +4,119 @@ import java.awt.Font;
 import java.awt.FontFormatException;
 import java.awt.geom.AffineTransform;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.ResourcesScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.logging.RateLimitedLogger;
+
 /**
  * Hier werden alle Schriftarten verwaltet, die für eine Anwendung benötigt werden. Da Anwendungen auf unterschiedlichen
  * Betriebssystemen laufen können, müssen sämtliche Schriftarten mit ausgeliefert werden und über diesen Manager geladen
  * und zur Verfügung gestellt werden.
+ * <p>
+ * Die Schriftarten können von beliebig vielen Threads gleichzeitig abgerufen werden, auch während neue Schriftarten
+ * geladen oder der Manager geleert wird.
+ * <p>
+ * Schriftarten, die in einer bestimmten Größe, einem Style oder mit einer Transformation angefragt werden, werden in
+ * einem größenbeschränkten Cache abgelegt. Wiederholte Anfragen liefern so dieselbe {@link Font} Instanz, ohne dass
+ * {@link Font#deriveFont} erneut aufgerufen werden muss.
+ * <p>
+ * Die Ladezeiten, die Treffer und Fehlzugriffe sowie die Anzahl der geladenen und abgeleiteten Schriftarten werden über
+ * die {@link MetricsRegistry#getDefault() gemeinsame MetricsRegistry} unter dem Präfix {@code font.} veröffentlicht.
  *
  * @author morrigan
  */
 public class FontManager {
 
+  /**
+   * Schlüssel einer abgeleiteten Schriftart. Ob Größe und Style angegeben wurden, wird über eigene Flags vermerkt,
+   * sodass jeder Wert des Aufrufers gültig bleibt. Zum Nachschlagen wird je Thread derselbe Schlüssel wiederverwendet,
+   * nur beim Ablegen im Cache wird eine unveränderliche Kopie angelegt.
+   */
+  private static final class DerivedFontKey {
+
+    private String fontName;
+    private boolean withSize;
+    private float size;
+    private boolean withStyle;
+    private int style;
+    private AffineTransform trans;
+    private int hash;
+
+    private DerivedFontKey set(String newFontName, boolean newWithSize, float newSize, boolean newWithStyle,
+        int newStyle, AffineTransform newTrans) {
+      this.fontName = newFontName;
+      this.withSize = newWithSize;
+      this.size = newWithSize ? newSize : 0;
+      this.withStyle = newWithStyle;
+      this.style = newWithStyle ? newStyle : 0;
+      this.trans = newTrans;
+      int result = newFontName.hashCode();
+      result = result * 31 + (newWithSize ? 1 + Float.floatToIntBits(newSize) : 0);
+      result = result * 31 + (newWithStyle ? 1 + newStyle : 0);
+      this.hash = result * 31 + (newTrans == null ? 0 : newTrans.hashCode());
+      return this;
+    }
+
+    /**
+     * @return Kopie dieses Schlüssels, deren Transformation der Aufrufer nicht mehr verändern kann
+     */
+    private DerivedFontKey copy() {
+      return new DerivedFontKey().set(this.fontName, this.withSize, this.size, this.withStyle, this.style,
+          this.trans == null ? null : new AffineTransform(this.trans));
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof DerivedFontKey)) {
+        return false;
+      }
+      DerivedFontKey other = (DerivedFontKey) obj;
+      return this.hash == other.hash && this.withSize == other.withSize && this.withStyle == other.withStyle
+          && Float.floatToIntBits(this.size) == Float.floatToIntBits(other.size) && this.style == other.style
+          && this.fontName.equals(other.fontName)
+          && (this.trans == null ? other.trans == null : this.trans.equals(other.trans));
+    }
+  }
+
   /** Logger für Debug/Fehlerausgaben */
   private static final Logger LOG = LoggerFactory.getLogger(FontManager.class);
 
+  /** Warnungen für Schriftarten, die nicht über {@link #loadAllFontsFromResources()} geladen wurden */
+  private static final RateLimitedLogger MISS_LOG = new RateLimitedLogger.Builder(LOG).build();
+
+  /** Dauer des Ladens einer Schriftart in Nanosekunden */
+  private static final Histogram LOAD_NANOS = MetricsRegistry.getDefault().histogram("font.load.nanos");
+
+  /** Anzahl der Anfragen nach einer vorhandenen Schriftart */
+  private static final Counter HITS = MetricsRegistry.getDefault().counter("font.hits");
+
+  /** Anzahl der Anfragen nach einer nicht vorhandenen Schriftart */
+  private static final Counter MISSES = MetricsRegistry.getDefault().counter("font.misses");
+
+  /** Standardanzahl der abgeleiteten Schriftarten, die zwischengespeichert werden */
+  public static final int DEFAULT_DERIVED_FONT_CACHE_SIZE = 256;
+
+  /** Wiederverwendeter Schlüssel zum Nachschlagen abgeleiteter Schriftarten */
+  private static final ThreadLocal<DerivedFontKey> LOOKUP_KEY = ThreadLocal.withInitial(DerivedFontKey::new);
+
   /**
    * @return einzige Instanz dieses Managers.
    */
@@ -38,12 +126,22 @@ public class FontManager {
 
   private static final FontManager INSTANCE = new FontManager();
 
-  private Map<String, Font> fontCache;
+  private final Map<String, Font> fontCache;
+
+  /** Beinhaltet die zuletzt genutzten abgeleiteten Schriftarten */
+  private final WeightedLruCache<DerivedFontKey, Font> derivedFontCache;
 
   private FontManager() {
     super();
 
-    this.fontCache = new HashMap<>();
+    this.fontCache = new ConcurrentHashMap<>();
+    this.derivedFontCache = new WeightedLruCache<>(DEFAULT_DERIVED_FONT_CACHE_SIZE, font -> 1, (key, font) -> {
+      // verdrängte Schriftarten werden bei Bedarf erneut abgeleitet
+    });
+
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    metrics.gauge("font.count", this.fontCache::size);
+    this.derivedFontCache.publishMetrics(metrics, "font.derived.cache");
   }
 
   /**
@@ -53,7 +151,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName) {
-    return getFont(fontName, Optional.empty(), Optional.empty(), Optional.empty());
+    return getFont(fontName, false, 0, false, 0, null);
   }
 
   /**
@@ -64,7 +162,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, float size) {
-    return getFont(fontName, Optional.of(size), Optional.empty(), Optional.empty());
+    return getFont(fontName, true, size, false, 0, null);
   }
 
   /**
@@ -75,7 +173,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, int style) {
-    return getFont(fontName, Optional.empty(), Optional.of(style), Optional.empty());
+    return getFont(fontName, false, 0, true, style, null);
   }
 
   /**
@@ -86,7 +184,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, AffineTransform trans) {
-    return getFont(fontName, Optional.empty(), Optional.empty(), Optional.of(trans));
+    return getFont(fontName, false, 0, false, 0, trans);
   }
 
   /**
@@ -98,7 +196,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, float size, int style) {
-    return getFont(fontName, Optional.of(size), Optional.of(style), Optional.empty());
+    return getFont(fontName, true, size, true, style, null);
   }
 
   /**
@@ -110,7 +208,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, float size, AffineTransform trans) {
-    return getFont(fontName, Optional.of(size), Optional.empty(), Optional.of(trans));
+    return getFont(fontName, true, size, false, 0, trans);
   }
 
   /**
@@ -122,7 +220,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, int style, AffineTransform trans) {
-    return getFont(fontName, Optional.empty(), Optional.of(style), Optional.of(trans));
+    return getFont(fontName, false, 0, true, style, trans);
   }
 
   /**
@@ -136,7 +234,7 @@ public class FontManager {
    * @return eine Schriftart
    */
   public Optional<Font> getFont(String fontName, float size, int style, AffineTransform trans) {
-    return getFont(fontName, Optional.of(size), Optional.of(style), Optional.of(trans));
+    return getFont(fontName, true, size, true, style, trans);
   }
 
   /**
@@ -165,11 +263,7 @@ public class FontManager {
    * @param fileExtensions Dateiendung der Schriftarten (z.B. .ttf)
    */
   public void loadAllFontsFromResources(String directory, int fontType, String... fileExtensions) {
-    Reflections reflections = new Reflections(directory, new ResourcesScanner());
-    Set<String> availableFonts = new HashSet<>();
-    for (String fileExtension : fileExtensions) {
-      availableFonts.addAll(reflections.getResources(Pattern.compile(".*\\" + fileExtension)));
-    }
+    Set<String> availableFonts = ResourceIndex.findResources(directory, fileExtensions);
 
     int counter = 0;
     for (String fontPath : availableFonts) {
@@ -196,34 +290,93 @@ public class FontManager {
   }
 
   /**
-   * Löscht alle geladenen Schriftarten aus dem Cache.
+   * Legt fest, wie viele abgeleitete Schriftarten (Größe, Style, Transformation) maximal zwischengespeichert werden.
+   * Wird die Anzahl überschritten, werden die am längsten nicht genutzten Schriftarten verdrängt. Standardmäßig sind
+   * {@link #DEFAULT_DERIVED_FONT_CACHE_SIZE} eingestellt. Mit 0 wird das Zwischenspeichern deaktiviert.
+   *
+   * @param maxSize maximale Anzahl abgeleiteter Schriftarten <i>([0;∞])</i>
+   * @throws IllegalArgumentException falls {@code maxSize} negativ ist
+   */
+  public void setMaxDerivedFontCacheSize(int maxSize) {
+    this.derivedFontCache.setMaxWeight(maxSize);
+  }
+
+  /**
+   * @return aktuelle Kennzahlen (Treffer, Fehlzugriffe, Verdrängungen, Größe) des Caches für abgeleitete Schriftarten
+   */
+  public CacheStatistics getDerivedFontCacheStatistics() {
+    return this.derivedFontCache.getStatistics();
+  }
+
+  /**
+   * Löscht alle geladenen Schriftarten aus dem Cache und gibt die Zusammenfassung der unterdrückten Warnungen aus.
    */
   public void clear() {
     this.fontCache.clear();
+    this.derivedFontCache.clear();
+
+    MISS_LOG.reportSuppressed();
   }
 
   private void addFont(String fontName, int fontType, String filePath) throws FontFormatException, IOException {
-    this.fontCache.put(fontName, Font.createFont(fontType, getClass().getResourceAsStream("/" + filePath)));
+    Font font;
+    long start = System.nanoTime();
+    try {
+      font = Font.createFont(fontType, getClass().getResourceAsStream("/" + filePath));
+    } finally {
+      LOAD_NANOS.recordNanosSince(start);
+    }
+    // Ersetzen und Verwerfen der abgeleiteten Schriftarten geschieht atomar zum Ablegen in getDerivedFont
+    this.fontCache.compute(fontName, (name, previous) -> {
+      this.derivedFontCache.removeIf(key -> key.fontName.equals(name));
+      return font;
+    });
+  }
+
+  /**
+   * @param trans Transformation oder {@code null}, falls keine angewendet wird
+   */
+  private Optional<Font> getFont(String fontName, boolean withSize, float size, boolean withStyle, int style,
+      AffineTransform trans) {
+    Font font = fontName == null ? null : this.fontCache.get(fontName);
+    if (font == null) {
+      MISSES.increment();
+      MISS_LOG.warn("Font with name {} is not available!", fontName);
+      return Optional.empty();
+    }
+    HITS.increment();
+    if (withSize || withStyle || trans != null) {
+      font = getDerivedFont(fontName, font, withSize, size, withStyle, style, trans);
+    }
+    return Optional.of(font);
   }
 
-  private Optional<Font> getFont(String fontName, Optional<Float> size, Optional<Integer> style,
-      Optional<AffineTransform> trans) {
-    Optional<Font> result = Optional.ofNullable(this.fontCache.get(fontName));
-    if (result.isPresent()) {
-      Font font = result.get();
-      if (size.isPresent()) {
-        font = font.deriveFont(size.get());
+  private Font getDerivedFont(String fontName, Font baseFont, boolean withSize, float size, boolean withStyle,
+      int style, AffineTransform trans) {
+    DerivedFontKey lookupKey = LOOKUP_KEY.get().set(fontName, withSize, size, withStyle, style, trans);
+    Font font = this.derivedFontCache.get(lookupKey);
+    if (font == null) {
+      font = baseFont;
+      if (withSize) {
+        font = font.deriveFont(size);
       }
-      if (style.isPresent()) {
-        font = font.deriveFont(style.get());
+      if (withStyle) {
+        font = font.deriveFont(style);
       }
-      if (trans.isPresent()) {
-        font = font.deriveFont(trans.get());
+      if (trans != null) {
+        font = font.deriveFont(trans);
       }
-      result = Optional.of(font);
-    } else {
-      LOG.warn("Font with name {} is not available!", fontName);
+      // Die Transformation wird kopiert, da der Aufrufer sie nach dem Aufruf noch verändern kann
+      DerivedFontKey key = lookupKey.copy();
+      Font derivedFont = font;
+      // Nur ablegen, falls die Basisschriftart nicht zwischenzeitlich über addFont ersetzt wurde
+      this.fontCache.computeIfPresent(fontName, (name, currentFont) -> {
+        if (currentFont == baseFont) {
+          this.derivedFontCache.put(key, derivedFont);
+        }
+        return currentFont;
+      });
     }
-    return result;
+    return font;
   }
 }
@@ -1,27 +1,37 @@
 package de.morrigan.dev.utils.resources;
 
 import java.awt.Dimension;
+import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.ResourcesScanner;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.logging.RateLimitedLogger;
+
 /**
  * Hier werden alle Bilder verwaltet, die in einer Anwendung genutzt werden sollen. Die Bilder werden in einen Cache
  * geladen und können dann nach Bedarf abgerufen und angezeigt werden.
@@ -35,14 +45,104 @@ import org.slf4j.LoggerFactory;
  * <li>Windows Bitmap (BMP)</li>
  * <li>Microsoft Icon (ICO)</li>
  * </ul>
+ * <p>
+ * Über den {@link LoadingMode} kann festgelegt werden, ob die Bilder beim Laden aus den Resourcen sofort dekodiert
+ * werden, oder ob nur deren Pfade registriert und die Bilder erst beim ersten Zugriff bzw. im Hintergrund dekodiert
+ * werden.
+ * <p>
+ * Skalierte Varianten der Bilder werden vollständig gerendert und in einem größenbeschränkten Cache abgelegt, so dass
+ * wiederholte Anfragen nach derselben Größe nicht erneut skaliert werden müssen.
+ * <p>
+ * Der Speicherbedarf der dekodierten Bilder kann über {@link #setMaxImageCacheBytes(long)} begrenzt werden. Wird die
+ * Grenze überschritten, werden die am längsten nicht genutzten Bilder entsprechend des {@link EvictionMode} verdrängt
+ * und beim nächsten Zugriff transparent aus ihrer ursprünglichen Quelle erneut dekodiert.
+ * <p>
+ * Die Dauer des Dekodierens, die Treffer und Fehlzugriffe sowie die Größe der Caches in Bytes werden über die
+ * {@link MetricsRegistry#getDefault() gemeinsame MetricsRegistry} unter dem Präfix {@code image.} veröffentlicht.
  *
  * @author morrigan
  */
 public class ImageManager {
 
+  /**
+   * Legt fest, wann ein Bild, das über {@link ImageManager#loadAllImagesFromResources(String, String...)} gefunden
+   * wurde, dekodiert wird.
+   */
+  public enum LoadingMode {
+    /** Alle Bilder werden sofort auf dem aufrufenden Thread dekodiert. */
+    EAGER,
+    /** Es werden nur die Pfade registriert. Ein Bild wird erst beim ersten Zugriff dekodiert. */
+    LAZY,
+    /**
+     * Es werden nur die Pfade registriert. Die Bilder werden anschließend auf dem Prefetch-Executor im Hintergrund
+     * dekodiert. Wird ein Bild vorher angefragt, wird es direkt beim Zugriff dekodiert.
+     */
+    PREFETCH
+  }
+
+  /**
+   * Legt fest, was mit einem Bild passiert, das aufgrund der Speichergrenze aus dem Cache verdrängt wird.
+   */
+  public enum EvictionMode {
+    /**
+     * Das Bild wird über eine {@link SoftReference} gehalten und erst bei Speicherknappheit vom Garbage Collector
+     * freigegeben.
+     */
+    SOFT_REFERENCE,
+    /** Das Bild wird über eine {@link WeakReference} gehalten und spätestens bei der nächsten GC freigegeben. */
+    WEAK_REFERENCE,
+    /** Das Bild wird sofort verworfen. */
+    DROP
+  }
+
+  /** Schlüssel einer skalierten Variante eines Bildes */
+  private static final class ScaledImageKey {
+
+    private final String imageName;
+    private final int width;
+    private final int height;
+
+    private ScaledImageKey(String imageName, int width, int height) {
+      super();
+
+      this.imageName = imageName;
+      this.width = width;
+      this.height = height;
+    }
+
+    @Override
+    public int hashCode() {
+      return (this.imageName.hashCode() * 31 + this.width) * 31 + this.height;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ScaledImageKey)) {
+        return false;
+      }
+      ScaledImageKey other = (ScaledImageKey) obj;
+      return this.width == other.width && this.height == other.height && this.imageName.equals(other.imageName);
+    }
+  }
+
   /** Logger für Debug/Fehlerausgaben */
   private static final Logger LOG = LoggerFactory.getLogger(ImageManager.class);
 
+  /** Warnungen für Bilder, die weder im Cache noch in den registrierten Quellen zu finden sind */
+  private static final RateLimitedLogger MISS_LOG = new RateLimitedLogger.Builder(LOG).build();
+
+  /** Dauer des Dekodierens eines Bildes in Nanosekunden */
+  private static final Histogram DECODE_NANOS = MetricsRegistry.getDefault().histogram("image.decode.nanos");
+
+  /** Anzahl der Anfragen nach einem vorhandenen Bild */
+  private static final Counter HITS = MetricsRegistry.getDefault().counter("image.hits");
+
+  /** Anzahl der Anfragen nach einem nicht vorhandenen Bild */
+  private static final Counter MISSES = MetricsRegistry.getDefault().counter("image.misses");
+
   public static ImageManager getInstance() {
     return INSTANCE;
   }
@@ -50,19 +150,57 @@ public class ImageManager {
   /** Einzige Instanz dieses Managers */
   private static final ImageManager INSTANCE = new ImageManager();
 
+  /** Standardgröße des Caches für skalierte Bilder in Bytes (16 MB) */
+  public static final long DEFAULT_SCALED_IMAGE_CACHE_BYTES = 16L * 1024 * 1024;
+
   /** Unterstützte Dateiendungen */
   private static final String[] SUPPORTED_FILE_EXTENSIONS = new String[] {
       ".bmp", ".gif", ".ico", ".jpg", ".jpeg", ".png", ".tif", ".tiff",
       ".BMP", ".GIF", ".ICO", ".JPG", ".JPEG", ".PNG", ".TIF", ".TIFF"
   };
 
+  /** Beinhaltet zu allen bekannten Bildnamen die Quelle, aus der das jeweilige Bild dekodiert werden kann */
+  private final Map<String, URL> imageSources;
+
   /** Beinhaltet alle geladenen Bilder und können über einen entsprechenden Schlüssel abgerufen werden */
-  private final Map<String, Image> imageCache;
+  private final WeightedLruCache<String, Image> imageCache;
+
+  /** Beinhaltet die aus dem Cache verdrängten Bilder, solange diese nicht vom Garbage Collector freigegeben wurden */
+  private final Map<String, Reference<Image>> demotedImages;
+
+  /** Beinhaltet die zuletzt genutzten skalierten Varianten der Bilder */
+  private final WeightedLruCache<ScaledImageKey, BufferedImage> scaledImageCache;
+
+  /** Bilder, deren Quelle nicht dekodiert werden konnte. Sie werden erst nach erneuter Registrierung wieder gelesen. */
+  private final Set<String> failedImages;
+
+  /** Legt fest, was mit verdrängten Bildern passiert */
+  private volatile EvictionMode evictionMode;
+
+  /** Legt fest, wann Bilder aus den Resourcen dekodiert werden */
+  private volatile LoadingMode loadingMode;
+
+  /** Executor, auf dem die Bilder im Modus {@link LoadingMode#PREFETCH} dekodiert werden */
+  private volatile Executor prefetchExecutor;
 
   private ImageManager() {
     super();
 
-    this.imageCache = new HashMap<>();
+    this.imageSources = new ConcurrentHashMap<>();
+    this.imageCache = new WeightedLruCache<>(Long.MAX_VALUE, ImageSizes::byteSize, this::demoteImage);
+    this.demotedImages = new ConcurrentHashMap<>();
+    this.failedImages = ConcurrentHashMap.newKeySet();
+    this.evictionMode = EvictionMode.SOFT_REFERENCE;
+    this.scaledImageCache = new WeightedLruCache<>(DEFAULT_SCALED_IMAGE_CACHE_BYTES, ImageSizes::byteSize,
+        (key, image) -> LOG.debug("Scaled image {} ({}x{}) evicted from cache", key.imageName, key.width,
+            key.height));
+    this.loadingMode = LoadingMode.EAGER;
+    this.prefetchExecutor = ForkJoinPool.commonPool();
+
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    this.imageCache.publishMetrics(metrics, "image.cache");
+    this.scaledImageCache.publishMetrics(metrics, "image.scaled.cache");
+    metrics.gauge("image.sources", this.imageSources::size);
   }
 
   /**
@@ -76,7 +214,8 @@ public class ImageManager {
   }
 
   /**
-   * Prüft die Verfügbarkeit eines Bildes und liefert dieses in der angegebenen Größe zurück.
+   * Prüft die Verfügbarkeit eines Bildes und liefert dieses in der angegebenen Größe zurück. Die skalierte Variante
+   * wird zwischengespeichert und darf daher nicht verändert werden.
    *
    * @param imageName Name eines Bildes
    * @param scaleToWidth Skalierungsfaktor in der Breite
@@ -88,7 +227,8 @@ public class ImageManager {
   }
 
   /**
-   * Prüft die Verfügbarkeit eines Bildes und liefert dieses in der angegebenen Größe zurück.
+   * Prüft die Verfügbarkeit eines Bildes und liefert dieses in der angegebenen Größe zurück. Die skalierte Variante
+   * wird zwischengespeichert und darf daher nicht verändert werden.
    *
    * @param imageName Name eines Bildes
    * @param scaleToDimension Skalierungsfaktor
@@ -156,42 +296,136 @@ public class ImageManager {
    * @param fileExtensions Liste mit zu ladenden Dateiendungen
    */
   public void loadAllImagesFromResources(String directory, String... fileExtensions) {
-    Reflections reflections = new Reflections(directory, new ResourcesScanner());
-    Set<String> availableImages = new HashSet<>();
-    for (String fileExtension : fileExtensions) {
-      availableImages.addAll(reflections.getResources(Pattern.compile(".*\\" + fileExtension)));
-    }
+    Set<String> availableImages = ResourceIndex.findResources(directory, fileExtensions);
 
+    LoadingMode mode = this.loadingMode;
+    Set<String> registeredImages = new HashSet<>();
     int counter = 0;
     for (String imagePath : availableImages) {
       String baseName = FilenameUtils.getBaseName(imagePath);
       String extension = FilenameUtils.getExtension(imagePath);
       String key = StringUtils.join(baseName, "-", extension);
-      try {
-        addImage(key, imagePath);
+      URL source = getClass().getResource("/" + imagePath);
+      if (mode == LoadingMode.EAGER) {
+        try {
+          addImage(key, source);
+          counter++;
+        } catch (IOException e) {
+          LOG.error(e.getMessage(), e);
+        }
+      } else {
+        this.imageSources.put(key, source);
+        removeImage(key);
+        registeredImages.add(key);
         counter++;
-      } catch (IOException e) {
-        LOG.error(e.getMessage(), e);
       }
     }
 
-    LOG.info("{} Bilder erfolgreich geladen...", counter);
+    if (mode == LoadingMode.EAGER) {
+      LOG.info("{} Bilder erfolgreich geladen...", counter);
+    } else {
+      LOG.info("{} Bilder erfolgreich registriert...", counter);
+      if (mode == LoadingMode.PREFETCH) {
+        prefetchImages(registeredImages);
+      }
+    }
   }
 
   /**
-   * Lädt ein Bild über die angegebene URL und legt dieses unter dem angegebenen Namen im Cache ab.
+   * Lädt ein Bild über die angegebene URL und legt dieses unter dem angegebenen Namen im Cache ab. Wird das Bild
+   * aufgrund der Speichergrenze verdrängt, wird es beim nächsten Zugriff erneut über die URL geladen.
    *
    * @param imageName Name eines Bildes
    * @param url URL zum Bild
    */
   public void loadImageFromUrl(String imageName, URL url) {
     try {
-      this.imageCache.put(imageName, ImageIO.read(url));
+      addImage(imageName, url);
     } catch (IOException e) {
       LOG.error(e.getMessage(), e);
     }
   }
 
+  /**
+   * @return aktueller Modus, in dem Bilder aus den Resourcen geladen werden
+   */
+  public LoadingMode getLoadingMode() {
+    return this.loadingMode;
+  }
+
+  /**
+   * Legt fest, wann Bilder, die über {@link #loadAllImagesFromResources(String, String...)} gefunden werden, dekodiert
+   * werden. Standardmäßig ist {@link LoadingMode#EAGER} eingestellt.
+   *
+   * @param loadingMode Modus, in dem Bilder aus den Resourcen geladen werden (not null)
+   */
+  public void setLoadingMode(LoadingMode loadingMode) {
+    Validate.notNull(loadingMode, "Folgende Parameter dürfen nicht null sein! loadingMode: {}", loadingMode);
+    this.loadingMode = loadingMode;
+  }
+
+  /**
+   * Legt den Executor fest, auf dem die Bilder im Modus {@link LoadingMode#PREFETCH} dekodiert werden. Standardmäßig
+   * wird der {@link ForkJoinPool#commonPool()} genutzt. Es kann aber auch z.B. ein eigener {@link ForkJoinPool} oder
+   * ein Executor mit virtuellen Threads übergeben werden.
+   *
+   * @param prefetchExecutor Executor zum Dekodieren der Bilder (not null)
+   */
+  public void setPrefetchExecutor(Executor prefetchExecutor) {
+    Validate.notNull(prefetchExecutor, "Folgende Parameter dürfen nicht null sein! prefetchExecutor: {}",
+        prefetchExecutor);
+    this.prefetchExecutor = prefetchExecutor;
+  }
+
+  /**
+   * Legt fest, wie viele Bytes die dekodierten Bilder insgesamt belegen dürfen. Die Größe eines Bildes wird aus der
+   * Größe seines Rasters und dem Pixelformat berechnet. Wird die Grenze überschritten, werden die am längsten nicht
+   * genutzten Bilder entsprechend des {@link EvictionMode} verdrängt. Standardmäßig ist der Cache unbegrenzt.
+   *
+   * @param maxBytes maximale Anzahl Bytes aller dekodierten Bilder <i>([0;∞])</i>
+   * @throws IllegalArgumentException falls {@code maxBytes} negativ ist
+   */
+  public void setMaxImageCacheBytes(long maxBytes) {
+    this.imageCache.setMaxWeight(maxBytes);
+  }
+
+  /**
+   * Legt fest, was mit Bildern passiert, die aufgrund der Speichergrenze aus dem Cache verdrängt werden. Standardmäßig
+   * ist {@link EvictionMode#SOFT_REFERENCE} eingestellt.
+   *
+   * @param evictionMode Umgang mit verdrängten Bildern (not null)
+   */
+  public void setEvictionMode(EvictionMode evictionMode) {
+    Validate.notNull(evictionMode, "Folgende Parameter dürfen nicht null sein! evictionMode: {}", evictionMode);
+    this.evictionMode = evictionMode;
+  }
+
+  /**
+   * @return aktuelle Kennzahlen (Treffer, Fehlzugriffe, Verdrängungen, Größe in Bytes) des Caches für dekodierte Bilder
+   */
+  public CacheStatistics getImageCacheStatistics() {
+    return this.imageCache.getStatistics();
+  }
+
+  /**
+   * Legt fest, wie viele Bytes die skalierten Varianten der Bilder insgesamt belegen dürfen. Wird die Grenze
+   * überschritten, werden die am längsten nicht genutzten Varianten verdrängt. Standardmäßig sind
+   * {@link #DEFAULT_SCALED_IMAGE_CACHE_BYTES} eingestellt. Mit 0 wird das Zwischenspeichern deaktiviert.
+   *
+   * @param maxBytes maximale Anzahl Bytes aller skalierten Bilder <i>([0;∞])</i>
+   * @throws IllegalArgumentException falls {@code maxBytes} negativ ist
+   */
+  public void setMaxScaledImageCacheBytes(long maxBytes) {
+    this.scaledImageCache.setMaxWeight(maxBytes);
+  }
+
+  /**
+   * @return aktuelle Kennzahlen (Treffer, Fehlzugriffe, Verdrängungen, Größe) des Caches für skalierte Bilder
+   */
+  public CacheStatistics getScaledImageCacheStatistics() {
+    return this.scaledImageCache.getStatistics();
+  }
+
   /**
    * Alle Bildnamen zu denen ein Bild gefunden und in diesem Manager hinterlegt wurde. Mit diesen Bildnamen können
    * gezielt einzelne Bilder abgerufen werden.
@@ -199,18 +433,138 @@ public class ImageManager {
    * @return eine Menge von Bildnamen
    */
   public Set<String> getImageNames() {
-    return this.imageCache.keySet();
+    return this.imageSources.keySet();
   }
 
   /**
-   * Löscht alle geladenen Bilder aus dem Cache.
+   * Löscht alle geladenen und registrierten Bilder aus dem Cache und gibt die Zusammenfassung der unterdrückten
+   * Warnungen aus.
    */
   public void clear() {
+    this.imageSources.clear();
     this.imageCache.clear();
+    this.demotedImages.clear();
+    this.scaledImageCache.clear();
+    this.failedImages.clear();
+
+    MISS_LOG.reportSuppressed();
+  }
+
+  private void addImage(String imageName, URL source) throws IOException {
+    Image image = readImage(source);
+    this.imageSources.put(imageName, source);
+    removeImage(imageName);
+    if (image != null) {
+      this.imageCache.put(imageName, image);
+    } else {
+      markFailed(imageName, source, null);
+    }
+  }
+
+  /**
+   * Entfernt ein Bild samt seiner verdrängten und skalierten Varianten aus den Caches. Die Quelle bleibt registriert
+   * und wird beim nächsten Zugriff erneut dekodiert, auch wenn dies zuvor fehlgeschlagen ist.
+   */
+  private void removeImage(String imageName) {
+    this.failedImages.remove(imageName);
+    this.imageCache.remove(imageName);
+    this.demotedImages.remove(imageName);
+    this.scaledImageCache.removeIf(key -> key.imageName.equals(imageName));
+  }
+
+  private void demoteImage(String imageName, Image image) {
+    switch (this.evictionMode) {
+      case SOFT_REFERENCE:
+        this.demotedImages.put(imageName, new SoftReference<>(image));
+      break;
+      case WEAK_REFERENCE:
+        this.demotedImages.put(imageName, new WeakReference<>(image));
+      break;
+      case DROP:
+      break;
+
+      default:
+        throw new IllegalStateException("Missing mapping for eviction mode: " + this.evictionMode);
+    }
+  }
+
+  /**
+   * Holt ein verdrängtes Bild zurück in den Cache, sofern es noch nicht vom Garbage Collector freigegeben wurde.
+   */
+  private Image restoreImage(String imageName) {
+    Reference<Image> reference = this.demotedImages.remove(imageName);
+    Image image = reference == null ? null : reference.get();
+    if (image != null) {
+      Image existing = this.imageCache.putIfAbsent(imageName, image);
+      if (existing != null) {
+        image = existing;
+      }
+    }
+    return image;
   }
 
-  private void addImage(String imageName, String filePath) throws IOException {
-    this.imageCache.put(imageName, ImageIO.read(getClass().getResourceAsStream("/" + filePath)));
+  private void prefetchImages(Set<String> imageNames) {
+    Executor executor = this.prefetchExecutor;
+    for (String imageName : imageNames) {
+      URL source = this.imageSources.get(imageName);
+      if (source != null) {
+        executor.execute(() -> decodeImage(imageName, source));
+      }
+    }
+  }
+
+  /**
+   * Dekodiert ein registriertes Bild und legt es im Cache ab, sofern es nicht zwischenzeitlich von einem anderen Thread
+   * dekodiert oder aus dem Manager entfernt wurde. Ein verdrängtes Bild wird dabei bevorzugt wiederverwendet.
+   */
+  private Image decodeImage(String imageName, URL source) {
+    Image image = this.imageCache.peek(imageName);
+    if (image == null) {
+      image = restoreImage(imageName);
+    }
+    if (image == null && !this.failedImages.contains(imageName)) {
+      try {
+        Image decoded = readImage(source);
+        if (decoded == null) {
+          markFailed(imageName, source, null);
+        } else {
+          image = this.imageCache.putIfAbsent(imageName, decoded);
+          if (image == null) {
+            image = decoded;
+          }
+          if (this.imageSources.get(imageName) != source) {
+            // Bild wurde während des Dekodierens entfernt oder neu registriert
+            this.imageCache.remove(imageName, decoded);
+          }
+        }
+      } catch (IOException e) {
+        markFailed(imageName, source, e);
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Merkt sich, dass die Quelle eines Bildes nicht dekodiert werden kann, und meldet dies einmalig. Wurde das Bild
+   * zwischenzeitlich neu registriert, betrifft der Fehler die alte Quelle und wird ignoriert.
+   */
+  private void markFailed(String imageName, URL source, IOException cause) {
+    if (this.imageSources.get(imageName) == source && this.failedImages.add(imageName)) {
+      if (cause == null) {
+        LOG.warn("Image {} could not be decoded from {}: unsupported format", imageName, source);
+      } else {
+        LOG.error("Image {} could not be decoded from {}. Details: {}", imageName, source, cause.getMessage(), cause);
+      }
+    }
+  }
+
+  private static Image readImage(URL source) throws IOException {
+    long start = System.nanoTime();
+    try {
+      return ImageIO.read(source);
+    } finally {
+      DECODE_NANOS.recordNanosSince(start);
+    }
   }
 
   private Optional<ImageIcon> getImageIcon(String imageName, Optional<Integer> scaleToWidth,
@@ -224,12 +578,23 @@ public class ImageManager {
   }
 
   private Optional<Image> getImage(String imageName, Optional<Integer> scaleToWidth, Optional<Integer> scaleToHeight) {
-    Optional<Image> result = Optional.ofNullable(this.imageCache.get(imageName));
+    Image image = null;
+    if (imageName != null) {
+      image = this.imageCache.get(imageName);
+      if (image == null) {
+        URL source = this.imageSources.get(imageName);
+        if (source != null) {
+          image = decodeImage(imageName, source);
+        }
+      }
+    }
+    Optional<Image> result = Optional.ofNullable(image);
     int width = 0;
     int height = 0;
     int newWidth = 0;
     int newHeight = 0;
     if (result.isPresent()) {
+      HITS.increment();
       BufferedImage img = (BufferedImage) result.get();
       width = img.getWidth();
       height = img.getHeight();
@@ -240,11 +605,47 @@ public class ImageManager {
         newHeight = scaleToHeight.get();
       }
       if ((newWidth > 0 && newHeight > 0) && (width != newWidth || height != newHeight)) {
-        result = Optional.of(result.get().getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH));
+        result = Optional.of(getScaledImage(imageName, img, newWidth, newHeight));
       }
     } else {
-      LOG.warn("Image with name {} is not available!", imageName);
+      MISSES.increment();
+      MISS_LOG.warn("Image with name {} is not available!", imageName);
+    }
+    return result;
+  }
+
+  private BufferedImage getScaledImage(String imageName, BufferedImage image, int width, int height) {
+    ScaledImageKey key = new ScaledImageKey(imageName, width, height);
+    BufferedImage scaledImage = this.scaledImageCache.get(key);
+    if (scaledImage == null) {
+      scaledImage = renderScaledImage(image, width, height);
+      this.scaledImageCache.put(key, scaledImage);
     }
+    return scaledImage;
+  }
+
+  /**
+   * Rendert ein Bild vollständig in der angegebenen Größe. Beim Verkleinern wird die Größe schrittweise höchstens
+   * halbiert, damit die bilineare Interpolation ein ähnlich glattes Ergebnis wie {@link Image#SCALE_SMOOTH} liefert.
+   */
+  private static BufferedImage renderScaledImage(BufferedImage image, int width, int height) {
+    BufferedImage result = image;
+    int currentWidth = image.getWidth();
+    int currentHeight = image.getHeight();
+    do {
+      currentWidth = currentWidth > width ? Math.max(currentWidth / 2, width) : width;
+      currentHeight = currentHeight > height ? Math.max(currentHeight / 2, height) : height;
+      BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D graphics = step.createGraphics();
+      try {
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(result, 0, 0, currentWidth, currentHeight, null);
+      } finally {
+        graphics.dispose();
+      }
+      result = step;
+    } while (currentWidth != width || currentHeight != height);
     return result;
   }
 }
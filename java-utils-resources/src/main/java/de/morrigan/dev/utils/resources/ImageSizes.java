@@ -0,0 +1,40 @@
+package de.morrigan.dev.utils.resources;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+
+/**
+ * Stellt Hilfsmethoden bereit, um den Speicherbedarf von Bildern abzuschätzen.
+ *
+ * @author morrigan
+ */
+final class ImageSizes {
+
+  /** Anzahl Bytes pro Pixel, falls das Pixelformat eines Bildes nicht bekannt ist (ARGB) */
+  private static final int DEFAULT_BYTES_PER_PIXEL = 4;
+
+  /**
+   * Ermittelt die Anzahl Bytes, die die Pixeldaten des übergebenen Bildes belegen. Bei einem {@link BufferedImage} wird
+   * die Größe des zugrundeliegenden {@link DataBuffer} samt Datentyp herangezogen. Bei allen anderen Bildern wird von 4
+   * Bytes pro Pixel ausgegangen.
+   *
+   * @param image ein Bild (not null)
+   * @return Anzahl der Bytes der Pixeldaten
+   */
+  static long byteSize(Image image) {
+    if (image instanceof BufferedImage) {
+      DataBuffer dataBuffer = ((BufferedImage) image).getRaster().getDataBuffer();
+      long bits = (long) dataBuffer.getSize() * dataBuffer.getNumBanks()
+          * DataBuffer.getDataTypeSize(dataBuffer.getDataType());
+      return bits / Byte.SIZE;
+    }
+    long width = Math.max(0, image.getWidth(null));
+    long height = Math.max(0, image.getHeight(null));
+    return width * height * DEFAULT_BYTES_PER_PIXEL;
+  }
+
+  private ImageSizes() {
+    super();
+  }
+}
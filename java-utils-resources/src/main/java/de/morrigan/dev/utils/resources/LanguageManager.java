@@ -1,7 +1,7 @@
 package de.morrigan.dev.utils.resources;
 
+import java.io.IOException;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
@@ -9,23 +9,66 @@ import java.util.MissingResourceException;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.logging.RateLimitedLogger;
+
 /**
  * Hier werden alle Beschriftungen und Texte verwaltet, die für eine Anwendung benötigt werden. Da Anwendungen häufig
  * mehrsprachig angeboten werden, unterstützt dieser Manager mittels {@link ResourceBundle} Mehrsprachigkeit.
+ * <p>
+ * Die Texte können von beliebig vielen Threads gleichzeitig abgerufen werden, auch während neue Ressourcen geladen oder
+ * der Manager geleert wird.
+ * <p>
+ * Die Nachrichten und Fehlerbeschreibungen werden beim Laden einmalig in Vorlagen zerlegt, so dass die Platzhalter beim
+ * Abruf nicht erneut gesucht werden müssen. Das Ergebnis entspricht dabei exakt dem von {@link MessageFormatter}.
+ * <p>
+ * Im Modus {@link LookupMode#STRING_TABLE} werden die Texte nicht mehr über die {@link ResourceBundle}s, sondern über
+ * eine beim Laden aufgebaute flache Tabelle je Sprache ermittelt (siehe {@link #setLookupMode(LookupMode)}).
+ * <p>
+ * Die Ladezeiten, die Treffer und Fehlzugriffe sowie der geschätzte Speicherbedarf der Tabellen werden über die
+ * {@link MetricsRegistry#getDefault() gemeinsame MetricsRegistry} unter dem Präfix {@code language.} veröffentlicht.
  *
  * @author morrigan
  */
 public class LanguageManager {
 
+  /** Legt fest, wie zu einem Schlüssel der Text ermittelt wird. */
+  public enum LookupMode {
+    /** Die Texte werden über die geladenen {@link ResourceBundle}s samt deren Eltern-Bundles ermittelt. */
+    RESOURCE_BUNDLE,
+    /**
+     * Die Beschriftungen, Nachrichten und Fehlerbeschreibungen einer Sprache werden beim Laden in eine gemeinsame flache
+     * Tabelle übernommen. Ein Zugriff benötigt nur noch eine Suche in dieser Tabelle und ein fehlender Schlüssel wird
+     * ohne {@link MissingResourceException} beantwortet.
+     */
+    STRING_TABLE
+  }
+
   /** Logger für Debug/Fehlerausgaben */
   private static final Logger LOG = LoggerFactory.getLogger(LanguageManager.class);
 
+  /** Warnungen für Schlüssel, die im geladenen Resource-Bundle fehlen */
+  private static final RateLimitedLogger MISS_LOG = new RateLimitedLogger.Builder(LOG).build();
+
+  /** Dauer des Ladens eines Bundles samt Aufbau der Tabelle in Nanosekunden */
+  private static final Histogram LOAD_NANOS = MetricsRegistry.getDefault().histogram("language.load.nanos");
+
+  /** Anzahl der Anfragen nach einem vorhandenen Text */
+  private static final Counter HITS = MetricsRegistry.getDefault().counter("language.hits");
+
+  /** Anzahl der Anfragen nach einem nicht vorhandenen Text */
+  private static final Counter MISSES = MetricsRegistry.getDefault().counter("language.misses");
+
   /**
    * @return einzige Instanz dieses Managers.
    */
@@ -41,15 +84,56 @@ public class LanguageManager {
     LABELS, MESSAGES, ERRORS
   }
 
-  private Map<Locale, ResourceBundle> labels;
-  private Map<Locale, ResourceBundle> messages;
-  private Map<Locale, ResourceBundle> errors;
+  private final Map<Locale, ResourceBundle> labels;
+  private final Map<Locale, ResourceBundle> messages;
+  private final Map<Locale, ResourceBundle> errors;
+  private final Map<Locale, StringTable> stringTables;
+
+  private volatile LookupMode lookupMode;
 
   private LanguageManager() {
     super();
-    this.labels = new HashMap<>();
-    this.messages = new HashMap<>();
-    this.errors = new HashMap<>();
+    this.labels = new ConcurrentHashMap<>();
+    this.messages = new ConcurrentHashMap<>();
+    this.errors = new ConcurrentHashMap<>();
+    this.stringTables = new ConcurrentHashMap<>();
+    this.lookupMode = LookupMode.RESOURCE_BUNDLE;
+
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    metrics.gauge("language.locales", this.stringTables::size);
+    metrics.gauge("language.keys", () -> {
+      long keys = 0;
+      for (StringTable stringTable : this.stringTables.values()) {
+        keys += stringTable.size();
+      }
+      return keys;
+    });
+    metrics.gauge("language.table.bytes", () -> {
+      long bytes = 0;
+      for (StringTable stringTable : this.stringTables.values()) {
+        bytes += stringTable.getEstimatedBytes();
+      }
+      return bytes;
+    });
+  }
+
+  /**
+   * @return aktueller Modus, in dem zu einem Schlüssel der Text ermittelt wird
+   */
+  public LookupMode getLookupMode() {
+    return this.lookupMode;
+  }
+
+  /**
+   * Legt fest, wie zu einem Schlüssel der Text ermittelt wird. Standardmäßig ist {@link LookupMode#RESOURCE_BUNDLE}
+   * eingestellt. Der Modus kann jederzeit gewechselt werden, da die Tabellen für {@link LookupMode#STRING_TABLE} beim
+   * Laden immer mit aufgebaut werden.
+   *
+   * @param lookupMode Modus, in dem zu einem Schlüssel der Text ermittelt wird (not null)
+   */
+  public void setLookupMode(LookupMode lookupMode) {
+    Validate.notNull(lookupMode, "Folgende Parameter dürfen nicht null sein! lookupMode: {}", lookupMode);
+    this.lookupMode = lookupMode;
   }
 
   /**
@@ -113,7 +197,7 @@ public class LanguageManager {
    * @return eine Nachricht oder ein Leerstring, falls es zu dem Schlüssel keine Beschriftung gibt.
    */
   public String getMessage(String key, Object... parameters) {
-    return replacePlaceholder(getValue(Bundle.MESSAGES, key, Locale.getDefault()), parameters);
+    return format(Bundle.MESSAGES, key, Locale.getDefault(), parameters);
   }
 
   /**
@@ -127,7 +211,37 @@ public class LanguageManager {
    * @return eine Beschriftung oder ein Leerstring, falls es zu dem Schlüssel keine Beschriftung gibt.
    */
   public String getMessage(String key, Locale locale, Object... parameters) {
-    return replacePlaceholder(getValue(Bundle.MESSAGES, key, locale), parameters);
+    return format(Bundle.MESSAGES, key, locale, parameters);
+  }
+
+  /**
+   * Ermittelt zu einem Nachrichtenschlüssel eine entsprechende Nachricht und schreibt diese in das angegebene Ziel. Die
+   * Nachricht wird in der Sprache geschrieben, die als Default ({@link Locale#getDefault()}) in der JVM hinterlegt ist.
+   * Sofern die Nachricht Platzhalter für Parameter besitzt werden diese mit den angegebenen Parametern befüllt. (see
+   * {@link MessageFormatter})
+   *
+   * @param target Ziel, in das die Nachricht geschrieben wird (z.B. ein wiederverwendeter {@link StringBuilder})
+   * @param key Nachrichtenschlüssel
+   * @param parameters Parameter, die statt der Platzhalter in der Nachricht eingefügt werden
+   * @throws IOException falls nicht in das Ziel geschrieben werden kann
+   */
+  public void appendMessage(Appendable target, String key, Object... parameters) throws IOException {
+    formatTo(target, Bundle.MESSAGES, key, Locale.getDefault(), parameters);
+  }
+
+  /**
+   * Ermittelt zu einem Nachrichtenschlüssel eine entsprechende Nachricht und schreibt diese in der angegebenen Sprache
+   * in das angegebene Ziel. Sofern die Nachricht Platzhalter für Parameter besitzt werden diese mit den angegebenen
+   * Parametern befüllt. (see {@link MessageFormatter})
+   *
+   * @param target Ziel, in das die Nachricht geschrieben wird (z.B. ein wiederverwendeter {@link StringBuilder})
+   * @param key Nachrichtenschlüssel
+   * @param locale Sprachspezifischer Ort
+   * @param parameters Parameter, die statt der Platzhalter in der Nachricht eingefügt werden
+   * @throws IOException falls nicht in das Ziel geschrieben werden kann
+   */
+  public void appendMessage(Appendable target, String key, Locale locale, Object... parameters) throws IOException {
+    formatTo(target, Bundle.MESSAGES, key, locale, parameters);
   }
 
   /**
@@ -141,7 +255,7 @@ public class LanguageManager {
    * @return eine Fehlerbeschreibung oder ein Leerstring, falls es zu dem Schlüssel keine Beschriftung gibt.
    */
   public String getError(String key, Object... parameters) {
-    return replacePlaceholder(getValue(Bundle.ERRORS, key, Locale.getDefault()), parameters);
+    return format(Bundle.ERRORS, key, Locale.getDefault(), parameters);
   }
 
   /**
@@ -155,7 +269,39 @@ public class LanguageManager {
    * @return eine Fehlerbeschreibung oder ein Leerstring, falls es zu dem Schlüssel keine Beschriftung gibt.
    */
   public String getError(String key, Locale locale, Object... parameters) {
-    return replacePlaceholder(getValue(Bundle.ERRORS, key, locale), parameters);
+    return format(Bundle.ERRORS, key, locale, parameters);
+  }
+
+  /**
+   * Ermittelt zu einem Fehlerschlüssel eine entsprechende Fehlerbeschreibung und schreibt diese in das angegebene Ziel.
+   * Die Fehlerbeschreibung wird in der Sprache geschrieben, die als Default ({@link Locale#getDefault()}) in der JVM
+   * hinterlegt ist. Sofern die Fehlerbeschreibung Platzhalter für Parameter besitzt werden diese mit den angegebenen
+   * Parametern befüllt. (see {@link MessageFormatter})
+   *
+   * @param target Ziel, in das die Fehlerbeschreibung geschrieben wird (z.B. ein wiederverwendeter
+   *        {@link StringBuilder})
+   * @param key Fehlerschlüssel
+   * @param parameters Parameter, die statt der Platzhalter in der Fehlerbeschreibung eingefügt werden
+   * @throws IOException falls nicht in das Ziel geschrieben werden kann
+   */
+  public void appendError(Appendable target, String key, Object... parameters) throws IOException {
+    formatTo(target, Bundle.ERRORS, key, Locale.getDefault(), parameters);
+  }
+
+  /**
+   * Ermittelt zu einem Fehlerschlüssel eine entsprechende Fehlerbeschreibung und schreibt diese in der angegebenen
+   * Sprache in das angegebene Ziel. Sofern die Fehlerbeschreibung Platzhalter für Parameter besitzt werden diese mit
+   * den angegebenen Parametern befüllt. (see {@link MessageFormatter})
+   *
+   * @param target Ziel, in das die Fehlerbeschreibung geschrieben wird (z.B. ein wiederverwendeter
+   *        {@link StringBuilder})
+   * @param key Fehlerschlüssel
+   * @param locale Sprachspezifischer Ort
+   * @param parameters Parameter, die statt der Platzhalter in der Fehlerbeschreibung eingefügt werden
+   * @throws IOException falls nicht in das Ziel geschrieben werden kann
+   */
+  public void appendError(Appendable target, String key, Locale locale, Object... parameters) throws IOException {
+    formatTo(target, Bundle.ERRORS, key, locale, parameters);
   }
 
   /**
@@ -288,12 +434,16 @@ public class LanguageManager {
   }
 
   /**
-   * Löscht alle im Cache vorhandenen Beschriftungen, Nachrichten und Fehlerbeschreibungen für alle Sprachen.
+   * Löscht alle im Cache vorhandenen Beschriftungen, Nachrichten und Fehlerbeschreibungen für alle Sprachen und gibt
+   * die Zusammenfassung der unterdrückten Warnungen aus.
    */
-  public void clear() {
-    this.labels = new HashMap<>();
-    this.messages = new HashMap<>();
-    this.errors = new HashMap<>();
+  public synchronized void clear() {
+    this.labels.clear();
+    this.messages.clear();
+    this.errors.clear();
+    this.stringTables.clear();
+
+    MISS_LOG.reportSuppressed();
   }
 
   private Set<String> toSet(ResourceBundle bundle) {
@@ -309,20 +459,78 @@ public class LanguageManager {
     return MessageFormatter.arrayFormat(value, parameters).getMessage();
   }
 
+  private String format(Bundle bundleName, String key, Locale locale, Object... parameters) {
+    MessageTemplate template = getTemplate(bundleName, key, locale);
+    if (template != null) {
+      return template.format(parameters);
+    }
+    return replacePlaceholder(getValue(bundleName, key, locale), parameters);
+  }
+
+  private void formatTo(Appendable target, Bundle bundleName, String key, Locale locale, Object... parameters)
+      throws IOException {
+    MessageTemplate template = getTemplate(bundleName, key, locale);
+    if (template != null) {
+      template.formatTo(target, parameters);
+    } else {
+      target.append(replacePlaceholder(getValue(bundleName, key, locale), parameters));
+    }
+  }
+
+  private MessageTemplate getTemplate(Bundle bundleName, String key, Locale locale) {
+    if (StringUtils.isBlank(key)) {
+      return null;
+    }
+    StringTable stringTable = this.stringTables.get(locale == null ? Locale.getDefault() : locale);
+    MessageTemplate template = stringTable == null ? null : stringTable.getTemplate(bundleName.ordinal(), key);
+    if (template != null) {
+      HITS.increment();
+    }
+    return template;
+  }
+
   private String getValue(Bundle bundleName, String key, Locale locale) {
+    if (this.lookupMode == LookupMode.STRING_TABLE) {
+      return getTableValue(bundleName, key, locale);
+    }
     String result = "";
     try {
       if (!StringUtils.isBlank(key)) {
         ResourceBundle resourceBundle = getResourceBundle(bundleName, locale);
         result = resourceBundle.getString(key);
+        HITS.increment();
       }
     } catch (MissingResourceException e) {
-      LOG.warn("No value found for the key '{}' in the resource bundle '{}'. Details: {}", key, bundleName.name(),
+      MISSES.increment();
+      MISS_LOG.warn("No value found for the key '{}' in the resource bundle '{}'. Details: {}", key, bundleName.name(),
           e.getMessage());
     }
     return result;
   }
 
+  private String getTableValue(Bundle bundleName, String key, Locale locale) {
+    if (StringUtils.isBlank(key)) {
+      return "";
+    }
+    if (locale == null) {
+      locale = Locale.getDefault();
+    }
+    StringTable stringTable = this.stringTables.get(locale);
+    String result = stringTable == null ? null : stringTable.getValue(bundleName.ordinal(), key);
+    if (result != null) {
+      HITS.increment();
+      return result;
+    }
+    MISSES.increment();
+    if (stringTable == null || !stringTable.isLoaded(bundleName.ordinal())) {
+      MISS_LOG.warn("No value found for the key '{}' in the resource bundle '{}'. Details: No resource bundle available for "
+          + "the language {}.", key, bundleName.name(), locale.getDisplayLanguage());
+    } else {
+      MISS_LOG.warn("No value found for the key '{}' in the resource bundle '{}'.", key, bundleName.name());
+    }
+    return "";
+  }
+
   private ResourceBundle getResourceBundle(Bundle bundle, Locale locale) {
     ResourceBundle resourceBundle;
     if (locale == null) {
@@ -349,7 +557,8 @@ public class LanguageManager {
     return resourceBundle;
   }
 
-  private void loadLabelsFromResources(Bundle bundle, String baseName, Optional<Locale> optLocale) {
+  private synchronized void loadLabelsFromResources(Bundle bundle, String baseName, Optional<Locale> optLocale) {
+    long start = System.nanoTime();
     Locale locale;
     if (optLocale.isPresent()) {
       locale = optLocale.get();
@@ -370,5 +579,30 @@ public class LanguageManager {
       default:
         throw new IllegalStateException("Missing mapping for bundle: " + bundle);
     }
+    this.stringTables.put(locale, buildStringTable(locale));
+    LOAD_NANOS.recordNanosSince(start);
+  }
+
+  private StringTable buildStringTable(Locale locale) {
+    StringTable.Builder builder = new StringTable.Builder(Bundle.values().length);
+    addToStringTable(builder, Bundle.LABELS, this.labels.get(locale), false);
+    addToStringTable(builder, Bundle.MESSAGES, this.messages.get(locale), true);
+    addToStringTable(builder, Bundle.ERRORS, this.errors.get(locale), true);
+    return builder.build();
+  }
+
+  private void addToStringTable(StringTable.Builder builder, Bundle bundle, ResourceBundle resourceBundle,
+      boolean compileTemplates) {
+    if (resourceBundle == null) {
+      return;
+    }
+    builder.markLoaded(bundle.ordinal());
+    for (String key : resourceBundle.keySet()) {
+      Object value = resourceBundle.getObject(key);
+      if (value instanceof String) {
+        String text = (String) value;
+        builder.put(bundle.ordinal(), key, text, compileTemplates ? MessageTemplate.compile(text) : null);
+      }
+    }
   }
 }
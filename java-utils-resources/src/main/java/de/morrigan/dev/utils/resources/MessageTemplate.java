@@ -0,0 +1,185 @@
+package de.morrigan.dev.utils.resources;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Vorab zerlegte Nachrichtenvorlage mit {@code {}} Platzhaltern. Die Vorlage wird einmalig in Textsegmente und
+ * Platzhalter zerlegt, so dass beim Befüllen die Vorlage nicht erneut durchsucht werden muss. Das Ergebnis entspricht
+ * exakt dem von {@link MessageFormatter#arrayFormat(String, Object[])} inklusive der Behandlung von maskierten
+ * Platzhaltern ({@code \{}} bzw. {@code \\{}}) und einer {@link Throwable} als letztem Parameter.
+ *
+ * @author morrigan
+ */
+final class MessageTemplate {
+
+  private static final String DELIM_STR = "{}";
+  private static final char DELIM_START = '{';
+  private static final char ESCAPE_CHAR = '\\';
+
+  /** Puffer, die mehr Zeichen fassen, werden nach der Nutzung nicht weiter vorgehalten */
+  private static final int MAX_BUFFER_CAPACITY = 8 * 1024;
+
+  /** Wiederverwendbarer Puffer pro Thread. Während der Nutzung ist kein Puffer hinterlegt (verschachtelte Aufrufe). */
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private final String pattern;
+
+  /** Text vor dem jeweiligen Platzhalter (bei maskierten Platzhaltern inklusive der öffnenden Klammer) */
+  private final String[] literals;
+
+  /** Gibt an, ob es sich um einen maskierten Platzhalter handelt, der keinen Parameter verbraucht */
+  private final boolean[] escaped;
+
+  /** Position in der Vorlage, an der nach dem jeweiligen Platzhalter fortgesetzt wird */
+  private final int[] nextIndex;
+
+  private MessageTemplate(String pattern, String[] literals, boolean[] escaped, int[] nextIndex) {
+    super();
+
+    this.pattern = pattern;
+    this.literals = literals;
+    this.escaped = escaped;
+    this.nextIndex = nextIndex;
+  }
+
+  /**
+   * Zerlegt die angegebene Vorlage in Textsegmente und Platzhalter.
+   *
+   * @param pattern eine Vorlage mit {@code {}} Platzhaltern (not null)
+   * @return die zerlegte Vorlage
+   */
+  static MessageTemplate compile(String pattern) {
+    List<String> literals = new ArrayList<>();
+    List<Boolean> escaped = new ArrayList<>();
+    List<Integer> nextIndex = new ArrayList<>();
+    int i = 0;
+    int j;
+    while ((j = pattern.indexOf(DELIM_STR, i)) != -1) {
+      boolean escapedDelimiter = j >= 1 && pattern.charAt(j - 1) == ESCAPE_CHAR;
+      boolean doubleEscaped = escapedDelimiter && j >= 2 && pattern.charAt(j - 2) == ESCAPE_CHAR;
+      if (escapedDelimiter && !doubleEscaped) {
+        literals.add(pattern.substring(i, j - 1) + DELIM_START);
+        escaped.add(Boolean.TRUE);
+        i = j + 1;
+      } else {
+        literals.add(pattern.substring(i, escapedDelimiter ? j - 1 : j));
+        escaped.add(Boolean.FALSE);
+        i = j + 2;
+      }
+      nextIndex.add(i);
+    }
+
+    int size = literals.size();
+    boolean[] escapedArray = new boolean[size];
+    int[] nextIndexArray = new int[size];
+    for (int k = 0; k < size; k++) {
+      escapedArray[k] = escaped.get(k);
+      nextIndexArray[k] = nextIndex.get(k);
+    }
+    return new MessageTemplate(pattern, literals.toArray(new String[size]), escapedArray, nextIndexArray);
+  }
+
+  /**
+   * @return die ursprüngliche Vorlage
+   */
+  String getPattern() {
+    return this.pattern;
+  }
+
+  /**
+   * Befüllt die Platzhalter der Vorlage mit den angegebenen Parametern.
+   *
+   * @param parameters Parameter, die statt der Platzhalter eingefügt werden
+   * @return die befüllte Vorlage
+   */
+  String format(Object... parameters) {
+    int parameterCount = getParameterCount(parameters);
+    if (parameterCount == 0 || this.literals.length == 0) {
+      return this.pattern;
+    }
+
+    StringBuilder buffer = BUFFER.get();
+    if (buffer == null) {
+      buffer = new StringBuilder(this.pattern.length() + 50);
+    } else {
+      BUFFER.set(null);
+      buffer.setLength(0);
+    }
+    try {
+      formatTo(buffer, parameters, parameterCount);
+      return buffer.toString();
+    } finally {
+      if (buffer.capacity() <= MAX_BUFFER_CAPACITY) {
+        BUFFER.set(buffer);
+      }
+    }
+  }
+
+  /**
+   * Befüllt die Platzhalter der Vorlage mit den angegebenen Parametern und schreibt das Ergebnis in das angegebene
+   * Ziel.
+   *
+   * @param target Ziel, in das geschrieben wird (not null)
+   * @param parameters Parameter, die statt der Platzhalter eingefügt werden
+   * @throws IOException falls nicht in das Ziel geschrieben werden kann
+   */
+  void formatTo(Appendable target, Object... parameters) throws IOException {
+    formatTo(target, parameters, getParameterCount(parameters));
+  }
+
+  private void formatTo(StringBuilder target, Object[] parameters, int parameterCount) {
+    try {
+      formatTo((Appendable) target, parameters, parameterCount);
+    } catch (IOException e) {
+      // Ein StringBuilder wirft keine IOException
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void formatTo(Appendable target, Object[] parameters, int parameterCount) throws IOException {
+    int i = 0;
+    int l = 0;
+    for (int k = 0; k < this.literals.length && l < parameterCount; k++) {
+      target.append(this.literals[k]);
+      if (!this.escaped[k]) {
+        appendParameter(target, parameters[l]);
+        l++;
+      }
+      i = this.nextIndex[k];
+    }
+    target.append(this.pattern, i, this.pattern.length());
+  }
+
+  /**
+   * Ermittelt die Anzahl der Parameter, die in die Platzhalter eingesetzt werden. Eine {@link Throwable} als letzter
+   * Parameter wird dabei wie bei {@link MessageFormatter#arrayFormat(String, Object[])} nicht eingesetzt.
+   */
+  private static int getParameterCount(Object[] parameters) {
+    if (parameters == null || parameters.length == 0) {
+      return 0;
+    }
+    int count = parameters.length;
+    return parameters[count - 1] instanceof Throwable ? count - 1 : count;
+  }
+
+  private static void appendParameter(Appendable target, Object parameter) throws IOException {
+    if (parameter == null) {
+      target.append("null");
+    } else if (parameter.getClass().isArray()) {
+      target.append(MessageFormatter.format(DELIM_STR, parameter).getMessage());
+    } else {
+      String value;
+      try {
+        value = parameter.toString();
+      } catch (Throwable t) {
+        // Fehlerbehandlung (Meldung und Ersatztext) wie bei MessageFormatter
+        value = MessageFormatter.format(DELIM_STR, parameter).getMessage();
+      }
+      target.append(value);
+    }
+  }
+}
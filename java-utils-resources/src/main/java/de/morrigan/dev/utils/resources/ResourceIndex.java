@@ -0,0 +1,174 @@
+package de.morrigan.dev.utils.resources;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.reflections.Reflections;
+import org.reflections.scanners.ResourcesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verzeichnis der Ressourcen eines Classpath-Eintrags, das zur Build-Zeit von {@link ResourceIndexGenerator} erzeugt
+ * wird. Für jeden Classpath-Eintrag mit einem Verzeichnis unter {@link #INDEX_LOCATION} werden die Ressourcen darüber
+ * ermittelt, ohne den Eintrag zur Laufzeit zu durchsuchen. Alle übrigen Einträge werden wie bisher mittels
+ * {@link Reflections} durchsucht.
+ *
+ * @author morrigan
+ */
+final class ResourceIndex {
+
+  /** Logger für Debug/Fehlerausgaben */
+  private static final Logger LOG = LoggerFactory.getLogger(ResourceIndex.class);
+
+  /** Pfad, unter dem die Verzeichnisse auf dem Classpath abgelegt werden */
+  static final String INDEX_LOCATION = "META-INF/de.morrigan.dev/resources.idx";
+
+  /** Kennung in der ersten Zeile eines Verzeichnisses */
+  static final String INDEX_HEADER = "# resource index v1";
+
+  /** Bereits eingelesene Verzeichnisse je Classpath-Eintrag, leer bei einem unbekannten Format */
+  private static final Map<String, Optional<ResourceIndex>> INDICES = new ConcurrentHashMap<>();
+
+  private final List<String> resourcePaths;
+
+  private ResourceIndex(List<String> resourcePaths) {
+    super();
+
+    this.resourcePaths = resourcePaths;
+  }
+
+  /**
+   * Ermittelt alle Ressourcen unterhalb des angegebenen Verzeichnisses mit einer der angegebenen Dateiendungen. Für
+   * Classpath-Einträge mit einem Verzeichnis wird dieses genutzt, alle übrigen Einträge werden durchsucht.
+   *
+   * @param directory Pfad zu einem Unterverzeichnis beginnend bei resource
+   * @param fileExtensions Liste mit Dateiendungen (z.B. .png)
+   * @return Pfade aller gefundenen Ressourcen relativ zum Classpath
+   */
+  static Set<String> findResources(String directory, String... fileExtensions) {
+    return findResources(ClasspathHelper.classLoaders(), directory, fileExtensions);
+  }
+
+  /**
+   * @param classLoaders ClassLoader, über die die Classpath-Einträge ermittelt werden
+   * @param directory Pfad zu einem Unterverzeichnis beginnend bei resource
+   * @param fileExtensions Liste mit Dateiendungen (z.B. .png)
+   * @return Pfade aller gefundenen Ressourcen relativ zum Classpath
+   */
+  static Set<String> findResources(ClassLoader[] classLoaders, String directory, String... fileExtensions) {
+    Set<String> indexedRoots = new HashSet<>();
+    Set<String> resources = new HashSet<>();
+    for (URL root : ClasspathHelper.forResource(INDEX_LOCATION, classLoaders)) {
+      String rootName = root.toExternalForm();
+      Optional<ResourceIndex> index = INDICES.computeIfAbsent(rootName, name -> load(root));
+      if (index.isPresent()) {
+        indexedRoots.add(rootName);
+        resources.addAll(index.get().getResources(directory, fileExtensions));
+      }
+    }
+
+    List<URL> unindexedRoots = new ArrayList<>();
+    for (URL root : ClasspathHelper.forPackage(directory, classLoaders)) {
+      if (!indexedRoots.contains(root.toExternalForm())) {
+        unindexedRoots.add(root);
+      }
+    }
+    if (!unindexedRoots.isEmpty()) {
+      Reflections reflections = new Reflections(new ConfigurationBuilder().setUrls(unindexedRoots)
+          .setScanners(new ResourcesScanner()).filterInputsBy(new FilterBuilder().includePackage(directory)));
+      for (String fileExtension : fileExtensions) {
+        resources.addAll(reflections.getResources(toPattern(fileExtension)));
+      }
+    }
+    return resources;
+  }
+
+  /**
+   * Liest das Verzeichnis eines Classpath-Eintrags ein.
+   *
+   * @param root Classpath-Eintrag, unter dem ein Verzeichnis liegt
+   * @return das Verzeichnis oder {@link Optional#empty()}, falls es nicht gelesen werden kann
+   */
+  private static Optional<ResourceIndex> load(URL root) {
+    List<String> resourcePaths = new ArrayList<>();
+    try {
+      URL indexUrl = new URL(root, INDEX_LOCATION);
+      if (!readIndex(indexUrl, resourcePaths)) {
+        LOG.warn("Resource index {} has an unknown format and is ignored!", indexUrl);
+        return Optional.empty();
+      }
+    } catch (IOException e) {
+      LOG.error(e.getMessage(), e);
+      return Optional.empty();
+    }
+    LOG.info("Resource index of {} with {} entries loaded...", root, resourcePaths.size());
+    return Optional.of(new ResourceIndex(Collections.unmodifiableList(resourcePaths)));
+  }
+
+  /**
+   * @param directory Pfad zu einem Unterverzeichnis beginnend bei resource
+   * @param fileExtensions Liste mit Dateiendungen (z.B. .png)
+   * @return Pfade aller Ressourcen aus diesem Verzeichnis, die unterhalb des Unterverzeichnisses liegen und eine der
+   *         Dateiendungen besitzen
+   */
+  Set<String> getResources(String directory, String... fileExtensions) {
+    Pattern[] patterns = new Pattern[fileExtensions.length];
+    for (int i = 0; i < fileExtensions.length; i++) {
+      patterns[i] = toPattern(fileExtensions[i]);
+    }
+    Set<String> resources = new HashSet<>();
+    for (String resourcePath : this.resourcePaths) {
+      if (resourcePath.startsWith(directory)) {
+        String fileName = FilenameUtils.getName(resourcePath);
+        for (Pattern pattern : patterns) {
+          if (pattern.matcher(fileName).matches()) {
+            resources.add(resourcePath);
+            break;
+          }
+        }
+      }
+    }
+    return resources;
+  }
+
+  /**
+   * Entspricht dem Muster, mit dem bisher über {@link Reflections#getResources(Pattern)} gesucht wurde.
+   */
+  private static Pattern toPattern(String fileExtension) {
+    return Pattern.compile(".*\\" + fileExtension);
+  }
+
+  private static boolean readIndex(URL indexUrl, List<String> resourcePaths) throws IOException {
+    try (InputStream inputStream = indexUrl.openStream();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      if (!INDEX_HEADER.equals(reader.readLine())) {
+        return false;
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          resourcePaths.add(line);
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package de.morrigan.dev.utils.resources;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Erzeugt zur Build-Zeit ein Verzeichnis aller Ressourcen eines Ausgabeverzeichnisses (z.B. {@code target/classes}),
+ * damit {@link ImageManager} und {@link FontManager} den Classpath zur Laufzeit nicht mehr durchsuchen müssen.
+ * Class-Dateien werden dabei nicht aufgenommen.
+ * <p>
+ * Der Generator wird in der Regel über das exec-maven-plugin in der Phase {@code process-classes} aufgerufen:
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *   &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *   &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *   &lt;executions&gt;
+ *     &lt;execution&gt;
+ *       &lt;id&gt;generate-resource-index&lt;/id&gt;
+ *       &lt;phase&gt;process-classes&lt;/phase&gt;
+ *       &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *       &lt;configuration&gt;
+ *         &lt;mainClass&gt;de.morrigan.dev.utils.resources.ResourceIndexGenerator&lt;/mainClass&gt;
+ *         &lt;arguments&gt;&lt;argument&gt;${project.build.outputDirectory}&lt;/argument&gt;&lt;/arguments&gt;
+ *       &lt;/configuration&gt;
+ *     &lt;/execution&gt;
+ *   &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ *
+ * Ein Verzeichnis gilt nur für den Classpath-Eintrag, in dem es liegt. Alle übrigen Einträge werden weiterhin
+ * durchsucht, es lohnt sich daher in jedem Modul, das Bilder oder Schriftarten mitbringt. Ressourcen, die nach dem
+ * Erzeugen zu diesem Eintrag hinzukommen, werden erst nach einem erneuten Aufruf gefunden.
+ *
+ * @author morrigan
+ */
+public class ResourceIndexGenerator {
+
+  /**
+   * @param args Ausgabeverzeichnis, dessen Ressourcen aufgenommen werden, und optional die zu schreibende Datei
+   *        <i>(Standard: {@code <Ausgabeverzeichnis>/META-INF/de.morrigan.dev/resources.idx})</i>
+   * @throws IOException falls das Ausgabeverzeichnis nicht gelesen oder das Verzeichnis nicht geschrieben werden kann
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      throw new IllegalArgumentException("Usage: ResourceIndexGenerator <output directory> [<index file>]");
+    }
+    Path root = Paths.get(args[0]);
+    Path indexFile = args.length == 2 ? Paths.get(args[1]) : root.resolve(ResourceIndex.INDEX_LOCATION);
+    generate(root, indexFile);
+  }
+
+  /**
+   * Schreibt ein Verzeichnis aller Ressourcen unterhalb des angegebenen Ausgabeverzeichnisses.
+   *
+   * @param root Ausgabeverzeichnis, dessen Ressourcen aufgenommen werden
+   * @param indexFile zu schreibende Datei
+   * @return Anzahl der aufgenommenen Ressourcen
+   * @throws IOException falls das Ausgabeverzeichnis nicht gelesen oder das Verzeichnis nicht geschrieben werden kann
+   */
+  public static int generate(Path root, Path indexFile) throws IOException {
+    Path absoluteIndexFile = indexFile.toAbsolutePath().normalize();
+    List<String> resourcePaths;
+    try (Stream<Path> files = Files.walk(root)) {
+      resourcePaths = files.filter(Files::isRegularFile)
+          .filter(file -> !file.toAbsolutePath().normalize().equals(absoluteIndexFile))
+          .map(file -> root.relativize(file).toString().replace('\\', '/'))
+          .filter(resourcePath -> !resourcePath.endsWith(".class"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    Path parent = absoluteIndexFile.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (Writer writer = Files.newBufferedWriter(absoluteIndexFile, StandardCharsets.UTF_8)) {
+      writer.write(ResourceIndex.INDEX_HEADER);
+      writer.write('\n');
+      for (String resourcePath : resourcePaths) {
+        writer.write(resourcePath);
+        writer.write('\n');
+      }
+    }
+    return resourcePaths.size();
+  }
+
+  private ResourceIndexGenerator() {
+    super();
+  }
+}
@@ -0,0 +1,188 @@
+package de.morrigan.dev.utils.resources;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Unveränderliche Hashtabelle mit offener Adressierung, die zu einem Schlüssel in mehreren Spalten jeweils einen Text
+ * und die daraus zerlegte {@link MessageTemplate} ablegt. Ein Zugriff benötigt genau eine Suche über ein flaches
+ * Array, unabhängig davon, aus welcher Spalte gelesen wird. Fehlende Schlüssel werden mit {@code null} beantwortet.
+ *
+ * @author morrigan
+ */
+final class StringTable {
+
+  /** Baut eine {@link StringTable} schrittweise auf. */
+  static final class Builder {
+
+    private final int columnCount;
+    private final boolean[] loadedColumns;
+    private final Map<String, String[]> values;
+    private final Map<String, MessageTemplate[]> templates;
+
+    /**
+     * @param columnCount Anzahl der Spalten der Tabelle
+     */
+    Builder(int columnCount) {
+      super();
+
+      this.columnCount = columnCount;
+      this.loadedColumns = new boolean[columnCount];
+      this.values = new LinkedHashMap<>();
+      this.templates = new LinkedHashMap<>();
+    }
+
+    /**
+     * Markiert eine Spalte als geladen, auch wenn sie keine Einträge besitzt.
+     *
+     * @param column Spalte
+     * @return dieser Builder
+     */
+    Builder markLoaded(int column) {
+      this.loadedColumns[column] = true;
+      return this;
+    }
+
+    /**
+     * Legt in der angegebenen Spalte einen Text samt optionaler Vorlage ab.
+     *
+     * @param column Spalte
+     * @param key Schlüssel (not null)
+     * @param value Text (not null)
+     * @param template zerlegte Vorlage des Textes oder {@code null}
+     * @return dieser Builder
+     */
+    Builder put(int column, String key, String value, MessageTemplate template) {
+      markLoaded(column);
+      this.values.computeIfAbsent(key, k -> new String[this.columnCount])[column] = value;
+      if (template != null) {
+        this.templates.computeIfAbsent(key, k -> new MessageTemplate[this.columnCount])[column] = template;
+      }
+      return this;
+    }
+
+    /**
+     * @return die aufgebaute Tabelle
+     */
+    StringTable build() {
+      int capacity = Integer.highestOneBit(Math.max(2, this.values.size() * 2 - 1)) << 1;
+      int mask = capacity - 1;
+      String[] keys = new String[capacity];
+      int[] hashes = new int[capacity];
+      String[][] valueColumns = new String[this.columnCount][capacity];
+      MessageTemplate[][] templateColumns = new MessageTemplate[this.columnCount][capacity];
+      long estimatedBytes = (long) capacity * (4 + REFERENCE_BYTES * (1 + 2 * this.columnCount));
+      for (Map.Entry<String, String[]> entry : this.values.entrySet()) {
+        String key = entry.getKey();
+        int hash = spread(key.hashCode());
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        hashes[slot] = hash;
+        estimatedBytes += estimateBytes(key);
+        MessageTemplate[] keyTemplates = this.templates.get(key);
+        for (int column = 0; column < this.columnCount; column++) {
+          valueColumns[column][slot] = entry.getValue()[column];
+          estimatedBytes += estimateBytes(valueColumns[column][slot]);
+          templateColumns[column][slot] = keyTemplates == null ? null : keyTemplates[column];
+        }
+      }
+      return new StringTable(keys, hashes, valueColumns, templateColumns, this.loadedColumns.clone(), mask,
+          this.values.size(), estimatedBytes);
+    }
+  }
+
+  /** Angenommene Größe einer Referenz in Bytes */
+  private static final int REFERENCE_BYTES = 8;
+
+  /** Angenommener Overhead eines Strings samt seines Arrays in Bytes */
+  private static final int STRING_OVERHEAD_BYTES = 40;
+
+  private final String[] keys;
+  private final int[] hashes;
+  private final String[][] values;
+  private final MessageTemplate[][] templates;
+  private final boolean[] loadedColumns;
+  private final int mask;
+  private final int size;
+  private final long estimatedBytes;
+
+  private StringTable(String[] keys, int[] hashes, String[][] values, MessageTemplate[][] templates,
+      boolean[] loadedColumns, int mask, int size, long estimatedBytes) {
+    super();
+
+    this.keys = keys;
+    this.hashes = hashes;
+    this.values = values;
+    this.templates = templates;
+    this.loadedColumns = loadedColumns;
+    this.mask = mask;
+    this.size = size;
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  /**
+   * @return Anzahl der Schlüssel
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * @return grob geschätzter Speicherbedarf der Tabelle samt Schlüsseln und Texten in Bytes, ohne die Vorlagen
+   */
+  long getEstimatedBytes() {
+    return this.estimatedBytes;
+  }
+
+  /**
+   * @param column Spalte
+   * @return {@code true}, falls für die Spalte Texte geladen wurden
+   */
+  boolean isLoaded(int column) {
+    return this.loadedColumns[column];
+  }
+
+  /**
+   * @param column Spalte
+   * @param key Schlüssel (not null)
+   * @return der Text zum Schlüssel in der angegebenen Spalte oder {@code null}, falls es keinen gibt
+   */
+  String getValue(int column, String key) {
+    int slot = indexOf(key);
+    return slot < 0 ? null : this.values[column][slot];
+  }
+
+  /**
+   * @param column Spalte
+   * @param key Schlüssel (not null)
+   * @return die Vorlage zum Schlüssel in der angegebenen Spalte oder {@code null}, falls es keine gibt
+   */
+  MessageTemplate getTemplate(int column, String key) {
+    int slot = indexOf(key);
+    return slot < 0 ? null : this.templates[column][slot];
+  }
+
+  private int indexOf(String key) {
+    int hash = spread(key.hashCode());
+    int slot = hash & this.mask;
+    String candidate;
+    while ((candidate = this.keys[slot]) != null) {
+      if (this.hashes[slot] == hash && candidate.equals(key)) {
+        return slot;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return -1;
+  }
+
+  private static long estimateBytes(String text) {
+    return text == null ? 0 : STRING_OVERHEAD_BYTES + 2L * text.length();
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,363 @@
+package de.morrigan.dev.utils.resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.apache.commons.lang3.Validate;
+
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+
+/**
+ * Ein größenbeschränkter Cache, der die am längsten nicht genutzten Einträge verdrängt, sobald das Gesamtgewicht aller
+ * Einträge das erlaubte Maximum überschreitet. Das Gewicht eines Eintrags wird über eine Funktion ermittelt (z.B.
+ * Anzahl Bytes eines Bildes oder 1 für eine reine Begrenzung der Anzahl).
+ * <p>
+ * Die Einträge sind zusätzlich in einer doppelt verketteten Liste nach ihrem letzten Zugriff geordnet. Verdrängt wird
+ * immer vom Ende der Liste, sodass ein Einfügen unabhängig von der Anzahl der Einträge nur konstanten Aufwand hat.
+ * <p>
+ * Lesende Zugriffe blockieren nie: Der Wert wird ohne Sperre ermittelt und der Eintrag nur dann an den Anfang der Liste
+ * verschoben, wenn die Sperre der Liste gerade frei ist. Bei starker Konkurrenz ist die Reihenfolge daher nur
+ * annähernd die des letzten Zugriffs. Schreibende Zugriffe werden über die Sperre der Liste synchronisiert.
+ *
+ * @author morrigan
+ * @param <K> Typ der Schlüssel
+ * @param <V> Typ der Werte
+ */
+final class WeightedLruCache<K, V> {
+
+  /** Eintrag und zugleich Glied der nach dem letzten Zugriff geordneten Liste */
+  private static final class Entry<K, V> {
+
+    private final K key;
+    private final V value;
+    private final long weight;
+    /** Nachbarn in der Liste, werden nur unter der Sperre verändert. {@code null}, falls nicht verkettet. */
+    private Entry<K, V> previous;
+    private Entry<K, V> next;
+
+    private Entry(K key, V value, long weight) {
+      super();
+
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  private final Map<K, Entry<K, V>> entries;
+  /** Anker der Liste: {@code head.next} wurde zuletzt genutzt, {@code head.previous} am längsten nicht */
+  private final Entry<K, V> head;
+  private final ToLongFunction<? super V> weigher;
+  private final BiConsumer<? super K, ? super V> evictionListener;
+  private final AtomicLong totalWeight;
+  private final LongAdder hitCount;
+  private final LongAdder missCount;
+  private final LongAdder evictionCount;
+  private final ReentrantLock lock;
+  private volatile long maxWeight;
+
+  /**
+   * @param maxWeight maximal erlaubtes Gesamtgewicht aller Einträge <i>([0;∞])</i>
+   * @param weigher Funktion, die das Gewicht eines Wertes ermittelt (not null)
+   * @param evictionListener wird für jeden verdrängten Eintrag aufgerufen (not null)
+   */
+  WeightedLruCache(long maxWeight, ToLongFunction<? super V> weigher, BiConsumer<? super K, ? super V> evictionListener) {
+    super();
+    Validate.isTrue(maxWeight >= 0, "maxWeight must not be negative: %d", maxWeight);
+
+    this.entries = new ConcurrentHashMap<>();
+    this.weigher = Validate.notNull(weigher);
+    this.evictionListener = Validate.notNull(evictionListener);
+    this.totalWeight = new AtomicLong();
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+    this.evictionCount = new LongAdder();
+    this.lock = new ReentrantLock();
+    this.head = new Entry<>(null, null, 0);
+    this.head.previous = this.head;
+    this.head.next = this.head;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Liefert den Wert zum angegebenen Schlüssel und vermerkt den Zugriff.
+   *
+   * @param key ein Schlüssel (not null)
+   * @return der Wert oder {@code null}, falls es keinen Eintrag gibt
+   */
+  V get(K key) {
+    Entry<K, V> entry = this.entries.get(key);
+    if (entry == null) {
+      this.missCount.increment();
+      return null;
+    }
+    this.hitCount.increment();
+    if (this.lock.tryLock()) {
+      try {
+        if (entry.next != null) {
+          unlink(entry);
+          linkFirst(entry);
+        }
+      } finally {
+        this.lock.unlock();
+      }
+    }
+    return entry.value;
+  }
+
+  /**
+   * Liefert den Wert zum angegebenen Schlüssel, ohne den Zugriff zu vermerken oder in die Statistik einzufließen.
+   *
+   * @param key ein Schlüssel (not null)
+   * @return der Wert oder {@code null}, falls es keinen Eintrag gibt
+   */
+  V peek(K key) {
+    Entry<K, V> entry = this.entries.get(key);
+    return entry == null ? null : entry.value;
+  }
+
+  /**
+   * Legt einen Wert im Cache ab. Ist der Wert schwerer als das erlaubte Maximum, wird er nicht abgelegt, sondern sofort
+   * als verdrängt gemeldet.
+   *
+   * @param key ein Schlüssel (not null)
+   * @param value ein Wert (not null)
+   */
+  void put(K key, V value) {
+    long weight = this.weigher.applyAsLong(value);
+    if (weight > this.maxWeight) {
+      remove(key);
+      reject(key, value);
+      return;
+    }
+    List<Entry<K, V>> evicted;
+    this.lock.lock();
+    try {
+      Entry<K, V> entry = new Entry<>(key, value, weight);
+      Entry<K, V> previous = this.entries.put(key, entry);
+      if (previous != null) {
+        unlink(previous);
+        this.totalWeight.addAndGet(-previous.weight);
+      }
+      linkFirst(entry);
+      this.totalWeight.addAndGet(weight);
+      evicted = evictIfNecessary();
+    } finally {
+      this.lock.unlock();
+    }
+    notifyEvicted(evicted);
+  }
+
+  /**
+   * Legt einen Wert im Cache ab, sofern zu dem Schlüssel noch kein Wert existiert. Ist der Wert schwerer als das
+   * erlaubte Maximum, wird er nicht abgelegt, sondern sofort als verdrängt gemeldet.
+   *
+   * @param key ein Schlüssel (not null)
+   * @param value ein Wert (not null)
+   * @return der bereits vorhandene Wert oder {@code null}, falls kein Wert vorhanden war
+   */
+  V putIfAbsent(K key, V value) {
+    Entry<K, V> existing = this.entries.get(key);
+    if (existing != null) {
+      return existing.value;
+    }
+    long weight = this.weigher.applyAsLong(value);
+    if (weight > this.maxWeight) {
+      reject(key, value);
+      return null;
+    }
+    List<Entry<K, V>> evicted;
+    this.lock.lock();
+    try {
+      existing = this.entries.get(key);
+      if (existing != null) {
+        return existing.value;
+      }
+      Entry<K, V> entry = new Entry<>(key, value, weight);
+      this.entries.put(key, entry);
+      linkFirst(entry);
+      this.totalWeight.addAndGet(weight);
+      evicted = evictIfNecessary();
+    } finally {
+      this.lock.unlock();
+    }
+    notifyEvicted(evicted);
+    return null;
+  }
+
+  /**
+   * Entfernt den Eintrag zum angegebenen Schlüssel.
+   *
+   * @param key ein Schlüssel (not null)
+   * @return der entfernte Wert oder {@code null}, falls es keinen Eintrag gab
+   */
+  V remove(K key) {
+    this.lock.lock();
+    try {
+      Entry<K, V> entry = this.entries.remove(key);
+      if (entry == null) {
+        return null;
+      }
+      unlink(entry);
+      this.totalWeight.addAndGet(-entry.weight);
+      return entry.value;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Entfernt den Eintrag zum angegebenen Schlüssel, sofern dieser noch den angegebenen Wert hat.
+   *
+   * @param key ein Schlüssel (not null)
+   * @param value der erwartete Wert
+   * @return {@code true}, falls der Eintrag entfernt wurde
+   */
+  boolean remove(K key, V value) {
+    this.lock.lock();
+    try {
+      Entry<K, V> entry = this.entries.get(key);
+      if (entry != null && entry.value == value) {
+        this.entries.remove(key);
+        unlink(entry);
+        this.totalWeight.addAndGet(-entry.weight);
+        return true;
+      }
+      return false;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Entfernt alle Einträge, deren Schlüssel die angegebene Bedingung erfüllen.
+   *
+   * @param filter Bedingung für zu entfernende Schlüssel (not null)
+   */
+  void removeIf(Predicate<? super K> filter) {
+    for (K key : this.entries.keySet()) {
+      if (filter.test(key)) {
+        remove(key);
+      }
+    }
+  }
+
+  /**
+   * Entfernt alle Einträge. Die Statistik bleibt erhalten.
+   */
+  void clear() {
+    removeIf(key -> true);
+  }
+
+  /**
+   * @return alle Schlüssel, zu denen aktuell ein Eintrag existiert
+   */
+  Set<K> keySet() {
+    return Collections.unmodifiableSet(this.entries.keySet());
+  }
+
+  /**
+   * @return maximal erlaubtes Gesamtgewicht aller Einträge
+   */
+  long getMaxWeight() {
+    return this.maxWeight;
+  }
+
+  /**
+   * Legt das maximal erlaubte Gesamtgewicht fest und verdrängt bei Bedarf sofort überzählige Einträge.
+   *
+   * @param maxWeight maximal erlaubtes Gesamtgewicht aller Einträge <i>([0;∞])</i>
+   */
+  void setMaxWeight(long maxWeight) {
+    Validate.isTrue(maxWeight >= 0, "maxWeight must not be negative: %d", maxWeight);
+    List<Entry<K, V>> evicted;
+    this.lock.lock();
+    try {
+      this.maxWeight = maxWeight;
+      evicted = evictIfNecessary();
+    } finally {
+      this.lock.unlock();
+    }
+    notifyEvicted(evicted);
+  }
+
+  /**
+   * @return aktuelle Kennzahlen dieses Caches
+   */
+  CacheStatistics getStatistics() {
+    return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum(),
+        this.entries.size(), this.totalWeight.get(), this.maxWeight);
+  }
+
+  /**
+   * Veröffentlicht die Kennzahlen dieses Caches als Messwerte {@code <prefix>.hits}, {@code .misses},
+   * {@code .evictions}, {@code .size} und {@code .weight}.
+   *
+   * @param registry Ziel der Messwerte (not null)
+   * @param prefix Präfix der Namen (not null)
+   */
+  void publishMetrics(MetricsRegistry registry, String prefix) {
+    registry.gauge(prefix + ".hits", this.hitCount::sum);
+    registry.gauge(prefix + ".misses", this.missCount::sum);
+    registry.gauge(prefix + ".evictions", this.evictionCount::sum);
+    registry.gauge(prefix + ".size", this.entries::size);
+    registry.gauge(prefix + ".weight", this.totalWeight::get);
+  }
+
+  private void reject(K key, V value) {
+    this.evictionCount.increment();
+    this.evictionListener.accept(key, value);
+  }
+
+  /**
+   * Entfernt so lange den am längsten nicht genutzten Eintrag, bis das Maximum eingehalten wird. Muss unter der Sperre
+   * aufgerufen werden.
+   *
+   * @return die verdrängten Einträge, deren Listener nach dem Freigeben der Sperre benachrichtigt werden
+   */
+  private List<Entry<K, V>> evictIfNecessary() {
+    List<Entry<K, V>> evicted = Collections.emptyList();
+    while (this.totalWeight.get() > this.maxWeight && this.head.previous != this.head) {
+      Entry<K, V> eldest = this.head.previous;
+      this.entries.remove(eldest.key);
+      unlink(eldest);
+      this.totalWeight.addAndGet(-eldest.weight);
+      if (evicted.isEmpty()) {
+        evicted = new ArrayList<>();
+      }
+      evicted.add(eldest);
+    }
+    return evicted;
+  }
+
+  private void notifyEvicted(List<Entry<K, V>> evicted) {
+    for (Entry<K, V> entry : evicted) {
+      this.evictionCount.increment();
+      this.evictionListener.accept(entry.key, entry.value);
+    }
+  }
+
+  private void linkFirst(Entry<K, V> entry) {
+    entry.previous = this.head;
+    entry.next = this.head.next;
+    this.head.next.previous = entry;
+    this.head.next = entry;
+  }
+
+  private void unlink(Entry<K, V> entry) {
+    entry.previous.next = entry.next;
+    entry.next.previous = entry.previous;
+    entry.previous = null;
+    entry.next = null;
+  }
+}
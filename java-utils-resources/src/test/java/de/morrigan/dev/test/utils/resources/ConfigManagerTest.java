@@ -3,27 +3,58 @@ package de.morrigan.dev.test.utils.resources;
 import static com.spotify.hamcrest.optional.OptionalMatchers.emptyOptional;
 import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThrows;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import de.morrigan.dev.utils.logging.Counter;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.resources.ConfigChangeListener;
+import de.morrigan.dev.utils.resources.ConfigKey;
 import de.morrigan.dev.utils.resources.ConfigManager;
+import de.morrigan.dev.utils.resources.ConfigSource;
+import de.morrigan.dev.utils.resources.ImageManager.LoadingMode;
 
 public class ConfigManagerTest {
 
    private static final int ABSOLUTE_AMOUNT_OF_CONFIG_ITEMS = 2;
 
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
    private ConfigManager sut = ConfigManager.getInstance();
 
+   private BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+   private ConfigChangeListener listener = this.changes::add;
+
    @Before
    public void setup() {
       this.sut.clear();
@@ -31,6 +62,7 @@ public class ConfigManagerTest {
 
    @After
    public void tearDown() {
+      this.sut.removeChangeListener(this.listener);
       this.sut.clear();
    }
 
@@ -84,4 +116,251 @@ public class ConfigManagerTest {
       assertThat(this.sut.getConfigKeys(), hasSize(0));
    }
 
+   @Test
+   public void testGetTypedConfig() throws IOException {
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+      assertThat(this.sut.getConfig(ConfigKey.ofInt("port")), is(equalTo(8080)));
+      assertThat(this.sut.getConfig(ConfigKey.ofLong("maxEntries")), is(equalTo(9_000_000_000L)));
+      assertThat(this.sut.getConfig(ConfigKey.ofDouble("ratio")), is(equalTo(0.75)));
+      assertThat(this.sut.getConfig(ConfigKey.ofBoolean("enabled")), is(equalTo(true)));
+      assertThat(this.sut.getConfig(ConfigKey.ofDuration("timeout")), is(equalTo(Duration.ofSeconds(30))));
+      assertThat(this.sut.getConfig(ConfigKey.ofDuration("isoTimeout")), is(equalTo(Duration.ofSeconds(90))));
+      assertThat(this.sut.getConfig(ConfigKey.ofDuration("plainTimeout")), is(equalTo(Duration.ofMillis(250))));
+      assertThat(this.sut.getConfig(ConfigKey.ofSize("maxUpload")), is(equalTo(16L * 1024 * 1024)));
+      assertThat(this.sut.getConfig(ConfigKey.ofSize("plainSize")), is(equalTo(512L)));
+      assertThat(this.sut.getConfig(ConfigKey.ofEnum("mode", LoadingMode.class)), is(equalTo(LoadingMode.EAGER)));
+      assertThat(this.sut.getConfig(ConfigKey.ofList("hosts")), contains("alpha", "beta", "gamma"));
+      assertThat(this.sut.getConfig(ConfigKey.ofList("ports", Integer::valueOf)), contains(80, 443));
+   }
+
+   @Test
+   public void testGetTypedConfigIsCachedForDeclaredKeys() throws IOException {
+      ConfigKey<List<String>> hosts = ConfigKey.ofList("hosts");
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+      assertThat(this.sut.getConfig(hosts), is(not(sameInstance(this.sut.getConfig(hosts)))));
+
+      this.sut.declare(hosts);
+      assertThat(this.sut.getConfig(hosts), is(sameInstance(this.sut.getConfig(hosts))));
+      assertThat(this.sut.getConfig(ConfigKey.ofList("hosts")), is(not(sameInstance(this.sut.getConfig(hosts)))));
+   }
+
+   @Test
+   public void testGetTypedConfigWithMissingKey() throws IOException {
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+      assertThat(this.sut.getOptConfig(ConfigKey.ofInt("missing")), is(emptyOptional()));
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofInt("missing")));
+      assertThat(exception.getMessage(), containsString("is not present"));
+   }
+
+   @Test
+   public void testGetTypedConfigWithInvalidValue() throws IOException {
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofInt("ratio")));
+      assertThat(exception.getMessage(), containsString("ratio"));
+      assertThat(exception.getMessage(), containsString("0.75"));
+      assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofBoolean("mode")));
+      assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofDuration("hosts")));
+      assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofSize("timeout")));
+      assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofEnum("enabled", LoadingMode.class)));
+   }
+
+   @Test
+   public void testGetTypedConfigWithTooLargeDuration() throws IOException {
+      this.sut.loadSources(ConfigSource.of("durations", configs("days", "999999999999999d", "hours", "9999999999999999h")));
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofDuration("days")));
+      assertThat(exception.getMessage(), containsString("days"));
+      assertThat(exception.getMessage(), containsString("999999999999999d"));
+      assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig(ConfigKey.ofDuration("hours")));
+   }
+
+   @Test
+   public void testLoadConfigsWithInvalidDeclaredKey() throws IOException {
+      this.sut.declare(ConfigKey.ofInt("port"));
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> this.sut.loadAllConfigsFromResources("typed-config-invalid.properties"));
+      assertThat(exception.getMessage(), containsString("eighty"));
+      assertThat(exception.getMessage(), containsString("typed-config-invalid.properties"));
+      assertThat(this.sut.getConfig("port"), is(equalTo("8080")));
+   }
+
+   @Test
+   public void testDeclareWithInvalidValue() throws IOException {
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+      assertThrows(IllegalArgumentException.class, () -> this.sut.declare(ConfigKey.ofInt("ratio")));
+      this.sut.loadAllConfigsFromResources("typed-config.properties");
+   }
+
+   @Test
+   public void testGetConfigWithArgumentsAfterDeclare() throws IOException {
+      this.sut.declare(ConfigKey.ofList("command"));
+      this.sut.loadAllConfigsFromResources("config.properties");
+      assertThat(this.sut.getConfig("command", "/tmp"), is(equalTo("cd /tmp")));
+      assertThat(this.sut.getOptConfig("command"), is(optionalWithValue(equalTo("cd {}"))));
+   }
+
+   @Test
+   public void testLoadConfigsFromFile() throws IOException {
+      Path file = writeConfigFile("a = 1", "b = 2");
+      this.sut.loadAllConfigsFromFile(file);
+      assertThat(this.sut.getConfigKeys(), containsInAnyOrder("a", "b"));
+      assertThat(this.sut.getConfig(ConfigKey.ofInt("b")), is(equalTo(2)));
+   }
+
+   @Test
+   public void testReloadConfigsFromFileReplacesAllKeysOfTheFile() throws IOException {
+      this.sut.loadAllConfigsFromResources("config.properties");
+      Path file = writeConfigFile("a = 1", "b = 2");
+      this.sut.loadAllConfigsFromFile(file);
+      this.sut.addChangeListener(this.listener);
+
+      writeConfigFile("b = 3", "c = 4");
+      this.sut.loadAllConfigsFromFile(file);
+
+      assertThat(this.changes.poll(), containsInAnyOrder("a", "b", "c"));
+      assertThat(this.sut.getConfigKeys(), containsInAnyOrder("serverMode", "command", "b", "c"));
+      assertThat(this.sut.getConfig("b"), is(equalTo("3")));
+   }
+
+   @Test
+   public void testReloadWithoutChangesDoesNotNotifyListeners() throws IOException {
+      Path file = writeConfigFile("a = 1");
+      this.sut.loadAllConfigsFromFile(file);
+      this.sut.addChangeListener(this.listener);
+      this.sut.loadAllConfigsFromFile(file);
+      assertThat(this.changes.isEmpty(), is(true));
+   }
+
+   @Test
+   public void testWatchReloadsChangedFile() throws Exception {
+      Path file = writeConfigFile("a = 1", "b = 2");
+      this.sut.watch(file);
+      this.sut.addChangeListener(this.listener);
+
+      writeConfigFile("a = 1", "b = 3", "c = 4");
+
+      Set<String> changedKeys = this.changes.poll(30, TimeUnit.SECONDS);
+      assertThat(changedKeys, containsInAnyOrder("b", "c"));
+      assertThat(this.sut.getConfig("b"), is(equalTo("3")));
+      assertThat(this.sut.getConfig("c"), is(equalTo("4")));
+   }
+
+   @Test
+   public void testWatchSurvivesUnexpectedReloadFailure() throws Exception {
+      Counter reloadFailures = MetricsRegistry.getDefault().counter("config.reload.failures");
+      Path file = writeConfigFile("mode = ok");
+      this.sut.watch(file);
+      this.sut.declare(ConfigKey.of("mode", value -> {
+         if (value.equals("broken")) {
+            throw new IllegalStateException("Unexpected parser failure");
+         }
+         return value;
+      }));
+      this.sut.addChangeListener(this.listener);
+      long failures = reloadFailures.getCount();
+
+      writeConfigFile("mode = broken");
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (reloadFailures.getCount() == failures && System.nanoTime() < deadline) {
+         Thread.sleep(10);
+      }
+      assertThat(reloadFailures.getCount(), is(greaterThan(failures)));
+      assertThat(this.sut.getConfig("mode"), is(equalTo("ok")));
+
+      writeConfigFile("mode = fixed");
+      assertThat(this.changes.poll(30, TimeUnit.SECONDS), contains("mode"));
+      assertThat(this.sut.getConfig("mode"), is(equalTo("fixed")));
+   }
+
+   @Test
+   public void testClearNotifiesListeners() throws IOException {
+      this.sut.loadAllConfigsFromResources("config.properties");
+      this.sut.addChangeListener(this.listener);
+      this.sut.clear();
+      assertThat(this.changes.poll(), containsInAnyOrder("serverMode", "command"));
+   }
+
+   @Test
+   public void testLoadSourcesWithPriority() throws IOException {
+      this.sut.loadSources(ConfigSource.of("defaults", configs("serverMode", "remote", "timeout", "10s", "port", "80")),
+               ConfigSource.resource("config.properties"), ConfigSource.of("override", configs("port", "8080")));
+      assertThat(this.sut.getSourceNames(), contains("defaults", "config.properties", "override"));
+      assertThat(this.sut.getConfig("serverMode"), is(equalTo("local")));
+      assertThat(this.sut.getConfig("timeout"), is(equalTo("10s")));
+      assertThat(this.sut.getConfig("port"), is(equalTo("8080")));
+      assertThat(this.sut.getConfig("command", "/tmp"), is(equalTo("cd /tmp")));
+   }
+
+   @Test
+   public void testReloadedLayerKeepsItsPriority() throws IOException {
+      Path file = writeConfigFile("port = 80");
+      this.sut.loadSources(ConfigSource.file(file), ConfigSource.of("override", configs("port", "8080")));
+
+      writeConfigFile("port = 81", "host = localhost");
+      this.sut.loadAllConfigsFromFile(file);
+
+      assertThat(this.sut.getSourceNames(), contains(file.toString(), "override"));
+      assertThat(this.sut.getConfig("port"), is(equalTo("8080")));
+      assertThat(this.sut.getConfig("host"), is(equalTo("localhost")));
+   }
+
+   @Test
+   public void testSystemPropertiesOverrideFiles() throws IOException {
+      String key = "java-utils.test.serverMode";
+      System.setProperty(key, "remote");
+      try {
+         this.sut.loadSources(ConfigSource.of("defaults", configs(key, "local")), ConfigSource.systemProperties());
+         assertThat(this.sut.getConfig(key), is(equalTo("remote")));
+
+         System.setProperty(key, "cluster");
+         this.sut.addChangeListener(this.listener);
+         this.sut.reloadSources();
+         assertThat(this.sut.getConfig(key), is(equalTo("cluster")));
+         assertThat(this.changes.poll(), contains(key));
+      } finally {
+         System.clearProperty(key);
+      }
+   }
+
+   @Test
+   public void testLoadSourcesReplacesAllLayers() throws IOException {
+      this.sut.loadAllConfigsFromResources("config.properties");
+      this.sut.loadSources(ConfigSource.of("only", configs("a", "1")));
+      assertThat(this.sut.getConfigKeys(), contains("a"));
+      IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> this.sut.getConfig("serverMode"));
+      assertThat(exception.getMessage(), containsString("only"));
+   }
+
+   @Test
+   public void testPublishesMetrics() throws IOException {
+      MetricsRegistry metrics = MetricsRegistry.getDefault();
+      long loads = metrics.histogram("config.load.nanos").getCount();
+      long hits = metrics.counter("config.hits").getCount();
+      long misses = metrics.counter("config.misses").getCount();
+
+      this.sut.loadSources(ConfigSource.of("first", configs("a", "1")), ConfigSource.of("second", configs("bc", "23")));
+      this.sut.getConfig("a");
+      this.sut.getOptConfig("missing");
+
+      assertThat(metrics.histogram("config.load.nanos").getCount(), is(equalTo(loads + 2)));
+      assertThat(metrics.counter("config.hits").getCount(), is(equalTo(hits + 1)));
+      assertThat(metrics.counter("config.misses").getCount(), is(equalTo(misses + 1)));
+      StringBuilder report = new StringBuilder();
+      metrics.report(report);
+      assertThat(report.toString(), containsString("gauge     config.sources 2\n"));
+      assertThat(report.toString(), containsString("gauge     config.bytes 12\n"));
+   }
+
+   private static Map<String, String> configs(String... keysAndValues) {
+      Map<String, String> configs = new HashMap<>();
+      for (int i = 0; i < keysAndValues.length; i += 2) {
+         configs.put(keysAndValues[i], keysAndValues[i + 1]);
+      }
+      return configs;
+   }
+
+   private Path writeConfigFile(String... lines) throws IOException {
+      Path file = this.temporaryFolder.getRoot().toPath().resolve("watched.properties");
+      return Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+   }
 }
@@ -4,20 +4,25 @@ import static com.spotify.hamcrest.optional.OptionalMatchers.emptyOptional;
 import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import java.awt.Font;
 import java.awt.geom.AffineTransform;
+import java.io.IOException;
 import java.util.Optional;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.resources.CacheStatistics;
 import de.morrigan.dev.utils.resources.FontManager;
 
 public class FontManagerTest {
@@ -32,6 +37,7 @@ public class FontManagerTest {
   @After
   public void tearDown() {
     this.sut.clear();
+    this.sut.setMaxDerivedFontCacheSize(FontManager.DEFAULT_DERIVED_FONT_CACHE_SIZE);
   }
 
   @Test
@@ -179,6 +185,66 @@ public class FontManagerTest {
     assertThat(font.get().getTransform(), is(equalTo(affineTransform)));
   }
 
+  @Test
+  public void testGetDerivedFontIsCached() {
+    this.sut.loadAllFontsFromResources("font/special");
+    CacheStatistics before = this.sut.getDerivedFontCacheStatistics();
+
+    Font first = this.sut.getFont("menomonia", 12f, Font.BOLD).get();
+    Font second = this.sut.getFont("menomonia", 12f, Font.BOLD).get();
+    assertThat(second, is(sameInstance(first)));
+    assertThat(this.sut.getFont("menomonia", 13f, Font.BOLD).get(), is(not(sameInstance(first))));
+
+    CacheStatistics after = this.sut.getDerivedFontCacheStatistics();
+    assertThat(after.getHitCount() - before.getHitCount(), is(equalTo(1L)));
+    assertThat(after.getMissCount() - before.getMissCount(), is(equalTo(2L)));
+    assertThat(after.getSize(), is(equalTo(2L)));
+  }
+
+  @Test
+  public void testGetDerivedFontWithModifiedTransformation() {
+    this.sut.loadAllFontsFromResources("font/special");
+    AffineTransform affineTransform = new AffineTransform();
+    affineTransform.rotate(Math.PI / 2);
+    Font rotated = this.sut.getFont("menomonia", affineTransform).get();
+
+    affineTransform.rotate(Math.PI / 2);
+    Font rotatedTwice = this.sut.getFont("menomonia", affineTransform).get();
+    assertThat(rotatedTwice, is(not(sameInstance(rotated))));
+    assertThat(rotatedTwice.getTransform(), is(equalTo(affineTransform)));
+  }
+
+  @Test
+  public void testGetDerivedFontEvictsLeastRecentlyUsed() {
+    this.sut.loadAllFontsFromResources("font/special");
+    this.sut.setMaxDerivedFontCacheSize(1);
+
+    Font bold = this.sut.getFont("menomonia", Font.BOLD).get();
+    this.sut.getFont("menomonia", Font.ITALIC);
+    assertThat(this.sut.getDerivedFontCacheStatistics().getSize(), is(equalTo(1L)));
+    assertThat(this.sut.getFont("menomonia", Font.BOLD).get(), is(not(sameInstance(bold))));
+  }
+
+  @Test
+  public void testGetDerivedFontAfterReload() {
+    this.sut.loadAllFontsFromResources("font/special");
+    Font bold = this.sut.getFont("menomonia", Font.BOLD).get();
+    this.sut.loadAllFontsFromResources("font/special");
+    assertThat(this.sut.getFont("menomonia", Font.BOLD).get(), is(not(sameInstance(bold))));
+  }
+
+  @Test
+  public void testGetDerivedFontWithUnusualValues() {
+    this.sut.loadAllFontsFromResources("font/special");
+    Font font = this.sut.getFont("menomonia").get();
+
+    Font styled = this.sut.getFont("menomonia", -1).get();
+    assertThat(styled, is(not(sameInstance(font))));
+    assertThat(this.sut.getFont("menomonia", Float.NaN).get(), is(not(sameInstance(font))));
+    assertThat(this.sut.getFont("menomonia", Float.NaN).get(), is(not(sameInstance(styled))));
+    assertThat(this.sut.getFont("menomonia", (AffineTransform) null).get(), is(sameInstance(font)));
+  }
+
   @Test
   public void testClear() {
     this.sut.loadAllFontsFromResources("font");
@@ -186,4 +252,25 @@ public class FontManagerTest {
     this.sut.clear();
     assertThat(this.sut.getFontNames(), is(empty()));
   }
+
+  @Test
+  public void testPublishesMetrics() throws IOException {
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    long loads = metrics.histogram("font.load.nanos").getCount();
+    long hits = metrics.counter("font.hits").getCount();
+    long misses = metrics.counter("font.misses").getCount();
+
+    this.sut.loadAllFontsFromResources();
+    this.sut.getFont("cronos-pro-regular", 12f);
+    this.sut.getFont("missing");
+
+    // Alle sieben Dateien werden gelesen, auch die defekte
+    assertThat(metrics.histogram("font.load.nanos").getCount(), is(equalTo(loads + 7)));
+    assertThat(metrics.counter("font.hits").getCount(), is(equalTo(hits + 1)));
+    assertThat(metrics.counter("font.misses").getCount(), is(equalTo(misses + 1)));
+    StringBuilder report = new StringBuilder();
+    metrics.report(report);
+    assertThat(report.toString(), containsString("gauge     font.count 4\n"));
+    assertThat(report.toString(), containsString("gauge     font.derived.cache.size 1\n"));
+  }
 }
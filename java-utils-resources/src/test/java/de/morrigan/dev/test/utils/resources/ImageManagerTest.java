@@ -4,11 +4,14 @@ import static com.spotify.hamcrest.optional.OptionalMatchers.emptyOptional;
 import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 
 import java.awt.Color;
@@ -17,7 +20,10 @@ import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
@@ -30,7 +36,12 @@ import com.github.romankh3.image.comparison.ImageComparison;
 import com.github.romankh3.image.comparison.model.ImageComparisonResult;
 import com.github.romankh3.image.comparison.model.ImageComparisonState;
 
+import de.morrigan.dev.utils.logging.Histogram;
+import de.morrigan.dev.utils.logging.MetricsRegistry;
+import de.morrigan.dev.utils.resources.CacheStatistics;
 import de.morrigan.dev.utils.resources.ImageManager;
+import de.morrigan.dev.utils.resources.ImageManager.EvictionMode;
+import de.morrigan.dev.utils.resources.ImageManager.LoadingMode;
 
 public class ImageManagerTest {
 
@@ -44,6 +55,11 @@ public class ImageManagerTest {
   @After
   public void tearDown() {
     this.sut.clear();
+    this.sut.setLoadingMode(LoadingMode.EAGER);
+    this.sut.setPrefetchExecutor(ForkJoinPool.commonPool());
+    this.sut.setMaxScaledImageCacheBytes(ImageManager.DEFAULT_SCALED_IMAGE_CACHE_BYTES);
+    this.sut.setMaxImageCacheBytes(Long.MAX_VALUE);
+    this.sut.setEvictionMode(EvictionMode.SOFT_REFERENCE);
   }
 
   @Test
@@ -155,6 +171,69 @@ public class ImageManagerTest {
     assertThat(this.sut.getImageNames(), containsInAnyOrder("20x20_red-tif", "20x20_green-tif"));
   }
 
+  @Test
+  public void testLoadAllImagesFromResourcesLazy() {
+    this.sut.setLoadingMode(LoadingMode.LAZY);
+    this.sut.loadAllImagesFromResources("images/red");
+
+    assertThat(this.sut.getImageNames(), hasSize(6));
+    Optional<Image> redImage = this.sut.getImage("20x20_red-bmp");
+    assertThat(redImage, is(optionalWithValue()));
+    Color colorRed = new Color(((BufferedImage) redImage.get()).getRGB(10, 10));
+    assertThat(colorRed.getRed(), is(equalTo(255)));
+  }
+
+  @Test
+  public void testLoadAllImagesFromResourcesLazyDecodesFailingSourceOnlyOnce() {
+    Histogram decodes = MetricsRegistry.getDefault().histogram("image.decode.nanos");
+    this.sut.setLoadingMode(LoadingMode.LAZY);
+    this.sut.loadAllImagesFromResources("defect", ".bmp");
+    this.sut.loadAllImagesFromResources("images/red", ".ico");
+    long before = decodes.getCount();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(this.sut.getImage("20x20_green-bmp"), is(emptyOptional()));
+      assertThat(this.sut.getImage("20x20_red-ico"), is(emptyOptional()));
+    }
+    assertThat(decodes.getCount(), is(equalTo(before + 2)));
+    assertThat(this.sut.getImageNames(), containsInAnyOrder("20x20_green-bmp", "20x20_red-ico"));
+
+    // Eine erneute Registrierung versucht es wieder
+    this.sut.loadAllImagesFromResources("defect", ".bmp");
+    assertThat(this.sut.getImage("20x20_green-bmp"), is(emptyOptional()));
+    assertThat(decodes.getCount(), is(equalTo(before + 3)));
+  }
+
+  @Test
+  public void testLoadAllImagesFromResourcesPrefetch() {
+    List<Runnable> tasks = new ArrayList<>();
+    this.sut.setLoadingMode(LoadingMode.PREFETCH);
+    this.sut.setPrefetchExecutor(tasks::add);
+    this.sut.loadAllImagesFromResources("images/red");
+
+    assertThat(this.sut.getImageNames(), hasSize(6));
+    assertThat(tasks, hasSize(6));
+    tasks.forEach(Runnable::run);
+
+    Optional<Image> redImage = this.sut.getImage("20x20_red-png");
+    assertThat(redImage, is(optionalWithValue()));
+    Color colorRed = new Color(((BufferedImage) redImage.get()).getRGB(10, 10));
+    assertThat(colorRed.getRed(), is(equalTo(255)));
+  }
+
+  @Test
+  public void testPrefetchAfterClear() {
+    List<Runnable> tasks = new ArrayList<>();
+    this.sut.setLoadingMode(LoadingMode.PREFETCH);
+    this.sut.setPrefetchExecutor(tasks::add);
+    this.sut.loadAllImagesFromResources("images/red");
+    this.sut.clear();
+    tasks.forEach(Runnable::run);
+
+    assertThat(this.sut.getImageNames(), is(empty()));
+    assertThat(this.sut.getImage("20x20_red-png"), is(emptyOptional()));
+  }
+
   @Test
   public void testLoadImageFromUrl() throws IOException {
     URL url = new URL("https://render.guildwars2.com/file/25B230711176AB5728E86F5FC5F0BFAE48B32F6E/97461.png");
@@ -218,6 +297,79 @@ public class ImageManagerTest {
     assertThat((image.get()).getHeight(null), is(equalTo(10)));
   }
 
+  @Test
+  public void testGetImageWithScaleIsCached() {
+    this.sut.loadAllImagesFromResources("images/red");
+    CacheStatistics before = this.sut.getScaledImageCacheStatistics();
+
+    Optional<Image> first = this.sut.getImage("20x20_red-png", 16, 16);
+    Optional<Image> second = this.sut.getImage("20x20_red-png", new Dimension(16, 16));
+    assertThat(first, is(optionalWithValue()));
+    assertThat(second.get(), is(sameInstance(first.get())));
+    Color colorRed = new Color(((BufferedImage) first.get()).getRGB(8, 8));
+    assertThat(colorRed.getRed(), is(equalTo(255)));
+
+    CacheStatistics after = this.sut.getScaledImageCacheStatistics();
+    assertThat(after.getMissCount() - before.getMissCount(), is(equalTo(1L)));
+    assertThat(after.getHitCount() - before.getHitCount(), is(equalTo(1L)));
+    assertThat(after.getSize(), is(equalTo(1L)));
+    assertThat(after.getWeight(), is(equalTo(16L * 16 * 4)));
+  }
+
+  @Test
+  public void testGetImageWithScaleEvictsLeastRecentlyUsed() {
+    this.sut.loadAllImagesFromResources("images/red");
+    this.sut.setMaxScaledImageCacheBytes(2 * 10 * 10 * 4);
+    CacheStatistics before = this.sut.getScaledImageCacheStatistics();
+
+    Image redPng = this.sut.getImage("20x20_red-png", 10, 10).get();
+    Image redBmp = this.sut.getImage("20x20_red-bmp", 10, 10).get();
+    assertThat(this.sut.getImage("20x20_red-png", 10, 10).get(), is(sameInstance(redPng)));
+    this.sut.getImage("20x20_red-gif", 10, 10);
+
+    CacheStatistics after = this.sut.getScaledImageCacheStatistics();
+    assertThat(after.getEvictionCount() - before.getEvictionCount(), is(equalTo(1L)));
+    assertThat(after.getSize(), is(equalTo(2L)));
+    assertThat(this.sut.getImage("20x20_red-png", 10, 10).get(), is(sameInstance(redPng)));
+    assertThat(this.sut.getImage("20x20_red-bmp", 10, 10).get(), is(not(sameInstance(redBmp))));
+  }
+
+  @Test
+  public void testImageCacheAccountsBytes() {
+    this.sut.loadAllImagesFromResources("images/red", ".png");
+    CacheStatistics statistics = this.sut.getImageCacheStatistics();
+    assertThat(statistics.getSize(), is(equalTo(1L)));
+    assertThat(statistics.getWeight(), is(greaterThanOrEqualTo(20L * 20 * 3)));
+  }
+
+  @Test
+  public void testImageCacheDemotesToSoftReference() {
+    this.sut.loadAllImagesFromResources("images/red");
+    Image redImage = this.sut.getImage("20x20_red-png").get();
+
+    this.sut.setMaxImageCacheBytes(0);
+    assertThat(this.sut.getImageCacheStatistics().getSize(), is(equalTo(0L)));
+    assertThat(this.sut.getImageNames(), hasSize(6));
+    assertThat(this.sut.getImage("20x20_red-png").get(), is(sameInstance(redImage)));
+  }
+
+  @Test
+  public void testImageCacheDropsAndDecodesAgain() {
+    this.sut.setEvictionMode(EvictionMode.DROP);
+    this.sut.loadAllImagesFromResources("images/red");
+    Image redImage = this.sut.getImage("20x20_red-png").get();
+    CacheStatistics before = this.sut.getImageCacheStatistics();
+
+    this.sut.setMaxImageCacheBytes(0);
+    Optional<Image> decodedAgain = this.sut.getImage("20x20_red-png");
+    assertThat(decodedAgain, is(optionalWithValue()));
+    assertThat(decodedAgain.get(), is(not(sameInstance(redImage))));
+    Color colorRed = new Color(((BufferedImage) decodedAgain.get()).getRGB(10, 10));
+    assertThat(colorRed.getRed(), is(equalTo(255)));
+    assertThat(this.sut.getImageCacheStatistics().getEvictionCount() - before.getEvictionCount(),
+        is(greaterThanOrEqualTo(1L)));
+  }
+
   @Test
   public void testGetImageIconWithMissingImage() {
     Optional<ImageIcon> image = this.sut.getImageIcon("missingimage");
@@ -266,5 +418,26 @@ public class ImageManagerTest {
     assertThat(this.sut.getImageNames(), is(not(empty())));
     this.sut.clear();
     assertThat(this.sut.getImageNames(), is(empty()));
+    assertThat(this.sut.getScaledImageCacheStatistics().getSize(), is(equalTo(0L)));
+  }
+
+  @Test
+  public void testPublishesMetrics() throws IOException {
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    long decodes = metrics.histogram("image.decode.nanos").getCount();
+    long hits = metrics.counter("image.hits").getCount();
+    long misses = metrics.counter("image.misses").getCount();
+
+    this.sut.loadAllImagesFromResources();
+    this.sut.getImage("20x20_green-png");
+    this.sut.getImage("missing");
+
+    assertThat(metrics.histogram("image.decode.nanos").getCount(), is(greaterThanOrEqualTo(decodes + 15)));
+    assertThat(metrics.counter("image.hits").getCount(), is(equalTo(hits + 1)));
+    assertThat(metrics.counter("image.misses").getCount(), is(equalTo(misses + 1)));
+    StringBuilder report = new StringBuilder();
+    metrics.report(report);
+    assertThat(report.toString(),
+        containsString("gauge     image.cache.weight " + this.sut.getImageCacheStatistics().getWeight() + "\n"));
   }
 }
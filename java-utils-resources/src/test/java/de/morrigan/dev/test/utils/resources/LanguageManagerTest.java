@@ -7,14 +7,21 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.helpers.MessageFormatter;
 
+import de.morrigan.dev.utils.logging.MetricsRegistry;
 import de.morrigan.dev.utils.resources.LanguageManager;
+import de.morrigan.dev.utils.resources.LanguageManager.LookupMode;
 
 public class LanguageManagerTest {
 
@@ -27,6 +34,11 @@ public class LanguageManagerTest {
     Locale.setDefault(Locale.GERMANY);
   }
 
+  @After
+  public void tearDown() {
+    this.sut.setLookupMode(LookupMode.RESOURCE_BUNDLE);
+  }
+
   @Test
   public void testLoadLabelsFromResource() {
     this.sut.loadLabelsFromResources("language/lang");
@@ -172,6 +184,54 @@ public class LanguageManagerTest {
         is(equalTo("File comparison failed for file 'test.txt' in line '7'.")));
   }
 
+  @Test
+  public void testAppendMessageWithKeyAndParameters() throws IOException {
+    this.sut.loadMessagesFromResources("language/messages");
+    StringBuilder target = new StringBuilder("> ");
+    this.sut.appendMessage(target, "helloMsgWithParam", "Tom");
+    assertThat(target.toString(), is(equalTo("> Hallo und herzlich Willkommen Tom!")));
+  }
+
+  @Test
+  public void testAppendErrorWithKeyAndLocaleUKAndParameters() throws IOException {
+    this.sut.loadErrorsFromResources("language/errors", Locale.UK);
+    StringBuilder target = new StringBuilder();
+    this.sut.appendError(target, "E0003", Locale.UK, "test.txt", 7);
+    assertThat(target.toString(), is(equalTo("File comparison failed for file 'test.txt' in line '7'.")));
+  }
+
+  @Test
+  public void testAppendMessageWithMissingKey() throws IOException {
+    this.sut.loadMessagesFromResources("language/messages");
+    StringBuilder target = new StringBuilder();
+    this.sut.appendMessage(target, "missing", "Tom");
+    assertThat(target.toString(), is(equalTo("")));
+  }
+
+  @Test
+  public void testGetMessageIsIdenticalToMessageFormatter() throws IOException {
+    List<Object[]> parameterLists = Arrays.asList(new Object[0], new Object[] { "A" }, new Object[] { "A", 2 },
+        new Object[] { "A", "B", "C", "D" }, new Object[] { null, "B" }, new Object[] { new int[] { 1, 2 } },
+        new Object[] { new IllegalStateException("x") }, new Object[] { "A", new IllegalStateException("x") },
+        null);
+    for (String baseName : Arrays.asList("language/messages", "language/errors", "language/templates")) {
+      for (Locale locale : Arrays.asList(Locale.GERMANY, Locale.FRANCE, Locale.UK)) {
+        this.sut.loadMessagesFromResources(baseName, locale);
+        ResourceBundle bundle = ResourceBundle.getBundle(baseName, locale);
+        for (String key : bundle.keySet()) {
+          for (Object[] parameters : parameterLists) {
+            String expected = MessageFormatter.arrayFormat(bundle.getString(key), parameters).getMessage();
+            assertThat(baseName + "/" + locale + "/" + key, this.sut.getMessage(key, locale, parameters),
+                is(equalTo(expected)));
+            StringBuilder target = new StringBuilder();
+            this.sut.appendMessage(target, key, locale, parameters);
+            assertThat(baseName + "/" + locale + "/" + key, target.toString(), is(equalTo(expected)));
+          }
+        }
+      }
+    }
+  }
+
   @Test
   public void testGetLabelWithNullKey() {
     this.sut.loadLabelsFromResources("language/labels");
@@ -216,4 +276,76 @@ public class LanguageManagerTest {
     assertThrows(MissingResourceException.class, () -> this.sut.getLabelKeys(Locale.UK));
   }
 
+  @Test
+  public void testStringTableLookupIsIdenticalToResourceBundleLookup() {
+    for (Locale locale : Arrays.asList(Locale.GERMANY, Locale.FRANCE, Locale.UK)) {
+      this.sut.loadLabelsFromResources("language/lang", locale);
+      this.sut.loadMessagesFromResources("language/messages", locale);
+      this.sut.loadErrorsFromResources("language/errors", locale);
+      for (String key : this.sut.getLabelKeys(locale)) {
+        this.sut.setLookupMode(LookupMode.RESOURCE_BUNDLE);
+        String label = this.sut.getLabel(key, locale);
+        this.sut.setLookupMode(LookupMode.STRING_TABLE);
+        assertThat(locale + "/" + key, this.sut.getLabel(key, locale), is(equalTo(label)));
+      }
+      for (String key : this.sut.getMessageKeys(locale)) {
+        this.sut.setLookupMode(LookupMode.RESOURCE_BUNDLE);
+        String message = this.sut.getMessage(key, locale, "Tom");
+        this.sut.setLookupMode(LookupMode.STRING_TABLE);
+        assertThat(locale + "/" + key, this.sut.getMessage(key, locale, "Tom"), is(equalTo(message)));
+      }
+      for (String key : this.sut.getErrorKeys(locale)) {
+        this.sut.setLookupMode(LookupMode.RESOURCE_BUNDLE);
+        String error = this.sut.getError(key, locale, "Tom");
+        this.sut.setLookupMode(LookupMode.STRING_TABLE);
+        assertThat(locale + "/" + key, this.sut.getError(key, locale, "Tom"), is(equalTo(error)));
+      }
+    }
+  }
+
+  @Test
+  public void testStringTableLookupWithMissingValues() {
+    this.sut.setLookupMode(LookupMode.STRING_TABLE);
+    this.sut.loadLabelsFromResources("language/labels");
+    assertThat(this.sut.getLabel("helloWorld"), is(equalTo("Hallo Welt!")));
+    assertThat(this.sut.getLabel("hello"), is(equalTo("")));
+    assertThat(this.sut.getLabel(null), is(equalTo("")));
+    assertThat(this.sut.getLabelWithColon("hello"), is(equalTo("")));
+    assertThat(this.sut.getLabel("helloWorld", Locale.FRANCE), is(equalTo("")));
+    assertThat(this.sut.getMessage("helloWorld", "Tom"), is(equalTo("")));
+    assertThat(this.sut.getError("helloWorld", "Tom"), is(equalTo("")));
+  }
+
+  @Test
+  public void testStringTableLookupAfterClear() {
+    this.sut.setLookupMode(LookupMode.STRING_TABLE);
+    this.sut.loadLabelsFromResources("language/labels");
+    assertThat(this.sut.getLabel("helloWorld"), is(equalTo("Hallo Welt!")));
+
+    this.sut.clear();
+
+    assertThat(this.sut.getLabel("helloWorld"), is(equalTo("")));
+  }
+
+  @Test
+  public void testPublishesMetrics() throws IOException {
+    MetricsRegistry metrics = MetricsRegistry.getDefault();
+    long loads = metrics.histogram("language.load.nanos").getCount();
+    long hits = metrics.counter("language.hits").getCount();
+    long misses = metrics.counter("language.misses").getCount();
+
+    this.sut.loadLabelsFromResources("language/labels");
+    this.sut.getLabel("helloWorld");
+    this.sut.getLabel("missing");
+    this.sut.setLookupMode(LookupMode.STRING_TABLE);
+    this.sut.getLabel("helloWorld");
+    this.sut.getLabel("missing");
+
+    assertThat(metrics.histogram("language.load.nanos").getCount(), is(equalTo(loads + 1)));
+    assertThat(metrics.counter("language.hits").getCount(), is(equalTo(hits + 2)));
+    assertThat(metrics.counter("language.misses").getCount(), is(equalTo(misses + 2)));
+    StringBuilder report = new StringBuilder();
+    metrics.report(report);
+    assertThat(report.toString(), containsString("gauge     language.keys 1\n"));
+  }
 }
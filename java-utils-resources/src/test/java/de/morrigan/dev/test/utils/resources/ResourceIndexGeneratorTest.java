@@ -0,0 +1,60 @@
+package de.morrigan.dev.test.utils.resources;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.morrigan.dev.utils.resources.ResourceIndexGenerator;
+
+public class ResourceIndexGeneratorTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testGenerate() throws IOException {
+    File root = this.tempFolder.newFolder("classes");
+    Files.createDirectories(root.toPath().resolve("images/red"));
+    Files.createDirectories(root.toPath().resolve("de/morrigan"));
+    Files.write(root.toPath().resolve("images/red/20x20_red.png"), new byte[] { 1 });
+    Files.write(root.toPath().resolve("images/20x20_green.png"), new byte[] { 1 });
+    Files.write(root.toPath().resolve("de/morrigan/Test.class"), new byte[] { 1 });
+
+    Path indexFile = root.toPath().resolve("META-INF/de.morrigan.dev/resources.idx");
+    int count = ResourceIndexGenerator.generate(root.toPath(), indexFile);
+
+    assertThat(count, is(equalTo(2)));
+    List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+    assertThat(lines, contains("# resource index v1", "images/20x20_green.png", "images/red/20x20_red.png"));
+  }
+
+  @Test
+  public void testGenerateSkipsExistingIndex() throws IOException {
+    File root = this.tempFolder.newFolder("classes");
+    Files.write(root.toPath().resolve("font.ttf"), new byte[] { 1 });
+    ResourceIndexGenerator.main(new String[] { root.getPath() });
+    ResourceIndexGenerator.main(new String[] { root.getPath() });
+
+    List<String> lines = Files.readAllLines(root.toPath().resolve("META-INF/de.morrigan.dev/resources.idx"),
+        StandardCharsets.UTF_8);
+    assertThat(lines, contains("# resource index v1", "font.ttf"));
+  }
+
+  @Test
+  public void testMainWithoutArguments() {
+    assertThrows(IllegalArgumentException.class, () -> ResourceIndexGenerator.main(new String[0]));
+  }
+}
@@ -0,0 +1,151 @@
+package de.morrigan.dev.test.utils.resources;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.awt.Font;
+import java.awt.Image;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.morrigan.dev.utils.resources.ConfigManager;
+import de.morrigan.dev.utils.resources.FontManager;
+import de.morrigan.dev.utils.resources.ImageManager;
+import de.morrigan.dev.utils.resources.LanguageManager;
+
+/**
+ * Liest mit mehreren Threads gleichzeitig aus allen Managern, während ein weiterer Thread die Manager fortlaufend
+ * leert und neu lädt. Jeder Lesezugriff muss dabei entweder den erwarteten Wert oder einen leeren Wert liefern.
+ */
+public class ResourceManagerConcurrencyTest {
+
+  private static final int READER_THREADS = 8;
+  private static final long DURATION_MILLIS = 1000;
+
+  private final ConfigManager configManager = ConfigManager.getInstance();
+  private final FontManager fontManager = FontManager.getInstance();
+  private final ImageManager imageManager = ImageManager.getInstance();
+  private final LanguageManager languageManager = LanguageManager.getInstance();
+
+  @Before
+  public void setup() {
+    ResourceBundle.clearCache();
+    Locale.setDefault(Locale.GERMANY);
+    clearAll();
+  }
+
+  @After
+  public void tearDown() {
+    clearAll();
+  }
+
+  @Test
+  public void testConcurrentReadsWhileReloading() throws Exception {
+    reloadAll();
+
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong reads = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(READER_THREADS + 1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < READER_THREADS; i++) {
+        futures.add(executor.submit(() -> {
+          await(start);
+          while (running.get()) {
+            try {
+              readAll();
+              reads.incrementAndGet();
+            } catch (Throwable e) {
+              failures.add(e);
+            }
+          }
+        }));
+      }
+      futures.add(executor.submit(() -> {
+        await(start);
+        while (running.get()) {
+          try {
+            clearAll();
+            reloadAll();
+          } catch (Throwable e) {
+            failures.add(e);
+          }
+        }
+      }));
+
+      start.countDown();
+      Thread.sleep(DURATION_MILLIS);
+      running.set(false);
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(failures, is(empty()));
+    assertThat(reads.get(), is(greaterThan(0L)));
+  }
+
+  private void readAll() {
+    assertThat(this.languageManager.getLabel("helloWorld", Locale.GERMANY), is(anyOf(equalTo("Hallo Welt!"), equalTo(""))));
+
+    Optional<String> serverMode = this.configManager.getOptConfig("serverMode");
+    assertThat(serverMode.orElse("local"), is(equalTo("local")));
+
+    Optional<Font> font = this.fontManager.getFont("menomonia", 12f);
+    if (font.isPresent()) {
+      assertThat(font.get().getSize(), is(equalTo(12)));
+    }
+
+    Optional<Image> image = this.imageManager.getImage("20x20_red-png", 10, 10);
+    if (image.isPresent()) {
+      assertThat(image.get().getWidth(null), is(equalTo(10)));
+    }
+  }
+
+  private void reloadAll() throws IOException {
+    this.languageManager.loadLabelsFromResources("language/labels", Locale.GERMANY);
+    this.configManager.loadAllConfigsFromResources("config.properties");
+    this.fontManager.loadAllFontsFromResources("font/special");
+    this.imageManager.loadAllImagesFromResources("images/red", ".png");
+  }
+
+  private void clearAll() {
+    this.languageManager.clear();
+    this.configManager.clear();
+    this.fontManager.clear();
+    this.imageManager.clear();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package de.morrigan.dev.utils.resources;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceIndexTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testFindResourcesWithIndexedAndUnindexedRoot() throws IOException {
+    // Das Verzeichnis enthält bewusst nur eine Ressource, die nicht auf der Platte liegt
+    File indexedRoot = this.tempFolder.newFolder("indexed");
+    Files.createDirectories(indexedRoot.toPath().resolve("idx"));
+    Files.write(indexedRoot.toPath().resolve("idx/not-indexed.png"), new byte[] { 1 });
+    Path indexFile = indexedRoot.toPath().resolve(ResourceIndex.INDEX_LOCATION);
+    Files.createDirectories(indexFile.getParent());
+    Files.write(indexFile, Arrays.asList(ResourceIndex.INDEX_HEADER, "idx/indexed.png", "other/indexed.png"),
+        StandardCharsets.UTF_8);
+
+    File scannedRoot = this.tempFolder.newFolder("scanned");
+    Files.createDirectories(scannedRoot.toPath().resolve("idx"));
+    Files.write(scannedRoot.toPath().resolve("idx/scanned.png"), new byte[] { 1 });
+    Files.write(scannedRoot.toPath().resolve("idx/scanned.txt"), new byte[] { 1 });
+
+    try (URLClassLoader classLoader = new URLClassLoader(
+        new URL[] { indexedRoot.toURI().toURL(), scannedRoot.toURI().toURL() }, null)) {
+      Set<String> resources = ResourceIndex.findResources(new ClassLoader[] { classLoader }, "idx", ".png");
+      assertThat(resources, containsInAnyOrder("idx/indexed.png", "idx/scanned.png"));
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package de.morrigan.dev.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Gemeinsame Basis von {@link BloomFilter} und {@link CountingBloomFilter}. Berechnet die Größe aus der erwarteten
+ * Anzahl an Elementen und der gewünschten Fehlerrate und bildet die Schlüssel über {@link Murmur3} auf die Positionen
+ * ab. Aus dem 64-Bit Hashwert werden nach Kirsch und Mitzenmacher die {@code k} Positionen {@code h1 + i * h2}
+ * abgeleitet, so dass je Schlüssel nur ein Hashwert berechnet werden muss.
+ *
+ * @author morrigan
+ */
+abstract class AbstractBloomFilter {
+
+  /** Obergrenze für die Anzahl der Positionen, damit diese als {@code int} adressiert werden können */
+  static final int MAX_SLOTS = Integer.MAX_VALUE - 63;
+
+  /** Obergrenze für die Anzahl der Hashfunktionen */
+  static final int MAX_HASH_FUNCTIONS = 255;
+
+  /**
+   * @param expectedInsertions erwartete Anzahl an Elementen <i>(> 0)</i>
+   * @param fpp gewünschte Fehlerrate <i>((0;1))</i>
+   * @return optimale Anzahl an Positionen, auf ein Vielfaches von 64 aufgerundet
+   * @throws IllegalArgumentException falls die Parameter ungültig sind oder der Filter zu groß würde
+   */
+  static int optimalNumSlots(long expectedInsertions, double fpp) {
+    Validate.isTrue(expectedInsertions > 0, "Die erwartete Anzahl muss positiv sein! expectedInsertions: %d",
+        expectedInsertions);
+    Validate.isTrue(fpp > 0 && fpp < 1, "Die Fehlerrate muss zwischen 0 und 1 liegen! fpp: %s", fpp);
+    double slots = Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    Validate.isTrue(slots <= MAX_SLOTS, "Der Filter wäre zu groß! expectedInsertions: %d, fpp: %s", expectedInsertions,
+        fpp);
+    return (int) Math.min(MAX_SLOTS, ((long) slots + 63) & ~63L);
+  }
+
+  /**
+   * @param expectedInsertions erwartete Anzahl an Elementen <i>(> 0)</i>
+   * @param numSlots Anzahl an Positionen
+   * @return optimale Anzahl an Hashfunktionen
+   */
+  static int optimalNumHashFunctions(long expectedInsertions, int numSlots) {
+    long result = Math.round((double) numSlots / expectedInsertions * Math.log(2));
+    return (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, result));
+  }
+
+  private final int numSlots;
+  private final int numHashFunctions;
+
+  AbstractBloomFilter(int numSlots, int numHashFunctions) {
+    super();
+
+    Validate.isTrue(numSlots > 0 && numSlots <= MAX_SLOTS, "Die Anzahl der Positionen ist ungültig! numSlots: %d",
+        numSlots);
+    Validate.isTrue(numHashFunctions > 0 && numHashFunctions <= MAX_HASH_FUNCTIONS,
+        "Die Anzahl der Hashfunktionen ist ungültig! numHashFunctions: %d", numHashFunctions);
+    this.numSlots = numSlots;
+    this.numHashFunctions = numHashFunctions;
+  }
+
+  /**
+   * @return Anzahl der Hashfunktionen, also der Positionen je Element
+   */
+  public int getNumHashFunctions() {
+    return this.numHashFunctions;
+  }
+
+  /**
+   * @param value Element
+   * @return {@code true}, falls sich der Filter dadurch verändert hat, das Element also sicher neu war
+   */
+  public boolean put(long value) {
+    return putHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element
+   * @return {@code true}, falls sich der Filter dadurch verändert hat, das Element also sicher neu war
+   */
+  public boolean put(int value) {
+    return putHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element (not null)
+   * @return {@code true}, falls sich der Filter dadurch verändert hat, das Element also sicher neu war
+   */
+  public boolean put(byte[] value) {
+    return putHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element (not null)
+   * @return {@code true}, falls sich der Filter dadurch verändert hat, das Element also sicher neu war
+   */
+  public boolean put(CharSequence value) {
+    return putHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element
+   * @return {@code false}, falls das Element sicher nicht enthalten ist, {@code true}, falls es vermutlich enthalten ist
+   */
+  public boolean mightContain(long value) {
+    return mightContainHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element
+   * @return {@code false}, falls das Element sicher nicht enthalten ist, {@code true}, falls es vermutlich enthalten ist
+   */
+  public boolean mightContain(int value) {
+    return mightContainHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element (not null)
+   * @return {@code false}, falls das Element sicher nicht enthalten ist, {@code true}, falls es vermutlich enthalten ist
+   */
+  public boolean mightContain(byte[] value) {
+    return mightContainHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value Element (not null)
+   * @return {@code false}, falls das Element sicher nicht enthalten ist, {@code true}, falls es vermutlich enthalten ist
+   */
+  public boolean mightContain(CharSequence value) {
+    return mightContainHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @return Wahrscheinlichkeit, dass {@code mightContain} beim aktuellen Füllstand für ein nicht enthaltenes Element
+   *         {@code true} liefert
+   */
+  public double expectedFpp() {
+    return Math.pow((double) countUsedSlots() / this.numSlots, this.numHashFunctions);
+  }
+
+  /**
+   * @return Anzahl der Bytes, die {@link #serialize(DataOutput)} schreibt
+   */
+  public int getSerializedSizeInBytes() {
+    return 4 + 1 + 4 + 8 * numWords();
+  }
+
+  /**
+   * Schreibt diesen Filter im plattformunabhängigen Format (siehe Klassenbeschreibung).
+   *
+   * @param out Ziel (not null)
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  public void serialize(DataOutput out) throws IOException {
+    Validate.notNull(out, "Folgende Parameter dürfen nicht null sein! out: {}", out);
+    out.writeInt(serialMagic());
+    out.writeByte(this.numHashFunctions);
+    out.writeInt(this.numSlots);
+    for (int i = 0, numWords = numWords(); i < numWords; i++) {
+      out.writeLong(getWord(i));
+    }
+  }
+
+  /**
+   * @return dieser Filter im plattformunabhängigen Format (siehe Klassenbeschreibung)
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(getSerializedSizeInBytes());
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      serialize(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @return Anzahl der Positionen
+   */
+  int getNumSlots() {
+    return this.numSlots;
+  }
+
+  /**
+   * @param hash Hashwert eines Elements
+   * @return zweiter, davon unabhängiger Hashwert für {@link #slot(long, long, int)}
+   */
+  static long secondHash(long hash) {
+    return Murmur3.fmix64(hash) | 1;
+  }
+
+  /**
+   * @param hash Hashwert eines Elements
+   * @param secondHash Ergebnis von {@link #secondHash(long)}
+   * @param i Nummer der Hashfunktion <i>([0;getNumHashFunctions()))</i>
+   * @return Position für die Hashfunktion
+   */
+  int slot(long hash, long secondHash, int i) {
+    return (int) (((hash + i * secondHash) & Long.MAX_VALUE) % this.numSlots);
+  }
+
+  /**
+   * Prüft beim Zusammenführen oder Lesen, dass der andere Filter dieselbe Größe und dieselben Hashfunktionen nutzt.
+   *
+   * @param other anderer Filter (not null)
+   */
+  void checkCompatible(AbstractBloomFilter other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    Validate.isTrue(this.numSlots == other.numSlots && this.numHashFunctions == other.numHashFunctions,
+        "Die Filter sind nicht kompatibel! numSlots: %d/%d, numHashFunctions: %d/%d", this.numSlots, other.numSlots,
+        this.numHashFunctions, other.numHashFunctions);
+  }
+
+  /**
+   * Liest den Kopf eines über {@link #serialize(DataOutput)} geschriebenen Filters.
+   *
+   * @param in Quelle (not null)
+   * @param magic erwartete Kennung
+   * @return {@code numHashFunctions} in den oberen und {@code numSlots} in den unteren 32 Bit
+   * @throws IOException falls nicht gelesen werden kann oder der Kopf ungültig ist
+   */
+  static long readHeader(DataInput in, int magic) throws IOException {
+    Validate.notNull(in, "Folgende Parameter dürfen nicht null sein! in: {}", in);
+    int actualMagic = in.readInt();
+    if (actualMagic != magic) {
+      throw new IOException("Invalid bloom filter format: " + Integer.toHexString(actualMagic));
+    }
+    int numHashFunctions = in.readUnsignedByte();
+    int numSlots = in.readInt();
+    if (numHashFunctions == 0 || numSlots <= 0 || numSlots > MAX_SLOTS) {
+      throw new IOException("Invalid bloom filter header: numHashFunctions " + numHashFunctions + ", numSlots "
+          + numSlots);
+    }
+    return (long) numHashFunctions << 32 | numSlots;
+  }
+
+  abstract boolean putHash(long hash);
+
+  abstract boolean mightContainHash(long hash);
+
+  abstract int countUsedSlots();
+
+  abstract int serialMagic();
+
+  abstract int numWords();
+
+  abstract long getWord(int index);
+}
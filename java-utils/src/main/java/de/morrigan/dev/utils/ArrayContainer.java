@@ -0,0 +1,205 @@
+package de.morrigan.dev.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Container, der seine Werte als sortiertes {@code char[]} ablegt. Wird für dünn besetzte Bereiche mit höchstens
+ * {@value Container#MAX_ARRAY_CARDINALITY} Werten genutzt.
+ *
+ * @author morrigan
+ */
+final class ArrayContainer extends Container {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  static int serializedSizeInBytes(int cardinality) {
+    return 1 + 2 + 2 * cardinality;
+  }
+
+  static ArrayContainer deserializeContent(DataInput in) throws IOException {
+    int cardinality = in.readUnsignedShort() + 1;
+    char[] values = new char[cardinality];
+    for (int i = 0; i < cardinality; i++) {
+      values[i] = in.readChar();
+    }
+    return new ArrayContainer(values, cardinality);
+  }
+
+  private char[] values;
+  private int cardinality;
+
+  ArrayContainer() {
+    this(new char[INITIAL_CAPACITY], 0);
+  }
+
+  /**
+   * @param values aufsteigend sortierte Werte ohne Duplikate (wird übernommen)
+   * @param cardinality Anzahl der gültigen Werte im Array
+   */
+  ArrayContainer(char[] values, int cardinality) {
+    super();
+
+    this.values = values;
+    this.cardinality = cardinality;
+  }
+
+  @Override
+  Container add(int value) {
+    int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) value);
+    if (index >= 0) {
+      return this;
+    }
+    if (this.cardinality >= MAX_ARRAY_CARDINALITY) {
+      return toBitmap().add(value);
+    }
+    int insertionPoint = -index - 1;
+    if (this.cardinality == this.values.length) {
+      this.values = Arrays.copyOf(this.values, Math.min(MAX_ARRAY_CARDINALITY, Math.max(INITIAL_CAPACITY, this.cardinality * 2)));
+    }
+    System.arraycopy(this.values, insertionPoint, this.values, insertionPoint + 1, this.cardinality - insertionPoint);
+    this.values[insertionPoint] = (char) value;
+    this.cardinality++;
+    return this;
+  }
+
+  @Override
+  Container remove(int value) {
+    int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) value);
+    if (index >= 0) {
+      System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+      this.cardinality--;
+    }
+    return this;
+  }
+
+  @Override
+  boolean contains(int value) {
+    return Arrays.binarySearch(this.values, 0, this.cardinality, (char) value) >= 0;
+  }
+
+  @Override
+  int cardinality() {
+    return this.cardinality;
+  }
+
+  @Override
+  int rank(int value) {
+    int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) value);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  @Override
+  int select(int index) {
+    return this.values[index];
+  }
+
+  @Override
+  PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < ArrayContainer.this.cardinality;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return ArrayContainer.this.values[this.index++];
+      }
+    };
+  }
+
+  @Override
+  long[] words() {
+    long[] words = new long[BITMAP_WORDS];
+    for (int i = 0; i < this.cardinality; i++) {
+      words[this.values[i] >>> 6] |= 1L << this.values[i];
+    }
+    return words;
+  }
+
+  @Override
+  int sizeInBytes() {
+    return OBJECT_OVERHEAD_BYTES + 16 + 2 * this.values.length;
+  }
+
+  @Override
+  int serializedSizeInBytes() {
+    return serializedSizeInBytes(this.cardinality);
+  }
+
+  @Override
+  void serialize(DataOutput out) throws IOException {
+    out.writeByte(TYPE_ARRAY);
+    out.writeShort(this.cardinality - 1);
+    for (int i = 0; i < this.cardinality; i++) {
+      out.writeChar(this.values[i]);
+    }
+  }
+
+  @Override
+  Container copy() {
+    return new ArrayContainer(Arrays.copyOf(this.values, this.cardinality), this.cardinality);
+  }
+
+  @Override
+  int numberOfRuns() {
+    int runs = this.cardinality == 0 ? 0 : 1;
+    for (int i = 1; i < this.cardinality; i++) {
+      if (this.values[i] != this.values[i - 1] + 1) {
+        runs++;
+      }
+    }
+    return runs;
+  }
+
+  /**
+   * @param other anderer Container (not null)
+   * @return neuer Container mit den Werten beider Container
+   */
+  ArrayContainer merge(ArrayContainer other) {
+    char[] result = new char[this.cardinality + other.cardinality];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < this.cardinality && j < other.cardinality) {
+      char a = this.values[i];
+      char b = other.values[j];
+      if (a < b) {
+        result[k++] = a;
+        i++;
+      } else if (a > b) {
+        result[k++] = b;
+        j++;
+      } else {
+        result[k++] = a;
+        i++;
+        j++;
+      }
+    }
+    while (i < this.cardinality) {
+      result[k++] = this.values[i++];
+    }
+    while (j < other.cardinality) {
+      result[k++] = other.values[j++];
+    }
+    return new ArrayContainer(result, k);
+  }
+
+  /**
+   * @return Container in Bitmap-Darstellung mit denselben Werten
+   */
+  BitmapContainer toBitmap() {
+    return new BitmapContainer(words(), this.cardinality);
+  }
+}
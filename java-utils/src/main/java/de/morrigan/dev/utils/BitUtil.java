@@ -72,6 +72,61 @@ public class BitUtil {
     return 1L << position;
   }
 
+  /**
+   * Ermittelt, wie viele {@code long} Werte benötigt werden, um die angegebene Anzahl Bits abzulegen. Es findet keine
+   * Prüfung der Parameter statt.
+   *
+   * <pre>
+   * BitUtils.wordCount(0)  = 0
+   * BitUtils.wordCount(64) = 1
+   * BitUtils.wordCount(65) = 2
+   * </pre>
+   *
+   * @param numBits Anzahl Bits <i>([0;Integer.MAX_VALUE])</i>
+   * @return Anzahl der benötigten {@code long} Werte
+   */
+  public static int wordCount(int numBits) {
+    return (int) ((numBits + 63L) >>> 6);
+  }
+
+  /**
+   * Ermittelt den Index des {@code long} Wertes, in dem das Bit an der angegebenen Position abgelegt ist. Es findet
+   * keine Prüfung der Parameter statt.
+   *
+   * <pre>
+   * BitUtils.wordIndex(63) = 0
+   * BitUtils.wordIndex(64) = 1
+   * </pre>
+   *
+   * @param bitIndex Position eines Bits <i>([0;Integer.MAX_VALUE])</i>
+   * @return Index des {@code long} Wertes
+   */
+  public static int wordIndex(int bitIndex) {
+    return bitIndex >>> 6;
+  }
+
+  /**
+   * Ermittelt die Position des gesetzten Bits mit dem angegebenen Rang, d.h. das wievielte gesetzte Bit von der
+   * niedrigsten Position aus gezählt gesucht wird. Es findet keine Prüfung der Parameter statt.
+   *
+   * <pre>
+   * BitUtils.selectBit(0b1011, 0) = 0
+   * BitUtils.selectBit(0b1011, 2) = 3
+   * BitUtils.selectBit(0b1011, 3) = 64
+   * </pre>
+   *
+   * @param value ein {@code long} Wert
+   * @param rank Rang des gesuchten Bits <i>([0;Long.bitCount(value)))</i>
+   * @return Position des Bits <i>([0;63])</i> oder 64, falls {@code value} weniger gesetzte Bits besitzt
+   */
+  public static int selectBit(long value, int rank) {
+    long remaining = value;
+    for (int i = 0; i < rank; i++) {
+      remaining &= remaining - 1;
+    }
+    return Long.numberOfTrailingZeros(remaining);
+  }
+
   private BitUtil() {
     super();
   }
@@ -0,0 +1,200 @@
+package de.morrigan.dev.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Container, der seine Werte als Bitmap mit 2<sup>16</sup> Bits ablegt. Wird für dicht besetzte Bereiche mit mehr als
+ * {@value Container#MAX_ARRAY_CARDINALITY} Werten genutzt.
+ *
+ * @author morrigan
+ */
+final class BitmapContainer extends Container {
+
+  static final int SERIALIZED_SIZE_IN_BYTES = 1 + BITMAP_WORDS * 8;
+
+  /**
+   * @param words Bitmap mit 2<sup>16</sup> Bits (wird übernommen)
+   * @return passender Container für die gesetzten Bits, bei wenigen Werten ein {@link ArrayContainer}
+   */
+  static Container of(long[] words) {
+    int cardinality = 0;
+    for (long word : words) {
+      cardinality += Long.bitCount(word);
+    }
+    BitmapContainer container = new BitmapContainer(words, cardinality);
+    return cardinality <= MAX_ARRAY_CARDINALITY ? container.toArray() : container;
+  }
+
+  static BitmapContainer deserializeContent(DataInput in) throws IOException {
+    long[] words = new long[BITMAP_WORDS];
+    int cardinality = 0;
+    for (int i = 0; i < BITMAP_WORDS; i++) {
+      words[i] = in.readLong();
+      cardinality += Long.bitCount(words[i]);
+    }
+    return new BitmapContainer(words, cardinality);
+  }
+
+  private final long[] words;
+  private int cardinality;
+
+  /**
+   * @param words Bitmap mit 2<sup>16</sup> Bits (wird übernommen)
+   * @param cardinality Anzahl der gesetzten Bits
+   */
+  BitmapContainer(long[] words, int cardinality) {
+    super();
+
+    this.words = words;
+    this.cardinality = cardinality;
+  }
+
+  @Override
+  Container add(int value) {
+    long mask = 1L << value;
+    int wordIndex = value >>> 6;
+    if ((this.words[wordIndex] & mask) == 0) {
+      this.words[wordIndex] |= mask;
+      this.cardinality++;
+    }
+    return this;
+  }
+
+  @Override
+  Container remove(int value) {
+    long mask = 1L << value;
+    int wordIndex = value >>> 6;
+    if ((this.words[wordIndex] & mask) != 0) {
+      this.words[wordIndex] &= ~mask;
+      this.cardinality--;
+      if (this.cardinality <= MAX_ARRAY_CARDINALITY) {
+        return toArray();
+      }
+    }
+    return this;
+  }
+
+  @Override
+  boolean contains(int value) {
+    return (this.words[value >>> 6] & (1L << value)) != 0;
+  }
+
+  @Override
+  int cardinality() {
+    return this.cardinality;
+  }
+
+  @Override
+  int rank(int value) {
+    int wordIndex = value >>> 6;
+    int result = 0;
+    for (int i = 0; i < wordIndex; i++) {
+      result += Long.bitCount(this.words[i]);
+    }
+    return result + Long.bitCount(this.words[wordIndex] & (-1L >>> (63 - (value & 63))));
+  }
+
+  @Override
+  int select(int index) {
+    int remaining = index;
+    for (int i = 0; i < BITMAP_WORDS; i++) {
+      int bitCount = Long.bitCount(this.words[i]);
+      if (remaining < bitCount) {
+        return (i << 6) + BitUtil.selectBit(this.words[i], remaining);
+      }
+      remaining -= bitCount;
+    }
+    throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.cardinality + ")");
+  }
+
+  @Override
+  PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int wordIndex = -1;
+      private long word;
+
+      @Override
+      public boolean hasNext() {
+        while (this.word == 0) {
+          if (++this.wordIndex >= BITMAP_WORDS) {
+            this.wordIndex = BITMAP_WORDS;
+            return false;
+          }
+          this.word = BitmapContainer.this.words[this.wordIndex];
+        }
+        return true;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int result = (this.wordIndex << 6) + Long.numberOfTrailingZeros(this.word);
+        this.word &= this.word - 1;
+        return result;
+      }
+    };
+  }
+
+  @Override
+  long[] words() {
+    return this.words;
+  }
+
+  @Override
+  int sizeInBytes() {
+    return OBJECT_OVERHEAD_BYTES + 16 + 8 * BITMAP_WORDS;
+  }
+
+  @Override
+  int serializedSizeInBytes() {
+    return SERIALIZED_SIZE_IN_BYTES;
+  }
+
+  @Override
+  void serialize(DataOutput out) throws IOException {
+    out.writeByte(TYPE_BITMAP);
+    for (long word : this.words) {
+      out.writeLong(word);
+    }
+  }
+
+  @Override
+  Container copy() {
+    return new BitmapContainer(this.words.clone(), this.cardinality);
+  }
+
+  @Override
+  int numberOfRuns() {
+    int runs = 0;
+    long previousWord = 0;
+    for (long word : this.words) {
+      // Zählt alle gesetzten Bits, deren Vorgänger nicht gesetzt ist (Beginn eines Bereichs)
+      runs += Long.bitCount(word & ~((word << 1) | (previousWord >>> 63)));
+      previousWord = word;
+    }
+    return runs;
+  }
+
+  /**
+   * @return Container in Array-Darstellung mit denselben Werten
+   */
+  ArrayContainer toArray() {
+    char[] values = new char[this.cardinality];
+    int index = 0;
+    for (int i = 0; i < BITMAP_WORDS; i++) {
+      long word = this.words[i];
+      while (word != 0) {
+        values[index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+    return new ArrayContainer(values, this.cardinality);
+  }
+}
@@ -0,0 +1,169 @@
+package de.morrigan.dev.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Ein Bloom Filter für schnelle Vorprüfungen, ob ein Element in einer Menge enthalten sein kann. Liefert
+ * {@link #mightContain(long)} {@code false}, ist das Element sicher nicht enthalten. Ein {@code true} ist mit der beim
+ * Anlegen angegebenen Fehlerrate falsch.
+ *
+ * <pre>
+ * BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+ * filter.put("key");
+ * if (filter.mightContain(key)) {
+ *   // teure Suche
+ * }
+ * </pre>
+ *
+ * Die Bits liegen in einem {@link ConcurrentBitSet}, daher können beliebig viele Threads gleichzeitig Elemente
+ * hinzufügen und prüfen. Das über {@link #serialize(java.io.DataOutput)} erzeugte Format ist plattformunabhängig:
+ *
+ * <pre>
+ * int   Kennung "BLM1"
+ * byte  Anzahl der Hashfunktionen
+ * int   Anzahl der Bits
+ * long  Worte mit je 64 Bits
+ * </pre>
+ *
+ * @author morrigan
+ */
+public class BloomFilter extends AbstractBloomFilter {
+
+  /** Kennung am Anfang des serialisierten Formats ("BLM1") */
+  public static final int SERIAL_MAGIC = 0x424C4D31;
+
+  /**
+   * @param expectedInsertions erwartete Anzahl an Elementen <i>(> 0)</i>
+   * @param fpp gewünschte Fehlerrate bei der erwarteten Anzahl an Elementen <i>((0;1))</i>
+   * @return neuer, leerer Filter mit optimaler Größe
+   * @throws IllegalArgumentException falls die Parameter ungültig sind oder der Filter mehr als 2<sup>31</sup> Bits
+   *         bräuchte
+   */
+  public static BloomFilter create(long expectedInsertions, double fpp) {
+    int numBits = optimalNumSlots(expectedInsertions, fpp);
+    return new BloomFilter(numBits, optimalNumHashFunctions(expectedInsertions, numBits));
+  }
+
+  /**
+   * Liest einen Filter, der über {@link #serialize(java.io.DataOutput)} geschrieben wurde.
+   *
+   * @param in Quelle (not null)
+   * @return gelesener Filter
+   * @throws IOException falls nicht gelesen werden kann oder das Format ungültig ist
+   */
+  public static BloomFilter deserialize(DataInput in) throws IOException {
+    long header = readHeader(in, SERIAL_MAGIC);
+    int numBits = (int) header;
+    long[] words = new long[BitUtil.wordCount(numBits)];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = in.readLong();
+    }
+    return of(new LongBitSet(words, numBits), (int) (header >>> 32));
+  }
+
+  /**
+   * @param bits gesetzte Bits (not null)
+   * @param numHashFunctions Anzahl der Hashfunktionen
+   * @return neuer Filter mit den angegebenen Bits
+   */
+  static BloomFilter of(LongBitSet bits, int numHashFunctions) {
+    BloomFilter result = new BloomFilter(bits.length(), numHashFunctions);
+    result.bits.or(bits);
+    return result;
+  }
+
+  /**
+   * @param bytes über {@link #toByteArray()} erzeugte Daten (not null)
+   * @return gelesener Filter
+   * @throws IllegalArgumentException falls das Format ungültig ist
+   */
+  public static BloomFilter fromByteArray(byte[] bytes) {
+    Validate.notNull(bytes, "Folgende Parameter dürfen nicht null sein! bytes: {}", (Object) bytes);
+    try {
+      return deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("The bytes do not contain a valid bloom filter", e);
+    }
+  }
+
+  private final ConcurrentBitSet bits;
+
+  private BloomFilter(int numBits, int numHashFunctions) {
+    super(numBits, numHashFunctions);
+
+    this.bits = new ConcurrentBitSet(numBits);
+  }
+
+  /**
+   * @return Anzahl der Bits
+   */
+  public int getNumBits() {
+    return getNumSlots();
+  }
+
+  /**
+   * Übernimmt alle Elemente des anderen Filters (bitweises Oder).
+   *
+   * @param other anderer Filter mit derselben Größe und Anzahl an Hashfunktionen (not null)
+   * @throws IllegalArgumentException falls die Filter nicht kompatibel sind
+   */
+  public void merge(BloomFilter other) {
+    checkCompatible(other);
+    this.bits.or(other.bits);
+  }
+
+  /**
+   * @return eine unabhängige Kopie dieses Filters
+   */
+  public BloomFilter copy() {
+    BloomFilter result = new BloomFilter(getNumSlots(), getNumHashFunctions());
+    result.bits.or(this.bits);
+    return result;
+  }
+
+  @Override
+  boolean putHash(long hash) {
+    long secondHash = secondHash(hash);
+    boolean changed = false;
+    for (int i = 0, k = getNumHashFunctions(); i < k; i++) {
+      changed |= !this.bits.testAndSet(slot(hash, secondHash, i));
+    }
+    return changed;
+  }
+
+  @Override
+  boolean mightContainHash(long hash) {
+    long secondHash = secondHash(hash);
+    for (int i = 0, k = getNumHashFunctions(); i < k; i++) {
+      if (!this.bits.get(slot(hash, secondHash, i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  int countUsedSlots() {
+    return this.bits.cardinality();
+  }
+
+  @Override
+  int serialMagic() {
+    return SERIAL_MAGIC;
+  }
+
+  @Override
+  int numWords() {
+    return BitUtil.wordCount(getNumSlots());
+  }
+
+  @Override
+  long getWord(int index) {
+    return this.bits.getWord(index);
+  }
+}
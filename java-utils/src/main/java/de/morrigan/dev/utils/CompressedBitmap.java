@@ -0,0 +1,558 @@
+package de.morrigan.dev.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Eine komprimierte Menge von nicht negativen {@code int} Werten nach dem Vorbild von Roaring Bitmaps. Die Werte werden
+ * anhand ihrer oberen 16 Bit in Blöcke aufgeteilt. Jeder Block wird je nach Verteilung seiner Werte als sortiertes
+ * Array (dünn besetzt), als Bitmap (dicht besetzt) oder als Folge von Bereichen (geclustert) abgelegt. Dadurch
+ * benötigen dünn besetzte und geclusterte Mengen nur einen Bruchteil des Speichers eines {@link java.util.BitSet}.
+ * <p>
+ * Einzeln hinzugefügte Werte werden als Array bzw. Bitmap abgelegt. Bereiche entstehen über {@link #add(int, int)} oder
+ * nachträglich über {@link #runOptimize()}.
+ * <p>
+ * Das über {@link #serialize(DataOutput)} bzw. {@link #toByteArray()} erzeugte Format ist plattformunabhängig
+ * (Big-Endian) und aufgebaut wie folgt:
+ *
+ * <pre>
+ * int   Kennung "CBM1"
+ * int   Anzahl der Blöcke
+ * je Block:
+ *   char  obere 16 Bit der Werte
+ *   byte  Typ (1 = Array, 2 = Bitmap, 3 = Bereiche)
+ *   Array:    char Anzahl - 1, je Wert char
+ *   Bitmap:   1024 long
+ *   Bereiche: char Anzahl - 1, je Bereich char Start und char Länge - 1
+ * </pre>
+ *
+ * Diese Klasse ist nicht threadsicher.
+ *
+ * @author morrigan
+ */
+public class CompressedBitmap {
+
+  /** Kennung am Anfang des serialisierten Formats ("CBM1") */
+  public static final int SERIAL_MAGIC = 0x43424D31;
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  /**
+   * @param values nicht negative Werte (not null)
+   * @return neue Menge mit den angegebenen Werten
+   */
+  public static CompressedBitmap of(int... values) {
+    Validate.notNull(values, "Folgende Parameter dürfen nicht null sein! values: {}", (Object) values);
+    CompressedBitmap result = new CompressedBitmap();
+    for (int value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /**
+   * @param first eine Menge (not null)
+   * @param second eine weitere Menge (not null)
+   * @return neue Menge mit allen Werten, die in beiden Mengen enthalten sind
+   */
+  public static CompressedBitmap and(CompressedBitmap first, CompressedBitmap second) {
+    Validate.notNull(first, "Folgende Parameter dürfen nicht null sein! first: {}", first);
+    Validate.notNull(second, "Folgende Parameter dürfen nicht null sein! second: {}", second);
+    CompressedBitmap result = new CompressedBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < first.size && j < second.size) {
+      int firstKey = first.keys[i];
+      int secondKey = second.keys[j];
+      if (firstKey < secondKey) {
+        i++;
+      } else if (firstKey > secondKey) {
+        j++;
+      } else {
+        result.appendIfNotEmpty(first.keys[i], first.containers[i].and(second.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param first eine Menge (not null)
+   * @param second eine weitere Menge (not null)
+   * @return neue Menge mit allen Werten, die in mindestens einer der Mengen enthalten sind
+   */
+  public static CompressedBitmap or(CompressedBitmap first, CompressedBitmap second) {
+    Validate.notNull(first, "Folgende Parameter dürfen nicht null sein! first: {}", first);
+    Validate.notNull(second, "Folgende Parameter dürfen nicht null sein! second: {}", second);
+    CompressedBitmap result = new CompressedBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < first.size || j < second.size) {
+      int firstKey = i < first.size ? first.keys[i] : Integer.MAX_VALUE;
+      int secondKey = j < second.size ? second.keys[j] : Integer.MAX_VALUE;
+      if (firstKey < secondKey) {
+        result.appendIfNotEmpty(first.keys[i], first.containers[i].copy());
+        i++;
+      } else if (firstKey > secondKey) {
+        result.appendIfNotEmpty(second.keys[j], second.containers[j].copy());
+        j++;
+      } else {
+        result.appendIfNotEmpty(first.keys[i], first.containers[i].or(second.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param first eine Menge (not null)
+   * @param second eine weitere Menge (not null)
+   * @return neue Menge mit allen Werten der ersten Menge, die in der zweiten Menge nicht enthalten sind
+   */
+  public static CompressedBitmap andNot(CompressedBitmap first, CompressedBitmap second) {
+    Validate.notNull(first, "Folgende Parameter dürfen nicht null sein! first: {}", first);
+    Validate.notNull(second, "Folgende Parameter dürfen nicht null sein! second: {}", second);
+    CompressedBitmap result = new CompressedBitmap();
+    int j = 0;
+    for (int i = 0; i < first.size; i++) {
+      int firstKey = first.keys[i];
+      while (j < second.size && second.keys[j] < firstKey) {
+        j++;
+      }
+      if (j < second.size && second.keys[j] == firstKey) {
+        result.appendIfNotEmpty(first.keys[i], first.containers[i].andNot(second.containers[j]));
+      } else {
+        result.appendIfNotEmpty(first.keys[i], first.containers[i].copy());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Liest eine Menge, die über {@link #serialize(DataOutput)} geschrieben wurde.
+   *
+   * @param in Quelle (not null)
+   * @return gelesene Menge
+   * @throws IOException falls nicht gelesen werden kann oder das Format ungültig ist
+   */
+  public static CompressedBitmap deserialize(DataInput in) throws IOException {
+    Validate.notNull(in, "Folgende Parameter dürfen nicht null sein! in: {}", in);
+    int magic = in.readInt();
+    if (magic != SERIAL_MAGIC) {
+      throw new IOException("Invalid compressed bitmap format: " + Integer.toHexString(magic));
+    }
+    int size = in.readInt();
+    if (size < 0 || size > 1 << 15) {
+      throw new IOException("Invalid number of containers: " + size);
+    }
+    CompressedBitmap result = new CompressedBitmap();
+    int previousKey = -1;
+    for (int i = 0; i < size; i++) {
+      char key = in.readChar();
+      if (key <= previousKey || key >= 1 << 15) {
+        throw new IOException("Invalid container key: " + (int) key);
+      }
+      result.appendIfNotEmpty(key, Container.deserialize(in));
+      previousKey = key;
+    }
+    return result;
+  }
+
+  /**
+   * @param bytes über {@link #toByteArray()} erzeugte Daten (not null)
+   * @return gelesene Menge
+   * @throws IllegalArgumentException falls das Format ungültig ist
+   */
+  public static CompressedBitmap fromByteArray(byte[] bytes) {
+    Validate.notNull(bytes, "Folgende Parameter dürfen nicht null sein! bytes: {}", (Object) bytes);
+    try {
+      return deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("The bytes do not contain a valid compressed bitmap", e);
+    }
+  }
+
+  private char[] keys;
+  private Container[] containers;
+  private int size;
+
+  /**
+   * Erzeugt eine leere Menge.
+   */
+  public CompressedBitmap() {
+    super();
+
+    this.keys = new char[INITIAL_CAPACITY];
+    this.containers = new Container[INITIAL_CAPACITY];
+  }
+
+  /**
+   * @param value nicht negativer Wert
+   * @throws IllegalArgumentException falls {@code value} negativ ist
+   */
+  public void add(int value) {
+    checkValue(value);
+    char key = highBits(value);
+    int index = indexOf(key);
+    if (index >= 0) {
+      this.containers[index] = this.containers[index].add(lowBits(value));
+    } else {
+      insert(-index - 1, key, new ArrayContainer().add(lowBits(value)));
+    }
+  }
+
+  /**
+   * Fügt alle Werte im Bereich {@code [fromValue;toValue)} hinzu. Neue Blöcke werden dabei als Bereiche abgelegt. In
+   * einen Block aus Bereichen wird der Bereich direkt eingefügt, ein anderer Block wird anschließend in die Darstellung
+   * mit dem geringsten Speicherbedarf umgewandelt.
+   *
+   * @param fromValue erster Wert (inklusive)
+   * @param toValue letzter Wert (exklusive)
+   * @throws IllegalArgumentException falls der Bereich ungültig ist
+   */
+  public void add(int fromValue, int toValue) {
+    Validate.isTrue(fromValue >= 0 && fromValue <= toValue, "Der Bereich ist ungültig! fromValue: %d, toValue: %d",
+        fromValue, toValue);
+    long value = fromValue;
+    while (value < toValue) {
+      char key = (char) (value >>> 16);
+      int from = (int) (value & 0xFFFF);
+      int to = (int) Math.min(toValue - ((long) key << 16), 1 << 16);
+      int index = indexOf(key);
+      if (index < 0) {
+        insert(-index - 1, key, RunContainer.ofRange(from, to));
+      } else if (this.containers[index] instanceof RunContainer) {
+        this.containers[index] = ((RunContainer) this.containers[index]).addRange(from, to);
+      } else {
+        this.containers[index] = this.containers[index].or(RunContainer.ofRange(from, to)).runOptimize();
+      }
+      value = ((long) key + 1) << 16;
+    }
+  }
+
+  /**
+   * @param value ein Wert
+   * @return {@code true}, falls der Wert enthalten war
+   */
+  public boolean remove(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = indexOf(highBits(value));
+    if (index < 0 || !this.containers[index].contains(lowBits(value))) {
+      return false;
+    }
+    Container container = this.containers[index].remove(lowBits(value));
+    if (container.cardinality() == 0) {
+      System.arraycopy(this.keys, index + 1, this.keys, index, this.size - index - 1);
+      System.arraycopy(this.containers, index + 1, this.containers, index, this.size - index - 1);
+      this.containers[--this.size] = null;
+    } else {
+      this.containers[index] = container;
+    }
+    return true;
+  }
+
+  /**
+   * @param value ein Wert
+   * @return {@code true}, falls der Wert enthalten ist
+   */
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = indexOf(highBits(value));
+    return index >= 0 && this.containers[index].contains(lowBits(value));
+  }
+
+  /**
+   * @return Anzahl der Werte
+   */
+  public long getCardinality() {
+    long result = 0;
+    for (int i = 0; i < this.size; i++) {
+      result += this.containers[i].cardinality();
+    }
+    return result;
+  }
+
+  /**
+   * @return {@code true}, falls die Menge keine Werte enthält
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * @param value ein Wert
+   * @return Anzahl der Werte, die kleiner oder gleich dem angegebenen Wert sind
+   */
+  public long rank(int value) {
+    if (value < 0) {
+      return 0;
+    }
+    char key = highBits(value);
+    long result = 0;
+    for (int i = 0; i < this.size && this.keys[i] <= key; i++) {
+      if (this.keys[i] < key) {
+        result += this.containers[i].cardinality();
+      } else {
+        result += this.containers[i].rank(lowBits(value));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param index Index eines Wertes <i>([0;getCardinality()))</i>
+   * @return der Wert an der angegebenen Stelle in aufsteigender Reihenfolge
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public int select(long index) {
+    Validate.isTrue(index >= 0, "Der Index darf nicht negativ sein! index: %d", index);
+    long remaining = index;
+    for (int i = 0; i < this.size; i++) {
+      int cardinality = this.containers[i].cardinality();
+      if (remaining < cardinality) {
+        return (this.keys[i] << 16) | this.containers[i].select((int) remaining);
+      }
+      remaining -= cardinality;
+    }
+    throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + getCardinality() + ")");
+  }
+
+  /**
+   * @return kleinster Wert
+   * @throws NoSuchElementException falls die Menge leer ist
+   */
+  public int first() {
+    if (this.size == 0) {
+      throw new NoSuchElementException();
+    }
+    return (this.keys[0] << 16) | this.containers[0].select(0);
+  }
+
+  /**
+   * @return größter Wert
+   * @throws NoSuchElementException falls die Menge leer ist
+   */
+  public int last() {
+    if (this.size == 0) {
+      throw new NoSuchElementException();
+    }
+    Container container = this.containers[this.size - 1];
+    return (this.keys[this.size - 1] << 16) | container.select(container.cardinality() - 1);
+  }
+
+  /**
+   * Wandelt alle Blöcke, deren Werte als Bereiche weniger Speicher benötigen, in Bereiche um und umgekehrt.
+   */
+  public void runOptimize() {
+    for (int i = 0; i < this.size; i++) {
+      this.containers[i] = this.containers[i].runOptimize();
+    }
+  }
+
+  /**
+   * Liefert einen Iterator über alle Werte in aufsteigender Reihenfolge. Über
+   * {@link PrimitiveIterator.OfInt#nextInt()} werden die Werte ohne Boxing geliefert. Wird die Menge während der
+   * Iteration verändert, ist das Ergebnis undefiniert.
+   *
+   * @return Iterator über alle Werte
+   */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int index = -1;
+      private int high;
+      private PrimitiveIterator.OfInt current;
+
+      @Override
+      public boolean hasNext() {
+        while (this.current == null || !this.current.hasNext()) {
+          if (++this.index >= CompressedBitmap.this.size) {
+            this.index = CompressedBitmap.this.size;
+            return false;
+          }
+          this.high = CompressedBitmap.this.keys[this.index] << 16;
+          this.current = CompressedBitmap.this.containers[this.index].iterator();
+        }
+        return true;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return this.high | this.current.nextInt();
+      }
+    };
+  }
+
+  /**
+   * @return geschätzter Speicherbedarf dieser Menge auf dem Heap in Bytes
+   */
+  public long getSizeInBytes() {
+    long result = Container.OBJECT_OVERHEAD_BYTES + 2L * this.keys.length + 4L * this.containers.length;
+    for (int i = 0; i < this.size; i++) {
+      result += this.containers[i].sizeInBytes();
+    }
+    return result;
+  }
+
+  /**
+   * @return Anzahl der Bytes, die {@link #serialize(DataOutput)} schreibt
+   */
+  public int getSerializedSizeInBytes() {
+    int result = 8;
+    for (int i = 0; i < this.size; i++) {
+      result += 2 + this.containers[i].serializedSizeInBytes();
+    }
+    return result;
+  }
+
+  /**
+   * Schreibt diese Menge im plattformunabhängigen Format (siehe Klassenbeschreibung).
+   *
+   * @param out Ziel (not null)
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  public void serialize(DataOutput out) throws IOException {
+    Validate.notNull(out, "Folgende Parameter dürfen nicht null sein! out: {}", out);
+    out.writeInt(SERIAL_MAGIC);
+    out.writeInt(this.size);
+    for (int i = 0; i < this.size; i++) {
+      out.writeChar(this.keys[i]);
+      this.containers[i].serialize(out);
+    }
+  }
+
+  /**
+   * @return diese Menge im plattformunabhängigen Format (siehe Klassenbeschreibung)
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(getSerializedSizeInBytes());
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      serialize(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @return eine unabhängige Kopie dieser Menge
+   */
+  public CompressedBitmap copy() {
+    CompressedBitmap result = new CompressedBitmap();
+    for (int i = 0; i < this.size; i++) {
+      result.appendIfNotEmpty(this.keys[i], this.containers[i].copy());
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CompressedBitmap)) {
+      return false;
+    }
+    CompressedBitmap other = (CompressedBitmap) obj;
+    if (this.size != other.size || !Arrays.equals(Arrays.copyOf(this.keys, this.size), Arrays.copyOf(other.keys, other.size))) {
+      return false;
+    }
+    for (int i = 0; i < this.size; i++) {
+      if (this.containers[i].cardinality() != other.containers[i].cardinality()) {
+        return false;
+      }
+      PrimitiveIterator.OfInt thisValues = this.containers[i].iterator();
+      PrimitiveIterator.OfInt otherValues = other.containers[i].iterator();
+      while (thisValues.hasNext()) {
+        if (thisValues.nextInt() != otherValues.nextInt()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    PrimitiveIterator.OfInt iterator = iterator();
+    while (iterator.hasNext()) {
+      result = 31 * result + iterator.nextInt();
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    PrimitiveIterator.OfInt iterator = iterator();
+    while (iterator.hasNext()) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(iterator.nextInt());
+    }
+    return builder.append('}').toString();
+  }
+
+  private int indexOf(char key) {
+    // Häufigster Fall beim aufsteigenden Befüllen: der Wert gehört in den letzten Block
+    if (this.size > 0 && this.keys[this.size - 1] == key) {
+      return this.size - 1;
+    }
+    return Arrays.binarySearch(this.keys, 0, this.size, key);
+  }
+
+  private void insert(int index, char key, Container container) {
+    if (this.size == this.keys.length) {
+      int capacity = this.size * 2;
+      this.keys = Arrays.copyOf(this.keys, capacity);
+      this.containers = Arrays.copyOf(this.containers, capacity);
+    }
+    System.arraycopy(this.keys, index, this.keys, index + 1, this.size - index);
+    System.arraycopy(this.containers, index, this.containers, index + 1, this.size - index);
+    this.keys[index] = key;
+    this.containers[index] = container;
+    this.size++;
+  }
+
+  private void appendIfNotEmpty(char key, Container container) {
+    if (container.cardinality() > 0) {
+      insert(this.size, key, container);
+    }
+  }
+
+  private static void checkValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("The value " + value + " must not be negative");
+    }
+  }
+
+  private static char highBits(int value) {
+    return (char) (value >>> 16);
+  }
+
+  private static int lowBits(int value) {
+    return value & 0xFFFF;
+  }
+}
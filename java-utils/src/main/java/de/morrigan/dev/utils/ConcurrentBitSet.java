@@ -0,0 +1,239 @@
+package de.morrigan.dev.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Eine threadsichere Menge von Bits fester Größe auf Basis eines {@link AtomicLongArray}. Alle Änderungen an einzelnen
+ * Bits sind atomar und kommen ohne Sperren aus (Compare-and-Set). Damit eignet sich die Menge z.B. zum Markieren bereits
+ * bearbeiteter oder beanspruchter Einträge über mehrere Threads hinweg:
+ *
+ * <pre>
+ * if (!claimed.testAndSet(id)) {
+ *   // nur genau ein Thread gelangt für jede id hierher
+ * }
+ * </pre>
+ *
+ * Methoden, die mehrere Worte betrachten ({@link #cardinality()}, {@link #nextSetBit(int)}, {@link #or(LongBitSet)},
+ * ...), sind nur je Wort atomar. Bei gleichzeitigen Änderungen liefern sie daher einen Zwischenstand, der so nie
+ * gleichzeitig bestanden haben muss.
+ *
+ * @author morrigan
+ */
+public class ConcurrentBitSet {
+
+  private final AtomicLongArray words;
+  private final int numBits;
+
+  /**
+   * Erzeugt eine leere Menge mit der angegebenen Anzahl Bits.
+   *
+   * @param numBits Anzahl Bits <i>([0;Integer.MAX_VALUE])</i>
+   */
+  public ConcurrentBitSet(int numBits) {
+    super();
+
+    Validate.isTrue(numBits >= 0, "Die Anzahl der Bits darf nicht negativ sein! numBits: %d", numBits);
+    this.words = new AtomicLongArray(BitUtil.wordCount(numBits));
+    this.numBits = numBits;
+  }
+
+  /**
+   * @return Anzahl der Bits dieser Menge
+   */
+  public int length() {
+    return this.numBits;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit gesetzt ist
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean get(int index) {
+    checkIndex(index);
+    return (this.words.get(index >>> 6) & (1L << index)) != 0;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void set(int index) {
+    testAndSet(index);
+  }
+
+  /**
+   * Setzt das Bit atomar und liefert dessen vorherigen Zustand. Setzen mehrere Threads gleichzeitig dasselbe Bit, erhält
+   * genau einer von ihnen {@code false}.
+   *
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit bereits gesetzt war
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean testAndSet(int index) {
+    checkIndex(index);
+    int wordIndex = index >>> 6;
+    long mask = 1L << index;
+    long word;
+    do {
+      word = this.words.get(wordIndex);
+      if ((word & mask) != 0) {
+        return true;
+      }
+    } while (!this.words.compareAndSet(wordIndex, word, word | mask));
+    return false;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void clear(int index) {
+    testAndClear(index);
+  }
+
+  /**
+   * Löscht das Bit atomar und liefert dessen vorherigen Zustand. Löschen mehrere Threads gleichzeitig dasselbe Bit,
+   * erhält genau einer von ihnen {@code true}.
+   *
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit gesetzt war
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean testAndClear(int index) {
+    checkIndex(index);
+    int wordIndex = index >>> 6;
+    long mask = 1L << index;
+    long word;
+    do {
+      word = this.words.get(wordIndex);
+      if ((word & mask) == 0) {
+        return false;
+      }
+    } while (!this.words.compareAndSet(wordIndex, word, word & ~mask));
+    return true;
+  }
+
+  /**
+   * Setzt atomar je Wort alle Bits, die in der anderen Menge gesetzt sind.
+   *
+   * @param other andere Menge (not null), darf nicht länger als diese Menge sein
+   */
+  public void or(LongBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    Validate.isTrue(other.length() <= this.numBits,
+        "Die andere Menge ist länger als diese Menge! numBits: %d, other: %d", this.numBits, other.length());
+    long[] otherWords = other.getWords();
+    for (int i = 0, numWords = BitUtil.wordCount(other.length()); i < numWords; i++) {
+      orWord(i, otherWords[i]);
+    }
+  }
+
+  /**
+   * Setzt atomar je Wort alle Bits, die in der anderen Menge gesetzt sind.
+   *
+   * @param other andere Menge (not null), darf nicht länger als diese Menge sein
+   */
+  public void or(ConcurrentBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    Validate.isTrue(other.numBits <= this.numBits,
+        "Die andere Menge ist länger als diese Menge! numBits: %d, other: %d", this.numBits, other.numBits);
+    for (int i = 0; i < other.words.length(); i++) {
+      orWord(i, other.words.get(i));
+    }
+  }
+
+  /**
+   * Löscht alle Bits. Gleichzeitig gesetzte Bits können erhalten bleiben.
+   */
+  public void clear() {
+    for (int i = 0; i < this.words.length(); i++) {
+      this.words.set(i, 0L);
+    }
+  }
+
+  /**
+   * Zählt die gesetzten Bits ohne Sperre. Bei gleichzeitigen Änderungen ist das Ergebnis nur eine Näherung, die zwischen
+   * dem Stand vor und nach den Änderungen liegt.
+   *
+   * @return ungefähre Anzahl der gesetzten Bits
+   */
+  public int cardinality() {
+    int result = 0;
+    for (int i = 0; i < this.words.length(); i++) {
+      result += Long.bitCount(this.words.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Sucht ab der angegebenen Position das nächste gesetzte Bit.
+   *
+   * @param fromIndex Position, ab der gesucht wird (inklusive). Positionen ab {@link #length()} sind erlaubt.
+   * @return Position des nächsten gesetzten Bits oder -1, falls es keines gibt
+   * @throws IllegalArgumentException falls {@code fromIndex} negativ ist
+   */
+  public int nextSetBit(int fromIndex) {
+    Validate.isTrue(fromIndex >= 0, "Die Position darf nicht negativ sein! fromIndex: %d", fromIndex);
+    if (fromIndex >= this.numBits) {
+      return -1;
+    }
+    int wordIndex = fromIndex >>> 6;
+    long word = this.words.get(wordIndex) >>> fromIndex;
+    if (word != 0) {
+      return fromIndex + Long.numberOfTrailingZeros(word);
+    }
+    while (++wordIndex < this.words.length()) {
+      word = this.words.get(wordIndex);
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return Kopie des aktuellen Standes, die je Wort atomar gelesen wird
+   */
+  public LongBitSet toLongBitSet() {
+    long[] result = new long[this.words.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = this.words.get(i);
+    }
+    return new LongBitSet(result, this.numBits);
+  }
+
+  @Override
+  public String toString() {
+    return toLongBitSet().toString();
+  }
+
+  /**
+   * @param wordIndex Index eines Wortes <i>([0;BitUtil.wordCount(length())))</i>
+   * @return aktueller Wert des Wortes
+   */
+  long getWord(int wordIndex) {
+    return this.words.get(wordIndex);
+  }
+
+  private void orWord(int wordIndex, long bits) {
+    if (bits == 0) {
+      return;
+    }
+    long word;
+    do {
+      word = this.words.get(wordIndex);
+      if ((word | bits) == word) {
+        return;
+      }
+    } while (!this.words.compareAndSet(wordIndex, word, word | bits));
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.numBits) {
+      throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.numBits + ")");
+    }
+  }
+}
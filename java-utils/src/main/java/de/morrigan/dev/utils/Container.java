@@ -0,0 +1,231 @@
+package de.morrigan.dev.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Basisklasse der Container eines {@link CompressedBitmap}. Ein Container nimmt die unteren 16 Bit aller Werte auf, die
+ * sich die oberen 16 Bit teilen. Je nach Verteilung der Werte wird eine andere Darstellung gewählt:
+ * <ul>
+ * <li>{@link ArrayContainer}: sortiertes Array, für bis zu {@value #MAX_ARRAY_CARDINALITY} Werte</li>
+ * <li>{@link BitmapContainer}: Bitmap mit 2<sup>16</sup> Bits, für mehr als {@value #MAX_ARRAY_CARDINALITY} Werte</li>
+ * <li>{@link RunContainer}: Folge von zusammenhängenden Bereichen, für geclusterte Werte</li>
+ * </ul>
+ * Alle Werte eines Containers liegen im Bereich {@code [0;65535]}. Veränderungen liefern den Container zurück, der den
+ * neuen Stand enthält. Das kann derselbe oder ein neuer Container in einer anderen Darstellung sein.
+ *
+ * @author morrigan
+ */
+abstract class Container {
+
+  /** Maximale Anzahl an Werten, bis zu der ein {@link ArrayContainer} genutzt wird */
+  static final int MAX_ARRAY_CARDINALITY = 4096;
+  /** Anzahl der Worte eines {@link BitmapContainer} */
+  static final int BITMAP_WORDS = 1 << 10;
+
+  static final byte TYPE_ARRAY = 1;
+  static final byte TYPE_BITMAP = 2;
+  static final byte TYPE_RUN = 3;
+
+  /** Geschätzter Speicherbedarf eines Objekts samt Referenz darauf ohne die eigentlichen Nutzdaten */
+  static final int OBJECT_OVERHEAD_BYTES = 32;
+
+  /**
+   * @param in Quelle, aus der ein über {@link #serialize(DataOutput)} geschriebener Container gelesen wird
+   * @return gelesener Container
+   * @throws IOException falls nicht gelesen werden kann oder der Typ unbekannt ist
+   */
+  static Container deserialize(DataInput in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case TYPE_ARRAY:
+        return ArrayContainer.deserializeContent(in);
+      case TYPE_BITMAP:
+        return BitmapContainer.deserializeContent(in);
+      case TYPE_RUN:
+        return RunContainer.deserializeContent(in);
+
+      default:
+        throw new IOException("Unknown container type: " + type);
+    }
+  }
+
+  /**
+   * @param value Wert <i>([0;65535])</i>
+   * @return Container, der zusätzlich den Wert enthält
+   */
+  abstract Container add(int value);
+
+  /**
+   * @param value Wert <i>([0;65535])</i>
+   * @return Container, der den Wert nicht mehr enthält
+   */
+  abstract Container remove(int value);
+
+  /**
+   * @param value Wert <i>([0;65535])</i>
+   * @return {@code true}, falls der Wert enthalten ist
+   */
+  abstract boolean contains(int value);
+
+  /**
+   * @return Anzahl der Werte
+   */
+  abstract int cardinality();
+
+  /**
+   * @param value Wert <i>([0;65535])</i>
+   * @return Anzahl der Werte, die kleiner oder gleich dem angegebenen Wert sind
+   */
+  abstract int rank(int value);
+
+  /**
+   * @param index Index eines Wertes <i>([0;cardinality()))</i>
+   * @return der Wert an der angegebenen Stelle in aufsteigender Reihenfolge
+   */
+  abstract int select(int index);
+
+  /**
+   * @return Iterator über alle Werte in aufsteigender Reihenfolge
+   */
+  abstract PrimitiveIterator.OfInt iterator();
+
+  /**
+   * @return eine Bitmap mit 2<sup>16</sup> Bits, in der alle Werte gesetzt sind. Darf nicht verändert werden, da
+   *         {@link BitmapContainer} sein eigenes Array liefert.
+   */
+  abstract long[] words();
+
+  /**
+   * @return geschätzter Speicherbedarf auf dem Heap in Bytes
+   */
+  abstract int sizeInBytes();
+
+  /**
+   * @return Anzahl der Bytes, die {@link #serialize(DataOutput)} schreibt
+   */
+  abstract int serializedSizeInBytes();
+
+  /**
+   * Schreibt den Typ und den Inhalt dieses Containers.
+   *
+   * @param out Ziel (not null)
+   * @throws IOException falls nicht geschrieben werden kann
+   */
+  abstract void serialize(DataOutput out) throws IOException;
+
+  /**
+   * @return eine unabhängige Kopie dieses Containers
+   */
+  abstract Container copy();
+
+  /**
+   * @return Anzahl der zusammenhängenden Bereiche
+   */
+  abstract int numberOfRuns();
+
+  /**
+   * @param other anderer Container (not null)
+   * @return neuer Container mit allen Werten, die in beiden Containern enthalten sind
+   */
+  Container and(Container other) {
+    Container smaller = cardinality() <= other.cardinality() ? this : other;
+    Container larger = smaller == this ? other : this;
+    if (smaller.cardinality() <= MAX_ARRAY_CARDINALITY) {
+      char[] values = new char[smaller.cardinality()];
+      int cardinality = 0;
+      PrimitiveIterator.OfInt iterator = smaller.iterator();
+      while (iterator.hasNext()) {
+        int value = iterator.nextInt();
+        if (larger.contains(value)) {
+          values[cardinality++] = (char) value;
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+    long[] thisWords = words();
+    long[] otherWords = other.words();
+    long[] result = new long[BITMAP_WORDS];
+    for (int i = 0; i < BITMAP_WORDS; i++) {
+      result[i] = thisWords[i] & otherWords[i];
+    }
+    return BitmapContainer.of(result);
+  }
+
+  /**
+   * @param other anderer Container (not null)
+   * @return neuer Container mit allen Werten, die in mindestens einem der Container enthalten sind
+   */
+  Container or(Container other) {
+    if (this instanceof ArrayContainer && other instanceof ArrayContainer
+        && cardinality() + other.cardinality() <= MAX_ARRAY_CARDINALITY) {
+      return ((ArrayContainer) this).merge((ArrayContainer) other);
+    }
+    long[] result = this instanceof BitmapContainer ? words().clone() : words();
+    if (other instanceof ArrayContainer) {
+      PrimitiveIterator.OfInt iterator = other.iterator();
+      while (iterator.hasNext()) {
+        int value = iterator.nextInt();
+        result[value >>> 6] |= 1L << value;
+      }
+    } else {
+      long[] otherWords = other.words();
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        result[i] |= otherWords[i];
+      }
+    }
+    return BitmapContainer.of(result);
+  }
+
+  /**
+   * @param other anderer Container (not null)
+   * @return neuer Container mit allen Werten dieses Containers, die im anderen Container nicht enthalten sind
+   */
+  Container andNot(Container other) {
+    if (cardinality() <= MAX_ARRAY_CARDINALITY) {
+      char[] values = new char[cardinality()];
+      int cardinality = 0;
+      PrimitiveIterator.OfInt iterator = iterator();
+      while (iterator.hasNext()) {
+        int value = iterator.nextInt();
+        if (!other.contains(value)) {
+          values[cardinality++] = (char) value;
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+    long[] result = this instanceof BitmapContainer ? words().clone() : words();
+    if (other instanceof ArrayContainer) {
+      PrimitiveIterator.OfInt iterator = other.iterator();
+      while (iterator.hasNext()) {
+        int value = iterator.nextInt();
+        result[value >>> 6] &= ~(1L << value);
+      }
+    } else {
+      long[] otherWords = other.words();
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        result[i] &= ~otherWords[i];
+      }
+    }
+    return BitmapContainer.of(result);
+  }
+
+  /**
+   * Wählt die Darstellung, die am wenigsten Speicher benötigt. Bereiche werden dabei nur genutzt, wenn sie kleiner als
+   * ein {@link ArrayContainer} bzw. {@link BitmapContainer} sind.
+   *
+   * @return dieser oder ein neuer Container mit denselben Werten
+   */
+  Container runOptimize() {
+    int runBytes = RunContainer.serializedSizeInBytes(numberOfRuns());
+    int plainBytes = cardinality() <= MAX_ARRAY_CARDINALITY
+        ? ArrayContainer.serializedSizeInBytes(cardinality())
+        : BitmapContainer.SERIALIZED_SIZE_IN_BYTES;
+    if (runBytes < plainBytes) {
+      return this instanceof RunContainer ? this : RunContainer.of(this);
+    }
+    return this instanceof RunContainer ? ((RunContainer) this).toArrayOrBitmap() : this;
+  }
+}
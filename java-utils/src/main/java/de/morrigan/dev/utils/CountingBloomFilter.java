@@ -0,0 +1,270 @@
+package de.morrigan.dev.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Ein Bloom Filter, aus dem Elemente auch wieder entfernt werden können. Statt eines Bits nutzt jede Position einen
+ * 4-Bit Zähler, der Filter benötigt also viermal so viel Speicher wie ein {@link BloomFilter}. Ein Zähler, der den
+ * Maximalwert {@value #MAX_COUNT} erreicht hat, wird nicht mehr verändert, damit durch das Entfernen keine falschen
+ * {@code false} Ergebnisse entstehen.
+ * <p>
+ * Es dürfen nur Elemente entfernt werden, die zuvor hinzugefügt wurden. Ansonsten können andere Elemente verloren gehen.
+ * <p>
+ * Die Zähler liegen in einem {@link AtomicLongArray} und werden über Compare-and-Set verändert, daher können beliebig
+ * viele Threads gleichzeitig Elemente hinzufügen, entfernen und prüfen. Das über
+ * {@link #serialize(java.io.DataOutput)} erzeugte Format ist plattformunabhängig:
+ *
+ * <pre>
+ * int   Kennung "CBF1"
+ * byte  Anzahl der Hashfunktionen
+ * int   Anzahl der Zähler
+ * long  Worte mit je 16 Zählern, Zähler i liegt im Wort i / 16 an den Bits 4 * (i % 16) bis 4 * (i % 16) + 3
+ * </pre>
+ *
+ * @author morrigan
+ */
+public class CountingBloomFilter extends AbstractBloomFilter {
+
+  /** Kennung am Anfang des serialisierten Formats ("CBF1") */
+  public static final int SERIAL_MAGIC = 0x43424631;
+
+  /** Maximaler Wert eines Zählers */
+  public static final int MAX_COUNT = 15;
+
+  /**
+   * @param expectedInsertions erwartete Anzahl an Elementen <i>(> 0)</i>
+   * @param fpp gewünschte Fehlerrate bei der erwarteten Anzahl an Elementen <i>((0;1))</i>
+   * @return neuer, leerer Filter mit optimaler Größe
+   * @throws IllegalArgumentException falls die Parameter ungültig sind oder der Filter mehr als 2<sup>31</sup> Zähler
+   *         bräuchte
+   */
+  public static CountingBloomFilter create(long expectedInsertions, double fpp) {
+    int numCounters = optimalNumSlots(expectedInsertions, fpp);
+    return new CountingBloomFilter(numCounters, optimalNumHashFunctions(expectedInsertions, numCounters));
+  }
+
+  /**
+   * Liest einen Filter, der über {@link #serialize(java.io.DataOutput)} geschrieben wurde.
+   *
+   * @param in Quelle (not null)
+   * @return gelesener Filter
+   * @throws IOException falls nicht gelesen werden kann oder das Format ungültig ist
+   */
+  public static CountingBloomFilter deserialize(DataInput in) throws IOException {
+    long header = readHeader(in, SERIAL_MAGIC);
+    CountingBloomFilter result = new CountingBloomFilter((int) header, (int) (header >>> 32));
+    for (int i = 0; i < result.counters.length(); i++) {
+      result.counters.set(i, in.readLong());
+    }
+    return result;
+  }
+
+  /**
+   * @param bytes über {@link #toByteArray()} erzeugte Daten (not null)
+   * @return gelesener Filter
+   * @throws IllegalArgumentException falls das Format ungültig ist
+   */
+  public static CountingBloomFilter fromByteArray(byte[] bytes) {
+    Validate.notNull(bytes, "Folgende Parameter dürfen nicht null sein! bytes: {}", (Object) bytes);
+    try {
+      return deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("The bytes do not contain a valid counting bloom filter", e);
+    }
+  }
+
+  private final AtomicLongArray counters;
+
+  private CountingBloomFilter(int numCounters, int numHashFunctions) {
+    super(numCounters, numHashFunctions);
+
+    this.counters = new AtomicLongArray((int) ((numCounters + 15L) >>> 4));
+  }
+
+  /**
+   * @return Anzahl der Zähler
+   */
+  public int getNumCounters() {
+    return getNumSlots();
+  }
+
+  /**
+   * @param value zuvor hinzugefügtes Element
+   * @return {@code true}, falls das Element vermutlich enthalten war und entfernt wurde
+   */
+  public boolean remove(long value) {
+    return removeHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value zuvor hinzugefügtes Element
+   * @return {@code true}, falls das Element vermutlich enthalten war und entfernt wurde
+   */
+  public boolean remove(int value) {
+    return removeHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value zuvor hinzugefügtes Element (not null)
+   * @return {@code true}, falls das Element vermutlich enthalten war und entfernt wurde
+   */
+  public boolean remove(byte[] value) {
+    return removeHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * @param value zuvor hinzugefügtes Element (not null)
+   * @return {@code true}, falls das Element vermutlich enthalten war und entfernt wurde
+   */
+  public boolean remove(CharSequence value) {
+    return removeHash(Murmur3.hash64(value));
+  }
+
+  /**
+   * Übernimmt alle Elemente des anderen Filters, indem die Zähler addiert werden. Überläufe werden auf
+   * {@value #MAX_COUNT} begrenzt.
+   *
+   * @param other anderer Filter mit derselben Größe und Anzahl an Hashfunktionen (not null)
+   * @throws IllegalArgumentException falls die Filter nicht kompatibel sind
+   */
+  public void merge(CountingBloomFilter other) {
+    checkCompatible(other);
+    for (int i = 0; i < this.counters.length(); i++) {
+      long otherWord = other.counters.get(i);
+      if (otherWord == 0) {
+        continue;
+      }
+      long word;
+      long merged;
+      do {
+        word = this.counters.get(i);
+        merged = addSaturated(word, otherWord);
+      } while (!this.counters.compareAndSet(i, word, merged));
+    }
+  }
+
+  /**
+   * @return ein {@link BloomFilter} mit denselben Elementen, aus dem nicht mehr entfernt werden kann
+   */
+  public BloomFilter toBloomFilter() {
+    LongBitSet bits = new LongBitSet(getNumSlots());
+    for (int counter = 0; counter < getNumSlots(); counter++) {
+      if (getCount(counter) > 0) {
+        bits.setUnchecked(counter);
+      }
+    }
+    return BloomFilter.of(bits, getNumHashFunctions());
+  }
+
+  @Override
+  boolean putHash(long hash) {
+    long secondHash = secondHash(hash);
+    boolean changed = false;
+    for (int i = 0, k = getNumHashFunctions(); i < k; i++) {
+      changed |= increment(slot(hash, secondHash, i)) == 0;
+    }
+    return changed;
+  }
+
+  @Override
+  boolean mightContainHash(long hash) {
+    long secondHash = secondHash(hash);
+    for (int i = 0, k = getNumHashFunctions(); i < k; i++) {
+      if (getCount(slot(hash, secondHash, i)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  int countUsedSlots() {
+    int result = 0;
+    for (int counter = 0; counter < getNumSlots(); counter++) {
+      if (getCount(counter) > 0) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  int serialMagic() {
+    return SERIAL_MAGIC;
+  }
+
+  @Override
+  int numWords() {
+    return this.counters.length();
+  }
+
+  @Override
+  long getWord(int index) {
+    return this.counters.get(index);
+  }
+
+  private boolean removeHash(long hash) {
+    if (!mightContainHash(hash)) {
+      return false;
+    }
+    long secondHash = secondHash(hash);
+    for (int i = 0, k = getNumHashFunctions(); i < k; i++) {
+      decrement(slot(hash, secondHash, i));
+    }
+    return true;
+  }
+
+  private int getCount(int counter) {
+    return (int) (this.counters.get(counter >>> 4) >>> shift(counter)) & MAX_COUNT;
+  }
+
+  /**
+   * @return Wert des Zählers vor der Erhöhung
+   */
+  private int increment(int counter) {
+    int wordIndex = counter >>> 4;
+    int shift = shift(counter);
+    long word;
+    int count;
+    do {
+      word = this.counters.get(wordIndex);
+      count = (int) (word >>> shift) & MAX_COUNT;
+      if (count == MAX_COUNT) {
+        return count;
+      }
+    } while (!this.counters.compareAndSet(wordIndex, word, word + (1L << shift)));
+    return count;
+  }
+
+  private void decrement(int counter) {
+    int wordIndex = counter >>> 4;
+    int shift = shift(counter);
+    long word;
+    do {
+      word = this.counters.get(wordIndex);
+      int count = (int) (word >>> shift) & MAX_COUNT;
+      if (count == 0 || count == MAX_COUNT) {
+        return;
+      }
+    } while (!this.counters.compareAndSet(wordIndex, word, word - (1L << shift)));
+  }
+
+  private static int shift(int counter) {
+    return (counter & 15) << 2;
+  }
+
+  private static long addSaturated(long first, long second) {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 4) {
+      long sum = ((first >>> shift) & MAX_COUNT) + ((second >>> shift) & MAX_COUNT);
+      result |= Math.min(sum, MAX_COUNT) << shift;
+    }
+    return result;
+  }
+}
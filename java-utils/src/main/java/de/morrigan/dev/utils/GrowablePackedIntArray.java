@@ -0,0 +1,155 @@
+package de.morrigan.dev.utils;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Ein wachsendes {@link PackedIntArray}. Werte können am Ende angehängt werden und die Anzahl der Bits je Wert wächst
+ * automatisch mit dem größten abgelegten Wert. Dafür wird das darunter liegende Array bei Bedarf mit größerer Kapazität
+ * bzw. mehr Bits je Wert kopiert.
+ * <p>
+ * Diese Klasse ist nicht threadsicher.
+ *
+ * @author morrigan
+ */
+public class GrowablePackedIntArray {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private PackedIntArray values;
+  private int size;
+
+  /**
+   * Erzeugt ein leeres Array mit 1 Bit je Wert.
+   */
+  public GrowablePackedIntArray() {
+    this(DEFAULT_CAPACITY, 1);
+  }
+
+  /**
+   * Erzeugt ein leeres Array.
+   *
+   * @param initialCapacity Anzahl der Werte, die ohne Kopie angehängt werden können <i>(>= 0)</i>
+   * @param initialBitsPerValue Anzahl der Bits je Wert zu Beginn <i>([1;31])</i>
+   */
+  public GrowablePackedIntArray(int initialCapacity, int initialBitsPerValue) {
+    super();
+
+    this.values = new PackedIntArray(initialCapacity, initialBitsPerValue);
+  }
+
+  /**
+   * @return Anzahl der Werte
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * @return aktuelle Anzahl der Bits je Wert
+   */
+  public int getBitsPerValue() {
+    return this.values.getBitsPerValue();
+  }
+
+  /**
+   * @param value nicht negativer Wert, der am Ende angehängt wird
+   * @throws IllegalArgumentException falls {@code value} negativ ist
+   */
+  public void add(int value) {
+    ensureBits(value);
+    if (this.size == this.values.size()) {
+      long grownCapacity = Math.max(DEFAULT_CAPACITY, (long) this.size + (this.size >> 1));
+      int capacity = (int) Math.min(Integer.MAX_VALUE - 8, grownCapacity);
+      Validate.validState(capacity > this.size, "The array is full: %d", this.size);
+      this.values = this.values.copyOf(capacity, this.values.getBitsPerValue());
+    }
+    this.values.set(this.size++, value);
+  }
+
+  /**
+   * @param index Position <i>([0;size()))</i>
+   * @return Wert an der Position
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public int get(int index) {
+    checkIndex(index);
+    return this.values.get(index);
+  }
+
+  /**
+   * Liest mehrere aufeinander folgende Werte in einen Puffer.
+   *
+   * @param index erste Position <i>([0;size()])</i>
+   * @param buffer Puffer (not null)
+   * @param offset erste Position im Puffer
+   * @param length maximale Anzahl an Werten
+   * @return Anzahl der gelesenen Werte, kleiner als {@code length}, falls das Ende des Arrays erreicht wurde
+   * @throws IllegalArgumentException falls die Parameter ungültig sind
+   */
+  public int get(int index, int[] buffer, int offset, int length) {
+    Validate.isTrue(index >= 0 && index <= this.size, "Die Position ist ungültig! index: %d, size: %d", index,
+        this.size);
+    return this.values.get(index, buffer, offset, Math.max(0, Math.min(length, this.size - index)));
+  }
+
+  /**
+   * @param index Position <i>([0;size()))</i>
+   * @param value nicht negativer Wert
+   * @throws IllegalArgumentException falls {@code index} ungültig oder {@code value} negativ ist
+   */
+  public void set(int index, int value) {
+    checkIndex(index);
+    ensureBits(value);
+    this.values.set(index, value);
+  }
+
+  /**
+   * Entfernt alle Werte. Kapazität und Anzahl der Bits je Wert bleiben erhalten.
+   */
+  public void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * @return geschätzter Speicherbedarf auf dem Heap in Bytes
+   */
+  public long getSizeInBytes() {
+    return 16 + 8 + this.values.getSizeInBytes();
+  }
+
+  /**
+   * @return Kopie aller Werte als {@link PackedIntArray} ohne freie Kapazität und mit der kleinsten möglichen Anzahl an
+   *         Bits je Wert
+   */
+  public PackedIntArray toPackedIntArray() {
+    int maxValue = 0;
+    int[] buffer = new int[Math.min(this.size, 1024)];
+    for (int index = 0; index < this.size;) {
+      int read = get(index, buffer, 0, buffer.length);
+      for (int i = 0; i < read; i++) {
+        maxValue = Math.max(maxValue, buffer[i]);
+      }
+      index += read;
+    }
+    return this.values.copyOf(this.size, PackedIntArray.bitsRequired(maxValue));
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[size=" + this.size + ", bitsPerValue=" + getBitsPerValue() + "]";
+  }
+
+  private void ensureBits(int value) {
+    if (value > this.values.getMaxValue()) {
+      this.values = this.values.copyOf(this.values.size(), PackedIntArray.bitsRequired(value));
+    } else if (value < 0) {
+      throw new IllegalArgumentException("The value " + value + " must not be negative");
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.size + ")");
+    }
+  }
+}
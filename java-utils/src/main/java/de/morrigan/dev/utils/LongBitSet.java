@@ -0,0 +1,454 @@
+package de.morrigan.dev.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Eine Menge von Bits fester Größe, die in einem {@code long[]} abgelegt wird. Im Gegensatz zu {@link java.util.BitSet}
+ * wächst die Menge nicht automatisch, dafür kann direkt auf die Worte zugegriffen werden und es gibt für die häufigsten
+ * Operationen Varianten ohne Prüfung der Parameter.
+ * <p>
+ * Die Methoden mit dem Suffix {@code Unchecked} prüfen die übergebene Position nicht. Der Aufrufer muss sicherstellen,
+ * dass die Position innerhalb von {@code [0;length())} liegt, ansonsten ist das Verhalten undefiniert (z.B. eine
+ * {@link ArrayIndexOutOfBoundsException} oder Bits jenseits von {@link #length()}).
+ * <p>
+ * Diese Klasse ist nicht threadsicher.
+ *
+ * @author morrigan
+ */
+public class LongBitSet {
+
+  private final long[] words;
+  private final int numWords;
+  private final int numBits;
+
+  /**
+   * Erzeugt eine leere Menge mit der angegebenen Anzahl Bits.
+   *
+   * @param numBits Anzahl Bits <i>([0;Integer.MAX_VALUE])</i>
+   */
+  public LongBitSet(int numBits) {
+    super();
+
+    Validate.isTrue(numBits >= 0, "Die Anzahl der Bits darf nicht negativ sein! numBits: %d", numBits);
+    this.numWords = BitUtil.wordCount(numBits);
+    this.words = new long[this.numWords];
+    this.numBits = numBits;
+  }
+
+  /**
+   * Erzeugt eine Menge, die direkt auf den angegebenen Worten arbeitet. Änderungen an der Menge sind im Array sichtbar
+   * und umgekehrt.
+   *
+   * @param words Worte, in denen die Bits abgelegt sind (not null). Bits jenseits von {@code numBits} müssen 0 sein.
+   * @param numBits Anzahl Bits <i>([0;words.length * 64])</i>
+   */
+  public LongBitSet(long[] words, int numBits) {
+    super();
+
+    Validate.notNull(words, "Folgende Parameter dürfen nicht null sein! words: {}", (Object) words);
+    Validate.isTrue(numBits >= 0 && BitUtil.wordCount(numBits) <= words.length,
+        "Die Anzahl der Bits passt nicht zu den Worten! numBits: %d, words: %d", numBits, words.length);
+    this.words = words;
+    this.numWords = BitUtil.wordCount(numBits);
+    this.numBits = numBits;
+  }
+
+  /**
+   * @return Anzahl der Bits dieser Menge
+   */
+  public int length() {
+    return this.numBits;
+  }
+
+  /**
+   * @return die Worte, in denen die Bits abgelegt sind. Es wird keine Kopie geliefert.
+   */
+  public long[] getWords() {
+    return this.words;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit gesetzt ist
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean get(int index) {
+    checkIndex(index);
+    return getUnchecked(index);
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>, wird nicht geprüft
+   * @return {@code true}, falls das Bit gesetzt ist
+   */
+  public boolean getUnchecked(int index) {
+    return (this.words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void set(int index) {
+    checkIndex(index);
+    setUnchecked(index);
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>, wird nicht geprüft
+   */
+  public void setUnchecked(int index) {
+    this.words[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * Setzt das Bit und liefert dessen vorherigen Zustand.
+   *
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit bereits gesetzt war
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean getAndSet(int index) {
+    checkIndex(index);
+    int wordIndex = index >>> 6;
+    long mask = 1L << index;
+    boolean result = (this.words[wordIndex] & mask) != 0;
+    this.words[wordIndex] |= mask;
+    return result;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void clear(int index) {
+    checkIndex(index);
+    clearUnchecked(index);
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>, wird nicht geprüft
+   */
+  public void clearUnchecked(int index) {
+    this.words[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void flip(int index) {
+    checkIndex(index);
+    this.words[index >>> 6] ^= 1L << index;
+  }
+
+  /**
+   * Setzt alle Bits im Bereich {@code [fromIndex;toIndex)}.
+   *
+   * @param fromIndex erste Position (inklusive)
+   * @param toIndex letzte Position (exklusive)
+   * @throws IllegalArgumentException falls der Bereich ungültig ist
+   */
+  public void set(int fromIndex, int toIndex) {
+    checkRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    int startWord = fromIndex >>> 6;
+    int endWord = (toIndex - 1) >>> 6;
+    long startMask = -1L << fromIndex;
+    long endMask = -1L >>> -toIndex;
+    if (startWord == endWord) {
+      this.words[startWord] |= startMask & endMask;
+    } else {
+      this.words[startWord] |= startMask;
+      Arrays.fill(this.words, startWord + 1, endWord, -1L);
+      this.words[endWord] |= endMask;
+    }
+  }
+
+  /**
+   * Löscht alle Bits im Bereich {@code [fromIndex;toIndex)}.
+   *
+   * @param fromIndex erste Position (inklusive)
+   * @param toIndex letzte Position (exklusive)
+   * @throws IllegalArgumentException falls der Bereich ungültig ist
+   */
+  public void clear(int fromIndex, int toIndex) {
+    checkRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    int startWord = fromIndex >>> 6;
+    int endWord = (toIndex - 1) >>> 6;
+    long startMask = -1L << fromIndex;
+    long endMask = -1L >>> -toIndex;
+    if (startWord == endWord) {
+      this.words[startWord] &= ~(startMask & endMask);
+    } else {
+      this.words[startWord] &= ~startMask;
+      Arrays.fill(this.words, startWord + 1, endWord, 0L);
+      this.words[endWord] &= ~endMask;
+    }
+  }
+
+  /**
+   * Löscht alle Bits.
+   */
+  public void clear() {
+    Arrays.fill(this.words, 0, this.numWords, 0L);
+  }
+
+  /**
+   * @return Anzahl der gesetzten Bits
+   */
+  public int cardinality() {
+    int result = 0;
+    for (int i = 0; i < this.numWords; i++) {
+      result += Long.bitCount(this.words[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @return {@code true}, falls kein Bit gesetzt ist
+   */
+  public boolean isEmpty() {
+    for (int i = 0; i < this.numWords; i++) {
+      if (this.words[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sucht ab der angegebenen Position das nächste gesetzte Bit.
+   *
+   * @param fromIndex Position, ab der gesucht wird (inklusive). Positionen ab {@link #length()} sind erlaubt.
+   * @return Position des nächsten gesetzten Bits oder -1, falls es keines gibt
+   * @throws IllegalArgumentException falls {@code fromIndex} negativ ist
+   */
+  public int nextSetBit(int fromIndex) {
+    Validate.isTrue(fromIndex >= 0, "Die Position darf nicht negativ sein! fromIndex: %d", fromIndex);
+    if (fromIndex >= this.numBits) {
+      return -1;
+    }
+    int wordIndex = fromIndex >>> 6;
+    long word = this.words[wordIndex] >>> fromIndex;
+    if (word != 0) {
+      return fromIndex + Long.numberOfTrailingZeros(word);
+    }
+    while (++wordIndex < this.numWords) {
+      word = this.words[wordIndex];
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Sucht ab der angegebenen Position rückwärts das nächste gesetzte Bit.
+   *
+   * @param fromIndex Position, ab der gesucht wird (inklusive). Positionen ab {@link #length()} sind erlaubt, -1 liefert
+   *        immer -1.
+   * @return Position des vorherigen gesetzten Bits oder -1, falls es keines gibt
+   * @throws IllegalArgumentException falls {@code fromIndex} kleiner als -1 ist
+   */
+  public int prevSetBit(int fromIndex) {
+    Validate.isTrue(fromIndex >= -1, "Die Position darf nicht kleiner als -1 sein! fromIndex: %d", fromIndex);
+    if (fromIndex < 0 || this.numBits == 0) {
+      return -1;
+    }
+    int index = Math.min(fromIndex, this.numBits - 1);
+    int wordIndex = index >>> 6;
+    long word = this.words[wordIndex] << (63 - (index & 63));
+    if (word != 0) {
+      return index - Long.numberOfLeadingZeros(word);
+    }
+    while (--wordIndex >= 0) {
+      word = this.words[wordIndex];
+      if (word != 0) {
+        return (wordIndex << 6) + 63 - Long.numberOfLeadingZeros(word);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Behält nur die Bits, die auch in der anderen Menge gesetzt sind. Bits jenseits der Länge der anderen Menge werden
+   * gelöscht.
+   *
+   * @param other andere Menge (not null)
+   */
+  public void and(LongBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    int commonWords = Math.min(this.numWords, other.numWords);
+    for (int i = 0; i < commonWords; i++) {
+      this.words[i] &= other.words[i];
+    }
+    Arrays.fill(this.words, commonWords, this.numWords, 0L);
+  }
+
+  /**
+   * Setzt zusätzlich alle Bits, die in der anderen Menge gesetzt sind.
+   *
+   * @param other andere Menge, die nicht länger als diese Menge sein darf (not null)
+   */
+  public void or(LongBitSet other) {
+    checkNotLonger(other);
+    for (int i = 0; i < other.numWords; i++) {
+      this.words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * Kehrt alle Bits um, die in der anderen Menge gesetzt sind.
+   *
+   * @param other andere Menge, die nicht länger als diese Menge sein darf (not null)
+   */
+  public void xor(LongBitSet other) {
+    checkNotLonger(other);
+    for (int i = 0; i < other.numWords; i++) {
+      this.words[i] ^= other.words[i];
+    }
+  }
+
+  /**
+   * Löscht alle Bits, die in der anderen Menge gesetzt sind.
+   *
+   * @param other andere Menge (not null)
+   */
+  public void andNot(LongBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    int commonWords = Math.min(this.numWords, other.numWords);
+    for (int i = 0; i < commonWords; i++) {
+      this.words[i] &= ~other.words[i];
+    }
+  }
+
+  /**
+   * @param other andere Menge (not null)
+   * @return {@code true}, falls beide Mengen mindestens ein gemeinsames gesetztes Bit besitzen
+   */
+  public boolean intersects(LongBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    int commonWords = Math.min(this.numWords, other.numWords);
+    for (int i = 0; i < commonWords; i++) {
+      if ((this.words[i] & other.words[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Liefert einen Iterator über die Positionen aller gesetzten Bits in aufsteigender Reihenfolge. Über
+   * {@link PrimitiveIterator.OfInt#nextInt()} werden die Positionen ohne Boxing geliefert. Wird die Menge während der
+   * Iteration verändert, ist das Ergebnis undefiniert.
+   *
+   * @return Iterator über die Positionen aller gesetzten Bits
+   */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int wordIndex = -1;
+      private long word;
+
+      @Override
+      public boolean hasNext() {
+        while (this.word == 0) {
+          if (++this.wordIndex >= LongBitSet.this.numWords) {
+            this.wordIndex = LongBitSet.this.numWords;
+            return false;
+          }
+          this.word = LongBitSet.this.words[this.wordIndex];
+        }
+        return true;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int result = (this.wordIndex << 6) + Long.numberOfTrailingZeros(this.word);
+        this.word &= this.word - 1;
+        return result;
+      }
+    };
+  }
+
+  /**
+   * @return eine unabhängige Kopie dieser Menge
+   */
+  public LongBitSet copy() {
+    return new LongBitSet(Arrays.copyOf(this.words, this.numWords), this.numBits);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof LongBitSet)) {
+      return false;
+    }
+    LongBitSet other = (LongBitSet) obj;
+    if (this.numBits != other.numBits) {
+      return false;
+    }
+    for (int i = 0; i < this.numWords; i++) {
+      if (this.words[i] != other.words[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.numBits;
+    for (int i = 0; i < this.numWords; i++) {
+      result = 31 * result + Long.hashCode(this.words[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    PrimitiveIterator.OfInt iterator = iterator();
+    while (iterator.hasNext()) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(iterator.nextInt());
+    }
+    return builder.append('}').toString();
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.numBits) {
+      throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.numBits + ")");
+    }
+  }
+
+  private void checkRange(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || fromIndex > toIndex || toIndex > this.numBits) {
+      throw new IllegalArgumentException(
+          "The range [" + fromIndex + ";" + toIndex + ") is not in the range [0;" + this.numBits + ")");
+    }
+  }
+
+  private void checkNotLonger(LongBitSet other) {
+    Validate.notNull(other, "Folgende Parameter dürfen nicht null sein! other: {}", other);
+    Validate.isTrue(other.numBits <= this.numBits, "Die andere Menge ist länger als diese Menge! numBits: %d, other: %d",
+        this.numBits, other.numBits);
+  }
+}
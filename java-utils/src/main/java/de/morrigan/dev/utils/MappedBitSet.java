@@ -0,0 +1,379 @@
+package de.morrigan.dev.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Eine Menge von Bits fester Größe, die direkt in einer Datei abgelegt wird. Die Datei wird über
+ * {@link MappedByteBuffer}s in den Speicher eingeblendet, so dass die Bits außerhalb des Heaps liegen und beim Öffnen
+ * nichts kopiert werden muss. Lese- und Schreibzugriffe gehen direkt auf die eingeblendete Datei. Dateien mit mehr als
+ * 2 GB werden in mehrere Segmente zu je 1 GB aufgeteilt.
+ * <p>
+ * Das Dateiformat ist plattformunabhängig:
+ *
+ * <pre>
+ * int   Kennung "MBS1" (Big-Endian)
+ * int   reserviert (0)
+ * long  Anzahl der Bits (Big-Endian)
+ * long  Worte mit je 64 Bits (Little-Endian, Bit i liegt im Wort i / 64 an der Position i % 64)
+ * </pre>
+ *
+ * Änderungen werden vom Betriebssystem irgendwann in die Datei geschrieben. Erst nach {@link #flush()} bzw.
+ * {@link #close()} ist sichergestellt, dass sie auch einen Absturz des Systems überstehen. Dieselbe Datei kann von
+ * beliebig vielen Prozessen gleichzeitig über {@link #openReadOnly(Path)} gelesen werden, die Änderungen eines
+ * schreibenden Prozesses sind dort direkt sichtbar.
+ * <p>
+ * Diese Klasse ist nicht threadsicher. Mehrere Schreiber, auch in verschiedenen Prozessen, müssen sich außerhalb
+ * abstimmen, da Änderungen an einem Wort nicht atomar sind.
+ *
+ * @author morrigan
+ */
+public class MappedBitSet implements Closeable {
+
+  /** Kennung am Anfang der Datei ("MBS1") */
+  public static final int FILE_MAGIC = 0x4D425331;
+
+  /** Größe des Dateikopfs in Bytes, danach folgen die Worte */
+  public static final int HEADER_BYTES = 16;
+
+  /** Anzahl der Worte je Segment als Zweierpotenz (2<sup>27</sup> Worte = 1 GB) */
+  private static final int SEGMENT_SHIFT = 27;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+  /**
+   * Öffnet die Datei zum Lesen und Schreiben. Existiert die Datei nicht oder ist sie leer, wird sie mit der angegebenen
+   * Anzahl gelöschter Bits angelegt.
+   *
+   * @param file Datei (not null)
+   * @param numBits Anzahl Bits <i>([0;Long.MAX_VALUE - 63])</i>. Muss bei einer vorhandenen Datei zu deren Inhalt passen.
+   * @return Menge, die auf der Datei arbeitet
+   * @throws IOException falls die Datei nicht geöffnet werden kann, ungültig ist oder eine andere Anzahl Bits enthält
+   */
+  public static MappedBitSet open(Path file, long numBits) throws IOException {
+    Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+    Validate.isTrue(numBits >= 0 && numBits <= Long.MAX_VALUE - 63,
+        "Die Anzahl der Bits ist ungültig! numBits: %d", numBits);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      if (channel.size() == 0) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(FILE_MAGIC).putInt(0).putLong(numBits).flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+      } else {
+        long existingBits = readHeader(file, channel);
+        if (existingBits != numBits) {
+          throw new IOException("The file " + file + " contains " + existingBits + " bits instead of " + numBits);
+        }
+      }
+      // Beim Einblenden im Modus READ_WRITE wird die Datei bei Bedarf mit 0 Bytes verlängert
+      return new MappedBitSet(map(channel, MapMode.READ_WRITE, numBits), numBits, false);
+    }
+  }
+
+  /**
+   * Öffnet eine über {@link #open(Path, long)} angelegte Datei nur zum Lesen.
+   *
+   * @param file Datei (not null)
+   * @return Menge, die auf der Datei arbeitet. Schreibende Methoden werfen eine
+   *         {@link java.nio.ReadOnlyBufferException}.
+   * @throws IOException falls die Datei nicht geöffnet werden kann oder ungültig ist
+   */
+  public static MappedBitSet openReadOnly(Path file) throws IOException {
+    Validate.notNull(file, "Folgende Parameter dürfen nicht null sein! file: {}", file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long numBits = readHeader(file, channel);
+      if (channel.size() < HEADER_BYTES + 8 * wordCount(numBits)) {
+        throw new IOException("The file " + file + " is too short for " + numBits + " bits");
+      }
+      return new MappedBitSet(map(channel, MapMode.READ_ONLY, numBits), numBits, true);
+    }
+  }
+
+  private static long readHeader(Path file, FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        throw new IOException("The file " + file + " is not a valid bitset file: header too short");
+      }
+    }
+    header.flip();
+    int magic = header.getInt();
+    header.getInt();
+    long numBits = header.getLong();
+    if (magic != FILE_MAGIC || numBits < 0 || numBits > Long.MAX_VALUE - 63) {
+      throw new IOException("The file " + file + " is not a valid bitset file");
+    }
+    return numBits;
+  }
+
+  private static MappedByteBuffer[] map(FileChannel channel, MapMode mode, long numBits) throws IOException {
+    long numWords = wordCount(numBits);
+    int numSegments = (int) ((numWords + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    MappedByteBuffer[] segments = new MappedByteBuffer[numSegments];
+    for (int i = 0; i < numSegments; i++) {
+      long firstWord = (long) i << SEGMENT_SHIFT;
+      long segmentWords = Math.min(numWords - firstWord, 1L << SEGMENT_SHIFT);
+      segments[i] = channel.map(mode, HEADER_BYTES + 8 * firstWord, 8 * segmentWords);
+      segments[i].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return segments;
+  }
+
+  private static long wordCount(long numBits) {
+    return (numBits + 63) >>> 6;
+  }
+
+  private MappedByteBuffer[] segments;
+  private final long numBits;
+  private final long numWords;
+  private final boolean readOnly;
+
+  private MappedBitSet(MappedByteBuffer[] segments, long numBits, boolean readOnly) {
+    super();
+
+    this.segments = segments;
+    this.numBits = numBits;
+    this.numWords = wordCount(numBits);
+    this.readOnly = readOnly;
+  }
+
+  /**
+   * @return Anzahl der Bits dieser Menge
+   */
+  public long length() {
+    return this.numBits;
+  }
+
+  /**
+   * @return {@code true}, falls die Datei nur zum Lesen geöffnet wurde
+   */
+  public boolean isReadOnly() {
+    return this.readOnly;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit gesetzt ist
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean get(long index) {
+    checkIndex(index);
+    return (getWord(index >>> 6) & (1L << index)) != 0;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void set(long index) {
+    checkIndex(index);
+    long wordIndex = index >>> 6;
+    setWord(wordIndex, getWord(wordIndex) | (1L << index));
+  }
+
+  /**
+   * Setzt das Bit und liefert dessen vorherigen Zustand.
+   *
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @return {@code true}, falls das Bit bereits gesetzt war
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public boolean getAndSet(long index) {
+    checkIndex(index);
+    long wordIndex = index >>> 6;
+    long mask = 1L << index;
+    long word = getWord(wordIndex);
+    if ((word & mask) != 0) {
+      return true;
+    }
+    setWord(wordIndex, word | mask);
+    return false;
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void clear(long index) {
+    checkIndex(index);
+    long wordIndex = index >>> 6;
+    setWord(wordIndex, getWord(wordIndex) & ~(1L << index));
+  }
+
+  /**
+   * @param index Position eines Bits <i>([0;length()))</i>
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public void flip(long index) {
+    checkIndex(index);
+    long wordIndex = index >>> 6;
+    setWord(wordIndex, getWord(wordIndex) ^ (1L << index));
+  }
+
+  /**
+   * Setzt alle Bits im Bereich {@code [fromIndex;toIndex)}.
+   *
+   * @param fromIndex erste Position (inklusive)
+   * @param toIndex letzte Position (exklusive)
+   * @throws IllegalArgumentException falls der Bereich ungültig ist
+   */
+  public void set(long fromIndex, long toIndex) {
+    checkRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    long startWord = fromIndex >>> 6;
+    long endWord = (toIndex - 1) >>> 6;
+    long startMask = -1L << fromIndex;
+    long endMask = -1L >>> -toIndex;
+    if (startWord == endWord) {
+      setWord(startWord, getWord(startWord) | (startMask & endMask));
+    } else {
+      setWord(startWord, getWord(startWord) | startMask);
+      for (long i = startWord + 1; i < endWord; i++) {
+        setWord(i, -1L);
+      }
+      setWord(endWord, getWord(endWord) | endMask);
+    }
+  }
+
+  /**
+   * Löscht alle Bits im Bereich {@code [fromIndex;toIndex)}.
+   *
+   * @param fromIndex erste Position (inklusive)
+   * @param toIndex letzte Position (exklusive)
+   * @throws IllegalArgumentException falls der Bereich ungültig ist
+   */
+  public void clear(long fromIndex, long toIndex) {
+    checkRange(fromIndex, toIndex);
+    if (fromIndex == toIndex) {
+      return;
+    }
+    long startWord = fromIndex >>> 6;
+    long endWord = (toIndex - 1) >>> 6;
+    long startMask = -1L << fromIndex;
+    long endMask = -1L >>> -toIndex;
+    if (startWord == endWord) {
+      setWord(startWord, getWord(startWord) & ~(startMask & endMask));
+    } else {
+      setWord(startWord, getWord(startWord) & ~startMask);
+      for (long i = startWord + 1; i < endWord; i++) {
+        setWord(i, 0L);
+      }
+      setWord(endWord, getWord(endWord) & ~endMask);
+    }
+  }
+
+  /**
+   * Löscht alle Bits.
+   */
+  public void clear() {
+    clear(0, this.numBits);
+  }
+
+  /**
+   * @return Anzahl der gesetzten Bits
+   */
+  public long cardinality() {
+    long result = 0;
+    for (long i = 0; i < this.numWords; i++) {
+      result += Long.bitCount(getWord(i));
+    }
+    return result;
+  }
+
+  /**
+   * Sucht ab der angegebenen Position das nächste gesetzte Bit.
+   *
+   * @param fromIndex Position, ab der gesucht wird (inklusive). Positionen ab {@link #length()} sind erlaubt.
+   * @return Position des nächsten gesetzten Bits oder -1, falls es keines gibt
+   * @throws IllegalArgumentException falls {@code fromIndex} negativ ist
+   */
+  public long nextSetBit(long fromIndex) {
+    Validate.isTrue(fromIndex >= 0, "Die Position darf nicht negativ sein! fromIndex: %d", fromIndex);
+    if (fromIndex >= this.numBits) {
+      return -1;
+    }
+    long wordIndex = fromIndex >>> 6;
+    long word = getWord(wordIndex) >>> fromIndex;
+    if (word != 0) {
+      return fromIndex + Long.numberOfTrailingZeros(word);
+    }
+    while (++wordIndex < this.numWords) {
+      word = getWord(wordIndex);
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Schreibt alle Änderungen in die Datei. Bei einer nur zum Lesen geöffneten Datei passiert nichts.
+   */
+  public void flush() {
+    checkOpen();
+    if (!this.readOnly) {
+      for (MappedByteBuffer segment : this.segments) {
+        segment.force();
+      }
+    }
+  }
+
+  /**
+   * Schreibt alle Änderungen in die Datei und gibt die Segmente frei. Die Datei wird vom Betriebssystem ausgeblendet,
+   * sobald die Segmente vom Garbage Collector entfernt werden. Danach werfen alle Methoden eine
+   * {@link IllegalStateException}.
+   */
+  @Override
+  public void close() {
+    if (this.segments != null) {
+      flush();
+      this.segments = null;
+    }
+  }
+
+  private long getWord(long wordIndex) {
+    return segments()[(int) (wordIndex >>> SEGMENT_SHIFT)].getLong((int) (wordIndex & SEGMENT_MASK) << 3);
+  }
+
+  private void setWord(long wordIndex, long word) {
+    segments()[(int) (wordIndex >>> SEGMENT_SHIFT)].putLong((int) (wordIndex & SEGMENT_MASK) << 3, word);
+  }
+
+  private MappedByteBuffer[] segments() {
+    MappedByteBuffer[] result = this.segments;
+    if (result == null) {
+      throw new IllegalStateException("The bitset has already been closed");
+    }
+    return result;
+  }
+
+  private void checkOpen() {
+    segments();
+  }
+
+  private void checkIndex(long index) {
+    if (index < 0 || index >= this.numBits) {
+      throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.numBits + ")");
+    }
+  }
+
+  private void checkRange(long fromIndex, long toIndex) {
+    if (fromIndex < 0 || fromIndex > toIndex || toIndex > this.numBits) {
+      throw new IllegalArgumentException(
+          "The range [" + fromIndex + ";" + toIndex + ") is not in the range [0;" + this.numBits + ")");
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package de.morrigan.dev.utils;
+
+import java.util.Objects;
+
+/**
+ * 64-Bit Hashwerte nach MurmurHash3 (Variante x64_128, Seed 0). Geliefert werden die ersten 64 Bit des 128-Bit
+ * Hashwerts. Die Werte entsprechen dem Referenz-Algorithmus, wenn die Schlüssel als Bytes in Little-Endian Reihenfolge
+ * betrachtet werden ({@code long}/{@code int} mit 8/4 Bytes, Zeichen mit je 2 Bytes UTF-16).
+ * <p>
+ * Alle Methoden arbeiten ohne Allokationen und eignen sich daher für heiße Pfade wie {@link BloomFilter}. Aus diesem
+ * Grund werden die Parameter auch nicht über {@code Validate} geprüft, das bei jedem Aufruf ein Array anlegt.
+ *
+ * @author morrigan
+ */
+public final class Murmur3 {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  /**
+   * @param value Schlüssel
+   * @return Hashwert der 8 Bytes des Schlüssels
+   */
+  public static long hash64(long value) {
+    long h1 = mixK1(value);
+    long h2 = 0;
+    return finish(h1, h2, 8);
+  }
+
+  /**
+   * @param value Schlüssel
+   * @return Hashwert der 4 Bytes des Schlüssels
+   */
+  public static long hash64(int value) {
+    long h1 = mixK1(value & 0xFFFF_FFFFL);
+    long h2 = 0;
+    return finish(h1, h2, 4);
+  }
+
+  /**
+   * @param bytes Schlüssel (not null)
+   * @return Hashwert aller Bytes
+   */
+  public static long hash64(byte[] bytes) {
+    return hash64(Objects.requireNonNull(bytes, "bytes"), 0, bytes.length);
+  }
+
+  /**
+   * @param bytes Schlüssel (not null)
+   * @param offset erstes Byte
+   * @param length Anzahl der Bytes
+   * @return Hashwert der Bytes im Bereich {@code [offset;offset + length)}
+   */
+  public static long hash64(byte[] bytes, int offset, int length) {
+    Objects.requireNonNull(bytes, "bytes");
+    if (offset < 0 || length < 0 || offset + length > bytes.length || offset + length < 0) {
+      throw new IllegalArgumentException("The range [" + offset + ";" + (offset + length) + ") is not in the range [0;"
+          + bytes.length + ")");
+    }
+    long h1 = 0;
+    long h2 = 0;
+    int end = offset + length;
+    int index = offset;
+    for (; index + 16 <= end; index += 16) {
+      long k1 = getLong(bytes, index);
+      long k2 = getLong(bytes, index + 8);
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    int remaining = end - index;
+    if (remaining > 0) {
+      long k1 = 0;
+      long k2 = 0;
+      for (int i = remaining - 1; i >= 8; i--) {
+        k2 = (k2 << 8) | (bytes[index + i] & 0xFF);
+      }
+      for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+        k1 = (k1 << 8) | (bytes[index + i] & 0xFF);
+      }
+      if (remaining > 8) {
+        h2 ^= mixK2(k2);
+      }
+      h1 ^= mixK1(k1);
+    }
+    return finish(h1, h2, length);
+  }
+
+  /**
+   * @param chars Schlüssel (not null)
+   * @return Hashwert aller Zeichen mit je 2 Bytes, ohne die Zeichen zuvor zu kodieren
+   */
+  public static long hash64(CharSequence chars) {
+    Objects.requireNonNull(chars, "chars");
+    long h1 = 0;
+    long h2 = 0;
+    int length = chars.length();
+    int index = 0;
+    for (; index + 8 <= length; index += 8) {
+      long k1 = getLong(chars, index);
+      long k2 = getLong(chars, index + 4);
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27) + h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31) + h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    int remaining = length - index;
+    if (remaining > 0) {
+      long k1 = 0;
+      long k2 = 0;
+      for (int i = remaining - 1; i >= 4; i--) {
+        k2 = (k2 << 16) | chars.charAt(index + i);
+      }
+      for (int i = Math.min(remaining, 4) - 1; i >= 0; i--) {
+        k1 = (k1 << 16) | chars.charAt(index + i);
+      }
+      if (remaining > 4) {
+        h2 ^= mixK2(k2);
+      }
+      h1 ^= mixK1(k1);
+    }
+    return finish(h1, h2, 2L * length);
+  }
+
+  /**
+   * Durchmischt alle Bits eines Wertes (Finalisierung von MurmurHash3). Die Abbildung ist umkehrbar, es entstehen also
+   * keine Kollisionen.
+   *
+   * @param value beliebiger Wert
+   * @return durchmischter Wert
+   */
+  public static long fmix64(long value) {
+    long k = value;
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long finish(long h1, long h2, long length) {
+    long a = h1 ^ length;
+    long b = h2 ^ length;
+    a += b;
+    b += a;
+    a = fmix64(a);
+    b = fmix64(b);
+    return a + b;
+  }
+
+  private static long getLong(byte[] bytes, int index) {
+    return (bytes[index] & 0xFFL)
+        | (bytes[index + 1] & 0xFFL) << 8
+        | (bytes[index + 2] & 0xFFL) << 16
+        | (bytes[index + 3] & 0xFFL) << 24
+        | (bytes[index + 4] & 0xFFL) << 32
+        | (bytes[index + 5] & 0xFFL) << 40
+        | (bytes[index + 6] & 0xFFL) << 48
+        | (bytes[index + 7] & 0xFFL) << 56;
+  }
+
+  private static long getLong(CharSequence chars, int index) {
+    return chars.charAt(index)
+        | (long) chars.charAt(index + 1) << 16
+        | (long) chars.charAt(index + 2) << 32
+        | (long) chars.charAt(index + 3) << 48;
+  }
+
+  private Murmur3() {
+    super();
+  }
+}
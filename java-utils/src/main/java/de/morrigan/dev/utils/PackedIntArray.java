@@ -0,0 +1,233 @@
+package de.morrigan.dev.utils;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Ein Array fester Größe für nicht negative {@code int} Werte, die mit einer festen Anzahl an Bits dicht
+ * hintereinander in einem {@code long[]} abgelegt werden. Werte mit z.B. 3 bis 20 Bit benötigen damit nur einen
+ * Bruchteil des Speichers eines {@code int[]}. Ein Wert kann über die Grenze zweier Worte hinweg liegen.
+ * <p>
+ * Mit {@link #bitsRequired(int)} kann die nötige Anzahl an Bits für den größten Wert bestimmt werden. Für das
+ * sequentielle Lesen vieler Werte ist {@link #get(int, int[], int, int)} deutlich schneller als einzelne Aufrufe von
+ * {@link #get(int)}.
+ * <p>
+ * Diese Klasse ist nicht threadsicher.
+ *
+ * @author morrigan
+ * @see GrowablePackedIntArray
+ */
+public class PackedIntArray {
+
+  /** Maximale Anzahl an Bits je Wert */
+  public static final int MAX_BITS_PER_VALUE = 31;
+
+  /**
+   * @param maxValue größter Wert, der abgelegt werden soll <i>(>= 0)</i>
+   * @return Anzahl an Bits, die für den Wert nötig sind, mindestens 1
+   */
+  public static int bitsRequired(int maxValue) {
+    Validate.isTrue(maxValue >= 0, "Der Wert darf nicht negativ sein! maxValue: %d", maxValue);
+    return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+  }
+
+  private final long[] blocks;
+  private final int size;
+  private final int bitsPerValue;
+  private final long mask;
+
+  /**
+   * Erzeugt ein Array, in dem alle Werte 0 sind.
+   *
+   * @param size Anzahl der Werte <i>(>= 0)</i>
+   * @param bitsPerValue Anzahl der Bits je Wert <i>([1;31])</i>
+   */
+  public PackedIntArray(int size, int bitsPerValue) {
+    super();
+
+    Validate.isTrue(size >= 0, "Die Größe darf nicht negativ sein! size: %d", size);
+    Validate.isTrue(bitsPerValue > 0 && bitsPerValue <= MAX_BITS_PER_VALUE,
+        "Die Anzahl der Bits je Wert ist ungültig! bitsPerValue: %d", bitsPerValue);
+    this.blocks = new long[(int) (((long) size * bitsPerValue + 63) >>> 6)];
+    this.size = size;
+    this.bitsPerValue = bitsPerValue;
+    this.mask = (1L << bitsPerValue) - 1;
+  }
+
+  /**
+   * @return Anzahl der Werte
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * @return Anzahl der Bits je Wert
+   */
+  public int getBitsPerValue() {
+    return this.bitsPerValue;
+  }
+
+  /**
+   * @return größter Wert, der abgelegt werden kann
+   */
+  public int getMaxValue() {
+    return (int) this.mask;
+  }
+
+  /**
+   * @param index Position <i>([0;size()))</i>
+   * @return Wert an der Position
+   * @throws IllegalArgumentException falls {@code index} ungültig ist
+   */
+  public int get(int index) {
+    checkIndex(index);
+    long bitIndex = (long) index * this.bitsPerValue;
+    int block = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+    long value = this.blocks[block] >>> shift;
+    if (shift + this.bitsPerValue > 64) {
+      value |= this.blocks[block + 1] << (64 - shift);
+    }
+    return (int) (value & this.mask);
+  }
+
+  /**
+   * Liest mehrere aufeinander folgende Werte in einen Puffer.
+   *
+   * @param index erste Position <i>([0;size()])</i>
+   * @param buffer Puffer (not null)
+   * @param offset erste Position im Puffer
+   * @param length maximale Anzahl an Werten
+   * @return Anzahl der gelesenen Werte, kleiner als {@code length}, falls das Ende des Arrays erreicht wurde
+   * @throws IllegalArgumentException falls die Parameter ungültig sind
+   */
+  public int get(int index, int[] buffer, int offset, int length) {
+    Validate.notNull(buffer, "Folgende Parameter dürfen nicht null sein! buffer: {}", (Object) buffer);
+    Validate.isTrue(index >= 0 && index <= this.size, "Die Position ist ungültig! index: %d, size: %d", index,
+        this.size);
+    Validate.isTrue(offset >= 0 && length >= 0 && offset + length <= buffer.length,
+        "Der Bereich im Puffer ist ungültig! offset: %d, length: %d", offset, length);
+    int count = Math.min(length, this.size - index);
+    long bitIndex = (long) index * this.bitsPerValue;
+    int block = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+    for (int i = offset, end = offset + count; i < end; i++) {
+      long value = this.blocks[block] >>> shift;
+      shift += this.bitsPerValue;
+      if (shift >= 64) {
+        shift -= 64;
+        block++;
+        if (shift > 0) {
+          value |= this.blocks[block] << (this.bitsPerValue - shift);
+        }
+      }
+      buffer[i] = (int) (value & this.mask);
+    }
+    return count;
+  }
+
+  /**
+   * @param index Position <i>([0;size()))</i>
+   * @param value Wert <i>([0;getMaxValue()])</i>
+   * @throws IllegalArgumentException falls {@code index} oder {@code value} ungültig ist
+   */
+  public void set(int index, int value) {
+    checkIndex(index);
+    checkValue(value);
+    long bitIndex = (long) index * this.bitsPerValue;
+    int block = (int) (bitIndex >>> 6);
+    int shift = (int) (bitIndex & 63);
+    this.blocks[block] = (this.blocks[block] & ~(this.mask << shift)) | ((long) value << shift);
+    int spill = shift + this.bitsPerValue - 64;
+    if (spill > 0) {
+      int written = this.bitsPerValue - spill;
+      this.blocks[block + 1] = (this.blocks[block + 1] & ~(this.mask >>> written)) | ((long) value >>> written);
+    }
+  }
+
+  /**
+   * Setzt alle Werte im Bereich {@code [fromIndex;toIndex)}.
+   *
+   * @param fromIndex erste Position (inklusive)
+   * @param toIndex letzte Position (exklusive)
+   * @param value Wert <i>([0;getMaxValue()])</i>
+   * @throws IllegalArgumentException falls der Bereich oder {@code value} ungültig ist
+   */
+  public void fill(int fromIndex, int toIndex, int value) {
+    Validate.isTrue(fromIndex >= 0 && fromIndex <= toIndex && toIndex <= this.size,
+        "Der Bereich ist ungültig! fromIndex: %d, toIndex: %d", fromIndex, toIndex);
+    checkValue(value);
+    if (value == 0 && fromIndex == 0 && toIndex == this.size) {
+      Arrays.fill(this.blocks, 0L);
+      return;
+    }
+    for (int i = fromIndex; i < toIndex; i++) {
+      set(i, value);
+    }
+  }
+
+  /**
+   * @param newSize Anzahl der Werte der Kopie <i>(>= 0)</i>
+   * @param newBitsPerValue Anzahl der Bits je Wert der Kopie <i>([1;31])</i>. Ist sie kleiner als die aktuelle Anzahl,
+   *        müssen alle übernommenen Werte hineinpassen.
+   * @return Kopie mit den ersten {@code min(size(), newSize)} Werten, weitere Werte sind 0
+   * @throws IllegalArgumentException falls die Parameter ungültig sind oder ein Wert nicht in die Kopie passt
+   */
+  public PackedIntArray copyOf(int newSize, int newBitsPerValue) {
+    PackedIntArray result = new PackedIntArray(newSize, newBitsPerValue);
+    int count = Math.min(this.size, newSize);
+    if (newBitsPerValue == this.bitsPerValue) {
+      System.arraycopy(this.blocks, 0, result.blocks, 0, (int) (((long) count * this.bitsPerValue + 63) >>> 6));
+      // Bits jenseits der übernommenen Werte löschen
+      long usedBits = (long) count * this.bitsPerValue;
+      if ((usedBits & 63) != 0) {
+        result.blocks[(int) (usedBits >>> 6)] &= -1L >>> -usedBits;
+      }
+      return result;
+    }
+    int[] buffer = new int[Math.min(count, 1024)];
+    for (int index = 0; index < count;) {
+      int read = get(index, buffer, 0, Math.min(buffer.length, count - index));
+      for (int i = 0; i < read; i++) {
+        result.set(index + i, buffer[i]);
+      }
+      index += read;
+    }
+    return result;
+  }
+
+  /**
+   * @return geschätzter Speicherbedarf auf dem Heap in Bytes
+   */
+  public long getSizeInBytes() {
+    return 16 + 32 + 8L * this.blocks.length;
+  }
+
+  /**
+   * @return alle Werte als {@code int[]}
+   */
+  public int[] toArray() {
+    int[] result = new int[this.size];
+    get(0, result, 0, this.size);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[size=" + this.size + ", bitsPerValue=" + this.bitsPerValue + "]";
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.size + ")");
+    }
+  }
+
+  private void checkValue(int value) {
+    if (value < 0 || value > this.mask) {
+      throw new IllegalArgumentException("The value " + value + " is not in the range [0;" + this.mask + "]");
+    }
+  }
+}
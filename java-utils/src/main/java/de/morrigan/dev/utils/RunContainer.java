@@ -0,0 +1,267 @@
+package de.morrigan.dev.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Container, der seine Werte als Folge von zusammenhängenden Bereichen ablegt. Jeder Bereich besteht aus dem ersten
+ * Wert und der Anzahl der folgenden Werte. Wird für geclusterte Werte genutzt, z.B. nach
+ * {@link CompressedBitmap#add(int, int)} oder {@link CompressedBitmap#runOptimize()}.
+ * <p>
+ * Einzelne Werte werden nicht direkt in die Bereiche eingefügt. Stattdessen wird der Container dafür in einen
+ * {@link ArrayContainer} bzw. {@link BitmapContainer} umgewandelt. Über {@link CompressedBitmap#runOptimize()} können
+ * die Bereiche anschließend wieder hergestellt werden.
+ *
+ * @author morrigan
+ */
+final class RunContainer extends Container {
+
+  static int serializedSizeInBytes(int numberOfRuns) {
+    return 1 + 2 + 4 * numberOfRuns;
+  }
+
+  /**
+   * @param from erster Wert (inklusive) <i>([0;65535])</i>
+   * @param to letzter Wert (exklusive) <i>([from + 1;65536])</i>
+   * @return Container mit allen Werten des Bereichs
+   */
+  static RunContainer ofRange(int from, int to) {
+    return new RunContainer(new char[] { (char) from, (char) (to - from - 1) }, 1);
+  }
+
+  /**
+   * @param container beliebiger, nicht leerer Container (not null)
+   * @return Container mit denselben Werten in Bereichs-Darstellung
+   */
+  static RunContainer of(Container container) {
+    int numberOfRuns = container.numberOfRuns();
+    char[] runs = new char[2 * numberOfRuns];
+    int run = -1;
+    int previous = -2;
+    PrimitiveIterator.OfInt iterator = container.iterator();
+    while (iterator.hasNext()) {
+      int value = iterator.nextInt();
+      if (value == previous + 1) {
+        runs[2 * run + 1]++;
+      } else {
+        run++;
+        runs[2 * run] = (char) value;
+      }
+      previous = value;
+    }
+    return new RunContainer(runs, numberOfRuns);
+  }
+
+  static RunContainer deserializeContent(DataInput in) throws IOException {
+    int numberOfRuns = in.readUnsignedShort() + 1;
+    char[] runs = new char[2 * numberOfRuns];
+    for (int i = 0; i < runs.length; i++) {
+      runs[i] = in.readChar();
+    }
+    return new RunContainer(runs, numberOfRuns);
+  }
+
+  /** Abwechselnd der erste Wert und die Anzahl der folgenden Werte eines Bereichs */
+  private final char[] runs;
+  private final int numberOfRuns;
+  private final int cardinality;
+
+  private RunContainer(char[] runs, int numberOfRuns) {
+    super();
+
+    this.runs = runs;
+    this.numberOfRuns = numberOfRuns;
+    int sum = 0;
+    for (int i = 0; i < numberOfRuns; i++) {
+      sum += length(i);
+    }
+    this.cardinality = sum;
+  }
+
+  @Override
+  Container add(int value) {
+    return contains(value) ? this : toArrayOrBitmap().add(value);
+  }
+
+  @Override
+  Container remove(int value) {
+    return contains(value) ? toArrayOrBitmap().remove(value) : this;
+  }
+
+  @Override
+  boolean contains(int value) {
+    int run = findRun(value);
+    return run >= 0 && value < start(run) + length(run);
+  }
+
+  @Override
+  int cardinality() {
+    return this.cardinality;
+  }
+
+  @Override
+  int rank(int value) {
+    int result = 0;
+    for (int i = 0; i < this.numberOfRuns; i++) {
+      int start = start(i);
+      if (value < start) {
+        break;
+      }
+      result += Math.min(value - start + 1, length(i));
+    }
+    return result;
+  }
+
+  @Override
+  int select(int index) {
+    int remaining = index;
+    for (int i = 0; i < this.numberOfRuns; i++) {
+      int length = length(i);
+      if (remaining < length) {
+        return start(i) + remaining;
+      }
+      remaining -= length;
+    }
+    throw new IllegalArgumentException("The index " + index + " is not in the range [0;" + this.cardinality + ")");
+  }
+
+  @Override
+  PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      private int run;
+      private int offset;
+
+      @Override
+      public boolean hasNext() {
+        return this.run < RunContainer.this.numberOfRuns;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int result = start(this.run) + this.offset;
+        if (++this.offset >= length(this.run)) {
+          this.run++;
+          this.offset = 0;
+        }
+        return result;
+      }
+    };
+  }
+
+  @Override
+  long[] words() {
+    LongBitSet bitSet = new LongBitSet(1 << 16);
+    for (int i = 0; i < this.numberOfRuns; i++) {
+      bitSet.set(start(i), start(i) + length(i));
+    }
+    return bitSet.getWords();
+  }
+
+  @Override
+  int sizeInBytes() {
+    return OBJECT_OVERHEAD_BYTES + 16 + 2 * this.runs.length;
+  }
+
+  @Override
+  int serializedSizeInBytes() {
+    return serializedSizeInBytes(this.numberOfRuns);
+  }
+
+  @Override
+  void serialize(DataOutput out) throws IOException {
+    out.writeByte(TYPE_RUN);
+    out.writeShort(this.numberOfRuns - 1);
+    for (int i = 0; i < 2 * this.numberOfRuns; i++) {
+      out.writeChar(this.runs[i]);
+    }
+  }
+
+  @Override
+  Container copy() {
+    return new RunContainer(Arrays.copyOf(this.runs, 2 * this.numberOfRuns), this.numberOfRuns);
+  }
+
+  @Override
+  int numberOfRuns() {
+    return this.numberOfRuns;
+  }
+
+  /**
+   * Fügt einen Bereich ein und verschmilzt ihn dabei mit allen Bereichen, die ihn überlappen oder direkt angrenzen.
+   *
+   * @param from erster Wert (inklusive) <i>([0;65535])</i>
+   * @param to letzter Wert (exklusive) <i>([from + 1;65536])</i>
+   * @return neuer Container, der zusätzlich alle Werte des Bereichs enthält
+   */
+  RunContainer addRange(int from, int to) {
+    int first = findRun(from);
+    if (first < 0 || start(first) + length(first) < from) {
+      first++;
+    }
+    int mergedFrom = from;
+    int mergedTo = to;
+    int last = first;
+    while (last < this.numberOfRuns && start(last) <= to) {
+      mergedFrom = Math.min(mergedFrom, start(last));
+      mergedTo = Math.max(mergedTo, start(last) + length(last));
+      last++;
+    }
+    int newNumberOfRuns = this.numberOfRuns - (last - first) + 1;
+    char[] newRuns = new char[2 * newNumberOfRuns];
+    System.arraycopy(this.runs, 0, newRuns, 0, 2 * first);
+    newRuns[2 * first] = (char) mergedFrom;
+    newRuns[2 * first + 1] = (char) (mergedTo - mergedFrom - 1);
+    System.arraycopy(this.runs, 2 * last, newRuns, 2 * first + 2, 2 * (this.numberOfRuns - last));
+    return new RunContainer(newRuns, newNumberOfRuns);
+  }
+
+  /**
+   * @return Container mit denselben Werten als {@link ArrayContainer} oder {@link BitmapContainer}
+   */
+  Container toArrayOrBitmap() {
+    if (this.cardinality <= MAX_ARRAY_CARDINALITY) {
+      char[] values = new char[this.cardinality];
+      int index = 0;
+      for (int i = 0; i < this.numberOfRuns; i++) {
+        for (int value = start(i), end = start(i) + length(i); value < end; value++) {
+          values[index++] = (char) value;
+        }
+      }
+      return new ArrayContainer(values, this.cardinality);
+    }
+    return new BitmapContainer(words(), this.cardinality);
+  }
+
+  private int start(int run) {
+    return this.runs[2 * run];
+  }
+
+  private int length(int run) {
+    return this.runs[2 * run + 1] + 1;
+  }
+
+  /**
+   * @return Index des letzten Bereichs, der nicht nach dem Wert beginnt, oder -1
+   */
+  private int findRun(int value) {
+    int low = 0;
+    int high = this.numberOfRuns - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (start(middle) <= value) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return high;
+  }
+}
@@ -81,4 +81,33 @@ public class BitUtilTest {
     long actual = BitUtil.setAllBits();
     assertEquals(expected, actual);
   }
+
+  @Test
+  public void test_if_wordCount_rounds_up_to_whole_words() {
+    assertEquals(0, BitUtil.wordCount(0));
+    assertEquals(1, BitUtil.wordCount(1));
+    assertEquals(1, BitUtil.wordCount(64));
+    assertEquals(2, BitUtil.wordCount(65));
+    assertEquals(33554432, BitUtil.wordCount(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void test_if_wordIndex_returns_word_of_bit() {
+    assertEquals(0, BitUtil.wordIndex(0));
+    assertEquals(0, BitUtil.wordIndex(63));
+    assertEquals(1, BitUtil.wordIndex(64));
+  }
+
+  @Test
+  public void test_if_selectBit_returns_position_of_rank() {
+    assertEquals(0, BitUtil.selectBit(0b1011L, 0));
+    assertEquals(1, BitUtil.selectBit(0b1011L, 1));
+    assertEquals(3, BitUtil.selectBit(0b1011L, 2));
+    assertEquals(5, BitUtil.selectBit(1L << 5, 0));
+    assertEquals(63, BitUtil.selectBit(-1L, 63));
+    assertEquals(63, BitUtil.selectBit(Long.MIN_VALUE | 1L, 1));
+    // Ohne ausreichend gesetzte Bits
+    assertEquals(64, BitUtil.selectBit(0b1011L, 3));
+    assertEquals(64, BitUtil.selectBit(0L, 0));
+  }
 }
@@ -0,0 +1,141 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.BloomFilter;
+
+public class BloomFilterTest {
+
+  private static final int EXPECTED_INSERTIONS = 10_000;
+  private static final double FPP = 0.01;
+
+  @Test
+  public void test_if_create_sizes_filter_from_insertions_and_fpp() {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    // m = -n ln(p) / ln(2)^2 = 95851, k = m / n ln(2) = 7
+    assertEquals(95_872, filter.getNumBits());
+    assertEquals(7, filter.getNumHashFunctions());
+    assertEquals(0.0, filter.expectedFpp(), 0.0);
+  }
+
+  @Test
+  public void test_if_create_throws_IAE_for_invalid_parameters() {
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, FPP));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(EXPECTED_INSERTIONS, 0.0));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(EXPECTED_INSERTIONS, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(Long.MAX_VALUE, FPP));
+  }
+
+  @Test
+  public void test_if_added_keys_are_always_found() {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      filter.put((long) i);
+      filter.put(i);
+      filter.put("key-" + i);
+      filter.put(("bytes-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      assertTrue(filter.mightContain((long) i));
+      assertTrue(filter.mightContain(i));
+      assertTrue(filter.mightContain("key-" + i));
+      assertTrue(filter.mightContain(new StringBuilder("key-").append(i)));
+      assertTrue(filter.mightContain(("bytes-" + i).getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
+  @Test
+  public void test_if_false_positive_rate_matches_target() {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (long i = 0; i < EXPECTED_INSERTIONS; i++) {
+      filter.put(i);
+    }
+    int falsePositives = 0;
+    int probes = 100_000;
+    for (long i = EXPECTED_INSERTIONS; i < EXPECTED_INSERTIONS + probes; i++) {
+      if (filter.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positive rate " + falsePositives / (double) probes, falsePositives < probes * FPP * 1.5);
+    assertEquals(FPP, filter.expectedFpp(), FPP / 2);
+  }
+
+  @Test
+  public void test_if_put_reports_whether_filter_changed() {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    assertTrue(filter.put("key"));
+    assertFalse(filter.put("key"));
+  }
+
+  @Test
+  public void test_if_merge_combines_keys_of_both_filters() {
+    BloomFilter first = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    BloomFilter second = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    first.put("first");
+    second.put("second");
+    BloomFilter merged = first.copy();
+    merged.merge(second);
+    assertTrue(merged.mightContain("first"));
+    assertTrue(merged.mightContain("second"));
+    assertFalse(first.mightContain("second"));
+    assertThrows(IllegalArgumentException.class, () -> first.merge(BloomFilter.create(EXPECTED_INSERTIONS, 0.1)));
+  }
+
+  @Test
+  public void test_if_serialization_round_trip_keeps_keys() {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (int i = 0; i < 1_000; i++) {
+      filter.put(i);
+    }
+    byte[] bytes = filter.toByteArray();
+    assertEquals(filter.getSerializedSizeInBytes(), bytes.length);
+    BloomFilter copy = BloomFilter.fromByteArray(bytes);
+    assertEquals(filter.getNumBits(), copy.getNumBits());
+    assertEquals(filter.getNumHashFunctions(), copy.getNumHashFunctions());
+    for (int i = 0; i < 1_000; i++) {
+      assertTrue(copy.mightContain(i));
+    }
+    assertArrayEquals(bytes, copy.toByteArray());
+    assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromByteArray(new byte[] { 1, 2, 3 }));
+  }
+
+  @Test
+  public void test_if_concurrent_puts_lose_no_keys() throws Exception {
+    BloomFilter filter = BloomFilter.create(EXPECTED_INSERTIONS * 4, FPP);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        int offset = t * EXPECTED_INSERTIONS;
+        futures.add(executor.submit(() -> {
+          for (int i = offset; i < offset + EXPECTED_INSERTIONS; i++) {
+            filter.put(i);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    for (int i = 0; i < EXPECTED_INSERTIONS * 4; i++) {
+      assertTrue(filter.mightContain(i));
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.CompressedBitmap;
+
+public class CompressedBitmapTest {
+
+  private static final int MAX_VALUE = 1 << 20;
+
+  @Test
+  public void test_if_add_contains_remove_match_BitSet() {
+    Random random = new Random(42);
+    CompressedBitmap bitmap = new CompressedBitmap();
+    BitSet expected = new BitSet();
+    for (int i = 0; i < 50_000; i++) {
+      // Häufung im ersten Block, damit Array- und Bitmap-Container entstehen
+      int value = random.nextBoolean() ? random.nextInt(1 << 16) : random.nextInt(MAX_VALUE);
+      if (random.nextInt(4) == 0) {
+        assertEquals(expected.get(value), bitmap.remove(value));
+        expected.clear(value);
+      } else {
+        bitmap.add(value);
+        expected.set(value);
+      }
+    }
+    assertSameValues(expected, bitmap);
+    for (int i = 0; i < 10_000; i++) {
+      int value = random.nextInt(MAX_VALUE);
+      assertEquals(expected.get(value), bitmap.contains(value));
+    }
+  }
+
+  @Test
+  public void test_if_removing_all_values_leaves_empty_bitmap() {
+    CompressedBitmap bitmap = CompressedBitmap.of(1, 70_000, 5_000_000);
+    assertTrue(bitmap.remove(70_000));
+    assertTrue(bitmap.remove(1));
+    assertTrue(bitmap.remove(5_000_000));
+    assertFalse(bitmap.remove(5_000_000));
+    assertTrue(bitmap.isEmpty());
+    assertEquals(CompressedBitmap.fromByteArray(bitmap.toByteArray()), bitmap);
+  }
+
+  @Test
+  public void test_if_add_range_spans_multiple_containers() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    bitmap.add(10);
+    bitmap.add(65_530, 200_000);
+    BitSet expected = new BitSet();
+    expected.set(10);
+    expected.set(65_530, 200_000);
+    assertSameValues(expected, bitmap);
+    bitmap.add(500, 500);
+    assertSameValues(expected, bitmap);
+    bitmap.remove(100_000);
+    expected.clear(100_000);
+    assertSameValues(expected, bitmap);
+  }
+
+  @Test
+  public void test_if_add_range_into_existing_container_keeps_runs() {
+    Random random = new Random(42);
+    CompressedBitmap bitmap = new CompressedBitmap();
+    BitSet expected = new BitSet();
+    bitmap.add(3);
+    expected.set(3);
+    for (int i = 0; i < 500; i++) {
+      int from = random.nextInt(1 << 16);
+      int to = Math.min(from + 1 + random.nextInt(64), 1 << 16);
+      bitmap.add(from, to);
+      expected.set(from, to);
+    }
+    assertSameValues(expected, bitmap);
+
+    // Ein Block aus Bereichen bleibt kleiner als die Bitmap, in die die Bereiche bisher umgewandelt wurden
+    assertTrue(bitmap.getSerializedSizeInBytes() < 4 * 500 + 100);
+    bitmap.runOptimize();
+    assertSameValues(expected, bitmap);
+  }
+
+  @Test
+  public void test_if_add_throws_IAE_for_negative_values() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    assertThrows(IllegalArgumentException.class, () -> bitmap.add(-5, 3));
+    assertThrows(IllegalArgumentException.class, () -> bitmap.add(5, 3));
+    assertFalse(bitmap.contains(-1));
+    assertFalse(bitmap.remove(-1));
+  }
+
+  @Test
+  public void test_if_set_operations_match_BitSet() {
+    Random random = new Random(7);
+    for (int round = 0; round < 20; round++) {
+      BitSet first = randomBitSet(random);
+      BitSet second = randomBitSet(random);
+      CompressedBitmap firstBitmap = toBitmap(first, round % 2 == 0);
+      CompressedBitmap secondBitmap = toBitmap(second, round % 3 == 0);
+
+      BitSet and = (BitSet) first.clone();
+      and.and(second);
+      assertSameValues(and, CompressedBitmap.and(firstBitmap, secondBitmap));
+
+      BitSet or = (BitSet) first.clone();
+      or.or(second);
+      assertSameValues(or, CompressedBitmap.or(firstBitmap, secondBitmap));
+
+      BitSet andNot = (BitSet) first.clone();
+      andNot.andNot(second);
+      assertSameValues(andNot, CompressedBitmap.andNot(firstBitmap, secondBitmap));
+
+      // Die Operanden dürfen nicht verändert werden
+      assertSameValues(first, firstBitmap);
+      assertSameValues(second, secondBitmap);
+    }
+  }
+
+  @Test
+  public void test_if_rank_and_select_match_BitSet() {
+    Random random = new Random(11);
+    BitSet expected = randomBitSet(random);
+    CompressedBitmap bitmap = toBitmap(expected, true);
+    long rank = 0;
+    for (int value = 0; value < MAX_VALUE; value++) {
+      if (expected.get(value)) {
+        assertEquals(value, bitmap.select(rank));
+        rank++;
+      }
+      if (value % 97 == 0) {
+        assertEquals(rank, bitmap.rank(value));
+      }
+    }
+    assertEquals(expected.cardinality(), bitmap.rank(Integer.MAX_VALUE));
+    assertEquals(expected.nextSetBit(0), bitmap.first());
+    assertEquals(expected.length() - 1, bitmap.last());
+    assertThrows(IllegalArgumentException.class, () -> bitmap.select(bitmap.getCardinality()));
+    assertThrows(IllegalArgumentException.class, () -> bitmap.select(-1));
+  }
+
+  @Test
+  public void test_if_runOptimize_keeps_values_and_reduces_size() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    for (int value = 0; value < 300_000; value++) {
+      if (value % 1000 < 900) {
+        bitmap.add(value);
+      }
+    }
+    CompressedBitmap expected = bitmap.copy();
+    long sizeBefore = bitmap.getSerializedSizeInBytes();
+    bitmap.runOptimize();
+    assertEquals(expected, bitmap);
+    assertTrue(bitmap.getSerializedSizeInBytes() < sizeBefore / 10);
+
+    // Einzelne Werte in einem Bereich lösen den Bereich wieder auf
+    bitmap.add(950);
+    expected.add(950);
+    assertEquals(expected, bitmap);
+  }
+
+  @Test
+  public void test_if_serialization_round_trip_keeps_values() {
+    Random random = new Random(3);
+    BitSet expected = randomBitSet(random);
+    CompressedBitmap bitmap = toBitmap(expected, true);
+    bitmap.add(1_000_000, 1_100_000);
+    expected.set(1_000_000, 1_100_000);
+    bitmap.runOptimize();
+
+    byte[] bytes = bitmap.toByteArray();
+    assertEquals(bitmap.getSerializedSizeInBytes(), bytes.length);
+    CompressedBitmap copy = CompressedBitmap.fromByteArray(bytes);
+    assertSameValues(expected, copy);
+    assertEquals(bitmap, copy);
+    assertEquals(bitmap.hashCode(), copy.hashCode());
+    assertArrayEquals(bytes, copy.toByteArray());
+  }
+
+  @Test
+  public void test_if_fromByteArray_throws_IAE_for_invalid_data() {
+    assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.fromByteArray(new byte[] { 1, 2, 3, 4 }));
+    byte[] bytes = CompressedBitmap.of(1, 2, 3).toByteArray();
+    byte[] truncated = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.fromByteArray(truncated));
+  }
+
+  @Test
+  public void test_if_sparse_values_need_less_memory_than_BitSet() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    BitSet bitSet = new BitSet();
+    for (int value = 0; value < 100_000_000; value += 10_007) {
+      bitmap.add(value);
+      bitSet.set(value);
+    }
+    long bitSetBytes = bitSet.size() / 8;
+    assertTrue(bitmap.getSizeInBytes() * 10 < bitSetBytes);
+    assertTrue(bitmap.getSerializedSizeInBytes() * 10 < bitSetBytes);
+  }
+
+  @Test
+  public void test_if_run_heavy_values_need_less_memory_than_BitSet() {
+    Random random = new Random(42);
+    CompressedBitmap bitmap = new CompressedBitmap();
+    BitSet bitSet = new BitSet();
+    // Bereiche von 32 Werten, im Mittel ist jeder achte Wert gesetzt
+    for (int i = 0; i < 3_125; i++) {
+      int from = random.nextInt(800_000 - 32);
+      bitmap.add(from, from + 32);
+      bitSet.set(from, from + 32);
+    }
+    long bitSetBytes = bitSet.size() / 8;
+    assertTrue(bitmap.getSizeInBytes() * 4 < bitSetBytes);
+  }
+
+  @Test
+  public void test_if_toString_lists_values() {
+    assertEquals("{}", new CompressedBitmap().toString());
+    assertEquals("{1, 70000}", CompressedBitmap.of(70_000, 1).toString());
+  }
+
+  private static BitSet randomBitSet(Random random) {
+    BitSet result = new BitSet();
+    // Dünn besetzte, dicht besetzte und geclusterte Blöcke
+    for (int i = 0; i < 2_000; i++) {
+      result.set(random.nextInt(MAX_VALUE));
+    }
+    int denseBlock = random.nextInt(MAX_VALUE >>> 16) << 16;
+    for (int i = 0; i < 20_000; i++) {
+      result.set(denseBlock + random.nextInt(1 << 16));
+    }
+    int runStart = random.nextInt(MAX_VALUE - 5_000);
+    result.set(runStart, runStart + random.nextInt(5_000));
+    return result;
+  }
+
+  private static CompressedBitmap toBitmap(BitSet bitSet, boolean runOptimize) {
+    CompressedBitmap result = new CompressedBitmap();
+    bitSet.stream().forEach(result::add);
+    if (runOptimize) {
+      result.runOptimize();
+    }
+    return result;
+  }
+
+  private static void assertSameValues(BitSet expected, CompressedBitmap actual) {
+    assertEquals(expected.cardinality(), actual.getCardinality());
+    assertEquals(expected.isEmpty(), actual.isEmpty());
+    PrimitiveIterator.OfInt iterator = actual.iterator();
+    for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+      assertTrue(iterator.hasNext());
+      assertEquals(value, iterator.nextInt());
+    }
+    assertFalse(iterator.hasNext());
+  }
+}
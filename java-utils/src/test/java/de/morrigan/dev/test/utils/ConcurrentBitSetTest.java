@@ -0,0 +1,118 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.ConcurrentBitSet;
+import de.morrigan.dev.utils.LongBitSet;
+
+public class ConcurrentBitSetTest {
+
+  private static final int NUM_BITS = 10_000;
+  private static final int THREADS = 8;
+
+  @Test
+  public void test_if_set_get_clear_work_at_word_boundaries() {
+    ConcurrentBitSet bitSet = new ConcurrentBitSet(NUM_BITS);
+    for (int index : new int[] { 0, 63, 64, 127, NUM_BITS - 1 }) {
+      assertFalse(bitSet.get(index));
+      bitSet.set(index);
+      assertTrue(bitSet.get(index));
+    }
+    assertEquals(5, bitSet.cardinality());
+    bitSet.clear(64);
+    assertFalse(bitSet.get(64));
+    assertEquals(127, bitSet.nextSetBit(64));
+    assertEquals(-1, bitSet.nextSetBit(NUM_BITS));
+    bitSet.clear();
+    assertEquals(0, bitSet.cardinality());
+  }
+
+  @Test
+  public void test_if_testAndSet_and_testAndClear_return_previous_state() {
+    ConcurrentBitSet bitSet = new ConcurrentBitSet(NUM_BITS);
+    assertFalse(bitSet.testAndSet(500));
+    assertTrue(bitSet.testAndSet(500));
+    assertTrue(bitSet.testAndClear(500));
+    assertFalse(bitSet.testAndClear(500));
+  }
+
+  @Test
+  public void test_if_methods_throw_IAE_if_index_is_out_of_range() {
+    ConcurrentBitSet bitSet = new ConcurrentBitSet(NUM_BITS);
+    assertThrows(IllegalArgumentException.class, () -> bitSet.set(-1));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.get(NUM_BITS));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.testAndSet(NUM_BITS));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.or(new LongBitSet(NUM_BITS + 1)));
+  }
+
+  @Test
+  public void test_if_each_bit_is_claimed_by_exactly_one_thread() throws Exception {
+    ConcurrentBitSet bitSet = new ConcurrentBitSet(NUM_BITS);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> claims = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        claims.add(executor.submit(() -> {
+          start.await();
+          int claimed = 0;
+          for (int index = 0; index < NUM_BITS; index++) {
+            if (!bitSet.testAndSet(index)) {
+              claimed++;
+            }
+          }
+          return claimed;
+        }));
+      }
+      start.countDown();
+      int total = 0;
+      for (Future<Integer> claim : claims) {
+        total += claim.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(NUM_BITS, total);
+      assertEquals(NUM_BITS, bitSet.cardinality());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void test_if_concurrent_set_and_or_lose_no_bits() throws Exception {
+    ConcurrentBitSet bitSet = new ConcurrentBitSet(NUM_BITS);
+    LongBitSet odd = new LongBitSet(NUM_BITS);
+    for (int index = 1; index < NUM_BITS; index += 2) {
+      odd.set(index);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> even = executor.submit(() -> {
+        for (int index = 0; index < NUM_BITS; index += 2) {
+          bitSet.set(index);
+        }
+      });
+      Future<?> bulk = executor.submit(() -> bitSet.or(odd));
+      even.get(10, TimeUnit.SECONDS);
+      bulk.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(NUM_BITS, bitSet.cardinality());
+
+    ConcurrentBitSet copy = new ConcurrentBitSet(NUM_BITS);
+    copy.or(bitSet);
+    assertEquals(bitSet.toLongBitSet(), copy.toLongBitSet());
+  }
+}
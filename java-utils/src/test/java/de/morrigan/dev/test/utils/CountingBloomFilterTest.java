@@ -0,0 +1,103 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.BloomFilter;
+import de.morrigan.dev.utils.CountingBloomFilter;
+
+public class CountingBloomFilterTest {
+
+  private static final int EXPECTED_INSERTIONS = 10_000;
+  private static final double FPP = 0.01;
+
+  @Test
+  public void test_if_removed_keys_are_no_longer_found() {
+    CountingBloomFilter filter = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      filter.put("key-" + i);
+    }
+    for (int i = 0; i < EXPECTED_INSERTIONS; i += 2) {
+      assertTrue(filter.remove("key-" + i));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+      if (i % 2 == 1) {
+        assertTrue(filter.mightContain("key-" + i));
+      } else if (filter.mightContain("key-" + i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positives " + falsePositives, falsePositives < EXPECTED_INSERTIONS / 2 * FPP * 2);
+  }
+
+  @Test
+  public void test_if_remove_of_unknown_key_returns_false() {
+    CountingBloomFilter filter = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    assertFalse(filter.remove(42L));
+    filter.put(42L);
+    filter.put(42L);
+    assertTrue(filter.remove(42L));
+    assertTrue(filter.mightContain(42L));
+    assertTrue(filter.remove(42L));
+    assertFalse(filter.mightContain(42L));
+  }
+
+  @Test
+  public void test_if_saturated_counters_are_never_decremented() {
+    CountingBloomFilter filter = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (int i = 0; i < CountingBloomFilter.MAX_COUNT + 5; i++) {
+      filter.put(7);
+    }
+    for (int i = 0; i < CountingBloomFilter.MAX_COUNT + 5; i++) {
+      assertTrue(filter.remove(7));
+    }
+    assertTrue(filter.mightContain(7));
+  }
+
+  @Test
+  public void test_if_merge_adds_counters() {
+    CountingBloomFilter first = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    CountingBloomFilter second = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    first.put("key");
+    second.put("key");
+    first.merge(second);
+    assertTrue(first.remove("key"));
+    assertTrue(first.mightContain("key"));
+    assertThrows(IllegalArgumentException.class, () -> first.merge(CountingBloomFilter.create(1, FPP)));
+  }
+
+  @Test
+  public void test_if_toBloomFilter_keeps_keys() {
+    CountingBloomFilter filter = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    for (int i = 0; i < 1_000; i++) {
+      filter.put(i);
+    }
+    BloomFilter bloomFilter = filter.toBloomFilter();
+    assertEquals(filter.getNumCounters(), bloomFilter.getNumBits());
+    for (int i = 0; i < 1_000; i++) {
+      assertTrue(bloomFilter.mightContain(i));
+    }
+  }
+
+  @Test
+  public void test_if_serialization_round_trip_keeps_counters() {
+    CountingBloomFilter filter = CountingBloomFilter.create(EXPECTED_INSERTIONS, FPP);
+    filter.put("first");
+    filter.put("second");
+    filter.put("second");
+    byte[] bytes = filter.toByteArray();
+    assertEquals(filter.getSerializedSizeInBytes(), bytes.length);
+    CountingBloomFilter copy = CountingBloomFilter.fromByteArray(bytes);
+    assertArrayEquals(bytes, copy.toByteArray());
+    assertTrue(copy.remove("second"));
+    assertTrue(copy.mightContain("second"));
+    assertThrows(IllegalArgumentException.class,
+        () -> CountingBloomFilter.fromByteArray(BloomFilter.create(1, FPP).toByteArray()));
+  }
+}
@@ -0,0 +1,91 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.GrowablePackedIntArray;
+import de.morrigan.dev.utils.PackedIntArray;
+
+public class GrowablePackedIntArrayTest {
+
+  @Test
+  public void test_if_add_grows_capacity_and_width() {
+    Random random = new Random(42);
+    GrowablePackedIntArray array = new GrowablePackedIntArray();
+    int[] expected = new int[10_000];
+    for (int i = 0; i < expected.length; i++) {
+      // Die Werte werden langsam größer, damit die Breite mehrfach wächst
+      expected[i] = random.nextInt(1 + i * 100);
+      array.add(expected[i]);
+    }
+    assertEquals(expected.length, array.size());
+    assertEquals(20, array.getBitsPerValue());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], array.get(i));
+    }
+  }
+
+  @Test
+  public void test_if_set_widens_existing_values() {
+    GrowablePackedIntArray array = new GrowablePackedIntArray(4, 2);
+    array.add(1);
+    array.add(3);
+    array.set(0, 1_000_000);
+    assertEquals(1_000_000, array.get(0));
+    assertEquals(3, array.get(1));
+    assertEquals(20, array.getBitsPerValue());
+  }
+
+  @Test
+  public void test_if_bulk_get_stops_at_size() {
+    GrowablePackedIntArray array = new GrowablePackedIntArray(100, 4);
+    for (int i = 0; i < 10; i++) {
+      array.add(i);
+    }
+    int[] buffer = new int[20];
+    assertEquals(4, array.get(6, buffer, 0, buffer.length));
+    assertEquals(9, buffer[3]);
+  }
+
+  @Test
+  public void test_if_toPackedIntArray_trims_capacity_and_width() {
+    GrowablePackedIntArray array = new GrowablePackedIntArray();
+    array.add(1_000);
+    array.set(0, 5);
+    array.add(6);
+    PackedIntArray packed = array.toPackedIntArray();
+    assertEquals(2, packed.size());
+    assertEquals(3, packed.getBitsPerValue());
+    assertEquals(5, packed.get(0));
+    assertEquals(6, packed.get(1));
+  }
+
+  @Test
+  public void test_if_toPackedIntArray_narrows_large_array() {
+    GrowablePackedIntArray array = new GrowablePackedIntArray(16, 20);
+    for (int i = 0; i < 2_000; i++) {
+      array.add(1);
+    }
+    PackedIntArray packed = array.toPackedIntArray();
+    assertEquals(2_000, packed.size());
+    assertEquals(1, packed.getBitsPerValue());
+    for (int i = 0; i < 2_000; i++) {
+      assertEquals(1, packed.get(i));
+    }
+  }
+
+  @Test
+  public void test_if_invalid_arguments_throw_IAE() {
+    GrowablePackedIntArray array = new GrowablePackedIntArray();
+    assertThrows(IllegalArgumentException.class, () -> array.add(-1));
+    assertThrows(IllegalArgumentException.class, () -> array.get(0));
+    array.add(1);
+    assertThrows(IllegalArgumentException.class, () -> array.set(1, 1));
+    array.clear();
+    assertEquals(0, array.size());
+  }
+}
@@ -0,0 +1,190 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.LongBitSet;
+
+public class LongBitSetTest {
+
+  private static final int NUM_BITS = 1000;
+
+  @Test
+  public void test_if_set_get_clear_work_at_word_boundaries() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    for (int index : new int[] { 0, 63, 64, 127, 128, NUM_BITS - 1 }) {
+      assertFalse(bitSet.get(index));
+      bitSet.set(index);
+      assertTrue(bitSet.get(index));
+    }
+    assertEquals(6, bitSet.cardinality());
+    bitSet.clear(64);
+    assertFalse(bitSet.get(64));
+    assertEquals(5, bitSet.cardinality());
+  }
+
+  @Test
+  public void test_if_getAndSet_returns_previous_state() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    assertFalse(bitSet.getAndSet(500));
+    assertTrue(bitSet.getAndSet(500));
+  }
+
+  @Test
+  public void test_if_checked_methods_throw_IAE_if_index_is_out_of_range() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    assertThrows(IllegalArgumentException.class, () -> bitSet.set(-1));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.set(NUM_BITS));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.get(NUM_BITS));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.clear(NUM_BITS));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.set(10, NUM_BITS + 1));
+    assertThrows(IllegalArgumentException.class, () -> bitSet.clear(10, 9));
+  }
+
+  @Test
+  public void test_if_unchecked_methods_work_like_checked_methods() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    bitSet.setUnchecked(700);
+    assertTrue(bitSet.getUnchecked(700));
+    assertTrue(bitSet.get(700));
+    bitSet.clearUnchecked(700);
+    assertFalse(bitSet.get(700));
+  }
+
+  @Test
+  public void test_if_operations_match_java_util_BitSet() {
+    Random random = new Random(42);
+    for (int round = 0; round < 200; round++) {
+      int numBits = random.nextInt(300);
+      LongBitSet actual = new LongBitSet(numBits);
+      LongBitSet other = new LongBitSet(numBits);
+      BitSet expected = new BitSet();
+      BitSet expectedOther = new BitSet();
+      fillRandom(random, numBits, actual, expected);
+      fillRandom(random, numBits, other, expectedOther);
+
+      int from = numBits == 0 ? 0 : random.nextInt(numBits);
+      int to = from + (numBits == from ? 0 : random.nextInt(numBits - from + 1));
+      if (random.nextBoolean()) {
+        actual.set(from, to);
+        expected.set(from, to);
+      } else {
+        actual.clear(from, to);
+        expected.clear(from, to);
+      }
+      assertSame(expected, actual, numBits);
+
+      switch (random.nextInt(4)) {
+        case 0:
+          actual.and(other);
+          expected.and(expectedOther);
+        break;
+        case 1:
+          actual.or(other);
+          expected.or(expectedOther);
+        break;
+        case 2:
+          actual.xor(other);
+          expected.xor(expectedOther);
+        break;
+        default:
+          actual.andNot(other);
+          expected.andNot(expectedOther);
+      }
+      assertSame(expected, actual, numBits);
+    }
+  }
+
+  @Test
+  public void test_if_and_with_shorter_set_clears_remaining_bits() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    bitSet.set(0, NUM_BITS);
+    LongBitSet shorter = new LongBitSet(100);
+    shorter.set(0, 100);
+    bitSet.and(shorter);
+    assertEquals(100, bitSet.cardinality());
+    assertEquals(99, bitSet.prevSetBit(NUM_BITS - 1));
+  }
+
+  @Test
+  public void test_if_or_throws_IAE_if_other_set_is_longer() {
+    LongBitSet bitSet = new LongBitSet(100);
+    assertThrows(IllegalArgumentException.class, () -> bitSet.or(new LongBitSet(101)));
+  }
+
+  @Test
+  public void test_if_range_set_does_not_touch_bits_outside_the_range() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    bitSet.set(64, 128);
+    assertEquals(64, bitSet.cardinality());
+    assertEquals(64, bitSet.nextSetBit(0));
+    assertEquals(127, bitSet.prevSetBit(NUM_BITS - 1));
+    assertArrayEquals(new long[] { 0L, -1L, 0L }, Arrays.copyOf(bitSet.getWords(), 3));
+  }
+
+  @Test
+  public void test_if_iterator_returns_all_set_bits_in_order() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    int[] expected = { 0, 1, 63, 64, 500, NUM_BITS - 1 };
+    for (int index : expected) {
+      bitSet.set(index);
+    }
+    PrimitiveIterator.OfInt iterator = bitSet.iterator();
+    for (int index : expected) {
+      assertTrue(iterator.hasNext());
+      assertEquals(index, iterator.nextInt());
+    }
+    assertFalse(iterator.hasNext());
+    assertThrows(NoSuchElementException.class, iterator::nextInt);
+  }
+
+  @Test
+  public void test_if_copy_equals_original_but_is_independent() {
+    LongBitSet bitSet = new LongBitSet(NUM_BITS);
+    bitSet.set(3);
+    LongBitSet copy = bitSet.copy();
+    assertEquals(bitSet, copy);
+    assertEquals(bitSet.hashCode(), copy.hashCode());
+    copy.set(4);
+    assertFalse(bitSet.get(4));
+    assertEquals("{3}", bitSet.toString());
+  }
+
+  @Test
+  public void test_if_empty_set_has_no_set_bits() {
+    LongBitSet bitSet = new LongBitSet(0);
+    assertTrue(bitSet.isEmpty());
+    assertEquals(-1, bitSet.nextSetBit(0));
+    assertEquals(-1, bitSet.prevSetBit(10));
+    assertFalse(bitSet.iterator().hasNext());
+  }
+
+  private static void fillRandom(Random random, int numBits, LongBitSet actual, BitSet expected) {
+    for (int i = 0; i < numBits / 3; i++) {
+      int index = random.nextInt(numBits);
+      actual.set(index);
+      expected.set(index);
+    }
+  }
+
+  private static void assertSame(BitSet expected, LongBitSet actual, int numBits) {
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.cardinality(), actual.cardinality());
+    assertEquals(expected.isEmpty(), actual.isEmpty());
+    for (int i = 0; i <= numBits; i++) {
+      assertEquals(expected.nextSetBit(i) >= numBits ? -1 : expected.nextSetBit(i), actual.nextSetBit(i));
+      assertEquals(expected.previousSetBit(i), actual.prevSetBit(i));
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.morrigan.dev.utils.MappedBitSet;
+
+public class MappedBitSetTest {
+
+  private static final int NUM_BITS = 100_000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void test_if_new_file_is_created_with_header_and_cleared_bits() throws IOException {
+    Path file = this.folder.getRoot().toPath().resolve("flags.bits");
+    try (MappedBitSet bitSet = MappedBitSet.open(file, NUM_BITS)) {
+      assertEquals(NUM_BITS, bitSet.length());
+      assertEquals(0, bitSet.cardinality());
+      assertFalse(bitSet.isReadOnly());
+    }
+    assertEquals(MappedBitSet.HEADER_BYTES + (NUM_BITS + 63) / 64 * 8, Files.size(file));
+  }
+
+  @Test
+  public void test_if_bits_survive_reopening() throws IOException {
+    Path file = this.folder.newFile().toPath();
+    Random random = new Random(42);
+    BitSet expected = new BitSet();
+    try (MappedBitSet bitSet = MappedBitSet.open(file, NUM_BITS)) {
+      for (int i = 0; i < 10_000; i++) {
+        int index = random.nextInt(NUM_BITS);
+        switch (random.nextInt(3)) {
+          case 0:
+            bitSet.set(index);
+            expected.set(index);
+          break;
+          case 1:
+            bitSet.clear(index);
+            expected.clear(index);
+          break;
+          case 2:
+            bitSet.flip(index);
+            expected.flip(index);
+          break;
+
+          default:
+            throw new IllegalStateException("Missing mapping for " + index);
+        }
+      }
+      bitSet.set(1_000, 5_000);
+      expected.set(1_000, 5_000);
+      bitSet.clear(70, 300);
+      expected.clear(70, 300);
+      bitSet.flush();
+    }
+
+    try (MappedBitSet bitSet = MappedBitSet.open(file, NUM_BITS)) {
+      assertSameBits(expected, bitSet);
+    }
+    try (MappedBitSet bitSet = MappedBitSet.openReadOnly(file)) {
+      assertTrue(bitSet.isReadOnly());
+      assertSameBits(expected, bitSet);
+    }
+  }
+
+  @Test
+  public void test_if_reader_sees_changes_of_writer() throws IOException {
+    Path file = this.folder.newFile().toPath();
+    try (MappedBitSet writer = MappedBitSet.open(file, NUM_BITS);
+        MappedBitSet reader = MappedBitSet.openReadOnly(file)) {
+      assertFalse(reader.get(12_345));
+      writer.set(12_345);
+      assertTrue(reader.get(12_345));
+    }
+  }
+
+  @Test
+  public void test_if_getAndSet_returns_previous_state() throws IOException {
+    try (MappedBitSet bitSet = MappedBitSet.open(this.folder.newFile().toPath(), NUM_BITS)) {
+      assertFalse(bitSet.getAndSet(64));
+      assertTrue(bitSet.getAndSet(64));
+      bitSet.clear();
+      assertEquals(-1, bitSet.nextSetBit(0));
+    }
+  }
+
+  @Test
+  public void test_if_read_only_bitset_rejects_changes() throws IOException {
+    Path file = this.folder.newFile().toPath();
+    MappedBitSet.open(file, NUM_BITS).close();
+    try (MappedBitSet bitSet = MappedBitSet.openReadOnly(file)) {
+      assertThrows(ReadOnlyBufferException.class, () -> bitSet.set(1));
+      bitSet.flush();
+    }
+  }
+
+  @Test
+  public void test_if_invalid_files_and_arguments_are_rejected() throws IOException {
+    Path file = this.folder.newFile().toPath();
+    MappedBitSet.open(file, NUM_BITS).close();
+    assertThrows(IOException.class, () -> MappedBitSet.open(file, NUM_BITS + 1));
+
+    Path invalid = this.folder.newFile().toPath();
+    Files.write(invalid, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+    assertThrows(IOException.class, () -> MappedBitSet.openReadOnly(invalid));
+    assertThrows(IOException.class, () -> MappedBitSet.openReadOnly(this.folder.newFile().toPath()));
+
+    try (MappedBitSet bitSet = MappedBitSet.open(this.folder.newFile().toPath(), NUM_BITS)) {
+      assertThrows(IllegalArgumentException.class, () -> bitSet.set(-1));
+      assertThrows(IllegalArgumentException.class, () -> bitSet.get(NUM_BITS));
+      assertThrows(IllegalArgumentException.class, () -> bitSet.set(10, NUM_BITS + 1));
+    }
+  }
+
+  @Test
+  public void test_if_closed_bitset_throws_ISE() throws IOException {
+    MappedBitSet bitSet = MappedBitSet.open(this.folder.newFile().toPath(), NUM_BITS);
+    bitSet.close();
+    bitSet.close();
+    assertThrows(IllegalStateException.class, () -> bitSet.get(1));
+    assertThrows(IllegalStateException.class, bitSet::flush);
+  }
+
+  private static void assertSameBits(BitSet expected, MappedBitSet actual) {
+    assertEquals(expected.cardinality(), actual.cardinality());
+    long index = -1;
+    for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+      index = actual.nextSetBit(index + 1);
+      assertEquals(value, index);
+    }
+    assertEquals(-1, actual.nextSetBit(index + 1));
+  }
+}
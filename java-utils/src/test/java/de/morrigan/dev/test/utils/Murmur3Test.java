@@ -0,0 +1,70 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.Murmur3;
+
+public class Murmur3Test {
+
+  @Test
+  public void test_if_hash64_matches_reference_values() {
+    assertEquals(0L, Murmur3.hash64(new byte[0]));
+    assertEquals(0xcbd8a7b341bd9b02L, Murmur3.hash64("hello".getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  @Test
+  public void test_if_primitive_keys_hash_like_their_little_endian_bytes() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      long longValue = random.nextLong();
+      int intValue = random.nextInt();
+      assertEquals(Murmur3.hash64(littleEndian(8).putLong(longValue).array()), Murmur3.hash64(longValue));
+      assertEquals(Murmur3.hash64(littleEndian(4).putInt(intValue).array()), Murmur3.hash64(intValue));
+    }
+  }
+
+  @Test
+  public void test_if_chars_hash_like_their_UTF_16LE_bytes() {
+    Random random = new Random(7);
+    for (int length = 0; length < 40; length++) {
+      StringBuilder chars = new StringBuilder();
+      for (int i = 0; i < length; i++) {
+        chars.append((char) random.nextInt(Character.MIN_SURROGATE));
+      }
+      String string = chars.toString();
+      assertEquals(Murmur3.hash64(string.getBytes(StandardCharsets.UTF_16LE)), Murmur3.hash64(chars));
+    }
+  }
+
+  @Test
+  public void test_if_byte_ranges_hash_like_copies() {
+    byte[] bytes = new byte[64];
+    new Random(3).nextBytes(bytes);
+    for (int length = 0; length < 40; length++) {
+      byte[] copy = new byte[length];
+      System.arraycopy(bytes, 5, copy, 0, length);
+      assertEquals(Murmur3.hash64(copy), Murmur3.hash64(bytes, 5, length));
+    }
+    assertThrows(IllegalArgumentException.class, () -> Murmur3.hash64(bytes, 60, 5));
+    assertThrows(IllegalArgumentException.class, () -> Murmur3.hash64(bytes, -1, 5));
+  }
+
+  @Test
+  public void test_if_fmix64_changes_all_bits() {
+    assertEquals(0L, Murmur3.fmix64(0L));
+    assertNotEquals(Murmur3.fmix64(1L), Murmur3.fmix64(2L));
+  }
+
+  private static ByteBuffer littleEndian(int size) {
+    return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,130 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.PackedIntArray;
+
+public class PackedIntArrayTest {
+
+  private static final int SIZE = 1_000;
+
+  @Test
+  public void test_if_bitsRequired_returns_width_of_max_value() {
+    assertEquals(1, PackedIntArray.bitsRequired(0));
+    assertEquals(1, PackedIntArray.bitsRequired(1));
+    assertEquals(3, PackedIntArray.bitsRequired(7));
+    assertEquals(4, PackedIntArray.bitsRequired(8));
+    assertEquals(31, PackedIntArray.bitsRequired(Integer.MAX_VALUE));
+    assertThrows(IllegalArgumentException.class, () -> PackedIntArray.bitsRequired(-1));
+  }
+
+  @Test
+  public void test_if_values_of_all_widths_survive_round_trip() {
+    Random random = new Random(42);
+    for (int bits = 1; bits <= PackedIntArray.MAX_BITS_PER_VALUE; bits++) {
+      PackedIntArray array = new PackedIntArray(SIZE, bits);
+      int[] expected = new int[SIZE];
+      for (int i = 0; i < SIZE; i++) {
+        expected[i] = random.nextInt(array.getMaxValue()) + (random.nextBoolean() ? 1 : 0);
+        array.set(i, expected[i]);
+      }
+      // Überschreiben darf die Nachbarn nicht verändern
+      for (int i = 0; i < SIZE; i += 7) {
+        expected[i] = array.getMaxValue() - expected[i];
+        array.set(i, expected[i]);
+      }
+      for (int i = 0; i < SIZE; i++) {
+        assertEquals("bits " + bits + ", index " + i, expected[i], array.get(i));
+      }
+      assertArrayEquals("bits " + bits, expected, array.toArray());
+    }
+  }
+
+  @Test
+  public void test_if_bulk_get_decodes_from_any_position() {
+    PackedIntArray array = new PackedIntArray(SIZE, 13);
+    for (int i = 0; i < SIZE; i++) {
+      array.set(i, (i * 31) & array.getMaxValue());
+    }
+    int[] buffer = new int[100];
+    for (int index : new int[] { 0, 1, 5, 64, 333, 950 }) {
+      int read = array.get(index, buffer, 3, 97);
+      assertEquals(Math.min(97, SIZE - index), read);
+      for (int i = 0; i < read; i++) {
+        assertEquals(array.get(index + i), buffer[3 + i]);
+      }
+    }
+    assertEquals(0, array.get(SIZE, buffer, 0, buffer.length));
+    assertThrows(IllegalArgumentException.class, () -> array.get(SIZE + 1, buffer, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> array.get(0, buffer, 50, 51));
+  }
+
+  @Test
+  public void test_if_invalid_indexes_and_values_throw_IAE() {
+    PackedIntArray array = new PackedIntArray(SIZE, 5);
+    assertThrows(IllegalArgumentException.class, () -> array.set(0, 32));
+    assertThrows(IllegalArgumentException.class, () -> array.set(0, -1));
+    assertThrows(IllegalArgumentException.class, () -> array.set(SIZE, 1));
+    assertThrows(IllegalArgumentException.class, () -> array.get(-1));
+    assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(SIZE, 0));
+    assertThrows(IllegalArgumentException.class, () -> new PackedIntArray(SIZE, 32));
+  }
+
+  @Test
+  public void test_if_fill_sets_range() {
+    PackedIntArray array = new PackedIntArray(SIZE, 7);
+    array.fill(10, 20, 99);
+    assertEquals(0, array.get(9));
+    assertEquals(99, array.get(10));
+    assertEquals(99, array.get(19));
+    assertEquals(0, array.get(20));
+    array.fill(0, SIZE, 0);
+    assertEquals(0, array.get(15));
+  }
+
+  @Test
+  public void test_if_copyOf_keeps_values_with_other_width_and_size() {
+    PackedIntArray array = new PackedIntArray(SIZE, 9);
+    for (int i = 0; i < SIZE; i++) {
+      array.set(i, i % 300);
+    }
+    PackedIntArray wider = array.copyOf(SIZE * 2, 17);
+    PackedIntArray shorter = array.copyOf(SIZE / 3, 9);
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(i % 300, wider.get(i));
+    }
+    assertEquals(0, wider.get(SIZE));
+    assertEquals(SIZE / 3, shorter.size());
+    assertEquals((SIZE / 3 - 1) % 300, shorter.get(SIZE / 3 - 1));
+    assertEquals(0, shorter.copyOf(SIZE, 9).get(SIZE / 3));
+    assertThrows(IllegalArgumentException.class, () -> array.copyOf(SIZE, 4));
+  }
+
+  @Test
+  public void test_if_copyOf_shrinks_large_array_to_smaller_width() {
+    PackedIntArray array = new PackedIntArray(3 * SIZE, 8);
+    for (int i = 0; i < 3 * SIZE; i++) {
+      array.set(i, i % 16);
+    }
+    // Mehr als ein Puffer voll Werte, weniger als die ursprüngliche Größe
+    PackedIntArray shorter = array.copyOf(2 * SIZE, 4);
+    assertEquals(2 * SIZE, shorter.size());
+    assertEquals(4, shorter.getBitsPerValue());
+    for (int i = 0; i < 2 * SIZE; i++) {
+      assertEquals(i % 16, shorter.get(i));
+    }
+  }
+
+  @Test
+  public void test_if_packed_values_need_less_memory_than_int_array() {
+    PackedIntArray array = new PackedIntArray(1_000_000, 12);
+    assertTrue(array.getSizeInBytes() * 2 < 4L * array.size());
+  }
+}
@@ -0,0 +1,94 @@
+package de.morrigan.dev.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.morrigan.dev.utils.LongBitSet;
+import de.morrigan.dev.utils.RankSelectBitVector;
+
+public class RankSelectBitVectorTest {
+
+  @Test
+  public void test_if_rank_and_select_match_naive_scan() {
+    Random random = new Random(42);
+    // Dichte, dünn besetzte und leere Bereiche über mehrere Superblöcke
+    for (double density : new double[] { 0.5, 0.01, 0.0005, 0.99 }) {
+      int numBits = 300_000 + random.nextInt(1_000);
+      LongBitSet bits = new LongBitSet(numBits);
+      for (int i = 0; i < numBits; i++) {
+        if (i > 70_000 && i < 140_000) {
+          continue;
+        }
+        if (random.nextDouble() < density) {
+          bits.set(i);
+        }
+      }
+      assertMatchesNaive(bits);
+    }
+  }
+
+  @Test
+  public void test_if_edge_cases_work() {
+    assertMatchesNaive(new LongBitSet(0));
+    assertMatchesNaive(new LongBitSet(1));
+    LongBitSet full = new LongBitSet(1 << 17);
+    full.set(0, full.length());
+    assertMatchesNaive(full);
+    LongBitSet last = new LongBitSet(1_000);
+    last.set(999);
+    assertMatchesNaive(last);
+  }
+
+  @Test
+  public void test_if_vector_is_independent_of_source() {
+    LongBitSet bits = new LongBitSet(100);
+    bits.set(10);
+    RankSelectBitVector vector = RankSelectBitVector.build(bits);
+    bits.set(20);
+    assertTrue(vector.get(10));
+    assertFalse(vector.get(20));
+    assertEquals(1, vector.cardinality());
+  }
+
+  @Test
+  public void test_if_invalid_arguments_throw_IAE() {
+    LongBitSet bits = new LongBitSet(100);
+    bits.set(10);
+    RankSelectBitVector vector = RankSelectBitVector.build(bits);
+    assertThrows(IllegalArgumentException.class, () -> vector.rank(-1));
+    assertThrows(IllegalArgumentException.class, () -> vector.rank(101));
+    assertThrows(IllegalArgumentException.class, () -> vector.select(1));
+    assertThrows(IllegalArgumentException.class, () -> vector.select(-1));
+    assertThrows(IllegalArgumentException.class, () -> vector.get(100));
+  }
+
+  @Test
+  public void test_if_overhead_is_small() {
+    LongBitSet bits = new LongBitSet(1 << 24);
+    bits.set(0, bits.length());
+    RankSelectBitVector vector = RankSelectBitVector.build(bits);
+    long wordBytes = bits.length() / 8;
+    assertTrue(vector.getSizeInBytes() < wordBytes * 1.1);
+  }
+
+  private static void assertMatchesNaive(LongBitSet bits) {
+    RankSelectBitVector vector = RankSelectBitVector.build(bits);
+    assertEquals(bits.length(), vector.length());
+    assertEquals(bits.cardinality(), vector.cardinality());
+    int rank = 0;
+    for (int i = 0; i < bits.length(); i++) {
+      assertEquals("rank " + i, rank, vector.rank(i));
+      if (bits.get(i)) {
+        assertEquals("select " + rank, i, vector.select(rank));
+        rank++;
+      }
+    }
+    assertEquals(rank, vector.rank(bits.length()));
+  }
+}